@@ -18,15 +18,19 @@
 
 package boofcv.io.webcamcapture;
 
+import boofcv.core.image.GConvertImage;
 import boofcv.io.image.ConvertBufferedImage;
 import boofcv.io.image.SimpleImageSequence;
 import boofcv.io.wrapper.WebcamInterface;
 import boofcv.struct.image.ImageBase;
 import boofcv.struct.image.ImageType;
+import boofcv.struct.image.InterleavedU8;
 import com.github.sarxos.webcam.Webcam;
+import com.github.sarxos.webcam.WebcamDevice;
 
 import java.awt.*;
 import java.awt.image.BufferedImage;
+import java.nio.ByteBuffer;
 
 /**
  * Wrapper around webcam capture which allows its images to be used inside the {@link SimpleImageSequence}.
@@ -62,6 +66,10 @@ public class WebcamCaptureWebcamInterface implements WebcamInterface {
 		return new SimpleSequence<>(device, width, height, imageType);
 	}
 
+	/**
+	 * If the device supports it, frames are copied directly into a buffer which is recycled. Otherwise a new
+	 * BufferedImage is returned by the webcam for every frame and converted.
+	 */
 	public static class SimpleSequence<T extends ImageBase<T>> implements SimpleImageSequence<T> {
 
 		Webcam webcam;
@@ -69,7 +77,13 @@ public class WebcamCaptureWebcamInterface implements WebcamInterface {
 
 		T output;
 		BufferedImage bufferedImage;
-		int frames = 0;
+		int frames = -1;
+
+		// Storage for frames when the device can write into a buffer. null if not supported
+		ByteBuffer buffer;
+		InterleavedU8 rgb;
+		// true if bufferedImage contains the current frame
+		boolean guiCurrent;
 
 
 		public SimpleSequence(String device, int width, int height, ImageType<T> imageType) {
@@ -84,6 +98,11 @@ public class WebcamCaptureWebcamInterface implements WebcamInterface {
 			height = d.height;
 
 			output = imageType.createImage(width,height);
+
+			if( webcam.getDevice() instanceof WebcamDevice.BufferAccess ) {
+				buffer = ByteBuffer.allocateDirect(width*height*3);
+				rgb = new InterleavedU8(width,height,3);
+			}
 		}
 
 		@Override
@@ -98,15 +117,28 @@ public class WebcamCaptureWebcamInterface implements WebcamInterface {
 
 		@Override
 		public boolean hasNext() {
+			if( buffer != null )
+				return webcam.isOpen();
 			bufferedImage = webcam.getImage();
 			return bufferedImage != null;
 		}
 
 		@Override
 		public T next() {
-			if( bufferedImage == null )
-				bufferedImage = webcam.getImage();
-			ConvertBufferedImage.convertFrom(bufferedImage, output, true);
+			frames++;
+			if( buffer != null ) {
+				// Pixels are RGB with 3 bytes each
+				buffer.clear();
+				webcam.getImageBytes(buffer);
+				buffer.rewind();
+				buffer.get(rgb.data, 0, rgb.data.length);
+				GConvertImage.convert(rgb, output);
+				guiCurrent = false;
+			} else {
+				if( bufferedImage == null )
+					bufferedImage = webcam.getImage();
+				ConvertBufferedImage.convertFrom(bufferedImage, output, true);
+			}
 			return output;
 		}
 
@@ -138,8 +170,17 @@ public class WebcamCaptureWebcamInterface implements WebcamInterface {
 			throw new RuntimeException("Not supported");
 		}
 
+		/**
+		 * Returns the current frame as a BufferedImage. If frames are read into a buffer then the same
+		 * BufferedImage is recycled.
+		 */
 		@Override
 		public BufferedImage getGuiImage() {
+			if( buffer != null && !guiCurrent ) {
+				bufferedImage = ConvertBufferedImage.checkDeclare(width,height,bufferedImage,BufferedImage.TYPE_INT_RGB);
+				ConvertBufferedImage.convertTo(rgb, bufferedImage, true);
+				guiCurrent = true;
+			}
 			return bufferedImage;
 		}
 	}
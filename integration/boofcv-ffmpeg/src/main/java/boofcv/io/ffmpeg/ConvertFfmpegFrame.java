@@ -0,0 +1,101 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.io.ffmpeg;
+
+import boofcv.struct.image.GrayU8;
+import boofcv.struct.image.InterleavedU8;
+import boofcv.struct.image.Planar;
+
+import java.nio.ByteBuffer;
+
+/**
+ * Functions for converting raw pixel buffers decoded by FFmpeg directly into BoofCV images. Rows are copied
+ * in bulk out of the (typically native) buffer, avoiding intermediate BufferedImages. The buffer's position
+ * and limit are not modified.
+ *
+ * @author Peter Abeles
+ */
+public class ConvertFfmpegFrame {
+
+	/**
+	 * Copies an 8-bit single channel image, e.g. GRAY8 or the Y plane of a YUV image, into a gray image.
+	 *
+	 * @param data Pixel data. Index 0 is the first pixel.
+	 * @param stride Number of bytes between the start of each row
+	 * @param output (Output) Image which has already been reshaped to the correct size
+	 */
+	public static void gray8ToGray( ByteBuffer data, int stride, GrayU8 output ) {
+		final int width = output.width;
+		ByteBuffer src = data.duplicate();
+		for (int y = 0; y < output.height; y++) {
+			src.position(y*stride);
+			src.get(output.data, output.startIndex + y*output.stride, width);
+		}
+	}
+
+	/**
+	 * Copies a packed 3 channel image, e.g. RGB24, into an interleaved image with the same channel order.
+	 *
+	 * @param data Pixel data. Index 0 is the first pixel.
+	 * @param stride Number of bytes between the start of each row
+	 * @param output (Output) Image with 3 bands which has already been reshaped to the correct size
+	 */
+	public static void packed3ToInterleaved( ByteBuffer data, int stride, InterleavedU8 output ) {
+		final int length = output.width*3;
+		ByteBuffer src = data.duplicate();
+		for (int y = 0; y < output.height; y++) {
+			src.position(y*stride);
+			src.get(output.data, output.startIndex + y*output.stride, length);
+		}
+	}
+
+	/**
+	 * Copies a packed 3 channel image, e.g. RGB24, into a planar image with the same channel order.
+	 *
+	 * @param data Pixel data. Index 0 is the first pixel.
+	 * @param stride Number of bytes between the start of each row
+	 * @param output (Output) Image with 3 bands which has already been reshaped to the correct size
+	 * @param work (Optional) Storage for a single row. Can be null.
+	 * @return The row storage. Pass it back in to avoid declaring new memory
+	 */
+	public static byte[] packed3ToPlanar( ByteBuffer data, int stride, Planar<GrayU8> output, byte[] work ) {
+		final int width = output.width;
+		if( work == null || work.length < width*3 )
+			work = new byte[width*3];
+
+		byte[] band0 = output.getBand(0).data;
+		byte[] band1 = output.getBand(1).data;
+		byte[] band2 = output.getBand(2).data;
+
+		ByteBuffer src = data.duplicate();
+		for (int y = 0; y < output.height; y++) {
+			src.position(y*stride);
+			src.get(work, 0, width*3);
+
+			int indexOut = output.startIndex + y*output.stride;
+			int indexIn = 0;
+			for (int x = 0; x < width; x++, indexOut++) {
+				band0[indexOut] = work[indexIn++];
+				band1[indexOut] = work[indexIn++];
+				band2[indexOut] = work[indexIn++];
+			}
+		}
+		return work;
+	}
+}
@@ -18,23 +18,33 @@
 
 package boofcv.io.ffmpeg;
 
+import boofcv.core.image.GConvertImage;
 import boofcv.io.UtilIO;
 import boofcv.io.image.ConvertBufferedImage;
 import boofcv.io.image.SimpleImageSequence;
-import boofcv.struct.image.ImageBase;
-import boofcv.struct.image.ImageType;
+import boofcv.struct.image.*;
 import org.bytedeco.copiedstuff.FFmpegFrameGrabber;
 import org.bytedeco.copiedstuff.Frame;
 import org.bytedeco.copiedstuff.FrameGrabber;
 import org.bytedeco.copiedstuff.Java2DFrameConverter;
 
 import java.awt.image.BufferedImage;
+import java.nio.ByteBuffer;
 
-import static org.bytedeco.javacpp.avutil.AV_LOG_ERROR;
-import static org.bytedeco.javacpp.avutil.av_log_set_level;
+import static org.bytedeco.javacpp.avutil.*;
 
 /**
+ * <p>
  * Uses JavaCV, which uses FFMPEG, to read in a video.
+ * </p>
+ *
+ * <p>
+ * When possible, decoded frames are copied directly from FFmpeg's pixel buffer into the output image.
+ * Gray images are read from the luma (Y) plane of planar YUV video without any color conversion. Other gray
+ * video is converted to GRAY8 by FFmpeg. Images with 3 bands are converted into RGB24 by FFmpeg and then
+ * copied. Other image types are converted using a BufferedImage. The GUI image is only created when
+ * requested.
+ * </p>
  *
  * @author Peter Abeles
  */
@@ -44,15 +54,27 @@ public class FfmpegVideoImageSequence<T extends ImageBase<T>> implements SimpleI
 	FFmpegFrameGrabber frameGrabber;
 	ImageType<T> imageType;
 
+	// Used when there is no direct conversion
 	Java2DFrameConverter converter;
 
 	boolean finished = false;
 
-	BufferedImage current;
-	BufferedImage next;
+	// Frame which will be converted when next() is called
+	Frame next;
 	T currentBoof;
 	int frameNumber;
 
+	// How decoded frames are converted into the output image
+	Mode mode;
+	// Storage for a 8-bit image when the output is of a different data type
+	ImageBase workU8;
+	// storage for a single row when converting to planar
+	byte[] workRow;
+
+	// Image for the GUI. Only updated when requested
+	BufferedImage current;
+	boolean currentUpdated;
+
 	public FfmpegVideoImageSequence(String filename, ImageType<T> imageType ) {
 		// Turn off that super annoying error message!
 		av_log_set_level(AV_LOG_ERROR);
@@ -67,12 +89,12 @@ public class FfmpegVideoImageSequence<T extends ImageBase<T>> implements SimpleI
 
 	@Override
 	public int getWidth() {
-		return next.getWidth();
+		return frameGrabber.getImageWidth();
 	}
 
 	@Override
 	public int getHeight() {
-		return next.getHeight();
+		return frameGrabber.getImageHeight();
 	}
 
 	@Override
@@ -85,19 +107,54 @@ public class FfmpegVideoImageSequence<T extends ImageBase<T>> implements SimpleI
 		if( finished)
 			return null;
 
-		current.createGraphics().drawImage(next,0,0,null);
+		// The frame's pixel buffer is reused by the grabber, so it must be converted before the next frame is read
+		convertFrame(next);
+
 		try {
-			next = converter.convert(frameGrabber.grab());
+			next = frameGrabber.grabImage();
 			frameNumber++;
+			if( next == null )
+				finished = true;
 		} catch (FrameGrabber.Exception e) {
 			finished = true;
 		}
 		if( frameNumber >= frameGrabber.getLengthInFrames() )
 			finished = true;
-		ConvertBufferedImage.convertFrom(current,currentBoof,true);
 		return currentBoof;
 	}
 
+	/**
+	 * Converts the decoded frame into the output image
+	 */
+	void convertFrame( Frame frame ) {
+		currentUpdated = false;
+		int width = frame.imageWidth;
+		int height = frame.imageHeight;
+
+		if( mode == Mode.BUFFERED ) {
+			current = converter.convert(frame);
+			currentUpdated = true;
+			currentBoof.reshape(width, height);
+			ConvertBufferedImage.convertFrom(current, currentBoof, true);
+			return;
+		}
+
+		ImageBase output = workU8 == null ? currentBoof : workU8;
+		output.reshape(width, height);
+
+		ByteBuffer data = (ByteBuffer)frame.image[0];
+		switch( imageType.getFamily() ) {
+			case GRAY -> ConvertFfmpegFrame.gray8ToGray(data, frame.imageStride, (GrayU8)output);
+			case PLANAR -> workRow = ConvertFfmpegFrame.packed3ToPlanar(data, frame.imageStride, (Planar<GrayU8>)output, workRow);
+			case INTERLEAVED -> ConvertFfmpegFrame.packed3ToInterleaved(data, frame.imageStride, (InterleavedU8)output);
+		}
+
+		if( workU8 != null ) {
+			currentBoof.reshape(width, height);
+			GConvertImage.convert(workU8, currentBoof);
+		}
+	}
+
 	@Override
 	public T getImage() {
 		return currentBoof;
@@ -105,6 +162,10 @@ public class FfmpegVideoImageSequence<T extends ImageBase<T>> implements SimpleI
 
 	@Override
 	public <InternalImage> InternalImage getGuiImage() {
+		if( !currentUpdated ) {
+			current = ConvertBufferedImage.convertTo(currentBoof, current, true);
+			currentUpdated = true;
+		}
 		return (InternalImage)current;
 	}
 
@@ -137,11 +198,26 @@ public class FfmpegVideoImageSequence<T extends ImageBase<T>> implements SimpleI
 	public void reset() {
 		filename = UtilIO.checkIfJarAndCopyToTemp(filename);
 
-		this.frameGrabber = new FFmpegFrameGrabber(filename);
+		frameNumber = 0;
+		finished = false;
+		current = null;
+		currentUpdated = false;
+		selectMode();
+
 		try {
-			frameNumber = 0;
-			finished = false;
-			frameGrabber.start();
+			if( mode == Mode.LUMA ) {
+				// Only planar YUV can be read directly. Otherwise have FFmpeg convert it to gray
+				startGrabber(FrameGrabber.ImageMode.RAW, AV_PIX_FMT_NONE);
+				if( !isPlanarYuv(frameGrabber.getPixelFormat()) ) {
+					frameGrabber.stop();
+					mode = Mode.GRAY8;
+				}
+			}
+			switch( mode ) {
+				case GRAY8 -> startGrabber(FrameGrabber.ImageMode.GRAY, AV_PIX_FMT_GRAY8);
+				case RGB24 -> startGrabber(FrameGrabber.ImageMode.COLOR, AV_PIX_FMT_RGB24);
+				case BUFFERED -> startGrabber(FrameGrabber.ImageMode.COLOR, AV_PIX_FMT_NONE);
+			}
 		} catch (FrameGrabber.Exception e) {
 //			e.printStackTrace();
 			finished = true;
@@ -149,13 +225,64 @@ public class FfmpegVideoImageSequence<T extends ImageBase<T>> implements SimpleI
 		}
 
 		try {
-			Frame frame = frameGrabber.grab();
-			next = converter.convert(frame);
-			current = new BufferedImage(next.getWidth(),next.getHeight(),next.getType());
-			currentBoof = imageType.createImage(next.getWidth(),next.getHeight());
+			next = frameGrabber.grabImage();
+			if( next == null ) {
+				finished = true;
+				return;
+			}
+			currentBoof = imageType.createImage(next.imageWidth,next.imageHeight);
 		} catch (FrameGrabber.Exception e) {
 			finished = true;
 		}
 	}
 
+	/**
+	 * Selects how frames will be converted based on the output image type
+	 */
+	void selectMode() {
+		workU8 = null;
+		int numBands = imageType.getNumBands();
+		boolean isU8 = imageType.getDataType() == ImageDataType.U8;
+
+		switch( imageType.getFamily() ) {
+			case GRAY -> mode = Mode.LUMA;
+			case PLANAR, INTERLEAVED -> mode = numBands == 3 ? Mode.RGB24 : Mode.BUFFERED;
+		}
+
+		if( mode != Mode.BUFFERED && !isU8 ) {
+			workU8 = switch( imageType.getFamily() ) {
+				case GRAY -> new GrayU8(1, 1);
+				case PLANAR -> new Planar<>(GrayU8.class, 1, 1, 3);
+				case INTERLEAVED -> new InterleavedU8(1, 1, 3);
+			};
+		}
+	}
+
+	private void startGrabber( FrameGrabber.ImageMode imageMode, int pixelFormat ) throws FrameGrabber.Exception {
+		frameGrabber = new FFmpegFrameGrabber(filename);
+		frameGrabber.setImageMode(imageMode);
+		frameGrabber.setPixelFormat(pixelFormat);
+		frameGrabber.start();
+	}
+
+	/**
+	 * Returns true if the first plane contains 8-bit luma for the entire image
+	 */
+	static boolean isPlanarYuv( int pixelFormat ) {
+		return pixelFormat == AV_PIX_FMT_YUV420P || pixelFormat == AV_PIX_FMT_YUVJ420P ||
+				pixelFormat == AV_PIX_FMT_YUV422P || pixelFormat == AV_PIX_FMT_YUVJ422P ||
+				pixelFormat == AV_PIX_FMT_YUV444P || pixelFormat == AV_PIX_FMT_YUVJ444P ||
+				pixelFormat == AV_PIX_FMT_NV12 || pixelFormat == AV_PIX_FMT_NV21;
+	}
+
+	enum Mode {
+		/** Gray image read from the Y plane without any conversion */
+		LUMA,
+		/** FFmpeg converts the image to gray */
+		GRAY8,
+		/** FFmpeg converts the image to RGB */
+		RGB24,
+		/** Converted using a BufferedImage */
+		BUFFERED
+	}
 }
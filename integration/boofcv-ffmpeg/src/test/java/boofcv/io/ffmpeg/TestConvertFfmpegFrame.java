@@ -0,0 +1,160 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.io.ffmpeg;
+
+import boofcv.struct.image.GrayU8;
+import boofcv.struct.image.ImageType;
+import boofcv.struct.image.InterleavedU8;
+import boofcv.struct.image.Planar;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Peter Abeles
+ */
+class TestConvertFfmpegFrame {
+	int width = 7;
+	int height = 5;
+	// Rows are padded, like FFmpeg does for alignment
+	int padding = 5;
+
+	@Test
+	void gray8ToGray() {
+		for( boolean direct : new boolean[]{false,true}) {
+			int stride = width + padding;
+			ByteBuffer data = createBuffer(stride, direct);
+
+			GrayU8 found = new GrayU8(width, height);
+			ConvertFfmpegFrame.gray8ToGray(data, stride, found);
+
+			for (int y = 0; y < height; y++) {
+				for (int x = 0; x < width; x++) {
+					assertEquals(value(y*stride + x), found.get(x, y));
+				}
+			}
+			assertBufferNotModified(data);
+		}
+	}
+
+	@Test
+	void gray8ToGray_subimage() {
+		int stride = width + padding;
+		ByteBuffer data = createBuffer(stride, false);
+
+		GrayU8 larger = new GrayU8(width + 4, height + 3);
+		GrayU8 found = larger.subimage(2, 1, 2 + width, 1 + height);
+		ConvertFfmpegFrame.gray8ToGray(data, stride, found);
+
+		for (int y = 0; y < height; y++) {
+			for (int x = 0; x < width; x++) {
+				assertEquals(value(y*stride + x), found.get(x, y));
+			}
+		}
+		// pixels outside the sub-image should not be touched
+		assertEquals(0, larger.get(0, 0));
+		assertEquals(0, larger.get(width + 3, height + 2));
+	}
+
+	@Test
+	void packed3ToInterleaved() {
+		for( boolean direct : new boolean[]{false,true}) {
+			int stride = width*3 + padding;
+			ByteBuffer data = createBuffer(stride, direct);
+
+			InterleavedU8 found = new InterleavedU8(width, height, 3);
+			ConvertFfmpegFrame.packed3ToInterleaved(data, stride, found);
+
+			for (int y = 0; y < height; y++) {
+				for (int x = 0; x < width; x++) {
+					for (int band = 0; band < 3; band++) {
+						assertEquals(value(y*stride + x*3 + band), found.getBand(x, y, band));
+					}
+				}
+			}
+			assertBufferNotModified(data);
+		}
+	}
+
+	@Test
+	void packed3ToPlanar() {
+		for( boolean direct : new boolean[]{false,true}) {
+			int stride = width*3 + padding;
+			ByteBuffer data = createBuffer(stride, direct);
+
+			Planar<GrayU8> found = new Planar<>(GrayU8.class, width, height, 3);
+			byte[] work = ConvertFfmpegFrame.packed3ToPlanar(data, stride, found, null);
+			assertTrue(work.length >= width*3);
+
+			checkPlanar(data, stride, found);
+			assertBufferNotModified(data);
+
+			// The work array should be recycled when it's large enough
+			found = ImageType.pl(3, GrayU8.class).createImage(width, height);
+			assertSame(work, ConvertFfmpegFrame.packed3ToPlanar(data, stride, found, work));
+			checkPlanar(data, stride, found);
+
+			// and replaced when it's too small
+			byte[] small = new byte[width*3 - 1];
+			byte[] replaced = ConvertFfmpegFrame.packed3ToPlanar(data, stride, found, small);
+			assertNotSame(small, replaced);
+			assertTrue(replaced.length >= width*3);
+			checkPlanar(data, stride, found);
+		}
+	}
+
+	private void checkPlanar( ByteBuffer data, int stride, Planar<GrayU8> found ) {
+		for (int y = 0; y < height; y++) {
+			for (int x = 0; x < width; x++) {
+				for (int band = 0; band < 3; band++) {
+					assertEquals(value(y*stride + x*3 + band), found.getBand(band).get(x, y));
+				}
+			}
+		}
+	}
+
+	/**
+	 * Creates a buffer with every byte set to a known value. The padding at the end of each row is filled in
+	 * too so that reading from it would be detected.
+	 */
+	private ByteBuffer createBuffer( int stride, boolean direct ) {
+		int length = stride*height;
+		ByteBuffer data = direct ? ByteBuffer.allocateDirect(length) : ByteBuffer.allocate(length);
+		for (int i = 0; i < length; i++) {
+			data.put(i, (byte)value(i));
+		}
+		// Move the position to make sure the conversion is relative to index 0 and not the position
+		data.position(3);
+		return data;
+	}
+
+	private void assertBufferNotModified( ByteBuffer data ) {
+		assertEquals(3, data.position());
+		assertEquals(data.capacity(), data.limit());
+	}
+
+	/**
+	 * Value of the byte at the specified index in the buffer
+	 */
+	private static int value( int index ) {
+		return (index*7 + 1) % 256;
+	}
+}
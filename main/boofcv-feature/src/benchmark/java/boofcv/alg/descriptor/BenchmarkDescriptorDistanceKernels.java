@@ -0,0 +1,145 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.descriptor;
+
+import boofcv.struct.feature.PackedTupleDesc_B;
+import boofcv.struct.feature.PackedTupleDesc_F32;
+import boofcv.struct.feature.TupleDesc_B;
+import boofcv.struct.feature.TupleDesc_F32;
+import org.ddogleg.struct.FastQueue;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares the distance functions in {@link DescriptorDistance} against the packed kernels in
+ * {@link DescriptorDistanceBatch}. Each benchmark computes the distance from one query to every candidate.
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MICROSECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+@Fork(value=1)
+public class BenchmarkDescriptorDistanceKernels {
+
+	/** Number of elements in F32 descriptors and number of bits in binary descriptors */
+	@Param({"32","64","128","256","512"})
+	int size;
+
+	int NUM_CANDIDATES = 2000;
+
+	Random rand = new Random(234234);
+
+	TupleDesc_F32 queryF32;
+	FastQueue<TupleDesc_F32> listF32;
+	PackedTupleDesc_F32 packedF32 = new PackedTupleDesc_F32();
+	float[] outputF32 = new float[NUM_CANDIDATES];
+
+	TupleDesc_B queryB;
+	long[] queryLong;
+	FastQueue<TupleDesc_B> listB;
+	FastQueue<long[]> listLong;
+	PackedTupleDesc_B packedB = new PackedTupleDesc_B();
+	int[] outputB = new int[NUM_CANDIDATES];
+
+	@Setup
+	public void setup() {
+		listF32 = new FastQueue<>(()->new TupleDesc_F32(size));
+		listB = new FastQueue<>(()->new TupleDesc_B(size));
+		int numWords = PackedTupleDesc_B.wordsFor(new TupleDesc_B(size).data.length);
+		listLong = new FastQueue<>(long[].class,()->new long[numWords]);
+
+		for (int i = 0; i < NUM_CANDIDATES; i++) {
+			TupleDesc_F32 f = listF32.grow();
+			for (int j = 0; j < size; j++) {
+				f.value[j] = rand.nextFloat();
+			}
+			TupleDesc_B b = listB.grow();
+			for (int j = 0; j < b.data.length; j++) {
+				b.data[j] = rand.nextInt();
+			}
+			PackedTupleDesc_B.pack(b,listLong.grow());
+		}
+		queryF32 = listF32.get(NUM_CANDIDATES/2).copy();
+		queryB = listB.get(NUM_CANDIDATES/2).copy();
+		queryLong = listLong.get(NUM_CANDIDATES/2).clone();
+
+		packedF32.setTo(listF32);
+		packedB.setTo(listB);
+	}
+
+	@Benchmark
+	public void euclideanSq_F32_pairs() {
+		for (int i = 0; i < NUM_CANDIDATES; i++) {
+			outputF32[i] = (float)DescriptorDistance.euclideanSq(queryF32,listF32.data[i]);
+		}
+	}
+
+	@Benchmark
+	public void euclideanSq_F32_batch() {
+		DescriptorDistanceBatch.euclideanSq(queryF32,packedF32,outputF32);
+	}
+
+	@Benchmark
+	public void sad_F32_pairs() {
+		for (int i = 0; i < NUM_CANDIDATES; i++) {
+			outputF32[i] = DescriptorDistance.sad(queryF32,listF32.data[i]);
+		}
+	}
+
+	@Benchmark
+	public void sad_F32_batch() {
+		DescriptorDistanceBatch.sad(queryF32,packedF32,outputF32);
+	}
+
+	@Benchmark
+	public void hamming_int_pairs() {
+		for (int i = 0; i < NUM_CANDIDATES; i++) {
+			outputB[i] = DescriptorDistance.hamming(queryB,listB.data[i]);
+		}
+	}
+
+	@Benchmark
+	public void hamming_long_pairs() {
+		final int numWords = queryLong.length;
+		for (int i = 0; i < NUM_CANDIDATES; i++) {
+			outputB[i] = DescriptorDistance.hamming(queryLong,listLong.data[i],numWords);
+		}
+	}
+
+	@Benchmark
+	public void hamming_batch() {
+		DescriptorDistanceBatch.hamming(queryB,packedB,outputB);
+	}
+
+	public static void main( String[] args ) throws RunnerException {
+		Options opt = new OptionsBuilder()
+				.include(BenchmarkDescriptorDistanceKernels.class.getSimpleName())
+				.build();
+
+		new Runner(opt).run();
+	}
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2017, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -20,104 +20,92 @@ package boofcv.alg.feature.describe;
 
 import boofcv.abst.feature.dense.DescribeImageDense;
 import boofcv.alg.misc.GImageMiscOps;
+import boofcv.concurrency.BoofConcurrency;
 import boofcv.factory.feature.dense.ConfigDenseHoG;
 import boofcv.factory.feature.dense.FactoryDescribeImageDense;
-import boofcv.misc.PerformerBase;
-import boofcv.misc.ProfileOperation;
 import boofcv.struct.feature.TupleDesc_F64;
 import boofcv.struct.image.GrayF32;
 import boofcv.struct.image.ImageType;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
 
 import java.util.Random;
+import java.util.concurrent.TimeUnit;
 
 /**
  * @author Peter Abeles
  */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+@Fork(value=1)
 public class BenchmarkDenseDescribe {
 
-	int width = 640;
-	int height = 480;
+	@Param({"true","false"})
+	boolean concurrent;
 
-	static final long TEST_TIME = 1000;
-	static Random rand = new Random(234234);
+	@Param({"640","1920"})
+	int width;
 
-	GrayF32 gray = new GrayF32(width, height);
+	GrayF32 gray;
 
-	public BenchmarkDenseDescribe() {
-		GImageMiscOps.fillUniform( gray , rand , 0 , 200);
-	}
-
-	public class HoGFast extends PerformerBase {
+	DescribeImageDense<GrayF32, TupleDesc_F64> hogFast;
+	DescribeImageDense<GrayF32, TupleDesc_F64> hog;
+	DescribeImageDense<GrayF32, TupleDesc_F64> surfFast;
+	DescribeImageDense<GrayF32, TupleDesc_F64> surfStable;
+	DescribeImageDense<GrayF32, TupleDesc_F64> sift;
 
-		DescribeImageDense<GrayF32, TupleDesc_F64> alg;
+	@Setup
+	public void setup() {
+		BoofConcurrency.USE_CONCURRENT = concurrent;
 
-		public HoGFast() {
-			ConfigDenseHoG config = new ConfigDenseHoG();
-			config.fastVariant = true;
-			alg = FactoryDescribeImageDense.hog(config, ImageType.single(GrayF32.class));
-		}
+		gray = new GrayF32(width, width*3/4);
+		GImageMiscOps.fillUniform( gray , new Random(234234) , 0 , 200);
 
-		@Override
-		public void process() {
-			alg.process(gray);
-		}
+		ConfigDenseHoG config = new ConfigDenseHoG();
+		config.fastVariant = true;
+		hogFast = FactoryDescribeImageDense.hog(config, ImageType.single(GrayF32.class));
+		hog = FactoryDescribeImageDense.hog(null, ImageType.single(GrayF32.class));
+		surfFast = FactoryDescribeImageDense.surfFast(null, GrayF32.class);
+		surfStable = FactoryDescribeImageDense.surfStable(null, GrayF32.class);
+		sift = FactoryDescribeImageDense.sift(null, GrayF32.class);
 	}
 
-	public class HoG extends PerformerBase {
-		DescribeImageDense<GrayF32, TupleDesc_F64> alg =
-				FactoryDescribeImageDense.hog(null, ImageType.single(GrayF32.class));
-
-		@Override
-		public void process() {
-			alg.process(gray);
-		}
+	@Benchmark
+	public void HoGFast() {
+		hogFast.process(gray);
 	}
 
-	public class SURF_FAST extends PerformerBase {
-		DescribeImageDense<GrayF32, TupleDesc_F64> alg =
-				FactoryDescribeImageDense.surfFast(null, GrayF32.class);
-
-		@Override
-		public void process() {
-			alg.process(gray);
-		}
+	@Benchmark
+	public void HoG() {
+		hog.process(gray);
 	}
 
-	public class SURF_STABLE extends PerformerBase {
-		DescribeImageDense<GrayF32, TupleDesc_F64> alg =
-				FactoryDescribeImageDense.surfStable(null, GrayF32.class);
-
-		@Override
-		public void process() {
-			alg.process(gray);
-		}
+	@Benchmark
+	public void SURF_FAST() {
+		surfFast.process(gray);
 	}
 
-	public class SIFT extends PerformerBase {
-		DescribeImageDense<GrayF32, TupleDesc_F64> alg =
-				FactoryDescribeImageDense.sift(null, GrayF32.class);
-
-		@Override
-		public void process() {
-			alg.process(gray);
-		}
+	@Benchmark
+	public void SURF_STABLE() {
+		surfStable.process(gray);
 	}
 
-
-	public void perform() {
-		System.out.println("=========  Profile Image Size " + width + " x " + height + " ========== ");
-		System.out.println();
-
-		ProfileOperation.printOpsPerSec(new HoGFast(), TEST_TIME);
-		ProfileOperation.printOpsPerSec(new HoG(), TEST_TIME);
-		ProfileOperation.printOpsPerSec(new BenchmarkDenseDescribe.SURF_FAST(), TEST_TIME);
-		ProfileOperation.printOpsPerSec(new BenchmarkDenseDescribe.SURF_STABLE(), TEST_TIME);
-		ProfileOperation.printOpsPerSec(new BenchmarkDenseDescribe.SIFT(), TEST_TIME);
+	@Benchmark
+	public void SIFT() {
+		sift.process(gray);
 	}
 
-	public static void main(String[] args) {
-		BenchmarkDenseDescribe benchmark = new BenchmarkDenseDescribe();
+	public static void main( String[] args ) throws RunnerException {
+		Options opt = new OptionsBuilder()
+				.include(BenchmarkDenseDescribe.class.getSimpleName())
+				.build();
 
-		benchmark.perform();
+		new Runner(opt).run();
 	}
 }
@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.detect.extract;
+
+import boofcv.abst.feature.detect.extract.ConfigExtract;
+import boofcv.abst.feature.detect.extract.NonMaxSuppression;
+import boofcv.abst.feature.detect.interest.ConfigFastCorner;
+import boofcv.abst.feature.detect.interest.PointDetector;
+import boofcv.alg.feature.detect.intensity.FastCornerDetector;
+import boofcv.alg.filter.blur.BlurImageOps;
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.factory.feature.detect.extract.FactoryFeatureExtractor;
+import boofcv.factory.feature.detect.intensity.FactoryIntensityPointAlg;
+import boofcv.factory.feature.detect.interest.FactoryDetectPoint;
+import boofcv.struct.QueueCorner;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.GrayU8;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares FAST followed by non-maximum suppression against FAST with non-maximum suppression fused into
+ * a single pass.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+@Fork(value=1)
+public class BenchmarkFastNonMax {
+
+	@Param({"true","false"})
+	public boolean concurrent;
+
+	@Param({"640","3000"})
+	public int width;
+
+	@Param({"2","5"})
+	public int radius;
+
+	GrayU8 image = new GrayU8(1,1);
+	GrayF32 intensity = new GrayF32(1,1);
+	QueueCorner foundLow = new QueueCorner();
+	QueueCorner foundHigh = new QueueCorner();
+
+	FastCornerDetector<GrayU8> fast;
+	NonMaxSuppression nonmax;
+	PointDetector<GrayU8> fused;
+
+	@Setup
+	public void setup() {
+		BoofConcurrency.USE_CONCURRENT = concurrent;
+
+		GrayU8 noise = new GrayU8(width,width*3/4);
+		ImageMiscOps.fillUniform(noise,new Random(234),0,255);
+		image = BlurImageOps.gaussian(noise,null,-1,1,null);
+		intensity.reshape(image.width,image.height);
+
+		ConfigFastCorner configFast = new ConfigFastCorner(15,9);
+		ConfigExtract configExtract = new ConfigExtract(radius,0.0f,0,true,false,true);
+
+		fast = FactoryIntensityPointAlg.fast(configFast.pixelTol,configFast.minContinuous,GrayU8.class);
+		fast.setMaxFeaturesFraction(1.0);
+		nonmax = FactoryFeatureExtractor.nonmaxCandidate(configExtract);
+		fused = FactoryDetectPoint.createFastNonMax(configExtract,configFast,GrayU8.class);
+	}
+
+	@Benchmark
+	public void twoPass() {
+		fast.process(image,intensity);
+		nonmax.process(intensity,fast.getCornersLow(),fast.getCornersHigh(),foundLow,foundHigh);
+	}
+
+	@Benchmark
+	public void fused() {
+		fused.process(image);
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		Options opt = new OptionsBuilder()
+				.include(BenchmarkFastNonMax.class.getSimpleName())
+				.build();
+
+		new Runner(opt).run();
+	}
+}
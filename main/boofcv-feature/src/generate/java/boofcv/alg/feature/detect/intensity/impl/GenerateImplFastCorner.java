@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -410,7 +410,8 @@ public class GenerateImplFastCorner extends CodeGeneratorBase {
 
 	private void printPreamble() {
 		out.print(
-				"\n"+
+				"import boofcv.struct.image."+imageType.getSingleBandName()+";\n" +
+						"\n"+
 						"/**\n" +
 						" * <p>\n" +
 						" * Contains logic for detecting fast corners. Pixels are sampled such that they can eliminate the most\n" +
@@ -428,6 +429,10 @@ public class GenerateImplFastCorner extends CodeGeneratorBase {
 						"\n" +
 						"\tpublic "+className+"("+sumType+" pixelTol) {\n" +
 						"\t\tsuper(pixelTol);\n" +
+						"\t}\n\n" +
+						"\t@Override\n" +
+						"\tpublic FastCornerInterface<"+imageType.getSingleBandName()+"> newInstance() {\n" +
+						"\t\treturn new "+className+"(tol);\n" +
 						"\t}\n\n");
 	}
 
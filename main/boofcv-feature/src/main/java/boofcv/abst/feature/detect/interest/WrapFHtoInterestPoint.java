@@ -19,6 +19,7 @@
 package boofcv.abst.feature.detect.interest;
 
 import boofcv.BoofDefaults;
+import boofcv.abst.filter.derivative.ImageDerivativeCache;
 import boofcv.alg.feature.detect.interest.FastHessianFeatureDetector;
 import boofcv.alg.transform.ii.GIntegralImageOps;
 import boofcv.struct.feature.ScalePoint;
@@ -60,6 +61,18 @@ public class WrapFHtoInterestPoint<T extends ImageGray<T>, II extends ImageGray<
 		location = detector.getFoundPoints();
 	}
 
+	/**
+	 * Detects features using the integral image inside the cache. If another detector has already requested
+	 * the integral image then it's not recomputed.
+	 *
+	 * @param cache Contains the image being processed
+	 */
+	public void detect( ImageDerivativeCache<T,?> cache ) {
+		detector.detect(cache.getIntegral());
+
+		location = detector.getFoundPoints();
+	}
+
 	@Override
 	public int getNumberOfFeatures() {
 		return location.size();
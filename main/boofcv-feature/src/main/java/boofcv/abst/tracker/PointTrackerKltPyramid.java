@@ -18,7 +18,9 @@
 
 package boofcv.abst.tracker;
 
+import boofcv.abst.filter.derivative.ImageDerivativeCache;
 import boofcv.abst.filter.derivative.ImageGradient;
+import boofcv.abst.filter.derivative.ImageGradient_SB;
 import boofcv.alg.feature.detect.interest.GeneralFeatureDetector;
 import boofcv.alg.interpolate.InterpolateRectangle;
 import boofcv.alg.tracker.PruneCloseTracks;
@@ -30,7 +32,10 @@ import boofcv.struct.image.ImageType;
 import boofcv.struct.pyramid.PyramidDiscrete;
 import georegression.struct.point.Point2D_F64;
 import georegression.struct.point.Point2D_I16;
+import lombok.Getter;
+import lombok.Setter;
 
+import javax.annotation.Nullable;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -61,6 +66,15 @@ public class PointTrackerKltPyramid<I extends ImageGray<I>,D extends ImageGray<D
 	protected ImageStruct prevPyr;
 	protected ImageType<D> derivType;
 
+	/**
+	 * If not null and it contains the image being processed then the pyramid and gradient are taken from
+	 * the cache instead of being computed. Its pyramid must have the same structure as the tracker's pyramid
+	 * and its gradient must produce the same results as the tracker's {@link ImageGradient}. Either it's the
+	 * same instance or both are the same stateless {@link ImageGradient_SB} operator with the same border.
+	 * Otherwise an {@link IllegalArgumentException} is thrown when the cache is used.
+	 */
+	@Getter @Setter @Nullable ImageDerivativeCache<I,D> derivativeCache;
+
 	// configuration for the KLT tracker
 	protected ConfigKlt config;
 	// size of the template/feature description
@@ -296,7 +310,7 @@ public class PointTrackerKltPyramid<I extends ImageGray<I>,D extends ImageGray<D
 		dropped.clear();
 
 		// update image pyramids
-		currPyr.update(image);
+		updatePyramid(currPyr, image);
 
 		// track features
 		tracker.setImage(currPyr.basePyramid,currPyr.derivX,currPyr.derivY);
@@ -327,7 +341,7 @@ public class PointTrackerKltPyramid<I extends ImageGray<I>,D extends ImageGray<D
 			if( activeTracks ) {
 				backwardsTrackValidate();
 			} else {
-				this.prevPyr.update(image);
+				updatePyramid(prevPyr, image);
 			}
 		}
 
@@ -337,6 +351,29 @@ public class PointTrackerKltPyramid<I extends ImageGray<I>,D extends ImageGray<D
 		}
 	}
 
+	/**
+	 * Returns true if the two gradient operators will produce identical results
+	 */
+	static boolean isSameGradient( ImageGradient<?,?> a, ImageGradient<?,?> b ) {
+		if( a == b )
+			return true;
+		// These have no state other than the border
+		return a instanceof ImageGradient_SB && a.getClass() == b.getClass() &&
+				a.getBorderType() == b.getBorderType() &&
+				a.getDerivativeType().isSameType(b.getDerivativeType());
+	}
+
+	/**
+	 * Updates the pyramid and its gradient. If possible the results are taken from the derivative cache.
+	 */
+	private void updatePyramid( ImageStruct s, I image ) {
+		if( derivativeCache != null && derivativeCache.getImage() == image ) {
+			s.update(derivativeCache);
+		} else {
+			s.update(image);
+		}
+	}
+
 	/**
 	 * Prune tracks which are too close and adds them to the dropped list
 	 */
@@ -485,11 +522,15 @@ public class PointTrackerKltPyramid<I extends ImageGray<I>,D extends ImageGray<D
 		public D[] derivX;
 		public D[] derivY;
 
+		// pyramid which is owned by this class. basePyramid might reference the cache's pyramid
+		PyramidDiscrete<I> ownedPyramid;
+
 		public ImageStruct(PyramidDiscrete<I> o ) {
-			basePyramid = o.copyStructure();
+			basePyramid = ownedPyramid = o.copyStructure();
 		}
 
 		public void update( I image ) {
+			basePyramid = ownedPyramid;
 			basePyramid.process(image);
 			if( derivX == null || derivX.length != basePyramid.layers.length ) {
 				derivX = PyramidOps.declareOutput(basePyramid, derivType);
@@ -504,6 +545,46 @@ public class PointTrackerKltPyramid<I extends ImageGray<I>,D extends ImageGray<D
 			}
 			PyramidOps.gradient(basePyramid, gradient, derivX,derivY);
 		}
+
+		/**
+		 * Uses the pyramid and gradient inside the cache. If the original reference is being saved then
+		 * the cache's images are referenced directly, otherwise they are copied since the cache will be
+		 * modified when the next frame is processed.
+		 */
+		public void update( ImageDerivativeCache<I,D> cache ) {
+			if( !isSameGradient(gradient, cache.getGradient()) )
+				throw new IllegalArgumentException("Cache's gradient is different from the tracker's gradient");
+			PyramidDiscrete<I> cachePyramid = cache.getPyramid();
+			I image = cache.getImage();
+			ownedPyramid.initialize(image.width, image.height);
+			if( cachePyramid == null || cachePyramid.getNumLayers() != ownedPyramid.getNumLayers() )
+				throw new IllegalArgumentException("Cache's pyramid doesn't have the same number of layers");
+			for( int i = 0; i < ownedPyramid.getNumLayers(); i++ ) {
+				if( cachePyramid.getScale(i) != ownedPyramid.getScale(i) )
+					throw new IllegalArgumentException("Cache's pyramid has a different scale at layer "+i);
+			}
+
+			D[] cacheX = cache.getDerivatives(ImageDerivativeCache.Term.X);
+			D[] cacheY = cache.getDerivatives(ImageDerivativeCache.Term.Y);
+
+			if( ownedPyramid.isSaveOriginalReference() ) {
+				basePyramid = cachePyramid;
+				derivX = cacheX;
+				derivY = cacheY;
+				return;
+			}
+
+			basePyramid = ownedPyramid;
+			basePyramid.setTo(cachePyramid);
+			if( derivX == null || derivX.length != basePyramid.layers.length ) {
+				derivX = PyramidOps.declareOutput(basePyramid, derivType);
+				derivY = PyramidOps.declareOutput(basePyramid, derivType);
+			}
+			for( int i = 0; i < derivX.length; i++ ) {
+				derivX[i].setTo(cacheX[i]);
+				derivY[i].setTo(cacheY[i]);
+			}
+		}
 	}
 
 }
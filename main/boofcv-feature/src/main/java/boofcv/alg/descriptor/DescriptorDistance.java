@@ -202,6 +202,24 @@ public class DescriptorDistance {
 		return score;
 	}
 
+	/**
+	 * Computes the hamming distance between two binary descriptors which have been packed into longs. See
+	 * {@link boofcv.struct.feature.PackedTupleDesc_B#pack}. There is no early exit and {@link Long#bitCount}
+	 * is replaced with a single instruction by the JIT on most platforms.
+	 *
+	 * @param a First descriptor
+	 * @param b Second descriptor
+	 * @param numWords Number of longs in each descriptor
+	 * @return The hamming distance
+	 */
+	public static int hamming( long[] a, long[] b, int numWords ) {
+		int score = 0;
+		for( int i = 0; i < numWords; i++ ) {
+			score += Long.bitCount(a[i] ^ b[i]);
+		}
+		return score;
+	}
+
 	/**
 	 * <p>Computes the hamming distance.  A bit = 0 is a match and 1 is not match<p>
 	 *
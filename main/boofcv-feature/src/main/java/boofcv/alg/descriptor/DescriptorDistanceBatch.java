@@ -0,0 +1,107 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.descriptor;
+
+import boofcv.struct.feature.PackedTupleDesc_B;
+import boofcv.struct.feature.PackedTupleDesc_F32;
+import boofcv.struct.feature.TupleDesc_B;
+import boofcv.struct.feature.TupleDesc_F32;
+
+import java.util.Arrays;
+
+/**
+ * <p>
+ * Computes the distance from a single descriptor to every descriptor in a packed set. Functions in
+ * {@link DescriptorDistance} loop over the elements of one pair at a time, which forces a reduction into a single
+ * accumulator. Here the outer loop is over elements and the inner loop is over candidates, so the inner loop
+ * is a simple element-wise operation on contiguous arrays that HotSpot's C2 compiler can auto-vectorize.
+ * </p>
+ *
+ * <p>
+ * Results are identical to calling the equivalent function in {@link DescriptorDistance} on each pair, except
+ * for floating point round off since the order of summation is different.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class DescriptorDistanceBatch {
+
+	/**
+	 * Computes the Euclidean distance squared between 'query' and every descriptor in 'candidates'
+	 *
+	 * @param query (Input) Descriptor which is compared against all the others
+	 * @param candidates (Input) Packed set of descriptors
+	 * @param output (Output) Distance to each candidate. Must be at least candidates.size long.
+	 */
+	public static void euclideanSq( TupleDesc_F32 query , PackedTupleDesc_F32 candidates , float[] output ) {
+		final int N = candidates.size;
+		final float[] data = candidates.data;
+		Arrays.fill(output,0,N,0.0f);
+
+		for( int k = 0; k < candidates.dof; k++ ) {
+			final float q = query.value[k];
+			final int offset = k*N;
+			for( int i = 0; i < N; i++ ) {
+				float d = data[offset+i] - q;
+				output[i] += d*d;
+			}
+		}
+	}
+
+	/**
+	 * Computes the sum of absolute difference (SAD) between 'query' and every descriptor in 'candidates'
+	 *
+	 * @param query (Input) Descriptor which is compared against all the others
+	 * @param candidates (Input) Packed set of descriptors
+	 * @param output (Output) Distance to each candidate. Must be at least candidates.size long.
+	 */
+	public static void sad( TupleDesc_F32 query , PackedTupleDesc_F32 candidates , float[] output ) {
+		final int N = candidates.size;
+		final float[] data = candidates.data;
+		Arrays.fill(output,0,N,0.0f);
+
+		for( int k = 0; k < candidates.dof; k++ ) {
+			final float q = query.value[k];
+			final int offset = k*N;
+			for( int i = 0; i < N; i++ ) {
+				output[i] += Math.abs(data[offset+i] - q);
+			}
+		}
+	}
+
+	/**
+	 * Computes the hamming distance between 'query' and every descriptor in 'candidates'
+	 *
+	 * @param query (Input) Descriptor which is compared against all the others
+	 * @param candidates (Input) Packed set of descriptors
+	 * @param output (Output) Distance to each candidate. Must be at least candidates.size long.
+	 */
+	public static void hamming( TupleDesc_B query , PackedTupleDesc_B candidates , int[] output ) {
+		final int N = candidates.size;
+		final long[] data = candidates.data;
+		Arrays.fill(output,0,N,0);
+
+		for( int k = 0; k < candidates.numWords; k++ ) {
+			final long q = PackedTupleDesc_B.word(query.data,k);
+			final int offset = k*N;
+			for( int i = 0; i < N; i++ ) {
+				output[i] += Long.bitCount(data[offset+i] ^ q);
+			}
+		}
+	}
+}
@@ -0,0 +1,354 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.associate;
+
+import boofcv.abst.feature.associate.ScoreAssociation;
+import boofcv.struct.feature.AssociatedIndex;
+import boofcv.struct.feature.MatchScoreType;
+import georegression.struct.point.Point2D_F64;
+import lombok.Getter;
+import org.ddogleg.struct.FastAccess;
+import org.ddogleg.struct.FastQueue;
+import org.ddogleg.struct.GrowQueue_F64;
+import org.ddogleg.struct.GrowQueue_I32;
+
+/**
+ * <p>
+ * Associates features which are within a maximum Euclidean distance of each other in image space. Unlike
+ * {@link AssociateMaxDistanceNaive}, which computes the distance of every possible pair, the destination
+ * features are first sorted into a regular grid. The cell width is at least the maximum distance, so only
+ * the 3x3 block of cells around a source feature needs to be examined. When features are spatially local,
+ * such as in frame to frame tracking, this reduces the cost from O(N*M) to about O(N+M).
+ * </p>
+ *
+ * <p>
+ * The results are identical to {@link AssociateMaxDistanceNaive}. When two candidates have the same score
+ * the one with the lower index is selected.
+ * </p>
+ *
+ * @param <D> Feature description type.
+ *
+ * @author Peter Abeles
+ */
+public class AssociateMaxDistanceGrid<D> implements AssociateMaxDistance<D> {
+	/** computes association score */
+	@Getter final ScoreAssociation<D> scoreAssociation;
+
+	// maximum allowed distance in pixels between two features
+	protected double maxDistance = Double.MAX_VALUE;
+
+	// the largest allowed error
+	protected double maxError;
+
+	/** if true backwardsValidation is done */
+	@Getter final boolean backwardsValidation;
+
+	// input lists
+	protected FastAccess<Point2D_F64> locationSrc;
+	protected FastAccess<D> descSrc;
+	protected FastAccess<Point2D_F64> locationDst;
+	protected FastAccess<D> descDst;
+
+	// spatial index of each feature set
+	protected final Grid gridSrc = new Grid();
+	protected final Grid gridDst = new Grid();
+
+	// index of the best match in dst for each src. -1 if no match
+	protected final GrowQueue_I32 pairs = new GrowQueue_I32();
+	// score of the best match
+	protected final GrowQueue_F64 fitQuality = new GrowQueue_F64();
+
+	// list of source features not associated
+	private final GrowQueue_I32 unassociatedSrc = new GrowQueue_I32();
+
+	// list of features that have been matched with each other
+	private final FastQueue<AssociatedIndex> matched = new FastQueue<>(10, AssociatedIndex::new);
+
+	// creates a list of unassociated features from the list of matches
+	private final FindUnassociated unassociated = new FindUnassociated();
+
+	/**
+	 * Specifies score mechanism
+	 *
+	 * @param scoreAssociation How features are scored.
+	 * @param backwardsValidation Require that matches are mutual in forward/backwards directions
+	 * @param maxError Maximum allowed association error
+	 */
+	public AssociateMaxDistanceGrid( ScoreAssociation<D> scoreAssociation ,
+									 boolean backwardsValidation ,
+									 double maxError )
+	{
+		this.scoreAssociation = scoreAssociation;
+		this.backwardsValidation = backwardsValidation;
+		this.maxError = maxError;
+	}
+
+	@Override
+	public double getMaxDistance() {
+		return maxDistance;
+	}
+
+	@Override
+	public void setMaxDistance(double maxDistance) {
+		this.maxDistance = maxDistance;
+	}
+
+	@Override
+	public void setSource(FastAccess<Point2D_F64> location, FastAccess<D> descriptions) {
+		if( location.size() != descriptions.size() )
+			throw new IllegalArgumentException("The two lists must be the same size");
+
+		this.locationSrc = location;
+		this.descSrc = descriptions;
+	}
+
+	@Override
+	public void setDestination(FastAccess<Point2D_F64> location, FastAccess<D> descriptions) {
+		if( location.size() != descriptions.size() )
+			throw new IllegalArgumentException("The two lists must be the same size");
+
+		this.locationDst = location;
+		this.descDst = descriptions;
+	}
+
+	@Override
+	public void associate() {
+		unassociatedSrc.reset();
+		matched.reset();
+
+		gridDst.process(locationDst,maxDistance);
+		if( backwardsValidation )
+			gridSrc.process(locationSrc,maxDistance);
+
+		pairs.resize(locationSrc.size());
+		fitQuality.resize(locationSrc.size());
+
+		findBestMatches();
+
+		for( int i = 0; i < locationSrc.size(); i++ ) {
+			int bestIndex = pairs.data[i];
+			if( bestIndex == -1 ) {
+				unassociatedSrc.add(i);
+				continue;
+			}
+
+			AssociatedIndex m = matched.grow();
+			m.src = i;
+			m.dst = bestIndex;
+			m.fitScore = fitQuality.data[i];
+		}
+	}
+
+	/**
+	 * Finds the best match for every source feature and saves the results in {@link #pairs} and
+	 * {@link #fitQuality}.
+	 */
+	protected void findBestMatches() {
+		for( int i = 0; i < locationSrc.size(); i++ ) {
+			findBestMatch(i);
+		}
+	}
+
+	/**
+	 * Finds the best match for a single source feature. Only reads shared data and writes to element 'indexSrc'
+	 * in the output arrays, so it can be called concurrently.
+	 */
+	protected void findBestMatch( int indexSrc ) {
+		D d_s = descSrc.get(indexSrc);
+
+		int bestIndex = findBest(gridDst,locationSrc.get(indexSrc),d_s,locationDst,descDst);
+
+		if( bestIndex != -1 && backwardsValidation ) {
+			if( findBest(gridSrc,locationDst.get(bestIndex),descDst.get(bestIndex),locationSrc,descSrc) != indexSrc )
+				bestIndex = -1;
+		}
+
+		pairs.data[indexSrc] = bestIndex;
+		// recomputing the score is cheaper than passing it around in a thread safe way
+		fitQuality.data[indexSrc] = bestIndex == -1 ? Double.MAX_VALUE :
+				scoreAssociation.score(d_s,descDst.get(bestIndex));
+	}
+
+	/**
+	 * Searches the cells around the target for the feature with the best score
+	 *
+	 * @param grid Spatial index of the candidates
+	 * @param target Location of the feature being matched
+	 * @param desc Description of the feature being matched
+	 * @return Index of the best candidate or -1 if none are within the distance and error limits
+	 */
+	protected int findBest( Grid grid , Point2D_F64 target , D desc ,
+							FastAccess<Point2D_F64> locations , FastAccess<D> descriptions ) {
+		final double maxDistanceSq = maxDistance*maxDistance;
+
+		int col = grid.cellX(target.x);
+		int row = grid.cellY(target.y);
+		int col0 = Math.max(0,col-1), col1 = Math.min(grid.cols-1,col+1);
+		int row0 = Math.max(0,row-1), row1 = Math.min(grid.rows-1,row+1);
+
+		double bestScore = maxError;
+		int bestIndex = -1;
+
+		for( int y = row0; y <= row1; y++ ) {
+			for( int x = col0; x <= col1; x++ ) {
+				int cell = y*grid.cols + x;
+				int end = grid.cellStart.data[cell+1];
+				for( int k = grid.cellStart.data[cell]; k < end; k++ ) {
+					int j = grid.sorted.data[k];
+
+					if( target.distance2(locations.get(j)) > maxDistanceSq )
+						continue;
+
+					double score = scoreAssociation.score(desc,descriptions.get(j));
+					// Cells are not visited in index order. Break ties by index so the results match a brute force search
+					if( score < bestScore || (score == bestScore && bestIndex != -1 && j < bestIndex) ) {
+						bestScore = score;
+						bestIndex = j;
+					}
+				}
+			}
+		}
+
+		return bestIndex;
+	}
+
+	@Override
+	public FastQueue<AssociatedIndex> getMatches() {
+		return matched;
+	}
+
+	@Override
+	public GrowQueue_I32 getUnassociatedSource() {
+		return unassociatedSrc;
+	}
+
+	@Override
+	public GrowQueue_I32 getUnassociatedDestination() {
+		return unassociated.checkDestination(matched,locationDst.size());
+	}
+
+	@Override
+	public void setMaxScoreThreshold(double score) {
+		maxError = score;
+	}
+
+	@Override
+	public MatchScoreType getScoreType() {
+		return scoreAssociation.getScoreType();
+	}
+
+	@Override
+	public boolean uniqueSource() {
+		return true;
+	}
+
+	@Override
+	public boolean uniqueDestination() {
+		return false;
+	}
+
+	/**
+	 * Regular grid which contains the index of each point inside the cell it falls within. Points are sorted
+	 * by cell using a counting sort so that there's no per-cell memory allocation.
+	 */
+	protected static class Grid {
+		// approximate number of points in each cell when the max distance is very small
+		public static final int TARGET_PER_CELL = 2;
+
+		// shape of the grid and the location of the (0,0) cell's corner
+		public int cols, rows;
+		public double x0, y0, cellWidth;
+
+		// cellStart[i] is the first element in sorted which belongs to cell 'i'. Has a length of cells+1
+		public final GrowQueue_I32 cellStart = new GrowQueue_I32();
+		// index of points sorted by cell
+		public final GrowQueue_I32 sorted = new GrowQueue_I32();
+		// which cell each point belongs in
+		final GrowQueue_I32 pointCell = new GrowQueue_I32();
+
+		/**
+		 * Creates the grid from the list of points
+		 *
+		 * @param points Points which are to be added
+		 * @param minWidth Minimum width of a cell
+		 */
+		public void process( FastAccess<Point2D_F64> points , double minWidth ) {
+			final int N = points.size();
+
+			double x1, y1;
+			if( N == 0 ) {
+				x0 = y0 = x1 = y1 = 0;
+			} else {
+				x0 = x1 = points.get(0).x;
+				y0 = y1 = points.get(0).y;
+				for( int i = 1; i < N; i++ ) {
+					Point2D_F64 p = points.get(i);
+					if( p.x < x0 ) x0 = p.x; else if( p.x > x1 ) x1 = p.x;
+					if( p.y < y0 ) y0 = p.y; else if( p.y > y1 ) y1 = p.y;
+				}
+			}
+
+			// Cells must be at least the search radius in width so that only the neighboring cells need to
+			// be searched. Don't let the number of cells grow much larger than the number of points.
+			int maxCellsSide = Math.max(1,(int)Math.sqrt(N/(double)TARGET_PER_CELL));
+			cellWidth = Math.max(minWidth,Math.max(x1-x0,y1-y0)/maxCellsSide);
+			if( !(cellWidth > 0) || Double.isInfinite(cellWidth) ) {
+				cols = rows = 1;
+				cellWidth = Double.MAX_VALUE;
+			} else {
+				cols = (int)((x1-x0)/cellWidth)+1;
+				rows = (int)((y1-y0)/cellWidth)+1;
+			}
+
+			// count the number of points in each cell
+			cellStart.resize(cols*rows+1);
+			cellStart.fill(0);
+			pointCell.resize(N);
+			for( int i = 0; i < N; i++ ) {
+				Point2D_F64 p = points.get(i);
+				int cell = Math.min(rows-1,cellY(p.y))*cols + Math.min(cols-1,cellX(p.x));
+				pointCell.data[i] = cell;
+				cellStart.data[cell+1]++;
+			}
+			for( int i = 1; i < cellStart.size; i++ ) {
+				cellStart.data[i] += cellStart.data[i-1];
+			}
+
+			// Add points in increasing order. cellStart is shifted while adding then restored afterwards
+			sorted.resize(N);
+			for( int i = 0; i < N; i++ ) {
+				sorted.data[cellStart.data[pointCell.data[i]]++] = i;
+			}
+			for( int i = cellStart.size-1; i > 0; i-- ) {
+				cellStart.data[i] = cellStart.data[i-1];
+			}
+			cellStart.data[0] = 0;
+		}
+
+		/** Column of the cell which contains the x-coordinate. Can be outside the grid. */
+		public int cellX( double x ) {
+			return (int)Math.floor((x-x0)/cellWidth);
+		}
+
+		/** Row of the cell which contains the y-coordinate. Can be outside the grid. */
+		public int cellY( double y ) {
+			return (int)Math.floor((y-y0)/cellWidth);
+		}
+	}
+}
@@ -0,0 +1,51 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.associate;
+
+import boofcv.abst.feature.associate.ScoreAssociation;
+import boofcv.concurrency.BoofConcurrency;
+
+/**
+ * Concurrent implementation of {@link AssociateMaxDistanceGrid}. The best match for each source feature is
+ * found in parallel. Results are identical to the single threaded version.
+ *
+ * @param <D> Feature description type.
+ *
+ * @author Peter Abeles
+ */
+public class AssociateMaxDistanceGrid_MT<D> extends AssociateMaxDistanceGrid<D> {
+	/**
+	 * Specifies score mechanism
+	 *
+	 * @param scoreAssociation How features are scored.
+	 * @param backwardsValidation Require that matches are mutual in forward/backwards directions
+	 * @param maxError Maximum allowed association error
+	 */
+	public AssociateMaxDistanceGrid_MT( ScoreAssociation<D> scoreAssociation,
+										boolean backwardsValidation,
+										double maxError )
+	{
+		super(scoreAssociation, backwardsValidation, maxError);
+	}
+
+	@Override
+	protected void findBestMatches() {
+		BoofConcurrency.loopFor(0, locationSrc.size(), this::findBestMatch);
+	}
+}
@@ -89,7 +89,7 @@ public class DescribeDenseHogAlg<Input extends ImageBase<Input>> extends BaseDen
 	protected GrayF32 orientation = new GrayF32(1,1);
 	protected GrayF64 magnitude = new GrayF64(1,1); // stored as F64 instead of F32 for speed
 
-	// the active histogram being worked on
+	// the active histogram being worked on. Only used by functions which don't take the histogram as an argument
 	double histogram[];
 
 	// spatial weights applied to each in a block
@@ -176,19 +176,26 @@ public class DescribeDenseHogAlg<Input extends ImageBase<Input>> extends BaseDen
 	/**
 	 * Computes the orientation and magnitude of each pixel
 	 */
-	private void computePixelFeatures() {
+	void computePixelFeatures() {
 		for (int y = 0; y < derivX.height; y++) {
-			int pixelIndex = y*derivX.width;
-			int endIndex = pixelIndex+derivX.width;
-			for (; pixelIndex < endIndex; pixelIndex++ ) {
-				float dx = derivX.data[pixelIndex];
-				float dy = derivY.data[pixelIndex];
+			computePixelFeatures(y);
+		}
+	}
 
-				// angle from 0 to pi radians
-				orientation.data[pixelIndex] = UtilAngle.atanSafe(dy,dx) + GrlConstants.F_PId2;
-				// gradient magnitude
-				magnitude.data[pixelIndex] = Math.sqrt(dx*dx + dy*dy);
-			}
+	/**
+	 * Computes the orientation and magnitude of each pixel in a single row
+	 */
+	void computePixelFeatures( int y ) {
+		int pixelIndex = y*derivX.width;
+		int endIndex = pixelIndex+derivX.width;
+		for (; pixelIndex < endIndex; pixelIndex++ ) {
+			float dx = derivX.data[pixelIndex];
+			float dy = derivY.data[pixelIndex];
+
+			// angle from 0 to pi radians
+			orientation.data[pixelIndex] = UtilAngle.atanSafe(dy,dx) + GrlConstants.F_PId2;
+			// gradient magnitude
+			magnitude.data[pixelIndex] = Math.sqrt(dx*dx + dy*dy);
 		}
 	}
 
@@ -208,23 +215,33 @@ public class DescribeDenseHogAlg<Input extends ImageBase<Input>> extends BaseDen
 
 		for (int y = 0; y < maxY; y += stepBlockPixelsY ) {
 			for (int x = 0; x < maxX; x += stepBlockPixelsX ) {
-				TupleDesc_F64 d = descriptions.grow();
-				Arrays.fill(d.value,0);
-				histogram = d.value;
+				computeBlockDescriptor(x, y, descriptions.grow());
+				locations.grow().set(x,y);
+			}
+		}
+	}
 
-				for (int cellRow = 0; cellRow < cellsPerBlockY; cellRow++) {
-					int blockPixelRow = cellRow* pixelsPerCell;
-					for (int cellCol = 0; cellCol < cellsPerBlockX; cellCol++) {
-						int blockPixelCol = cellCol* pixelsPerCell;
+	/**
+	 * Computes the descriptor for the block with the specified lower extent. The descriptor is used as the
+	 * histogram's storage, so this can be called concurrently for different blocks.
+	 *
+	 * @param x block's lower extent x-axis in the image
+	 * @param y block's lower extent y-axis in the image
+	 * @param d (Output) storage for the descriptor
+	 */
+	void computeBlockDescriptor( int x , int y , TupleDesc_F64 d ) {
+		Arrays.fill(d.value,0);
 
-						computeCellHistogram(x+blockPixelCol, y+blockPixelRow, cellCol, cellRow);
-					}
-				}
+		for (int cellRow = 0; cellRow < cellsPerBlockY; cellRow++) {
+			int blockPixelRow = cellRow* pixelsPerCell;
+			for (int cellCol = 0; cellCol < cellsPerBlockX; cellCol++) {
+				int blockPixelCol = cellCol* pixelsPerCell;
 
-				DescribeSiftCommon.normalizeDescriptor(d,0.2);
-				locations.grow().set(x,y);
+				computeCellHistogram(x+blockPixelCol, y+blockPixelRow, cellCol, cellRow, d.value);
 			}
 		}
+
+		DescribeSiftCommon.normalizeDescriptor(d,0.2);
 	}
 
 	/**
@@ -236,6 +253,19 @@ public class DescribeDenseHogAlg<Input extends ImageBase<Input>> extends BaseDen
 	 */
 	void computeCellHistogram(int pixelX0 , int pixelY0 ,
 							  int cellX , int cellY ) {
+		computeCellHistogram(pixelX0, pixelY0, cellX, cellY, histogram);
+	}
+
+	/**
+	 * Computes the histogram for the block with the specified lower extent
+	 * @param pixelX0 cell's lower extent x-axis in the image
+	 * @param pixelY0 cell's lower extent y-axis in the image
+	 * @param cellX Location of the cell in the block x-axis
+	 * @param cellY Location of the cell in the block y-axis
+	 * @param histogram (Output) The block's histogram
+	 */
+	void computeCellHistogram(int pixelX0 , int pixelY0 ,
+							  int cellX , int cellY , double[] histogram ) {
 
 		float angleBinSize = GrlConstants.F_PI/orientationBins;
 
@@ -289,32 +319,32 @@ public class DescribeDenseHogAlg<Input extends ImageBase<Input>> extends BaseDen
 
 				// spatial bilinear interpolation + orientation linear interpolation
 				// + gaussian weighting (previously applied)
-				addToHistogram( cellX-1, cellY-1 , index0, (1.0-oriWeight1)*magnitude*spatialWeightX0*spatialWeightY0);
-				addToHistogram( cellX-1, cellY-1 , index1, oriWeight1*magnitude*spatialWeightX0*spatialWeightY0);
+				addToHistogram( cellX-1, cellY-1 , index0, (1.0-oriWeight1)*magnitude*spatialWeightX0*spatialWeightY0, histogram);
+				addToHistogram( cellX-1, cellY-1 , index1, oriWeight1*magnitude*spatialWeightX0*spatialWeightY0, histogram);
 
-				addToHistogram( cellX, cellY-1 , index0, (1.0-oriWeight1)*magnitude*spatialWeightX1*spatialWeightY0);
-				addToHistogram( cellX, cellY-1 , index1, oriWeight1*magnitude*spatialWeightX1*spatialWeightY0);
+				addToHistogram( cellX, cellY-1 , index0, (1.0-oriWeight1)*magnitude*spatialWeightX1*spatialWeightY0, histogram);
+				addToHistogram( cellX, cellY-1 , index1, oriWeight1*magnitude*spatialWeightX1*spatialWeightY0, histogram);
 
-				addToHistogram( cellX+1, cellY-1 , index0, (1.0-oriWeight1)*magnitude*spatialWeightX2*spatialWeightY0);
-				addToHistogram( cellX+1, cellY-1 , index1, oriWeight1*magnitude*spatialWeightX2*spatialWeightY0);
+				addToHistogram( cellX+1, cellY-1 , index0, (1.0-oriWeight1)*magnitude*spatialWeightX2*spatialWeightY0, histogram);
+				addToHistogram( cellX+1, cellY-1 , index1, oriWeight1*magnitude*spatialWeightX2*spatialWeightY0, histogram);
 
-				addToHistogram( cellX-1, cellY , index0, (1.0-oriWeight1)*magnitude*spatialWeightX0*spatialWeightY1);
-				addToHistogram( cellX-1, cellY , index1, oriWeight1*magnitude*spatialWeightX0*spatialWeightY1);
+				addToHistogram( cellX-1, cellY , index0, (1.0-oriWeight1)*magnitude*spatialWeightX0*spatialWeightY1, histogram);
+				addToHistogram( cellX-1, cellY , index1, oriWeight1*magnitude*spatialWeightX0*spatialWeightY1, histogram);
 
-				addToHistogram( cellX, cellY , index0, (1.0-oriWeight1)*magnitude*spatialWeightX1*spatialWeightY1);
-				addToHistogram( cellX, cellY , index1, oriWeight1*magnitude*spatialWeightX1*spatialWeightY1);
+				addToHistogram( cellX, cellY , index0, (1.0-oriWeight1)*magnitude*spatialWeightX1*spatialWeightY1, histogram);
+				addToHistogram( cellX, cellY , index1, oriWeight1*magnitude*spatialWeightX1*spatialWeightY1, histogram);
 
-				addToHistogram( cellX+1, cellY , index0, (1.0-oriWeight1)*magnitude*spatialWeightX2*spatialWeightY1);
-				addToHistogram( cellX+1, cellY , index1, oriWeight1*magnitude*spatialWeightX2*spatialWeightY1);
+				addToHistogram( cellX+1, cellY , index0, (1.0-oriWeight1)*magnitude*spatialWeightX2*spatialWeightY1, histogram);
+				addToHistogram( cellX+1, cellY , index1, oriWeight1*magnitude*spatialWeightX2*spatialWeightY1, histogram);
 
-				addToHistogram( cellX-1, cellY+1 , index0, (1.0-oriWeight1)*magnitude*spatialWeightX0*spatialWeightY2);
-				addToHistogram( cellX-1, cellY+1 , index1, oriWeight1*magnitude*spatialWeightX0*spatialWeightY2);
+				addToHistogram( cellX-1, cellY+1 , index0, (1.0-oriWeight1)*magnitude*spatialWeightX0*spatialWeightY2, histogram);
+				addToHistogram( cellX-1, cellY+1 , index1, oriWeight1*magnitude*spatialWeightX0*spatialWeightY2, histogram);
 
-				addToHistogram( cellX, cellY+1 , index0, (1.0-oriWeight1)*magnitude*spatialWeightX1*spatialWeightY2);
-				addToHistogram( cellX, cellY+1 , index1, oriWeight1*magnitude*spatialWeightX1*spatialWeightY2);
+				addToHistogram( cellX, cellY+1 , index0, (1.0-oriWeight1)*magnitude*spatialWeightX1*spatialWeightY2, histogram);
+				addToHistogram( cellX, cellY+1 , index1, oriWeight1*magnitude*spatialWeightX1*spatialWeightY2, histogram);
 
-				addToHistogram( cellX+1, cellY+1 , index0, (1.0-oriWeight1)*magnitude*spatialWeightX2*spatialWeightY2);
-				addToHistogram( cellX+1, cellY+1 , index1, oriWeight1*magnitude*spatialWeightX2*spatialWeightY2);
+				addToHistogram( cellX+1, cellY+1 , index0, (1.0-oriWeight1)*magnitude*spatialWeightX2*spatialWeightY2, histogram);
+				addToHistogram( cellX+1, cellY+1 , index1, oriWeight1*magnitude*spatialWeightX2*spatialWeightY2, histogram);
 
 			}
 		}
@@ -328,6 +358,18 @@ public class DescribeDenseHogAlg<Input extends ImageBase<Input>> extends BaseDen
 	 * @param magnitude edge magnitude
 	 */
 	void addToHistogram(int cellX, int cellY, int orientationIndex, double magnitude) {
+		addToHistogram(cellX, cellY, orientationIndex, magnitude, histogram);
+	}
+
+	/**
+	 * Adds the magnitude to the histogram at the specified cell and orientation
+	 * @param cellX cell coordinate
+	 * @param cellY cell coordinate
+	 * @param orientationIndex orientation coordinate
+	 * @param magnitude edge magnitude
+	 * @param histogram (Output) The block's histogram
+	 */
+	void addToHistogram(int cellX, int cellY, int orientationIndex, double magnitude, double[] histogram) {
 		// see if it's being applied to a valid cell in the histogram
 		if( cellX < 0 || cellX >= cellsPerBlockX)
 			return;
@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.feature.dense;
+
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.image.ImageBase;
+import boofcv.struct.image.ImageType;
+
+/**
+ * Concurrent implementation of {@link DescribeDenseHogAlg}. Rows of blocks are processed in parallel. Each
+ * block's histogram is accumulated directly inside its descriptor, which is written to its final location, so
+ * the output order is identical to the single threaded version.
+ *
+ * @author Peter Abeles
+ */
+public class DescribeDenseHogAlg_MT<Input extends ImageBase<Input>> extends DescribeDenseHogAlg<Input> {
+	/**
+	 * @see DescribeDenseHogAlg#DescribeDenseHogAlg
+	 */
+	public DescribeDenseHogAlg_MT(int orientationBins, int pixelsPerCell,
+								  int cellsPerBlockX, int cellsPerBlockY,
+								  int stepBlock,
+								  ImageType<Input> imageType) {
+		super(orientationBins, pixelsPerCell, cellsPerBlockX, cellsPerBlockY, stepBlock, imageType);
+	}
+
+	@Override
+	void computePixelFeatures() {
+		BoofConcurrency.loopFor(0, derivX.height, this::computePixelFeatures);
+	}
+
+	@Override
+	public void process() {
+		locations.reset();
+		descriptions.reset();
+
+		int stepBlockPixelsX = pixelsPerCell *stepBlock;
+		int stepBlockPixelsY = pixelsPerCell *stepBlock;
+
+		int maxY = derivX.height - pixelsPerCell * cellsPerBlockY + 1;
+		int maxX = derivX.width - pixelsPerCell * cellsPerBlockX + 1;
+
+		// number of blocks along each axis
+		int numRows = maxY <= 0 ? 0 : (maxY + stepBlockPixelsY - 1)/stepBlockPixelsY;
+		int numCols = maxX <= 0 ? 0 : (maxX + stepBlockPixelsX - 1)/stepBlockPixelsX;
+
+		descriptions.resize(numRows*numCols);
+		locations.resize(numRows*numCols);
+
+		BoofConcurrency.loopFor(0, numRows, row -> {
+			int y = row*stepBlockPixelsY;
+			for (int col = 0; col < numCols; col++) {
+				int x = col*stepBlockPixelsX;
+				int index = row*numCols + col;
+				computeBlockDescriptor(x, y, descriptions.get(index));
+				locations.get(index).set(x,y);
+			}
+		});
+	}
+}
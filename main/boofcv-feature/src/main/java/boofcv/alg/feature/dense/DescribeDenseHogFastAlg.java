@@ -151,8 +151,16 @@ public class DescribeDenseHogFastAlg<Input extends ImageBase<Input>> extends Bas
 		// set location to top-left pixel
 		locations.grow().set(col* pixelsPerCell,row* pixelsPerCell);
 
-		TupleDesc_F64 d = descriptions.grow();
+		computeDescriptor(row, col, descriptions.grow());
+	}
 
+	/**
+	 * Compute the descriptor from the specified cells.  (row,col) to (row+w,col+w)
+	 * @param row Lower extent of cell rows
+	 * @param col Lower extent of cell columns
+	 * @param d (Output) storage for the descriptor
+	 */
+	void computeDescriptor(int row, int col, TupleDesc_F64 d) {
 		int indexDesc = 0;
 		for (int i = 0; i < cellsPerBlockY; i++) {
 			for (int j = 0; j < cellsPerBlockX; j++) {
@@ -173,43 +181,50 @@ public class DescribeDenseHogFastAlg<Input extends ImageBase<Input>> extends Bas
 
 	 */
 	void computeCellHistograms() {
+		for (int row = 0; row < cellRows; row++) {
+			for (int col = 0; col < cellCols; col++) {
+				computeCellHistogram(row, col);
+			}
+		}
+	}
 
-		int width = cellCols* pixelsPerCell;
-		int height = cellRows* pixelsPerCell;
-
+	/**
+	 * Computes the histogram for a single cell using the precomputed derivative
+	 *
+	 * @param row cell's row
+	 * @param col cell's column
+	 */
+	void computeCellHistogram( int row , int col ) {
 		float angleBinSize = GrlConstants.F_PI/orientationBins;
 
-		int indexCell = 0;
-		for (int i = 0; i < height; i += pixelsPerCell) {
-			for (int j = 0; j < width; j += pixelsPerCell, indexCell++ ) {
-				Cell c = cells[indexCell];
-				c.reset();
+		int i = row*pixelsPerCell;
+		int j = col*pixelsPerCell;
 
-				for (int k = 0; k < pixelsPerCell; k++) {
-					int indexPixel = (i+k)*derivX.width+j;
+		Cell c = cells[row*cellCols + col];
+		c.reset();
 
-					for (int l = 0; l < pixelsPerCell; l++, indexPixel++ ) {
-						float pixelDX = this.derivX.data[indexPixel];
-						float pixelDY = this.derivY.data[indexPixel];
+		for (int k = 0; k < pixelsPerCell; k++) {
+			int indexPixel = (i+k)*derivX.width+j;
 
-						// angle from 0 to pi radians
-						float angle = UtilAngle.atanSafe(pixelDY,pixelDX) + GrlConstants.F_PId2;
+			for (int l = 0; l < pixelsPerCell; l++, indexPixel++ ) {
+				float pixelDX = this.derivX.data[indexPixel];
+				float pixelDY = this.derivY.data[indexPixel];
 
-						// gradient magnitude
-						float magnitude = (float)Math.sqrt(pixelDX*pixelDX + pixelDY*pixelDY);
+				// angle from 0 to pi radians
+				float angle = UtilAngle.atanSafe(pixelDY,pixelDX) + GrlConstants.F_PId2;
 
-						// Add the weighted gradient using bilinear interpolation
-						float findex0 = angle/angleBinSize;
-						int index0 = (int)findex0;
-						float weight1 = findex0-index0;
-						index0 %= orientationBins;
-						int index1 = (index0+1)%orientationBins;
+				// gradient magnitude
+				float magnitude = (float)Math.sqrt(pixelDX*pixelDX + pixelDY*pixelDY);
 
-						c.histogram[index0] += magnitude*(1.0f-weight1);
-						c.histogram[index1] += magnitude*weight1;
-					}
-				}
+				// Add the weighted gradient using bilinear interpolation
+				float findex0 = angle/angleBinSize;
+				int index0 = (int)findex0;
+				float weight1 = findex0-index0;
+				index0 %= orientationBins;
+				int index1 = (index0+1)%orientationBins;
 
+				c.histogram[index0] += magnitude*(1.0f-weight1);
+				c.histogram[index1] += magnitude*weight1;
 			}
 		}
 	}
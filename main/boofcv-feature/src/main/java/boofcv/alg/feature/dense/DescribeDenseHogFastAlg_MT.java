@@ -0,0 +1,80 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.feature.dense;
+
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.image.ImageBase;
+import boofcv.struct.image.ImageType;
+
+/**
+ * Concurrent implementation of {@link DescribeDenseHogFastAlg}. Cell histograms and then descriptors are
+ * computed in parallel by rows of cells. Each cell has its own histogram and each descriptor is written to its
+ * final location, so the output order is identical to the single threaded version.
+ *
+ * @author Peter Abeles
+ */
+public class DescribeDenseHogFastAlg_MT<Input extends ImageBase<Input>> extends DescribeDenseHogFastAlg<Input> {
+	/**
+	 * @see DescribeDenseHogFastAlg#DescribeDenseHogFastAlg
+	 */
+	public DescribeDenseHogFastAlg_MT(int orientationBins, int pixelsPerCell, int cellsPerBlockX, int cellsPerBlockY,
+									  int stepBlock,
+									  ImageType<Input> imageType) {
+		super(orientationBins, pixelsPerCell, cellsPerBlockX, cellsPerBlockY, stepBlock, imageType);
+	}
+
+	@Override
+	public void process() {
+		locations.reset();
+		descriptions.reset();
+
+		// see if the cell array needs to grow for this image.  Recycle data when growing
+		growCellArray(derivX.width, derivX.height);
+
+		computeCellHistograms();
+
+		int cellRowMax = (cellRows - (cellsPerBlockY -1));
+		int cellColMax = (cellCols - (cellsPerBlockX -1));
+
+		// number of blocks along each axis
+		int numRows = cellRowMax <= 0 ? 0 : (cellRowMax + stepBlock - 1)/stepBlock;
+		int numCols = cellColMax <= 0 ? 0 : (cellColMax + stepBlock - 1)/stepBlock;
+
+		descriptions.resize(numRows*numCols);
+		locations.resize(numRows*numCols);
+
+		BoofConcurrency.loopFor(0, numRows, blockRow -> {
+			int row = blockRow*stepBlock;
+			for (int blockCol = 0; blockCol < numCols; blockCol++) {
+				int col = blockCol*stepBlock;
+				int index = blockRow*numCols + blockCol;
+				locations.get(index).set(col* pixelsPerCell,row* pixelsPerCell);
+				computeDescriptor(row, col, descriptions.get(index));
+			}
+		});
+	}
+
+	@Override
+	void computeCellHistograms() {
+		BoofConcurrency.loopFor(0, cellRows, row -> {
+			for (int col = 0; col < cellCols; col++) {
+				computeCellHistogram(row, col);
+			}
+		});
+	}
+}
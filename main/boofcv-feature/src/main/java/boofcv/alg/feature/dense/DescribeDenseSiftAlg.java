@@ -144,17 +144,24 @@ public class DescribeDenseSiftAlg<D extends ImageGray<D>> extends DescribeSiftCo
 	 * Computes the angle of each pixel and its gradient magnitude
 	 */
 	void precomputeAngles(D image) {
-		int savecIndex = 0;
 		for (int y = 0; y < image.height; y++) {
-			int pixelIndex = y*image.stride + image.startIndex;
+			precomputeAngles(image, y);
+		}
+	}
+
+	/**
+	 * Computes the angle of each pixel and its gradient magnitude in a single row
+	 */
+	void precomputeAngles(D image, int y) {
+		int savecIndex = y*image.width;
+		int pixelIndex = y*image.stride + image.startIndex;
 
-			for (int x = 0; x < image.width; x++, pixelIndex++, savecIndex++ ) {
-				float spacialDX = imageDerivX.getF(pixelIndex);
-				float spacialDY = imageDerivY.getF(pixelIndex);
+		for (int x = 0; x < image.width; x++, pixelIndex++, savecIndex++ ) {
+			float spacialDX = imageDerivX.getF(pixelIndex);
+			float spacialDY = imageDerivY.getF(pixelIndex);
 
-				savedAngle.data[savecIndex] = UtilAngle.domain2PI(Math.atan2(spacialDY,spacialDX));
-				savedMagnitude.data[savecIndex] = (float)Math.sqrt(spacialDX*spacialDX + spacialDY*spacialDY);
-			}
+			savedAngle.data[savecIndex] = UtilAngle.domain2PI(Math.atan2(spacialDY,spacialDX));
+			savedMagnitude.data[savecIndex] = (float)Math.sqrt(spacialDX*spacialDX + spacialDY*spacialDY);
 		}
 	}
 
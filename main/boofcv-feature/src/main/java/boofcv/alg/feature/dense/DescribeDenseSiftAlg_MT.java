@@ -0,0 +1,75 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.feature.dense;
+
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.image.ImageGray;
+
+/**
+ * Concurrent implementation of {@link DescribeDenseSiftAlg}. Rows of sample points are processed in parallel.
+ * Descriptors are written directly into their final location so the output order is identical to the single
+ * threaded version.
+ *
+ * @author Peter Abeles
+ */
+@SuppressWarnings({"Duplicates"})
+public class DescribeDenseSiftAlg_MT<D extends ImageGray<D>> extends DescribeDenseSiftAlg<D> {
+	/**
+	 * @see DescribeDenseSiftAlg#DescribeDenseSiftAlg
+	 */
+	public DescribeDenseSiftAlg_MT(int widthSubregion, int widthGrid, int numHistogramBins,
+								   double weightingSigmaFraction, double maxDescriptorElementValue,
+								   double periodColumns, double periodRows, Class<D> derivType) {
+		super(widthSubregion, widthGrid, numHistogramBins, weightingSigmaFraction, maxDescriptorElementValue,
+				periodColumns, periodRows, derivType);
+	}
+
+	@Override
+	public void process() {
+		int width = widthSubregion*widthGrid;
+		int radius = width/2;
+
+		int X0 = radius,X1 = savedAngle.width-radius;
+		int Y0 = radius,Y1 = savedAngle.height-radius;
+
+		int numX = (int)((X1-X0)/periodColumns);
+		int numY = (int)((Y1-Y0)/periodRows);
+
+		descriptors.reset();
+		sampleLocations.reset();
+		descriptors.resize(numX*numY);
+		sampleLocations.resize(numX*numY);
+
+		BoofConcurrency.loopFor(0, numY, i -> {
+			int y = (Y1-Y0)*i/(numY-1) + Y0;
+
+			for (int j = 0; j < numX; j++) {
+				int x = (X1-X0)*j/(numX-1) + X0;
+
+				int index = i*numX + j;
+				computeDescriptor(x,y,descriptors.get(index));
+				sampleLocations.get(index).set(x,y);
+			}
+		});
+	}
+
+	@Override
+	void precomputeAngles(D image) {
+		BoofConcurrency.loopFor(0, image.height, y -> precomputeAngles(image, y));
+	}
+}
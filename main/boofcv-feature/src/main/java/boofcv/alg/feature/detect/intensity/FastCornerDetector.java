@@ -75,8 +75,8 @@ public class FastCornerDetector<T extends ImageGray<T>> implements FeatureIntens
 	private int stride = 0;
 
 	// list of pixels that might be corners.
-	private QueueCorner candidatesLow = new QueueCorner(10);
-	private QueueCorner candidatesHigh = new QueueCorner(10);
+	protected QueueCorner candidatesLow = new QueueCorner(10);
+	protected QueueCorner candidatesHigh = new QueueCorner(10);
 
 	// reference to the input image
 	protected T image;
@@ -124,15 +124,47 @@ public class FastCornerDetector<T extends ImageGray<T>> implements FeatureIntens
 		int maxFeatures = (int)(maxFeaturesFraction*image.width*image.height);
 		candidatesLow.reset();
 		candidatesHigh.reset();
+		setImage(image);
+		helper.setImage(image,offsets);
+
+		processRows(helper, image, intensity, radius, image.height-radius, maxFeatures, candidatesLow, candidatesHigh);
+	}
+
+	/**
+	 * Computes fast corner features
+	 */
+	public void process( T image ) {
+		int maxFeatures = (int)(maxFeaturesFraction*image.width*image.height);
+		candidatesLow.reset();
+		candidatesHigh.reset();
+		setImage(image);
+		helper.setImage(image,offsets);
+
+		processRows(helper, image, radius, image.height-radius, maxFeatures, candidatesLow, candidatesHigh);
+	}
+
+	/**
+	 * Saves a reference to the image and updates the circle's offsets if the stride has changed
+	 */
+	protected void setImage( T image ) {
 		this.image = image;
 
 		if( stride != image.stride ) {
 			stride = image.stride;
 			offsets = DiscretizedCircle.imageOffsets(radius, image.stride);
 		}
-		helper.setImage(image,offsets);
+	}
 
-		for (int y = radius; y < image.height-radius; y++) {
+	/**
+	 * Detects corners and computes their intensity inside the specified rows
+	 *
+	 * @param y0 First row. Inclusive
+	 * @param y1 Last row. Exclusive
+	 * @param maxFeatures Stops processing once this many corners have been found
+	 */
+	protected void processRows( FastCornerInterface<T> helper, T image , GrayF32 intensity , int y0, int y1,
+								int maxFeatures, QueueCorner candidatesLow, QueueCorner candidatesHigh ) {
+		for (int y = y0; y < y1; y++) {
 			int indexIntensity = intensity.startIndex + y*intensity.stride + radius;
 			int index = image.startIndex + y*image.stride + radius;
 			for (int x = radius; x < image.width-radius; x++, index++,indexIntensity++) {
@@ -156,21 +188,15 @@ public class FastCornerDetector<T extends ImageGray<T>> implements FeatureIntens
 	}
 
 	/**
-	 * Computes fast corner features
+	 * Detects corners inside the specified rows
+	 *
+	 * @param y0 First row. Inclusive
+	 * @param y1 Last row. Exclusive
+	 * @param maxFeatures Stops processing once this many corners have been found
 	 */
-	public void process( T image ) {
-		int maxFeatures = (int)(maxFeaturesFraction*image.width*image.height);
-		candidatesLow.reset();
-		candidatesHigh.reset();
-		this.image = image;
-
-		if( stride != image.stride ) {
-			stride = image.stride;
-			offsets = DiscretizedCircle.imageOffsets(radius, image.stride);
-		}
-		helper.setImage(image,offsets);
-
-		for (int y = radius; y < image.height-radius; y++) {
+	protected void processRows( FastCornerInterface<T> helper, T image , int y0, int y1,
+								int maxFeatures, QueueCorner candidatesLow, QueueCorner candidatesHigh ) {
+		for (int y = y0; y < y1; y++) {
 			int index = image.startIndex + y*image.stride + radius;
 			for (int x = radius; x < image.width-radius; x++, index++) {
 
@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.detect.intensity;
+
+import boofcv.alg.feature.detect.intensity.impl.FastCornerInterface;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.QueueCorner;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.ImageGray;
+import org.ddogleg.struct.FastQueue;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * Concurrent implementation of {@link FastCornerDetector}. The image is split into blocks of rows and each
+ * block has its own copy of the helper. The maximum number of features is enforced inside each block
+ * in proportion to the number of pixels in the block.
+ *
+ * @author Peter Abeles
+ */
+public class FastCornerDetector_MT<T extends ImageGray<T>> extends FastCornerDetector<T> {
+
+	// Storage for each block of rows
+	private final FastQueue<BlockData> blocks = new FastQueue<>(this::createBlockData);
+
+	public FastCornerDetector_MT( FastCornerInterface<T> helper ) {
+		super(helper);
+	}
+
+	@Override
+	public void process( T image, GrayF32 intensity ) {
+		candidatesLow.reset();
+		candidatesHigh.reset();
+		setImage(image);
+		if( image.height <= 2*radius )
+			return;
+
+		BoofConcurrency.loopBlocks(radius, image.height-radius, blocks, ( data, y0, y1 ) -> {
+			data.initialize(image, y0);
+			int maxFeatures = (int)(maxFeaturesFraction*image.width*(y1-y0));
+			processRows(data.helper, image, intensity, y0, y1, maxFeatures, data.low, data.high);
+		});
+
+		combineResults();
+	}
+
+	@Override
+	public void process( T image ) {
+		candidatesLow.reset();
+		candidatesHigh.reset();
+		setImage(image);
+		if( image.height <= 2*radius )
+			return;
+
+		BoofConcurrency.loopBlocks(radius, image.height-radius, blocks, ( data, y0, y1 ) -> {
+			data.initialize(image, y0);
+			int maxFeatures = (int)(maxFeaturesFraction*image.width*(y1-y0));
+			processRows(data.helper, image, y0, y1, maxFeatures, data.low, data.high);
+		});
+
+		combineResults();
+	}
+
+	/**
+	 * Combine the results in order of row so that they are the same as the single thread version
+	 */
+	private void combineResults() {
+		Arrays.sort(blocks.data, 0, blocks.size, Comparator.comparingInt(a -> a.y0));
+		for( int i = 0; i < blocks.size; i++ ) {
+			candidatesLow.appendAll(blocks.get(i).low);
+			candidatesHigh.appendAll(blocks.get(i).high);
+		}
+	}
+
+	private BlockData createBlockData() {
+		return new BlockData(helper.newInstance());
+	}
+
+	private class BlockData {
+		final FastCornerInterface<T> helper;
+		final QueueCorner low = new QueueCorner();
+		final QueueCorner high = new QueueCorner();
+		// first row in the block
+		int y0;
+
+		BlockData( FastCornerInterface<T> helper ) {
+			this.helper = helper;
+		}
+
+		void initialize( T image, int y0 ) {
+			this.y0 = y0;
+			helper.setImage(image, offsets);
+			low.reset();
+			high.reset();
+		}
+	}
+}
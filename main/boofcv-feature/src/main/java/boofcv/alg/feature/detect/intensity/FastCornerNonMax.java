@@ -0,0 +1,280 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.detect.intensity;
+
+import boofcv.alg.feature.detect.intensity.impl.FastCornerInterface;
+import boofcv.misc.DiscretizedCircle;
+import boofcv.struct.QueueCorner;
+import boofcv.struct.image.ImageGray;
+import lombok.Getter;
+import lombok.Setter;
+import org.ddogleg.struct.GrowQueue_I32;
+
+/**
+ * <p>
+ * FAST corner detector with non-maximum suppression applied in the same pass. {@link FastCornerDetector} writes
+ * the score of every pixel into an intensity image which is then scanned a second time by non-maximum suppression.
+ * Here the scores are written into a rolling buffer which only contains the 2*r+1 rows that are needed to decide
+ * if a corner is a local extremum, where r is the non-maximum suppression radius. Once all the rows around a corner
+ * have been scored it's immediately checked and the buffer row is recycled. This avoids allocating and sweeping
+ * through a full resolution intensity image.
+ * </p>
+ *
+ * <p>
+ * Results are the same as running {@link FastCornerDetector} followed by candidate non-maximum suppression with the
+ * same radius and threshold. Minimums are corners which are darker than their surroundings and maximums are
+ * corners which are brighter. There is no limit on the number of detected corners since only local extremes
+ * are saved.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class FastCornerNonMax<T extends ImageGray<T>> {
+
+	// radius of the circle being sampled
+	protected static final int radius = FastCornerDetector.radius;
+
+	/** Radius of the non-maximum suppression region */
+	@Getter @Setter protected int nonmaxRadius = 1;
+	/** Minimum magnitude of a corner's score for it to be considered */
+	@Getter @Setter protected float threshold = 0;
+	/** Pixels this close to the image border are ignored. Can't be less than the radius of the FAST circle */
+	@Getter @Setter protected int ignoreBorder = 0;
+	/** If true then a corner must be more extreme than all its neighbors, otherwise ties are allowed */
+	@Getter @Setter protected boolean strict = true;
+	/** If true then dark corners are detected */
+	@Getter @Setter protected boolean detectMinimums = true;
+	/** If true then bright corners are detected */
+	@Getter @Setter protected boolean detectMaximums = true;
+
+	// pixel index offsets for the circle
+	protected int[] offsets;
+	// the image's stride.  Used to determine if the offsets need to be recomputed
+	private int stride = 0;
+
+	/** Detected corners which are darker than their surroundings */
+	@Getter protected final QueueCorner cornersLow = new QueueCorner(10);
+	/** Detected corners which are brighter than their surroundings */
+	@Getter protected final QueueCorner cornersHigh = new QueueCorner(10);
+
+	// Used to sample the image and compute the score
+	protected FastCornerInterface<T> helper;
+
+	// workspace for single threaded processing
+	private BlockData data;
+
+	/**
+	 * Constructor
+	 *
+	 * @param helper Provide the image type specific helper.
+	 */
+	public FastCornerNonMax( FastCornerInterface<T> helper ) {
+		this.helper = helper;
+	}
+
+	/**
+	 * Detects corners which are local extremes
+	 */
+	public void process( T image ) {
+		cornersLow.reset();
+		cornersHigh.reset();
+
+		if( stride != image.stride ) {
+			stride = image.stride;
+			offsets = DiscretizedCircle.imageOffsets(radius, image.stride);
+		}
+
+		int border = Math.max(radius, ignoreBorder);
+		if( image.width <= 2*border || image.height <= 2*border )
+			return;
+
+		processRows(image, border, image.height-border);
+	}
+
+	/**
+	 * Detects corners inside the rows from y0 to y1 and saves the results
+	 */
+	protected void processRows( T image, int y0, int y1 ) {
+		if( data == null )
+			data = createBlockData();
+
+		data.helper.setImage(image, offsets);
+		processBlock(data, image, y0, y1);
+		cornersLow.appendAll(data.low);
+		cornersHigh.appendAll(data.high);
+	}
+
+	/**
+	 * Scores rows and checks for local extremes. Rows up to nonmaxRadius outside the block are also scored
+	 * so that blocks can be processed independently.
+	 *
+	 * @param d Workspace for this block
+	 * @param y0 First row corners are detected in. Inclusive.
+	 * @param y1 Last row corners are detected in. Exclusive.
+	 */
+	protected void processBlock( BlockData d, T image, int y0, int y1 ) {
+		final int r = nonmaxRadius;
+		d.declare(2*r+1, image.width);
+		d.low.reset();
+		d.high.reset();
+
+		// Only rows inside this range can contain corners. Corners inside the ignored border are still scored
+		// since they can suppress corners outside of it
+		final int rowsStart = Math.max(radius, y0-r);
+		final int rowsEnd = Math.min(image.height-radius, y1+r);
+		final int border = Math.max(radius, ignoreBorder);
+
+		for( int yr = rowsStart; yr < y1+r; yr++ ) {
+			if( yr < rowsEnd )
+				scoreRow(d, image, yr);
+
+			// all the rows around this one have now been scored
+			int yc = yr-r;
+			if( yc >= y0 )
+				checkRow(d, image.width, yc, rowsStart, rowsEnd, border);
+		}
+	}
+
+	/**
+	 * Computes the score for every pixel in the row and saves it in the row buffer. Score is negative for dark
+	 * corners, positive for bright corners, and zero if not a corner.
+	 */
+	private void scoreRow( BlockData d, T image, int y ) {
+		final FastCornerInterface<T> helper = d.helper;
+		final int slot = y % d.numRows;
+		final float[] scores = d.scores;
+		final GrowQueue_I32 found = d.rowCorners[slot];
+		found.reset();
+
+		int indexScore = slot*d.width + radius;
+		int index = image.startIndex + y*image.stride + radius;
+		for( int x = radius; x < image.width-radius; x++, index++, indexScore++ ) {
+			int result = helper.checkPixel(index);
+
+			if( result < 0 && detectMinimums ) {
+				scores[indexScore] = helper.scoreLower(index);
+				found.add(x);
+			} else if( result > 0 && detectMaximums ) {
+				scores[indexScore] = helper.scoreUpper(index);
+				found.add(x);
+			} else {
+				scores[indexScore] = 0;
+			}
+		}
+	}
+
+	/**
+	 * Saves all corners in the row which are local extremes
+	 */
+	private void checkRow( BlockData d, int width, int y, int rowsStart, int rowsEnd, int border ) {
+		final GrowQueue_I32 found = d.rowCorners[y % d.numRows];
+		final float[] scores = d.scores;
+		final int r = nonmaxRadius;
+
+		final int ry0 = Math.max(rowsStart, y-r);
+		final int ry1 = Math.min(rowsEnd, y+r+1);
+
+		for( int i = 0; i < found.size; i++ ) {
+			final int x = found.data[i];
+			if( x < border || x >= width-border )
+				continue;
+			final int center = (y % d.numRows)*width + x;
+			final float value = scores[center];
+
+			boolean positive = value > 0;
+			if( positive ? value < threshold : value > -threshold )
+				continue;
+
+			final int x0 = Math.max(0, x-r);
+			final int x1 = Math.min(width, x+r+1);
+
+			boolean extreme = true;
+			for( int yy = ry0; yy < ry1 && extreme; yy++ ) {
+				int slot = yy % d.numRows;
+				// skip rows without corners since everything is zero
+				if( d.rowCorners[slot].size == 0 )
+					continue;
+				int index = slot*width + x0;
+				for( int xx = x0; xx < x1; xx++, index++ ) {
+					if( index == center )
+						continue;
+					float v = scores[index];
+					if( positive ) {
+						if( strict ? v >= value : v > value ) { extreme = false; break; }
+					} else {
+						if( strict ? v <= value : v < value ) { extreme = false; break; }
+					}
+				}
+			}
+
+			if( extreme ) {
+				if( positive )
+					d.high.append(x, y);
+				else
+					d.low.append(x, y);
+			}
+		}
+	}
+
+	protected BlockData createBlockData() {
+		return new BlockData(helper.newInstance());
+	}
+
+	public Class<T> getImageType() {
+		return helper.getImageType();
+	}
+
+	/**
+	 * Workspace for processing a block of rows
+	 */
+	protected class BlockData {
+		// computes the corner score
+		public final FastCornerInterface<T> helper;
+		// rolling buffer which stores the corner score for each row
+		public float[] scores = new float[0];
+		// x-coordinate of corners in each row inside the buffer
+		public GrowQueue_I32[] rowCorners = new GrowQueue_I32[0];
+		public int numRows, width;
+		// first row in the block
+		public int y0;
+		// found corners
+		public final QueueCorner low = new QueueCorner();
+		public final QueueCorner high = new QueueCorner();
+
+		public BlockData( FastCornerInterface<T> helper ) {
+			this.helper = helper;
+		}
+
+		/**
+		 * Declares the row buffer. It must be filled with zeros initially since pixels along the border are
+		 * never written to.
+		 */
+		public void declare( int numRows, int width ) {
+			if( this.numRows != numRows || this.width != width ) {
+				this.numRows = numRows;
+				this.width = width;
+				scores = new float[numRows*width];
+				rowCorners = new GrowQueue_I32[numRows];
+				for( int i = 0; i < numRows; i++ ) {
+					rowCorners[i] = new GrowQueue_I32();
+				}
+			}
+		}
+	}
+}
@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.detect.intensity;
+
+import boofcv.alg.feature.detect.intensity.impl.FastCornerInterface;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.image.ImageGray;
+import org.ddogleg.struct.FastQueue;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * Concurrent implementation of {@link FastCornerNonMax}. The image is split into blocks of rows. Each block has its
+ * own row buffer and scores the rows just outside its boundary too.
+ *
+ * @author Peter Abeles
+ */
+public class FastCornerNonMax_MT<T extends ImageGray<T>> extends FastCornerNonMax<T> {
+
+	// Storage for each block of rows
+	private final FastQueue<BlockData> blocks = new FastQueue<>(this::createBlockData);
+
+	public FastCornerNonMax_MT( FastCornerInterface<T> helper ) {
+		super(helper);
+	}
+
+	@Override
+	protected void processRows( T image, int y0, int y1 ) {
+		// Each block is about 20 rows to keep the overhead from scoring rows twice low
+		BoofConcurrency.loopBlocks(y0, y1, nonmaxRadius*10, blocks, ( data, idx0, idx1 ) -> {
+			data.y0 = idx0;
+			data.helper.setImage(image, offsets);
+			processBlock(data, image, idx0, idx1);
+		});
+
+		// Combine the results in order of row so that they are the same as the single thread version
+		Arrays.sort(blocks.data, 0, blocks.size, Comparator.comparingInt(a -> a.y0));
+		for( int i = 0; i < blocks.size; i++ ) {
+			cornersLow.appendAll(blocks.get(i).low);
+			cornersHigh.appendAll(blocks.get(i).high);
+		}
+	}
+}
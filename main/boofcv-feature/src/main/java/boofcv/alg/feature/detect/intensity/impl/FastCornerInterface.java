@@ -39,4 +39,9 @@ public interface FastCornerInterface<T extends ImageGray<T>> {
 	void setThreshold( int index );
 
 	Class<T> getImageType();
+
+	/**
+	 * Creates a new instance with the same configuration. Used to create a local copy for each thread.
+	 */
+	FastCornerInterface<T> newInstance();
 }
\ No newline at end of file
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -18,6 +18,7 @@
 
 package boofcv.alg.feature.detect.intensity.impl;
 
+import boofcv.struct.image.GrayF32;
 
 /**
  * <p>
@@ -38,6 +39,11 @@ public class ImplFastCorner10_F32 extends ImplFastHelper_F32
 		super(pixelTol);
 	}
 
+	@Override
+	public FastCornerInterface<GrayF32> newInstance() {
+		return new ImplFastCorner10_F32(tol);
+	}
+
 	/**
 	 * @return 1 = positive corner, 0 = no corner, -1 = negative corner
 	 */
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -18,6 +18,7 @@
 
 package boofcv.alg.feature.detect.intensity.impl;
 
+import boofcv.struct.image.GrayU8;
 
 /**
  * <p>
@@ -38,6 +39,11 @@ public class ImplFastCorner9_U8 extends ImplFastHelper_U8
 		super(pixelTol);
 	}
 
+	@Override
+	public FastCornerInterface<GrayU8> newInstance() {
+		return new ImplFastCorner9_U8(tol);
+	}
+
 	/**
 	 * @return 1 = positive corner, 0 = no corner, -1 = negative corner
 	 */
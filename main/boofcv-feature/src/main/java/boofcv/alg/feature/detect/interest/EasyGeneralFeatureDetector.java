@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2017, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -18,6 +18,7 @@
 
 package boofcv.alg.feature.detect.interest;
 
+import boofcv.abst.filter.derivative.ImageDerivativeCache;
 import boofcv.abst.filter.derivative.ImageGradient;
 import boofcv.abst.filter.derivative.ImageHessian;
 import boofcv.alg.filter.derivative.GImageDerivativeOps;
@@ -119,6 +120,31 @@ public class EasyGeneralFeatureDetector<T extends ImageGray<T>, D extends ImageG
 		detector.process(input, derivX, derivY, derivXX, derivYY, derivXY);
 	}
 
+	/**
+	 * Detect features inside the image using derivatives from the cache. Derivatives which have already been
+	 * computed by another detector or tracker are reused. The cache's gradient and hessian operators are
+	 * used instead of the ones in this class.
+	 *
+	 * @param cache Contains the image being processed and its derivatives.
+	 * @param exclude List of points that should not be returned.
+	 */
+	public void detect( ImageDerivativeCache<T,D> cache, QueueCorner exclude ) {
+		D derivX = null, derivY = null, derivXX = null, derivYY = null, derivXY = null;
+
+		if (detector.getRequiresGradient() || detector.getRequiresHessian()) {
+			derivX = cache.getDerivative(ImageDerivativeCache.Term.X, 0);
+			derivY = cache.getDerivative(ImageDerivativeCache.Term.Y, 0);
+		}
+		if (detector.getRequiresHessian()) {
+			derivXX = cache.getDerivative(ImageDerivativeCache.Term.XX, 0);
+			derivYY = cache.getDerivative(ImageDerivativeCache.Term.YY, 0);
+			derivXY = cache.getDerivative(ImageDerivativeCache.Term.XY, 0);
+		}
+
+		detector.setExcludeMaximum(exclude);
+		detector.process(cache.getImage(), derivX, derivY, derivXX, derivYY, derivXY);
+	}
+
 	/**
 	 * Reshape derivative images to match the input image
 	 */
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -18,9 +18,10 @@
 
 package boofcv.alg.shapes.polygon;
 
+import boofcv.abst.filter.binary.InputToExternalContours;
 import boofcv.alg.filter.binary.ContourPacked;
 import boofcv.alg.shapes.edge.EdgeIntensityPolygon;
-import boofcv.misc.MovingAverage;
+import boofcv.misc.ProfileSink;
 import boofcv.struct.distort.PixelTransform;
 import boofcv.struct.image.GrayU8;
 import boofcv.struct.image.ImageGray;
@@ -64,8 +65,8 @@ public class DetectPolygonBinaryGrayRefine<T extends ImageGray<T>> {
 	// threshold for pruning after refinement
 	double minimumRefineEdgeIntensity;
 
-	// timing for profiler
-	MovingAverage milliAdjustBias = new MovingAverage(0.8);
+	// where the time of each stage is reported to
+	ProfileSink profileSink = ProfileSink.NONE;
 
 	/**
 	 * Configures the polygon detector
@@ -136,9 +137,16 @@ public class DetectPolygonBinaryGrayRefine<T extends ImageGray<T>> {
 		edgeIntensity.setTransform(null);
 	}
 
-	public void resetRuntimeProfiling() {
-		detector.resetRuntimeProfiling();
-		milliAdjustBias.reset();
+	/**
+	 * Specifies where the time taken by each stage is reported to. Also passed to the polygon detector.
+	 */
+	public void setProfileSink( ProfileSink profileSink ) {
+		this.profileSink = profileSink;
+		detector.setProfileSink(profileSink);
+	}
+
+	public ProfileSink getProfileSink() {
+		return profileSink;
 	}
 
 	/**
@@ -148,32 +156,48 @@ public class DetectPolygonBinaryGrayRefine<T extends ImageGray<T>> {
 	 */
 	public void process(T gray , GrayU8 binary ) {
 		detector.process(gray,binary);
+		processPolygons(gray);
+	}
+
+	/**
+	 * Detects polygons inside the grayscale image. The binary image and its contours are found in a single stage.
+	 *
+	 * @see DetectPolygonFromContour#process(ImageGray, InputToExternalContours)
+	 * @param gray Gray scale image
+	 * @param thresholdContours Thresholds the gray image and finds external contours
+	 */
+	public void process(T gray , InputToExternalContours<T> thresholdContours ) {
+		detector.process(gray,thresholdContours);
+		processPolygons(gray);
+	}
+
+	/**
+	 * Prepares the polygons found by the detector for refinement
+	 */
+	private void processPolygons( T gray ) {
 		if( refineGray != null )
 			refineGray.setImage(gray);
 		edgeIntensity.setImage(gray);
 
-		long time0 = System.nanoTime();
-		FastQueue<DetectPolygonFromContour.Info> detections = detector.getFound();
+		profileSink.startStage("adjust_bias");
+		try {
+			FastQueue<DetectPolygonFromContour.Info> detections = detector.getFound();
 
-		if( adjustForBias != null ) {
-			int minSides = getMinimumSides();
-			for (int i = detections.size()-1; i >= 0; i-- ) {
-				Polygon2D_F64 p = detections.get(i).polygon;
-				adjustForBias.process(p, detector.isOutputClockwise());
+			if( adjustForBias != null ) {
+				int minSides = getMinimumSides();
+				for (int i = detections.size()-1; i >= 0; i-- ) {
+					Polygon2D_F64 p = detections.get(i).polygon;
+					adjustForBias.process(p, detector.isOutputClockwise());
 
-				// When the polygon is adjusted for bias a point might need to be removed because it's
-				// almost parallel. This could cause the shape to have too few corners and needs to be removed.
-				if( p.size() < minSides)
-					detections.remove(i);
+					// When the polygon is adjusted for bias a point might need to be removed because it's
+					// almost parallel. This could cause the shape to have too few corners and needs to be removed.
+					if( p.size() < minSides)
+						detections.remove(i);
+				}
 			}
+		} finally {
+			profileSink.stopStage();
 		}
-		long time1 = System.nanoTime();
-
-		double milli = (time1-time0)*1e-6;
-
-		milliAdjustBias.update(milli);
-//		System.out.printf(" contour %7.2f shapes %7.2f adjust_bias %7.2f\n",
-//				detector.getMilliShapes(),detector.getMilliShapes(),milliAdjustBias);
 	}
 
 	/**
@@ -310,10 +334,6 @@ public class DetectPolygonBinaryGrayRefine<T extends ImageGray<T>> {
 		this.functionAdjust = functionAdjust;
 	}
 
-	public double getMilliAdjustBias() {
-		return milliAdjustBias.getAverage();
-	}
-
 	public interface AdjustBeforeRefineEdge {
 		void adjust( DetectPolygonFromContour.Info info , boolean clockwise );
 	}
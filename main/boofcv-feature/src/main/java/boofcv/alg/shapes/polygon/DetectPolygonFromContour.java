@@ -20,10 +20,11 @@ package boofcv.alg.shapes.polygon;
 
 import boofcv.abst.filter.binary.BinaryContourFinder;
 import boofcv.abst.filter.binary.BinaryContourInterface;
+import boofcv.abst.filter.binary.InputToExternalContours;
 import boofcv.abst.shapes.polyline.PointsToPolyline;
 import boofcv.alg.InputSanityCheck;
 import boofcv.alg.filter.binary.ContourPacked;
-import boofcv.misc.MovingAverage;
+import boofcv.misc.ProfileSink;
 import boofcv.struct.ConfigLength;
 import boofcv.struct.distort.PixelTransform;
 import boofcv.struct.image.GrayU8;
@@ -79,6 +80,8 @@ public class DetectPolygonFromContour<T extends ImageGray<T>> {
 
 	private BinaryContourFinder contourFinder;
 	private BinaryContourInterface.Padded contourPadded;
+	// Where the contours in the most recently processed image came from
+	private BinaryContourInterface contours;
 	int imageWidth,imageHeight; // input image shape
 
 	// finds the initial polygon around a target candidate
@@ -126,9 +129,8 @@ public class DetectPolygonFromContour<T extends ImageGray<T>> {
 	private FastQueue<Point2D_I32> contourTmp = new FastQueue<>(Point2D_I32::new);
 	List<Point2D_I32> polygonPixel = new ArrayList<>();
 
-	// times for internal profiling
-	MovingAverage milliContour = new MovingAverage(0.8);
-	MovingAverage milliShapes = new MovingAverage(0.8);
+	// where the time of each stage is reported to
+	ProfileSink profileSink = ProfileSink.NONE;
 
 	/**
 	 * Configures the detector.
@@ -154,6 +156,7 @@ public class DetectPolygonFromContour<T extends ImageGray<T>> {
 		this.canTouchBorder = touchBorder;
 		this.contourEdgeThreshold = contourEdgeThreshold;
 		this.contourFinder = contourFinder;
+		this.contours = contourFinder;
 		this.inputType = inputType;
 
 		if( contourFinder instanceof BinaryContourInterface.Padded) {
@@ -191,11 +194,6 @@ public class DetectPolygonFromContour<T extends ImageGray<T>> {
 		this.undistToDist = undistToDist;
 	}
 
-	public void resetRuntimeProfiling() {
-		milliContour.reset();
-		milliShapes.reset();
-	}
-
 	/**
 	 * Discard previously set lens distortion models
 	 */
@@ -221,6 +219,61 @@ public class DetectPolygonFromContour<T extends ImageGray<T>> {
 		} else {
 			InputSanityCheck.checkSameShape(binary, gray);
 		}
+		initializeForImage(gray);
+
+		// find all the contours
+		profileSink.startStage("contour");
+		try {
+			contourFinder.process(binary);
+		} finally {
+			profileSink.stopStage();
+		}
+		contours = contourFinder;
+
+		findPolygons();
+
+		if( verbose ) System.out.println("EXIT  DetectPolygonFromContour.process()");
+	}
+
+	/**
+	 * Examines the undistorted gray scale input image for squares. Thresholding and contour finding are done
+	 * in a single stage by {@link InputToExternalContours}, which is configured with the same contour settings
+	 * as {@link #getContourFinder()}. Only valid if the contour finder doesn't save internal contours. The binary
+	 * image can be found in {@link InputToExternalContours#getBinary()} afterwards.
+	 *
+	 * @param gray Input image
+	 * @param thresholdContours Thresholds the input image and finds external contours
+	 */
+	public void process(T gray, InputToExternalContours<T> thresholdContours ) {
+		if( verbose ) System.out.println("ENTER  DetectPolygonFromContour.process()");
+
+		if( contourFinder.isSaveInternalContours() )
+			throw new IllegalArgumentException("The contour finder saves internal contours. Only external contours " +
+					"can be found while thresholding");
+		initializeForImage(gray);
+
+		thresholdContours.setConnectRule(contourFinder.getConnectRule());
+		thresholdContours.setMinContour(contourFinder.getMinContour());
+		thresholdContours.setMaxContour(contourFinder.getMaxContour());
+
+		// threshold and find all the contours
+		profileSink.startStage("contour");
+		try {
+			thresholdContours.process(gray);
+		} finally {
+			profileSink.stopStage();
+		}
+		contours = thresholdContours;
+
+		findPolygons();
+
+		if( verbose ) System.out.println("EXIT  DetectPolygonFromContour.process()");
+	}
+
+	/**
+	 * Adjusts image size dependent settings and resets the output
+	 */
+	private void initializeForImage( T gray ) {
 		if( imageWidth != gray.width || imageHeight != gray.height )
 			configure(gray.width,gray.height);
 
@@ -233,26 +286,19 @@ public class DetectPolygonFromContour<T extends ImageGray<T>> {
 
 		if( contourEdgeIntensity != null )
 			contourEdgeIntensity.setImage(gray);
+	}
 
-		long time0 = System.nanoTime();
-
-		// find all the contours
-		contourFinder.process(binary);
-
-		long time1 = System.nanoTime();
-
-		// Using the contours find the polygons
-		findCandidateShapes();
-
-		long time2 = System.nanoTime();
-
-		double a = (time1-time0)*1e-6;
-		double b = (time2-time1)*1e-6;
-
-		milliContour.update(a);
-		milliShapes.update(b);
-
-		if( verbose ) System.out.println("EXIT  DetectPolygonFromContour.process()");
+	/**
+	 * Using the contours find the polygons
+	 */
+	private void findPolygons() {
+		profileSink.startStage("shapes");
+		try {
+			findCandidateShapes();
+			profileSink.addCount("polygons",foundInfo.size);
+		} finally {
+			profileSink.stopStage();
+		}
 	}
 
 	/**
@@ -283,12 +329,12 @@ public class DetectPolygonFromContour<T extends ImageGray<T>> {
 	private void findCandidateShapes() {
 
 		// find blobs where all 4 edges are lines
-		List<ContourPacked> blobs = contourFinder.getContours();
+		List<ContourPacked> blobs = contours.getContours();
 		for (int i = 0; i < blobs.size(); i++) {
 			ContourPacked c = blobs.get(i);
 
 			contourTmp.reset();
-			contourFinder.loadContour(c.externalIndex,contourTmp);
+			contours.loadContour(c.externalIndex,contourTmp);
 			if( contourTmp.size() >= minimumContour) {
 				float edgeInside=-1,edgeOutside=-1;
 
@@ -405,7 +451,7 @@ public class DetectPolygonFromContour<T extends ImageGray<T>> {
 
 				if( distToUndist != null ) {
 					// changed the save points in the packed contour list with undistorted coordinates
-					contourFinder.writeContour(c.externalIndex,undistorted);
+					contours.writeContour(c.externalIndex,undistorted);
 				}
 
 				// save results
@@ -456,7 +502,7 @@ public class DetectPolygonFromContour<T extends ImageGray<T>> {
 	 */
 	public List<Point2D_I32> getContour( Info info ) {
 		contourTmp.reset();
-		contourFinder.loadContour(info.contour.externalIndex,contourTmp);
+		contours.loadContour(info.contour.externalIndex,contourTmp);
 		return contourTmp.toList();
 	}
 
@@ -546,7 +592,7 @@ public class DetectPolygonFromContour<T extends ImageGray<T>> {
 		return outputClockwise;
 	}
 
-	public List<ContourPacked> getAllContours(){return contourFinder.getContours();}
+	public List<ContourPacked> getAllContours(){return contours.getContours();}
 
 	public Class<T> getInputType() {
 		return inputType;
@@ -605,12 +651,15 @@ public class DetectPolygonFromContour<T extends ImageGray<T>> {
 		return contourFinder;
 	}
 
-	public double getMilliContour() {
-		return milliContour.getAverage();
+	public ProfileSink getProfileSink() {
+		return profileSink;
 	}
 
-	public double getMilliShapes() {
-		return milliShapes.getAverage();
+	/**
+	 * Specifies where the time taken to find contours and fit polygons is reported to
+	 */
+	public void setProfileSink( ProfileSink profileSink ) {
+		this.profileSink = profileSink;
 	}
 
 	public static class Info
@@ -103,6 +103,32 @@ public class FactoryAssociation {
 	}
 
 
+	/**
+	 * Associates features which are within the specified distance of each other in image space. Candidates are
+	 * found using a spatial grid so that only nearby features are scored.
+	 * See {@link AssociateMaxDistanceGrid} for details.
+	 *
+	 * @param score Computes the fit score between two features.
+	 * @param backwardsValidation If true then associations must be mutually the best in both directions
+	 * @param maxError Maximum allowed association error.  Double.MAX_VALUE to disable.
+	 * @param maxDistance Maximum distance in pixels between two associated features
+	 * @param <D> Data structure being associated
+	 * @return AssociateMaxDistance
+	 */
+	public static <D> AssociateMaxDistance<D>
+	maxDistanceGrid( ScoreAssociation<D> score , boolean backwardsValidation , double maxError , double maxDistance )
+	{
+		AssociateMaxDistanceGrid<D> alg;
+
+		if( BoofConcurrency.USE_CONCURRENT ) {
+			alg = new AssociateMaxDistanceGrid_MT<>(score, backwardsValidation, maxError);
+		} else {
+			alg = new AssociateMaxDistanceGrid<>(score, backwardsValidation, maxError);
+		}
+		alg.setMaxDistance(maxDistance);
+		return alg;
+	}
+
 	/**
 	 * Approximate association using a K-D tree degree of moderate size (10-15) that uses a best-bin-first search
 	 * order.
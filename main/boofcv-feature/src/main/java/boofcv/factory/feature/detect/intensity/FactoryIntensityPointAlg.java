@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -18,8 +18,7 @@
 
 package boofcv.factory.feature.detect.intensity;
 
-import boofcv.alg.feature.detect.intensity.FastCornerDetector;
-import boofcv.alg.feature.detect.intensity.GradientCornerIntensity;
+import boofcv.alg.feature.detect.intensity.*;
 import boofcv.alg.feature.detect.intensity.impl.*;
 import boofcv.concurrency.BoofConcurrency;
 import boofcv.struct.image.GrayF32;
@@ -47,6 +46,40 @@ public class FactoryIntensityPointAlg {
 	 */
 	public static <T extends ImageGray<T>>
 	FastCornerDetector<T> fast(int pixelTol, int minCont, Class<T> imageType)
+	{
+		FastCornerInterface<T> helper = fastHelper(pixelTol, minCont, imageType);
+		if( BoofConcurrency.USE_CONCURRENT ) {
+			return new FastCornerDetector_MT<>(helper);
+		} else {
+			return new FastCornerDetector<>(helper);
+		}
+	}
+
+	/**
+	 * Creates a {@link FastCornerNonMax}, which detects FAST corners and applies non-maximum suppression in
+	 * a single pass.
+	 *
+	 * @param pixelTol How different pixels need to be to be considered part of a corner. Image dependent.  Try 20 to start.
+	 * @param minCont Minimum number of continue pixels in a circle for it ot be a corner.  Can be 9,10,11 or 12.
+	 * @param imageType Type of input image it is computed form.
+	 * @return Fast corner with non-maximum suppression
+	 */
+	public static <T extends ImageGray<T>>
+	FastCornerNonMax<T> fastNonMax(int pixelTol, int minCont, Class<T> imageType)
+	{
+		FastCornerInterface<T> helper = fastHelper(pixelTol, minCont, imageType);
+		if( BoofConcurrency.USE_CONCURRENT ) {
+			return new FastCornerNonMax_MT<>(helper);
+		} else {
+			return new FastCornerNonMax<>(helper);
+		}
+	}
+
+	/**
+	 * Creates the image type specific code for sampling pixels in FAST
+	 */
+	public static <T extends ImageGray<T>>
+	FastCornerInterface<T> fastHelper(int pixelTol, int minCont, Class<T> imageType)
 	{
 		FastCornerInterface helper;
 		if( imageType == GrayF32.class ) {
@@ -76,7 +109,7 @@ public class FactoryIntensityPointAlg {
 		} else {
 			throw new IllegalArgumentException("Unknown image type");
 		}
-		return new FastCornerDetector(helper);
+		return helper;
 	}
 
 	/**
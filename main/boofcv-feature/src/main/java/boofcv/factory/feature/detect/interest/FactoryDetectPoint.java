@@ -18,11 +18,13 @@
 
 package boofcv.factory.feature.detect.interest;
 
+import boofcv.abst.feature.detect.extract.ConfigExtract;
 import boofcv.abst.feature.detect.extract.NonMaxSuppression;
 import boofcv.abst.feature.detect.intensity.*;
 import boofcv.abst.feature.detect.interest.*;
 import boofcv.abst.filter.blur.BlurStorageFilter;
 import boofcv.alg.feature.detect.intensity.FastCornerDetector;
+import boofcv.alg.feature.detect.intensity.FastCornerNonMax;
 import boofcv.alg.feature.detect.intensity.GradientCornerIntensity;
 import boofcv.alg.feature.detect.intensity.HessianBlobIntensity;
 import boofcv.alg.feature.detect.interest.GeneralFeatureDetector;
@@ -190,6 +192,37 @@ public class FactoryDetectPoint {
 		return new WrapFastToPointDetector<>(alg);
 	}
 
+	/**
+	 * Creates a Fast corner detector which applies non-maximum suppression in the same pass, avoiding the need
+	 * to compute an intensity image. Dark and bright corners are returned in different sets.
+	 * All local extremes are returned since there is no intensity image to select the best features from.
+	 *
+	 * @param configExtract Configuration for non-maximum suppression. If null then the defaults are used
+	 * @param configFast Configuration for FAST feature detector
+	 * @param imageType ype of input image.
+	 * @see FastCornerNonMax
+	 */
+	public static <T extends ImageGray<T>>
+	PointDetector<T> createFastNonMax( @Nullable ConfigExtract configExtract,
+									   @Nullable ConfigFastCorner configFast , Class<T> imageType) {
+		if( configExtract == null )
+			configExtract = new ConfigExtract();
+		if( configFast == null )
+			configFast = new ConfigFastCorner();
+		configExtract.checkValidity();
+		configFast.checkValidity();
+
+		FastCornerNonMax<T> alg = FactoryIntensityPointAlg.fastNonMax(configFast.pixelTol, configFast.minContinuous, imageType);
+		alg.setNonmaxRadius(configExtract.radius);
+		alg.setThreshold(configExtract.threshold);
+		alg.setIgnoreBorder(configExtract.ignoreBorder);
+		alg.setStrict(configExtract.useStrictRule);
+		alg.setDetectMinimums(configExtract.detectMinimums);
+		alg.setDetectMaximums(configExtract.detectMaximums);
+
+		return new WrapFastNonMaxToPointDetector<>(alg);
+	}
+
 	/**
 	 * Creates a median filter corner detector.
 	 *
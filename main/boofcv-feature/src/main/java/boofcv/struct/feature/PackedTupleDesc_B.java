@@ -0,0 +1,90 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.struct.feature;
+
+import org.ddogleg.struct.FastAccess;
+
+/**
+ * A set of {@link TupleDesc_B} descriptors packed into a single array of longs in word-major order. Word 'k'
+ * of descriptor 'i' is stored at index k*size + i and contains bits 64*k to 64*k+63. Packing two ints into a
+ * long halves the number of population counts and the word-major layout allows the distance from one
+ * descriptor to every descriptor in the set to be computed with element-wise loops.
+ *
+ * @author Peter Abeles
+ */
+public class PackedTupleDesc_B {
+	/** Number of bits in each descriptor */
+	public int numBits;
+	/** Number of longs used to encode each descriptor */
+	public int numWords;
+	/** Number of descriptors in the set */
+	public int size;
+	/** Storage for packed descriptors. Can be larger than numWords*size */
+	public long[] data = new long[0];
+
+	/**
+	 * Packs the list of descriptors. All descriptors must have the same number of bits.
+	 *
+	 * @param list (Input) descriptors which are to be packed
+	 */
+	public void setTo( FastAccess<TupleDesc_B> list ) {
+		size = list.size;
+		numBits = size == 0 ? 0 : list.get(0).numBits;
+		numWords = size == 0 ? 0 : wordsFor(list.get(0).data.length);
+		if( data.length < numWords*size )
+			data = new long[numWords*size];
+
+		for( int i = 0; i < size; i++ ) {
+			TupleDesc_B desc = list.get(i);
+			if( desc.numBits != numBits || wordsFor(desc.data.length) != numWords )
+				throw new IllegalArgumentException("Descriptors must all have the same number of bits");
+			for( int k = 0; k < numWords; k++ ) {
+				data[k*size + i] = word(desc.data,k);
+			}
+		}
+	}
+
+	/**
+	 * Number of longs required to store the ints
+	 */
+	public static int wordsFor( int numInts ) {
+		return (numInts+1)/2;
+	}
+
+	/**
+	 * Returns the 'k'-th 64-bit word in an array of ints. The lower 32-bits come from element 2*k.
+	 */
+	public static long word( int[] data , int k ) {
+		int i = 2*k;
+		long lower = data[i] & 0xFFFFFFFFL;
+		return i+1 < data.length ? lower | ((long)data[i+1] << 32) : lower;
+	}
+
+	/**
+	 * Packs the binary descriptor into an array of longs. See {@link #word}.
+	 *
+	 * @param desc (Input) Descriptor
+	 * @param output (Output) Storage for packed words. Must be at least {@link #wordsFor} long.
+	 */
+	public static void pack( TupleDesc_B desc , long[] output ) {
+		int N = wordsFor(desc.data.length);
+		for( int k = 0; k < N; k++ ) {
+			output[k] = word(desc.data,k);
+		}
+	}
+}
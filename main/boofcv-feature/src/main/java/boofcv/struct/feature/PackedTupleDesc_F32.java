@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.struct.feature;
+
+import org.ddogleg.struct.FastAccess;
+
+/**
+ * A set of {@link TupleDesc_F32} descriptors packed into a single array in dimension-major order. Element 'k'
+ * of descriptor 'i' is stored at index k*size + i. With this layout computing the distance from one descriptor
+ * to every descriptor in the set becomes a series of simple element-wise loops, which the JIT can vectorize.
+ *
+ * @author Peter Abeles
+ */
+public class PackedTupleDesc_F32 {
+	/** Number of elements in each descriptor */
+	public int dof;
+	/** Number of descriptors in the set */
+	public int size;
+	/** Storage for packed descriptors. Can be larger than dof*size */
+	public float[] data = new float[0];
+
+	/**
+	 * Packs the list of descriptors. All descriptors must have the same length.
+	 *
+	 * @param list (Input) descriptors which are to be packed
+	 */
+	public void setTo( FastAccess<TupleDesc_F32> list ) {
+		size = list.size;
+		dof = size == 0 ? 0 : list.get(0).value.length;
+		if( data.length < dof*size )
+			data = new float[dof*size];
+
+		for( int i = 0; i < size; i++ ) {
+			float[] value = list.get(i).value;
+			if( value.length != dof )
+				throw new IllegalArgumentException("Descriptors must all have the same length");
+			for( int k = 0; k < dof; k++ ) {
+				data[k*size + i] = value[k];
+			}
+		}
+	}
+
+	/**
+	 * Copies the descriptor at the specified index into 'output'
+	 */
+	public void get( int index , TupleDesc_F32 output ) {
+		for( int k = 0; k < dof; k++ ) {
+			output.value[k] = data[k*size + index];
+		}
+	}
+}
@@ -21,16 +21,21 @@ package boofcv.abst.tracker;
 import boofcv.abst.distort.FDistort;
 import boofcv.abst.feature.detect.interest.ConfigPointDetector;
 import boofcv.abst.feature.detect.interest.PointDetectorTypes;
+import boofcv.abst.filter.derivative.ImageDerivativeCache;
+import boofcv.abst.filter.derivative.ImageGradient;
 import boofcv.abst.tracker.PointTrackerKltPyramid.PointTrackMod;
 import boofcv.alg.misc.GImageMiscOps;
 import boofcv.alg.tracker.klt.*;
+import boofcv.factory.filter.derivative.FactoryDerivative;
 import boofcv.factory.tracker.FactoryPointTracker;
+import boofcv.struct.border.BorderType;
 import boofcv.struct.image.GrayF32;
 import boofcv.struct.pyramid.ConfigDiscreteLevels;
 import org.junit.jupiter.api.Test;
 
-import static org.junit.jupiter.api.Assertions.assertEquals;
-import static org.junit.jupiter.api.Assertions.assertTrue;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
 
 
 /**
@@ -281,6 +286,72 @@ class TestPointTrackerKltPyramid extends GenericChecksPointTracker<GrayF32> {
 		assertEquals(alg.currPyr.basePyramid.getWidth(0), alg.currPyr.derivX[0].width);
 	}
 
+	/**
+	 * Tracking using a derivative cache should produce the same results as computing everything internally
+	 */
+	@Test
+	void derivativeCache() {
+		derivativeCache(-1);
+		derivativeCache(0.5);
+	}
+
+	void derivativeCache( double toleranceFB ) {
+		ConfigPKlt config = new ConfigPKlt();
+		config.toleranceFB = toleranceFB;
+		config.pyramidLevels = ConfigDiscreteLevels.levels(3);
+
+		PointTrackerKltPyramid<GrayF32,GrayF32> expected = createKLT(config);
+		PointTrackerKltPyramid<GrayF32,GrayF32> alg = createKLT(config);
+
+		var cache = new ImageDerivativeCache<>(alg.currPyr.ownedPyramid,
+				FactoryDerivative.sobel(GrayF32.class, GrayF32.class), null);
+		alg.setDerivativeCache(cache);
+
+		GrayF32 shifted = image.createSameShape();
+		new FDistort(image,shifted).affine(1,0,0,1,1.5,0.5).borderExt().apply();
+
+		for( GrayF32 frame : new GrayF32[]{image, shifted, image} ) {
+			cache.setImage(frame);
+			expected.process(frame);
+			alg.process(frame);
+			if( expected.getTotalActive() == 0 ) {
+				expected.spawnTracks();
+				alg.spawnTracks();
+			}
+
+			List<PointTrack> tracksA = expected.getActiveTracks(null);
+			List<PointTrack> tracksB = alg.getActiveTracks(null);
+			assertTrue(tracksA.size() > 50);
+			assertEquals(tracksA.size(), tracksB.size());
+			for( int i = 0; i < tracksA.size(); i++ ) {
+				assertEquals(0.0, tracksA.get(i).pixel.distance(tracksB.get(i).pixel), 1e-4);
+			}
+		}
+	}
+
+	/**
+	 * The cache must compute the same gradient as the tracker
+	 */
+	@Test
+	void derivativeCache_differentGradient() {
+		ConfigPKlt config = new ConfigPKlt();
+		config.pyramidLevels = ConfigDiscreteLevels.levels(3);
+		PointTrackerKltPyramid<GrayF32,GrayF32> alg = createKLT(config);
+
+		var cache = new ImageDerivativeCache<>(alg.currPyr.ownedPyramid,
+				FactoryDerivative.three(GrayF32.class, GrayF32.class), null);
+		alg.setDerivativeCache(cache);
+		cache.setImage(image);
+		assertThrows(IllegalArgumentException.class, ()->alg.process(image));
+
+		// Same operator but a different border
+		ImageGradient<GrayF32,GrayF32> sobel = FactoryDerivative.sobel(GrayF32.class, GrayF32.class);
+		sobel.setBorderType(BorderType.ZERO);
+		alg.setDerivativeCache(new ImageDerivativeCache<>(alg.currPyr.ownedPyramid, sobel, null));
+		alg.getDerivativeCache().setImage(image);
+		assertThrows(IllegalArgumentException.class, ()->alg.process(image));
+	}
+
 	/**
 	 * Don't change the track state
 	 */
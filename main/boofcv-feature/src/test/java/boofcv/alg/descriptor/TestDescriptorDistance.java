@@ -177,6 +177,26 @@ public class TestDescriptorDistance {
 		}
 	}
 
+	@Test
+	public void hamming_long_array() {
+		// odd number of ints to test the partially filled last word
+		TupleDesc_B a = new TupleDesc_B(500);
+		TupleDesc_B b = new TupleDesc_B(500);
+		long[] packedA = new long[PackedTupleDesc_B.wordsFor(a.data.length)];
+		long[] packedB = new long[packedA.length];
+
+		for( int numTries = 0; numTries < 20; numTries++ ) {
+			for( int i = 0; i < a.data.length; i++ ) {
+				a.data[i] = rand.nextInt();
+				b.data[i] = rand.nextInt();
+			}
+			PackedTupleDesc_B.pack(a,packedA);
+			PackedTupleDesc_B.pack(b,packedB);
+
+			assertEquals(hamming(a,b),DescriptorDistance.hamming(packedA,packedB,packedA.length));
+		}
+	}
+
 	@Test
 	public void hamming_int() {
 		assertEquals(0,DescriptorDistance.hamming(0));
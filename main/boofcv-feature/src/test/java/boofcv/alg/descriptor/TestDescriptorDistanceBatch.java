@@ -0,0 +1,125 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.descriptor;
+
+import boofcv.struct.feature.PackedTupleDesc_B;
+import boofcv.struct.feature.PackedTupleDesc_F32;
+import boofcv.struct.feature.TupleDesc_B;
+import boofcv.struct.feature.TupleDesc_F32;
+import org.ddogleg.struct.FastQueue;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TestDescriptorDistanceBatch {
+	Random rand = new Random(234);
+
+	@Test
+	void euclideanSq_F32() {
+		FastQueue<TupleDesc_F32> list = createF32(35, 64);
+		TupleDesc_F32 query = createF32(1, 64).get(0);
+
+		PackedTupleDesc_F32 packed = new PackedTupleDesc_F32();
+		packed.setTo(list);
+
+		float[] found = new float[list.size+2];
+		DescriptorDistanceBatch.euclideanSq(query, packed, found);
+
+		for (int i = 0; i < list.size; i++) {
+			assertEquals(DescriptorDistance.euclideanSq(query, list.get(i)), found[i], 1e-3);
+		}
+	}
+
+	@Test
+	void sad_F32() {
+		FastQueue<TupleDesc_F32> list = createF32(35, 64);
+		TupleDesc_F32 query = createF32(1, 64).get(0);
+
+		PackedTupleDesc_F32 packed = new PackedTupleDesc_F32();
+		packed.setTo(list);
+
+		float[] found = new float[list.size];
+		DescriptorDistanceBatch.sad(query, packed, found);
+
+		for (int i = 0; i < list.size; i++) {
+			assertEquals(DescriptorDistance.sad(query, list.get(i)), found[i], 1e-3);
+		}
+	}
+
+	@Test
+	void hamming() {
+		// test even and odd number of ints
+		for( int numBits : new int[]{32,100,256,512}) {
+			FastQueue<TupleDesc_B> list = createB(35, numBits);
+			TupleDesc_B query = createB(1, numBits).get(0);
+
+			PackedTupleDesc_B packed = new PackedTupleDesc_B();
+			packed.setTo(list);
+
+			int[] found = new int[list.size];
+			DescriptorDistanceBatch.hamming(query, packed, found);
+
+			for (int i = 0; i < list.size; i++) {
+				assertEquals(DescriptorDistance.hamming(query, list.get(i)), found[i]);
+			}
+		}
+	}
+
+	/**
+	 * Reusing the packed data structure with a smaller set must not be affected by the old data
+	 */
+	@Test
+	void reusePacked() {
+		PackedTupleDesc_F32 packed = new PackedTupleDesc_F32();
+		packed.setTo(createF32(50, 20));
+
+		FastQueue<TupleDesc_F32> list = createF32(10, 20);
+		packed.setTo(list);
+		TupleDesc_F32 query = createF32(1, 20).get(0);
+
+		float[] found = new float[list.size];
+		DescriptorDistanceBatch.euclideanSq(query, packed, found);
+		for (int i = 0; i < list.size; i++) {
+			assertEquals(DescriptorDistance.euclideanSq(query, list.get(i)), found[i], 1e-3);
+		}
+	}
+
+	FastQueue<TupleDesc_F32> createF32( int count , int dof ) {
+		FastQueue<TupleDesc_F32> list = new FastQueue<>(()->new TupleDesc_F32(dof));
+		for (int i = 0; i < count; i++) {
+			TupleDesc_F32 d = list.grow();
+			for (int j = 0; j < dof; j++) {
+				d.value[j] = rand.nextFloat()*2-1;
+			}
+		}
+		return list;
+	}
+
+	FastQueue<TupleDesc_B> createB( int count , int numBits ) {
+		FastQueue<TupleDesc_B> list = new FastQueue<>(()->new TupleDesc_B(numBits));
+		for (int i = 0; i < count; i++) {
+			TupleDesc_B d = list.grow();
+			for (int j = 0; j < d.data.length; j++) {
+				d.data[j] = rand.nextInt();
+			}
+		}
+		return list;
+	}
+}
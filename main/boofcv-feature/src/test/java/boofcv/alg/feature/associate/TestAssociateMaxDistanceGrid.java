@@ -0,0 +1,130 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.feature.associate;
+
+import boofcv.abst.feature.associate.ScoreAssociateEuclideanSq;
+import boofcv.struct.feature.AssociatedIndex;
+import boofcv.struct.feature.TupleDesc_F64;
+import georegression.struct.point.Point2D_F64;
+import org.ddogleg.struct.FastAccess;
+import org.ddogleg.struct.FastQueue;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TestAssociateMaxDistanceGrid {
+	Random rand = new Random(234);
+
+	/**
+	 * Compare against brute force for a variety of settings. The descriptors are quantized so that there are ties
+	 */
+	@Test
+	void compareToNaive() {
+		for( boolean backwards : new boolean[]{false,true}) {
+			for( double maxDistance : new double[]{0.5, 5, 30, 200, Double.MAX_VALUE}) {
+				for( double maxError : new double[]{2,Double.MAX_VALUE}) {
+					var naive = new AssociateMaxDistanceNaive<>(new ScoreAssociateEuclideanSq.F64(), backwards, maxError);
+					var grid = new AssociateMaxDistanceGrid<>(new ScoreAssociateEuclideanSq.F64(), backwards, maxError);
+					compare(naive, grid, maxDistance);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Empty lists and all the points being at the same location
+	 */
+	@Test
+	void degenerate() {
+		var alg = new AssociateMaxDistanceGrid<>(new ScoreAssociateEuclideanSq.F64(), true, Double.MAX_VALUE);
+		alg.setMaxDistance(10);
+
+		var locations = new FastQueue<>(Point2D_F64::new);
+		var descs = new FastQueue<>(()->new TupleDesc_F64(1));
+		alg.setSource(locations,descs);
+		alg.setDestination(locations,descs);
+		alg.associate();
+		assertEquals(0,alg.getMatches().size);
+
+		for (int i = 0; i < 5; i++) {
+			locations.grow().set(3,4);
+			descs.grow().value[0] = i;
+		}
+		alg.associate();
+		assertEquals(5,alg.getMatches().size);
+		for (int i = 0; i < 5; i++) {
+			AssociatedIndex a = alg.getMatches().get(i);
+			assertEquals(i,a.src);
+			assertEquals(i,a.dst);
+		}
+	}
+
+	void compare( AssociateMaxDistanceNaive<TupleDesc_F64> naive ,
+				  AssociateMaxDistanceGrid<TupleDesc_F64> grid , double maxDistance ) {
+		FastQueue<Point2D_F64> locSrc = createLocations(300);
+		FastQueue<Point2D_F64> locDst = createLocations(250);
+		FastQueue<TupleDesc_F64> descSrc = createDescriptions(300);
+		FastQueue<TupleDesc_F64> descDst = createDescriptions(250);
+
+		naive.setMaxDistance(maxDistance);
+		grid.setMaxDistance(maxDistance);
+
+		naive.setSource(locSrc,descSrc);
+		naive.setDestination(locDst,descDst);
+		grid.setSource(locSrc,descSrc);
+		grid.setDestination(locDst,descDst);
+
+		naive.associate();
+		grid.associate();
+
+		checkIdentical(naive.getMatches(), grid.getMatches());
+		assertEquals(naive.getUnassociatedSource().size, grid.getUnassociatedSource().size);
+		assertEquals(naive.getUnassociatedDestination().size, grid.getUnassociatedDestination().size);
+	}
+
+	static void checkIdentical( FastAccess<AssociatedIndex> expected , FastAccess<AssociatedIndex> found ) {
+		assertEquals(expected.size, found.size);
+		for (int i = 0; i < expected.size; i++) {
+			AssociatedIndex a = expected.get(i);
+			AssociatedIndex b = found.get(i);
+			assertEquals(a.src, b.src);
+			assertEquals(a.dst, b.dst);
+			assertEquals(a.fitScore, b.fitScore);
+		}
+	}
+
+	FastQueue<Point2D_F64> createLocations( int count ) {
+		var ret = new FastQueue<>(Point2D_F64::new);
+		for (int i = 0; i < count; i++) {
+			ret.grow().set(rand.nextDouble()*400-20, rand.nextDouble()*300+10);
+		}
+		return ret;
+	}
+
+	FastQueue<TupleDesc_F64> createDescriptions( int count ) {
+		var ret = new FastQueue<>(()->new TupleDesc_F64(2));
+		for (int i = 0; i < count; i++) {
+			TupleDesc_F64 d = ret.grow();
+			d.value[0] = rand.nextInt(5);
+			d.value[1] = rand.nextInt(5);
+		}
+		return ret;
+	}
+}
@@ -0,0 +1,58 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.feature.associate;
+
+import boofcv.abst.feature.associate.ScoreAssociateEuclideanSq;
+import boofcv.struct.feature.TupleDesc_F64;
+import georegression.struct.point.Point2D_F64;
+import org.ddogleg.struct.FastQueue;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+class TestAssociateMaxDistanceGrid_MT {
+	@Test
+	void compare() {
+		compare(false);
+		compare(true);
+	}
+
+	void compare( boolean backwards ) {
+		Random rand = new Random(234);
+		var locSrc = new FastQueue<>(Point2D_F64::new);
+		var locDst = new FastQueue<>(Point2D_F64::new);
+		for (int i = 0; i < 500; i++) {
+			locSrc.grow().set(rand.nextDouble()*640, rand.nextDouble()*480);
+			locDst.grow().set(rand.nextDouble()*640, rand.nextDouble()*480);
+		}
+		FastQueue<TupleDesc_F64> descSrc = TestAssociateGreedy_MT.createData(500);
+		FastQueue<TupleDesc_F64> descDst = TestAssociateGreedy_MT.createData(500);
+
+		var sequentialAlg = new AssociateMaxDistanceGrid<>(new ScoreAssociateEuclideanSq.F64(), backwards, 0.5);
+		var parallelAlg = new AssociateMaxDistanceGrid_MT<>(new ScoreAssociateEuclideanSq.F64(), backwards, 0.5);
+
+		for( var alg : new AssociateMaxDistanceGrid[]{sequentialAlg,parallelAlg}) {
+			alg.setMaxDistance(40);
+			alg.setSource(locSrc,descSrc);
+			alg.setDestination(locDst,descDst);
+			alg.associate();
+		}
+
+		TestAssociateMaxDistanceGrid.checkIdentical(sequentialAlg.getMatches(), parallelAlg.getMatches());
+	}
+}
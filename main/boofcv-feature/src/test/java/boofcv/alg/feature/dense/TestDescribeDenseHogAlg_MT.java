@@ -0,0 +1,70 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+package boofcv.alg.feature.dense;
+
+import boofcv.alg.misc.GImageMiscOps;
+import boofcv.struct.feature.TupleDesc_F64;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.ImageType;
+import georegression.struct.point.Point2D_I32;
+import org.ddogleg.struct.FastQueue;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+class TestDescribeDenseHogAlg_MT {
+	Random rand = new Random(234);
+	ImageType<GrayF32> imageType = ImageType.single(GrayF32.class);
+
+	@Test
+	void compare() {
+		GrayF32 input = new GrayF32(123,97);
+		GImageMiscOps.fillUniform(input,rand,0,200);
+
+		for( int stepBlock : new int[]{1,2,3}) {
+			var single = new DescribeDenseHogAlg<>(10,8,3,2,stepBlock,imageType);
+			var multi = new DescribeDenseHogAlg_MT<>(10,8,3,2,stepBlock,imageType);
+
+			single.setInput(input);
+			multi.setInput(input);
+			single.process();
+			multi.process();
+
+			checkIdentical(single, multi);
+		}
+	}
+
+	static void checkIdentical( BaseDenseHog<?> expected , BaseDenseHog<?> found ) {
+		FastQueue<TupleDesc_F64> descA = expected.getDescriptions();
+		FastQueue<TupleDesc_F64> descB = found.getDescriptions();
+		FastQueue<Point2D_I32> locA = expected.getLocations();
+		FastQueue<Point2D_I32> locB = found.getLocations();
+
+		assertEquals(descA.size, descB.size);
+		assertEquals(locA.size, locB.size);
+		for (int i = 0; i < descA.size; i++) {
+			assertEquals(locA.get(i).x, locB.get(i).x);
+			assertEquals(locA.get(i).y, locB.get(i).y);
+			for (int j = 0; j < descA.get(i).size(); j++) {
+				assertEquals(descA.get(i).value[j], descB.get(i).value[j]);
+			}
+		}
+	}
+}
@@ -0,0 +1,63 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.detect.intensity;
+
+import boofcv.alg.feature.detect.intensity.impl.ImplFastCorner10_U8;
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.GrayU8;
+import boofcv.testing.BoofTesting;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static boofcv.alg.feature.detect.intensity.TestFastCornerNonMax.assertIdentical;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+class TestFastCornerDetector_MT {
+	Random rand = new Random(234);
+
+	@Test
+	void compare() {
+		GrayU8 image = new GrayU8(300, 251);
+		ImageMiscOps.fillUniform(image, rand, 0, 255);
+
+		var single = new FastCornerDetector<>(new ImplFastCorner10_U8(20));
+		var multi = new FastCornerDetector_MT<>(new ImplFastCorner10_U8(20));
+
+		GrayF32 expected = new GrayF32(image.width, image.height);
+		GrayF32 found = new GrayF32(image.width, image.height);
+
+		single.process(image, expected);
+		multi.process(image, found);
+
+		assertTrue(single.getCornersHigh().size > 20);
+		assertIdentical(single.getCornersLow(), multi.getCornersLow());
+		assertIdentical(single.getCornersHigh(), multi.getCornersHigh());
+		BoofTesting.assertEquals(expected, found, 0);
+
+		single.process(image);
+		multi.process(image);
+		assertIdentical(single.getCornersLow(), multi.getCornersLow());
+		assertIdentical(single.getCornersHigh(), multi.getCornersHigh());
+	}
+}
@@ -0,0 +1,147 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.detect.intensity;
+
+import boofcv.alg.feature.detect.extract.NonMaxCandidate;
+import boofcv.alg.feature.detect.intensity.impl.ImplFastCorner11_F32;
+import boofcv.alg.feature.detect.intensity.impl.ImplFastCorner9_U8;
+import boofcv.alg.filter.blur.GBlurImageOps;
+import boofcv.alg.misc.GImageMiscOps;
+import boofcv.core.image.GeneralizedImageOps;
+import boofcv.struct.QueueCorner;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.GrayU8;
+import boofcv.struct.image.ImageGray;
+import georegression.struct.point.Point2D_I16;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+class TestFastCornerNonMax {
+	Random rand = new Random(234);
+
+	/**
+	 * Compare against computing the intensity image then applying non-maximum suppression
+	 */
+	@Test
+	void compareToTwoPass() {
+		GrayU8 imageU8 = createImage(GrayU8.class, 120, 95);
+		GrayF32 imageF32 = createImage(GrayF32.class, 101, 80);
+
+		for( int radius : new int[]{1, 2, 5} ) {
+			for( boolean strict : new boolean[]{true, false} ) {
+				compareToTwoPass(new FastCornerNonMax<>(new ImplFastCorner9_U8(15)), imageU8, radius, strict, 0, 0);
+				compareToTwoPass(new FastCornerNonMax<>(new ImplFastCorner11_F32(15)), imageF32, radius, strict, 0, 0);
+			}
+		}
+
+		// threshold and border
+		compareToTwoPass(new FastCornerNonMax<>(new ImplFastCorner9_U8(15)), imageU8, 2, true, 100.0f, 0);
+		compareToTwoPass(new FastCornerNonMax<>(new ImplFastCorner9_U8(15)), imageU8, 2, true, 0, 10);
+	}
+
+	<T extends ImageGray<T>>
+	void compareToTwoPass( FastCornerNonMax<T> alg, T image, int radius, boolean strict, float threshold, int border ) {
+		alg.setNonmaxRadius(radius);
+		alg.setStrict(strict);
+		alg.setThreshold(threshold);
+		alg.setIgnoreBorder(border);
+		alg.process(image);
+
+		FastCornerDetector<T> fast = new FastCornerDetector<>(alg.helper.newInstance());
+		GrayF32 intensity = new GrayF32(image.width, image.height);
+		fast.process(image, intensity);
+
+		NonMaxCandidate nonmax = new NonMaxCandidate(strict ? new NonMaxCandidate.Strict() : new NonMaxCandidate.Relaxed());
+		nonmax.setSearchRadius(radius);
+		nonmax.setThresholdMin(-threshold);
+		nonmax.setThresholdMax(threshold);
+		nonmax.setBorder(Math.max(border, 3));
+		QueueCorner expectedLow = new QueueCorner();
+		QueueCorner expectedHigh = new QueueCorner();
+		nonmax.process(intensity, fast.getCornersLow(), fast.getCornersHigh(), expectedLow, expectedHigh);
+
+		assertTrue(expectedLow.size > 5);
+		assertTrue(expectedHigh.size > 5);
+		assertIdentical(expectedLow, alg.getCornersLow());
+		assertIdentical(expectedHigh, alg.getCornersHigh());
+	}
+
+	/**
+	 * Turn off detection of minimums and maximums
+	 */
+	@Test
+	void minimumsMaximums() {
+		GrayU8 image = createImage(GrayU8.class, 80, 70);
+		var alg = new FastCornerNonMax<>(new ImplFastCorner9_U8(15));
+		alg.process(image);
+		QueueCorner low = new QueueCorner();
+		QueueCorner high = new QueueCorner();
+		low.appendAll(alg.getCornersLow());
+		high.appendAll(alg.getCornersHigh());
+
+		alg.setDetectMinimums(false);
+		alg.process(image);
+		assertEquals(0, alg.getCornersLow().size);
+		assertIdentical(high, alg.getCornersHigh());
+
+		alg.setDetectMinimums(true);
+		alg.setDetectMaximums(false);
+		alg.process(image);
+		assertIdentical(low, alg.getCornersLow());
+		assertEquals(0, alg.getCornersHigh().size);
+	}
+
+	/**
+	 * Images which are too small for any corners to be found. Make sure it doesn't blow up
+	 */
+	@Test
+	void smallImages() {
+		var alg = new FastCornerNonMax<>(new ImplFastCorner9_U8(15));
+		for( int width = 0; width < 7; width++ ) {
+			alg.process(createImage(GrayU8.class, width, 8));
+			assertEquals(0, alg.getCornersLow().size + alg.getCornersHigh().size);
+			alg.process(createImage(GrayU8.class, 8, width));
+			assertEquals(0, alg.getCornersLow().size + alg.getCornersHigh().size);
+		}
+	}
+
+	<T extends ImageGray<T>> T createImage( Class<T> type, int width, int height ) {
+		T noise = GeneralizedImageOps.createSingleBand(type, width, height);
+		GImageMiscOps.fillUniform(noise, rand, 0, 255);
+		// blur so that corners aren't right next to each other and non-max suppression matters
+		return GBlurImageOps.gaussian(noise, null, -1, 1, null);
+	}
+
+	static void assertIdentical( QueueCorner expected, QueueCorner found ) {
+		assertEquals(expected.size, found.size);
+		for( int i = 0; i < expected.size; i++ ) {
+			Point2D_I16 a = expected.get(i);
+			Point2D_I16 b = found.get(i);
+			assertEquals(a.x, b.x);
+			assertEquals(a.y, b.y);
+		}
+	}
+}
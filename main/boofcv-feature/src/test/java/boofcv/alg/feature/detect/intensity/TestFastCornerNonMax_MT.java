@@ -0,0 +1,60 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.feature.detect.intensity;
+
+import boofcv.alg.feature.detect.intensity.impl.ImplFastCorner9_U8;
+import boofcv.alg.filter.blur.BlurImageOps;
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.struct.image.GrayU8;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static boofcv.alg.feature.detect.intensity.TestFastCornerNonMax.assertIdentical;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+class TestFastCornerNonMax_MT {
+	Random rand = new Random(234);
+
+	@Test
+	void compare() {
+		GrayU8 noise = new GrayU8(300, 251);
+		ImageMiscOps.fillUniform(noise, rand, 0, 255);
+		GrayU8 image = BlurImageOps.gaussian(noise, null, -1, 1, null);
+
+		for( int radius : new int[]{1, 3} ) {
+			var single = new FastCornerNonMax<>(new ImplFastCorner9_U8(15));
+			var multi = new FastCornerNonMax_MT<>(new ImplFastCorner9_U8(15));
+			single.setNonmaxRadius(radius);
+			multi.setNonmaxRadius(radius);
+			single.setIgnoreBorder(5);
+			multi.setIgnoreBorder(5);
+
+			single.process(image);
+			multi.process(image);
+
+			assertTrue(single.getCornersHigh().size > 20);
+			assertIdentical(single.getCornersLow(), multi.getCornersLow());
+			assertIdentical(single.getCornersHigh(), multi.getCornersHigh());
+		}
+	}
+}
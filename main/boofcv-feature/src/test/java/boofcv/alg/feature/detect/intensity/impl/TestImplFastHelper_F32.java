@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -31,6 +31,11 @@ public class TestImplFastHelper_F32 extends GenericImplFastCornerInterfaceTests<
 			public int checkPixel(int index) {
 				return 0;
 			}
+
+			@Override
+			public FastCornerInterface<GrayF32> newInstance() {
+				return this;
+			}
 		}, 10);
 	}
 
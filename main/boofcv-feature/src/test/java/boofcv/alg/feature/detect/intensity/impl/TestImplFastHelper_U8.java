@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -32,6 +32,11 @@ public class TestImplFastHelper_U8 extends GenericImplFastCornerInterfaceTests<G
 			public int checkPixel(int index) {
 				return 0;
 			}
+
+			@Override
+			public FastCornerInterface<GrayU8> newInstance() {
+				return this;
+			}
 		}, 10);
 	}
 
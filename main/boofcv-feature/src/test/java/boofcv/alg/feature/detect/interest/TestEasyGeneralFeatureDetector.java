@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -18,6 +18,8 @@
 
 package boofcv.alg.feature.detect.interest;
 
+import boofcv.abst.filter.derivative.ImageDerivativeCache;
+import boofcv.factory.filter.derivative.FactoryDerivative;
 import boofcv.struct.QueueCorner;
 import boofcv.struct.image.GrayS16;
 import boofcv.struct.image.GrayU8;
@@ -25,6 +27,7 @@ import boofcv.struct.image.ImageGray;
 import org.junit.jupiter.api.Test;
 
 import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.assertSame;
 import static org.junit.jupiter.api.Assertions.assertTrue;
 
 /**
@@ -84,12 +87,32 @@ public class TestEasyGeneralFeatureDetector {
 		assertFalse(detector.excludeIsNull);
 	}
 
+	/**
+	 * Derivatives should come from the cache when one is provided
+	 */
+	@Test
+	public void detect_cache() {
+		Helper<GrayU8,GrayS16> detector = new Helper<>(true, true);
+		EasyGeneralFeatureDetector<GrayU8,GrayS16> alg =
+				new EasyGeneralFeatureDetector<>(detector, GrayU8.class, GrayS16.class);
+
+		var cache = new ImageDerivativeCache<>(null,
+				FactoryDerivative.sobel(GrayU8.class, GrayS16.class), FactoryDerivative.hessianSobel(GrayS16.class));
+		cache.setImage(image);
+		alg.detect(cache,null);
+
+		assertTrue(detector.excludeIsNull);
+		assertSame(cache.getDerivative(ImageDerivativeCache.Term.X,0), detector.derivX);
+		assertSame(cache.getDerivative(ImageDerivativeCache.Term.XY,0), detector.derivXY);
+	}
+
 	private static class Helper<I extends ImageGray<I>, D extends ImageGray<D>>
 			extends GeneralFeatureDetector<I,D> {
 
 		boolean gradient;
 		boolean hessian;
 		boolean excludeIsNull;
+		D derivX, derivXY;
 
 		private Helper(boolean gradient, boolean hessian) {
 			this.gradient = gradient;
@@ -103,6 +126,8 @@ public class TestEasyGeneralFeatureDetector {
 
 		@Override
 		public void process(I image, D derivX, D derivY, D derivXX, D derivYY, D derivXY) {
+			this.derivX = derivX;
+			this.derivXY = derivXY;
 			if( gradient ) {
 				assertTrue(derivX != null );
 				assertTrue(derivY != null );
@@ -18,16 +18,20 @@
 
 package boofcv.alg.shapes.polygon;
 
+import boofcv.abst.filter.binary.BinaryContourFinderLinearExternal;
 import boofcv.abst.filter.binary.InputToBinary;
 import boofcv.alg.distort.PixelTransformAffine_F32;
 import boofcv.alg.misc.ImageMiscOps;
+import boofcv.factory.filter.binary.FactoryBinaryContourFinder;
 import boofcv.factory.filter.binary.FactoryThresholdBinary;
 import boofcv.factory.shape.ConfigPolygonFromContour;
+import boofcv.factory.shape.FactoryPointsToPolyline;
 import boofcv.factory.shape.FactoryShapeDetector;
 import boofcv.io.image.ConvertBufferedImage;
 import boofcv.struct.distort.PixelTransform;
 import boofcv.struct.image.GrayU8;
 import boofcv.struct.image.ImageGray;
+import georegression.geometry.UtilPolygons2D_F64;
 import georegression.struct.affine.Affine2D_F32;
 import georegression.struct.affine.UtilAffine;
 import georegression.struct.point.Point2D_F32;
@@ -43,8 +47,7 @@ import java.awt.image.BufferedImage;
 import java.util.ArrayList;
 import java.util.List;
 
-import static org.junit.jupiter.api.Assertions.assertEquals;
-import static org.junit.jupiter.api.Assertions.assertFalse;
+import static org.junit.jupiter.api.Assertions.*;
 
 /**
  * @author Peter Abeles
@@ -178,6 +181,54 @@ public class TestDetectPolygonFromContour extends CommonFitPolygonChecks {
 		}
 	}
 
+	/**
+	 * Thresholding while finding contours should produce the same polygons as doing it in separate stages
+	 */
+	@Test
+	public void process_thresholdContours() {
+		List<Polygon2D_F64> polygons = new ArrayList<>();
+		polygons.add(new Polygon2D_F64(20, 20, 40, 50, 80, 20));
+		polygons.add(new Polygon2D_F64(20, 60, 20, 90, 40, 90,40, 60));
+
+		for( Class imageType : imageTypes ) {
+			renderPolygons(polygons,imageType);
+
+			DetectPolygonFromContour expected = createDetector(imageType, 3,4);
+			expected.process(image, binary);
+
+			InputToBinary inputToBinary = FactoryThresholdBinary.globalFixed(100, true, imageType);
+			DetectPolygonFromContour alg = createDetector(imageType, 3,4);
+			alg.process(image, FactoryBinaryContourFinder.thresholdExternal(inputToBinary));
+
+			FastQueue<DetectPolygonFromContour.Info> expectedFound = expected.getFound();
+			FastQueue<DetectPolygonFromContour.Info> found = alg.getFound();
+			assertEquals(polygons.size(), found.size);
+			assertEquals(expectedFound.size, found.size);
+			for (int i = 0; i < found.size; i++) {
+				assertTrue(UtilPolygons2D_F64.isIdentical(expectedFound.get(i).polygon, found.get(i).polygon, 1e-8));
+			}
+			assertEquals(expected.getAllContours().size(), alg.getAllContours().size());
+		}
+	}
+
+	/**
+	 * Contour finders which save internal contours can't be fused with thresholding
+	 */
+	@Test
+	public void process_thresholdContours_internal() {
+		var contourFinder = new BinaryContourFinderLinearExternal() {
+			@Override public boolean isSaveInternalContours() {return true;}
+		};
+		ConfigPolygonFromContour config = new ConfigPolygonFromContour(3,4);
+		DetectPolygonFromContour<GrayU8> alg = new DetectPolygonFromContour<>(
+				FactoryPointsToPolyline.create(config.contourToPoly), config.minimumContour,
+				config.clockwise, config.canTouchBorder, config.minimumEdgeIntensity, config.tangentEdgeIntensity,
+				contourFinder, GrayU8.class);
+
+		assertThrows(IllegalArgumentException.class, ()->
+				alg.process(new GrayU8(20,30), FactoryBinaryContourFinder.thresholdExternal(inputToBinary_U8)));
+	}
+
 	private <T extends ImageGray<T>> DetectPolygonFromContour<T> createDetector(Class<T> imageType, int minSides, int maxSides) {
 		ConfigPolygonFromContour config = new ConfigPolygonFromContour(minSides,maxSides);
 
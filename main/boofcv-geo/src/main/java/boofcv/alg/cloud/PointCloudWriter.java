@@ -38,7 +38,11 @@ public interface PointCloudWriter {
 
 	void add( double x , double y , double z , int rgb );
 
-	class CloudArraysF32 implements PointCloudWriter {
+	/**
+	 * Point cloud stored in packed arrays. Points are stored as interleaved (x,y,z) floats and the color of each
+	 * point, if any, as an RGB int. A compact format which can be read and written in bulk.
+	 */
+	class CloudArraysF32 implements PointCloudWriter, PointCloudReader {
 		// Storage for point cloud
 		public GrowQueue_F32 cloudXyz = new GrowQueue_F32();
 		public GrowQueue_I32 cloudRgb = new GrowQueue_I32();
@@ -65,6 +69,35 @@ public interface PointCloudWriter {
 			cloudXyz.add((float)z);
 			cloudRgb.add(rgb);
 		}
+
+		/**
+		 * Returns true if there's a color for every point
+		 */
+		public boolean hasColor() {
+			return cloudRgb.size > 0 && cloudRgb.size*3 == cloudXyz.size;
+		}
+
+		@Override
+		public int size() {
+			return cloudXyz.size/3;
+		}
+
+		@Override
+		public void get(int index, Point3D_F32 point) {
+			int i = index*3;
+			point.set(cloudXyz.data[i], cloudXyz.data[i+1], cloudXyz.data[i+2]);
+		}
+
+		@Override
+		public void get(int index, Point3D_F64 point) {
+			int i = index*3;
+			point.set(cloudXyz.data[i], cloudXyz.data[i+1], cloudXyz.data[i+2]);
+		}
+
+		@Override
+		public int getRGB(int index) {
+			return index < cloudRgb.size ? cloudRgb.data[index] : 0;
+		}
 	}
 
 	static PointCloudWriter wrapF32(FastQueue<Point3D_F32> cloud) {
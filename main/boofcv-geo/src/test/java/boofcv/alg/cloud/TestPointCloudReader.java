@@ -152,6 +152,19 @@ class TestPointCloudReader {
 		}
 	}
 
+	@Nested
+	public class CheckCloudArraysF32 extends ReaderTests {
+		@Override
+		public PointCloudReader createReader(List<Point3dRgbI_F64> points) {
+			var cloud = new PointCloudWriter.CloudArraysF32();
+			cloud.init(points.size());
+			for (Point3dRgbI_F64 p : points) {
+				cloud.add(p.x, p.y, p.z, p.rgb);
+			}
+			return cloud;
+		}
+	}
+
 	@Nested
 	public class CheckWrapF64RGB extends ReaderTests {
 		@Override
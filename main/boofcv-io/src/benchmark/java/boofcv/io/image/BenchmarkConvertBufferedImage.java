@@ -19,130 +19,156 @@
 package boofcv.io.image;
 
 import boofcv.alg.misc.GImageMiscOps;
-import boofcv.io.image.impl.ImplConvertRaster;
-import boofcv.misc.PerformerBase;
-import boofcv.misc.ProfileOperation;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.image.GrayF32;
 import boofcv.struct.image.GrayU8;
-import boofcv.struct.image.ImageBase;
+import boofcv.struct.image.InterleavedU8;
 import boofcv.struct.image.Planar;
-
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.awt.*;
+import java.awt.color.ColorSpace;
 import java.awt.image.BufferedImage;
+import java.awt.image.ColorModel;
+import java.awt.image.ComponentColorModel;
+import java.awt.image.DataBuffer;
+import java.awt.image.DirectColorModel;
 import java.util.Random;
+import java.util.concurrent.TimeUnit;
 
 /**
- * Benchmarks related to converting to and from BufferedImage.
- * 
+ * Benchmarks converting to and from every standard BufferedImage type, plus a few common custom layouts.
+ *
  * @author Peter Abeles
  */
-@SuppressWarnings({"unchecked", "rawtypes"})
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+@Fork(value=1)
 public class BenchmarkConvertBufferedImage {
-	static Random rand = new Random(342543);
-
-	static int imgWidth = 640;
-	static int imgHeight = 480;
-
-	static BufferedImage imgBuff;
-	static GrayU8 imgInt8;
-	static Planar<GrayU8> multiInt8;
-	
-	static ImageBase boofImg;
-
-	public static class FromBuffToBoof extends PerformerBase
-	{
-		@Override
-		public void process() {
-			ConvertBufferedImage.convertFrom(imgBuff,boofImg,true);
+	@Param({"true","false"})
+	public boolean concurrent;
+
+	@Param({"INT_RGB","INT_ARGB","INT_ARGB_PRE","INT_BGR","3BYTE_BGR","4BYTE_ABGR","4BYTE_ABGR_PRE",
+			"USHORT_565_RGB","USHORT_555_RGB","BYTE_GRAY","USHORT_GRAY","BYTE_BINARY","BYTE_INDEXED",
+			"CUSTOM_INT","CUSTOM_USHORT_RGB"})
+	public String type;
+
+	@Param({"1000"})
+	public int size;
+
+	BufferedImage buffered;
+	GrayU8 grayU8 = new GrayU8(1,1);
+	GrayF32 grayF32 = new GrayF32(1,1);
+	Planar<GrayU8> planarU8 = new Planar<>(GrayU8.class,1,1,3);
+	InterleavedU8 interleavedU8 = new InterleavedU8(1,1,3);
+
+	// Input images for converting into a BufferedImage. Not shared since converting from a BufferedImage
+	// can change the number of bands
+	Planar<GrayU8> inputPlanar;
+	InterleavedU8 inputInterleaved;
+
+	@Setup
+	public void setup() {
+		BoofConcurrency.USE_CONCURRENT = concurrent;
+		Random rand = new Random(234);
+
+		buffered = createBuffered(type, size, size);
+		// randomize it to prevent some pathological condition
+		for (int y = 0; y < size; y++) {
+			for (int x = 0; x < size; x++) {
+				buffered.setRGB(x, y, rand.nextInt());
+			}
 		}
+
+		grayU8.reshape(size,size);
+		grayF32.reshape(size,size);
+		GImageMiscOps.fillUniform(grayU8, rand, 0, 255);
+		GImageMiscOps.fillUniform(grayF32, rand, 0, 255);
+
+		// gray images can only be written to from a single band image
+		ColorModel cm = buffered.getColorModel();
+		int numBands = cm.getNumColorComponents() == 1 ? 1 : (cm.hasAlpha() ? 4 : 3);
+		inputPlanar = new Planar<>(GrayU8.class, size, size, numBands);
+		inputInterleaved = new InterleavedU8(size, size, numBands);
+		GImageMiscOps.fillUniform(inputPlanar, rand, 0, 255);
+		GImageMiscOps.fillUniform(inputInterleaved, rand, 0, 255);
 	}
 
-	public static class FromBoofToBuff extends PerformerBase
-	{
-		@Override
-		public void process() {
-			ConvertBufferedImage.convertTo(boofImg,imgBuff,true);
+	public static BufferedImage createBuffered( String type , int width , int height ) {
+		switch( type ) {
+			case "CUSTOM_INT": {
+				// integer image with a non-standard SampleModel
+				DirectColorModel cm = new DirectColorModel(24, 0xFF00, 0xFF, 0xFF0000);
+				return new BufferedImage(cm, cm.createCompatibleWritableRaster(width, height), false, null);
+			}
+			case "CUSTOM_USHORT_RGB": {
+				// 16-bit RGB, e.g. from a PNG
+				ComponentColorModel cm = new ComponentColorModel(ColorSpace.getInstance(ColorSpace.CS_sRGB),
+						false, false, Transparency.OPAQUE, DataBuffer.TYPE_USHORT);
+				return new BufferedImage(cm, cm.createCompatibleWritableRaster(width, height), false, null);
+			}
+		}
+		try {
+			int id = BufferedImage.class.getField("TYPE_" + type).getInt(null);
+			return new BufferedImage(width, height, id);
+		} catch (NoSuchFieldException | IllegalAccessException e) {
+			throw new IllegalArgumentException("Unknown type " + type);
 		}
 	}
 
-	public static class FromInt8ToGenericBuff extends PerformerBase
-	{
-		@Override
-		public void process() {
-			ImplConvertRaster.grayToBuffered(imgInt8,imgBuff);
-		}
+	@Benchmark
+	public GrayU8 fromGrayU8() {
+		return ConvertBufferedImage.convertFrom(buffered, grayU8);
 	}
 
-	public static class ExtractImageInt8 extends PerformerBase
-	{
-		@Override
-		public void process() {
-			ConvertBufferedImage.extractGrayU8(imgBuff);
-		}
+	@Benchmark
+	public GrayF32 fromGrayF32() {
+		return ConvertBufferedImage.convertFrom(buffered, grayF32);
 	}
 
-	public static class ExtractBuffered extends PerformerBase
-	{
-		@Override
-		public void process() {
-			ConvertBufferedImage.extractBuffered(imgInt8);
-		}
+	@Benchmark
+	public Planar<GrayU8> fromPlanarU8() {
+		return ConvertBufferedImage.convertFromPlanar(buffered, planarU8, true, GrayU8.class);
 	}
 
-	public static void createBufferedImage( int type ) {
-		imgBuff = new BufferedImage(imgWidth,imgHeight,type);
+	@Benchmark
+	public InterleavedU8 fromInterleavedU8() {
+		ConvertBufferedImage.convertFromInterleaved(buffered, interleavedU8, true);
+		return interleavedU8;
+	}
 
-		// randomize it to prevent some pathological condition
-		for( int i = 0; i < imgHeight; i++ ) {
-			for( int j = 0; j < imgWidth; j++ ) {
-				imgBuff.setRGB(j,i,rand.nextInt());
-			}
-		}
+	@Benchmark
+	public BufferedImage toGrayU8() {
+		return ConvertBufferedImage.convertTo(grayU8, buffered);
 	}
 
-	public static void evaluateConvert( ImageBase image , String name )
-	{
-		boofImg = image;
-		System.out.printf("Buffered to %s  %10.2f ops/sec\n",name,
-				ProfileOperation.profileOpsPerSec(new FromBuffToBoof(),1000, false));
-		System.out.printf("%s to Buffered  %10.2f ops/sec\n",name,
-				ProfileOperation.profileOpsPerSec(new FromBoofToBuff(),1000, false));
+	@Benchmark
+	public BufferedImage toGrayF32() {
+		return ConvertBufferedImage.convertTo(grayF32, buffered);
+	}
+
+	@Benchmark
+	public BufferedImage toPlanarU8() {
+		return ConvertBufferedImage.convertTo_U8(inputPlanar, buffered, false);
+	}
 
+	@Benchmark
+	public BufferedImage toInterleavedU8() {
+		return ConvertBufferedImage.convertTo(inputInterleaved, buffered, false);
 	}
-	
-	public static void main( String args[] ) {
-		imgInt8 = new GrayU8(imgWidth,imgHeight);
-		multiInt8 = new Planar<>(GrayU8.class,imgWidth,imgHeight,3);
-		
-		GImageMiscOps.fillUniform(imgInt8, rand, 0, 100);
-		for( int i = 0; i < multiInt8.getNumBands(); i++ )
-			GImageMiscOps.fillUniform(multiInt8.getBand(0), rand, 0, 100);
-
-		System.out.println("=========  Profiling for GrayU8 ==========");
-		System.out.println();
-
-		createBufferedImage(BufferedImage.TYPE_3BYTE_BGR);
-		System.out.println("------- BufferedImage RGB interface ---------- ");
-		System.out.printf("BufferedImage to GrayU8   %10.2f ops/sec\n",
-				ProfileOperation.profileOpsPerSec(new FromInt8ToGenericBuff(),1000, false));
-		System.out.println("---- TYPE_3BYTE_BGR ----");
-		evaluateConvert(imgInt8,"GrayU8");
-		evaluateConvert(multiInt8,"Planar_U8");
-
-		System.out.println("---- TYPE_INT_RGB ----");
-		createBufferedImage(BufferedImage.TYPE_INT_RGB);
-		evaluateConvert(imgInt8,"GrayU8");
-		evaluateConvert(multiInt8,"Planar_U8");
-
-		System.out.println("---- TYPE_BYTE_GRAY ----");
-		createBufferedImage(BufferedImage.TYPE_BYTE_GRAY);
-		evaluateConvert(imgInt8,"GrayU8");
-
-		System.out.printf("extractImageInt8             %10.2f ops/sec\n",
-				ProfileOperation.profileOpsPerSec(new ExtractImageInt8(),1000, false));
-		System.out.printf("extractBuffered              %10.2f ops/sec\n",
-				ProfileOperation.profileOpsPerSec(new ExtractBuffered(),1000, false));
-
-		System.out.println();
-		System.out.println("=========  Profiling for ImageInterleavedInt8 ==========");
-		System.out.println();
+
+	public static void main( String[] args ) throws RunnerException {
+		Options opt = new OptionsBuilder()
+				.include(BenchmarkConvertBufferedImage.class.getSimpleName())
+				.build();
+
+		new Runner(opt).run();
 	}
 }
@@ -0,0 +1,94 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.io.image;
+
+import boofcv.alg.filter.blur.GBlurImageOps;
+import boofcv.alg.misc.GImageMiscOps;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.io.UtilIO;
+import boofcv.struct.image.GrayU8;
+import boofcv.struct.image.ImageType;
+import boofcv.struct.image.Planar;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark for loading all the JPEG images in a directory, one at a time and concurrently
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+@Fork(value=1)
+public class BenchmarkLoadImages {
+	@Param({"true","false"})
+	public boolean concurrent;
+
+	@Param({"40"})
+	public int numImages;
+
+	ImageType<Planar<GrayU8>> type = ImageType.pl(3, GrayU8.class);
+	File directory;
+
+	@Setup
+	public void setup() throws IOException {
+		BoofConcurrency.USE_CONCURRENT = concurrent;
+		Random rand = new Random(234);
+
+		// Blurred noise so that it compresses more like a real image
+		directory = Files.createTempDirectory("BenchmarkLoadImages").toFile();
+		var noise = new Planar<>(GrayU8.class, 1280, 960, 3);
+		var image = noise.createSameShape();
+		for (int i = 0; i < numImages; i++) {
+			GImageMiscOps.fillUniform(noise, rand, 0, 255);
+			GBlurImageOps.mean(noise, image, 3, null, null);
+			UtilImageIO.saveImage(image, new File(directory, String.format("image%03d.jpg", i)).getPath());
+		}
+	}
+
+	@TearDown
+	public void tearDown() {
+		UtilIO.deleteRecursive(directory);
+	}
+
+	@Benchmark
+	public int loadImages() {
+		return UtilImageIO.loadImages(directory.getPath(), ".*jpg", true, type).size();
+	}
+
+	public static void main( String[] args ) throws RunnerException {
+		Options opt = new OptionsBuilder()
+				.include(BenchmarkLoadImages.class.getSimpleName())
+				.build();
+
+		new Runner(opt).run();
+	}
+}
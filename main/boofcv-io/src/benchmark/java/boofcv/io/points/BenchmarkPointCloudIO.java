@@ -0,0 +1,105 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.io.points;
+
+import boofcv.alg.cloud.PointCloudWriter;
+import boofcv.alg.cloud.PointCloudWriter.CloudArraysF32;
+import boofcv.io.points.impl.PlyCodec;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.io.*;
+import java.nio.ByteOrder;
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark for saving and loading large point clouds using the stream and memory mapped PLY codecs
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+@Fork(value=1, jvmArgs = {"-Xmx4g"})
+public class BenchmarkPointCloudIO {
+	@Param({"10000000"})
+	public int numPoints;
+
+	CloudArraysF32 cloud = new CloudArraysF32();
+	CloudArraysF32 found = new CloudArraysF32();
+	File file;
+
+	@Setup
+	public void setup() throws IOException {
+		Random rand = new Random(234);
+
+		cloud.init(numPoints);
+		for (int i = 0; i < numPoints; i++) {
+			cloud.add(rand.nextFloat(), rand.nextFloat(), rand.nextFloat(), rand.nextInt() & 0xFFFFFF);
+		}
+
+		file = File.createTempFile("BenchmarkPointCloudIO", ".ply");
+		PlyCodec.saveBinary(cloud, ByteOrder.BIG_ENDIAN, true, file);
+	}
+
+	@TearDown
+	public void tearDown() {
+		file.delete();
+	}
+
+	@Benchmark
+	public void saveStream() throws IOException {
+		try( OutputStream output = new BufferedOutputStream(new FileOutputStream(file)) ) {
+			PlyCodec.saveBinary(cloud, ByteOrder.BIG_ENDIAN, true, true, output);
+		}
+	}
+
+	@Benchmark
+	public void saveMapped() throws IOException {
+		PlyCodec.saveBinary(cloud, ByteOrder.BIG_ENDIAN, true, file);
+	}
+
+	@Benchmark
+	public int loadStream() throws IOException {
+		try( InputStream input = new BufferedInputStream(new FileInputStream(file)) ) {
+			PlyCodec.read(input, (PointCloudWriter)found);
+		}
+		return found.size();
+	}
+
+	@Benchmark
+	public int loadMapped() throws IOException {
+		PlyCodec.read(file, found);
+		return found.size();
+	}
+
+	public static void main( String[] args ) throws RunnerException {
+		Options opt = new OptionsBuilder()
+				.include(BenchmarkPointCloudIO.class.getSimpleName())
+				.build();
+
+		new Runner(opt).run();
+	}
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -27,6 +27,8 @@ import java.awt.color.ColorSpace;
 import java.awt.image.*;
 
 import static boofcv.io.image.ConvertRaster.isKnownByteFormat;
+import static boofcv.io.image.ConvertRaster.isKnownIntFormat;
+import static boofcv.io.image.ConvertRaster.isKnownUShortFormat;
 import static boofcv.io.image.ConvertRaster.orderBandsIntoRGB;
 
 /**
@@ -386,7 +388,7 @@ public class ConvertBufferedImage {
 				} else {
 					ConvertRaster.bufferedToGray(src, dst.data, dst.startIndex, dst.stride);
 				}
-			} else if (buff.getDataType() == DataBuffer.TYPE_INT) {
+			} else if (buff.getDataType() == DataBuffer.TYPE_INT && isKnownIntFormat(src)) {
 				ConvertRaster.bufferedToGray((DataBufferInt)buff,src.getRaster(), dst);
 			} else {
 				ConvertRaster.bufferedToGray(src, dst.data, dst.startIndex, dst.stride);
@@ -415,7 +417,8 @@ public class ConvertBufferedImage {
 		}
 
 		DataBuffer buffer = src.getRaster().getDataBuffer();
-		if (buffer.getDataType() == DataBuffer.TYPE_USHORT ) {
+		if (buffer.getDataType() == DataBuffer.TYPE_USHORT &&
+				isKnownUShortFormat(src) && src.getRaster().getNumBands() == 1 ) {
 			ConvertRaster.bufferedToGray((DataBufferUShort)buffer, src.getRaster(), dst);
 			return dst;
 		}
@@ -449,7 +452,7 @@ public class ConvertBufferedImage {
 				} else {
 					ConvertRaster.bufferedToGray(src, dst.data, dst.startIndex, dst.stride);
 				}
-			} else if (buff.getDataType() == DataBuffer.TYPE_INT) {
+			} else if (buff.getDataType() == DataBuffer.TYPE_INT && isKnownIntFormat(src)) {
 				ConvertRaster.bufferedToGray((DataBufferInt)buff, src.getRaster(), dst);
 			} else {
 				ConvertRaster.bufferedToGray(src, dst.data, dst.startIndex, dst.stride);
@@ -507,7 +510,7 @@ public class ConvertBufferedImage {
 					} else {
 						ConvertRaster.bufferedToPlanar_U8((DataBufferByte)srcBuff, src.getRaster(), (Planar<GrayU8>) dst);
 					}
-				} else if (srcBuff.getDataType() == DataBuffer.TYPE_INT) {
+				} else if (srcBuff.getDataType() == DataBuffer.TYPE_INT && isKnownIntFormat(src)) {
 					ConvertRaster.bufferedToPlanar_U8((DataBufferInt)srcBuff, src.getRaster(), (Planar<GrayU8>) dst);
 				} else {
 					ConvertRaster.bufferedToPlanar_U8(src, (Planar<GrayU8>) dst);
@@ -521,7 +524,7 @@ public class ConvertBufferedImage {
 					} else {
 						ConvertRaster.bufferedToPlanar_F32( (DataBufferByte)srcBuff, src.getRaster(), (Planar<GrayF32>) dst);
 					}
-				} else if (srcBuff.getDataType() == DataBuffer.TYPE_INT) {
+				} else if (srcBuff.getDataType() == DataBuffer.TYPE_INT && isKnownIntFormat(src)) {
 					ConvertRaster.bufferedToPlanar_F32((DataBufferInt)srcBuff, src.getRaster(), (Planar<GrayF32>) dst);
 				} else {
 					ConvertRaster.bufferedToPlanar_F32(src, (Planar<GrayF32>) dst);
@@ -597,7 +600,7 @@ public class ConvertBufferedImage {
 					} else {
 						ConvertRaster.bufferedToInterleaved(src, (InterleavedU8) dst);
 					}
-				} else if (buffer.getDataType() == DataBuffer.TYPE_INT) {
+				} else if (buffer.getDataType() == DataBuffer.TYPE_INT && isKnownIntFormat(src)) {
 					ConvertRaster.bufferedToInterleaved((DataBufferInt)buffer, src.getRaster(), (InterleavedU8) dst);
 				} else {
 					ConvertRaster.bufferedToInterleaved(src, (InterleavedU8) dst);
@@ -613,7 +616,7 @@ public class ConvertBufferedImage {
 					} else {
 						ConvertRaster.bufferedToInterleaved(src, (InterleavedF32) dst);
 					}
-				} else if (buffer.getDataType() == DataBuffer.TYPE_INT) {
+				} else if (buffer.getDataType() == DataBuffer.TYPE_INT && isKnownIntFormat(src)) {
 					ConvertRaster.bufferedToInterleaved((DataBufferInt)buffer, src.getRaster(), (InterleavedF32) dst);
 				} else {
 					ConvertRaster.bufferedToInterleaved(src, (InterleavedF32) dst);
@@ -710,7 +713,7 @@ public class ConvertBufferedImage {
 		try {
 			if (buffer.getDataType() == DataBuffer.TYPE_BYTE && isKnownByteFormat(dst) ) {
 				ConvertRaster.grayToBuffered(src, (DataBufferByte)buffer, dst.getRaster());
-			} else if (buffer.getDataType() == DataBuffer.TYPE_INT) {
+			} else if (buffer.getDataType() == DataBuffer.TYPE_INT && isKnownIntFormat(dst)) {
 				ConvertRaster.grayToBuffered(src, (DataBufferInt)buffer, dst.getRaster());
 			} else {
 				ConvertRaster.grayToBuffered(src, dst);
@@ -739,9 +742,9 @@ public class ConvertBufferedImage {
 		try {
 			if (buffer.getDataType() == DataBuffer.TYPE_BYTE && isKnownByteFormat(dst) ) {
 				ConvertRaster.grayToBuffered(src, (DataBufferByte)buffer, dst.getRaster());
-			} else if (buffer.getDataType() == DataBuffer.TYPE_INT) {
+			} else if (buffer.getDataType() == DataBuffer.TYPE_INT && isKnownIntFormat(dst)) {
 				ConvertRaster.grayToBuffered(src, (DataBufferInt)buffer, dst.getRaster());
-			} else if( buffer.getDataType() == DataBuffer.TYPE_USHORT ) {
+			} else if( buffer.getDataType() == DataBuffer.TYPE_USHORT && isKnownUShortFormat(dst) ) {
 				ConvertRaster.grayToBuffered(src, (DataBufferUShort)buffer, dst.getRaster());
 			} else {
 				ConvertRaster.grayToBuffered(src, dst);
@@ -771,7 +774,7 @@ public class ConvertBufferedImage {
 		try {
 			if (buffer.getDataType() == DataBuffer.TYPE_BYTE && isKnownByteFormat(dst) ) {
 				ConvertRaster.grayToBuffered(src, (DataBufferByte)buffer, dst.getRaster());
-			} else if ( buffer.getDataType() == DataBuffer.TYPE_INT ) {
+			} else if ( buffer.getDataType() == DataBuffer.TYPE_INT && isKnownIntFormat(dst) ) {
 				ConvertRaster.grayToBuffered(src, (DataBufferInt)buffer, dst.getRaster());
 			} else {
 				ConvertRaster.grayToBuffered(src, dst);
@@ -805,7 +808,7 @@ public class ConvertBufferedImage {
 		try {
 			if (buffer.getDataType() == DataBuffer.TYPE_BYTE && isKnownByteFormat(dst) ) {
 				ConvertRaster.planarToBuffered_U8(src, (DataBufferByte)buffer, dst.getRaster());
-			} else if (buffer.getDataType() == DataBuffer.TYPE_INT) {
+			} else if (buffer.getDataType() == DataBuffer.TYPE_INT && isKnownIntFormat(dst)) {
 				ConvertRaster.planarToBuffered_U8(src, (DataBufferInt)buffer, dst.getRaster());
 			} else {
 				ConvertRaster.planarToBuffered_U8(src, dst);
@@ -850,7 +853,7 @@ public class ConvertBufferedImage {
 				ConvertRaster.interleavedToBuffered(src, (DataBufferByte)buffer, dst.getRaster());
 				if( orderRgb )
 					ConvertRaster.orderBandsBufferedFromRGB((DataBufferByte)buffer, dst.getRaster(),dst.getType());
-			} else if (buffer.getDataType() == DataBuffer.TYPE_INT) {
+			} else if (buffer.getDataType() == DataBuffer.TYPE_INT && isKnownIntFormat(dst)) {
 				ConvertRaster.interleavedToBuffered(src, (DataBufferInt)buffer, dst.getRaster());
 				if( orderRgb )
 					ConvertRaster.orderBandsBufferedFromRGB((DataBufferInt)buffer, dst.getRaster(), dst.getType());
@@ -875,7 +878,7 @@ public class ConvertBufferedImage {
 				ConvertRaster.interleavedToBuffered(src, (DataBufferByte)buffer, dst.getRaster());
 				if( orderRgb )
 					ConvertRaster.orderBandsBufferedFromRGB((DataBufferByte)buffer, dst.getRaster(),dst.getType());
-			} else if (buffer.getDataType() == DataBuffer.TYPE_INT) {
+			} else if (buffer.getDataType() == DataBuffer.TYPE_INT && isKnownIntFormat(dst)) {
 				ConvertRaster.interleavedToBuffered(src, (DataBufferInt)buffer, dst.getRaster());
 				if( orderRgb )
 					ConvertRaster.orderBandsBufferedFromRGB((DataBufferInt)buffer, dst.getRaster(), dst.getType());
@@ -216,7 +216,7 @@ public class ConvertRaster {
 			try {
 				if (buffer.getDataType() == DataBuffer.TYPE_BYTE && isKnownByteFormat(dst)) {
 					ImplConvertRaster_MT.planarToBuffered_F32(src, (DataBufferByte) buffer, dst.getRaster());
-				} else if (buffer.getDataType() == DataBuffer.TYPE_INT) {
+				} else if (buffer.getDataType() == DataBuffer.TYPE_INT && isKnownIntFormat(dst)) {
 					ImplConvertRaster_MT.planarToBuffered_F32(src, (DataBufferInt) buffer, dst.getRaster());
 				} else {
 					ImplConvertRaster_MT.planarToBuffered_F32(src, dst);
@@ -230,7 +230,7 @@ public class ConvertRaster {
 			try {
 				if (buffer.getDataType() == DataBuffer.TYPE_BYTE && isKnownByteFormat(dst)) {
 					ImplConvertRaster.planarToBuffered_F32(src, (DataBufferByte) buffer, dst.getRaster());
-				} else if (buffer.getDataType() == DataBuffer.TYPE_INT) {
+				} else if (buffer.getDataType() == DataBuffer.TYPE_INT && isKnownIntFormat(dst)) {
 					ImplConvertRaster.planarToBuffered_F32(src, (DataBufferInt) buffer, dst.getRaster());
 				} else {
 					ImplConvertRaster.planarToBuffered_F32(src, dst);
@@ -250,7 +250,7 @@ public class ConvertRaster {
 					ImplConvertRaster_MT.interleavedToBuffered(src, (DataBufferByte) buffer, dst.getRaster());
 					if (orderRgb)
 						ImplConvertRaster_MT.orderBandsBufferedFromRGB((DataBufferByte) buffer, dst.getRaster(), dst.getType());
-				} else if (buffer.getDataType() == DataBuffer.TYPE_INT) {
+				} else if (buffer.getDataType() == DataBuffer.TYPE_INT && isKnownIntFormat(dst)) {
 					ImplConvertRaster_MT.interleavedToBuffered(src, (DataBufferInt) buffer, dst.getRaster());
 					if (orderRgb)
 						ImplConvertRaster_MT.orderBandsBufferedFromRGB((DataBufferInt) buffer, dst.getRaster(), dst.getType());
@@ -268,7 +268,7 @@ public class ConvertRaster {
 					ImplConvertRaster.interleavedToBuffered(src, (DataBufferByte) buffer, dst.getRaster());
 					if (orderRgb)
 						ImplConvertRaster.orderBandsBufferedFromRGB((DataBufferByte) buffer, dst.getRaster(), dst.getType());
-				} else if (buffer.getDataType() == DataBuffer.TYPE_INT) {
+				} else if (buffer.getDataType() == DataBuffer.TYPE_INT && isKnownIntFormat(dst)) {
 					ImplConvertRaster.interleavedToBuffered(src, (DataBufferInt) buffer, dst.getRaster());
 					if (orderRgb)
 						ImplConvertRaster.orderBandsBufferedFromRGB((DataBufferInt) buffer, dst.getRaster(), dst.getType());
@@ -687,6 +687,32 @@ public class ConvertRaster {
 	}
 
 
+	/**
+	 * Checks to see if the integer image is packed in the layout expected by the integer conversions, i.e. each pixel
+	 * is RGB with an optional alpha in the upper 8-bits. BGR is only supported by {@link BufferedImage#TYPE_INT_BGR}.
+	 */
+	public static boolean isKnownIntFormat( BufferedImage image ) {
+		SampleModel sm = image.getRaster().getSampleModel();
+		if( !(sm instanceof SinglePixelPackedSampleModel) )
+			return false;
+		if( image.getType() == BufferedImage.TYPE_INT_BGR )
+			return true;
+		int[] masks = ((SinglePixelPackedSampleModel)sm).getBitMasks();
+		if( masks.length != 3 && masks.length != 4 )
+			return false;
+		if( masks[0] != 0xFF0000 || masks[1] != 0xFF00 || masks[2] != 0xFF )
+			return false;
+		return masks.length == 3 || masks[3] == 0xFF000000;
+	}
+
+	/**
+	 * Checks to see if the 16-bit image is in the layout expected by the 16-bit conversions, i.e. not packed
+	 * like {@link BufferedImage#TYPE_USHORT_565_RGB}.
+	 */
+	public static boolean isKnownUShortFormat( BufferedImage image ) {
+		return image.getRaster().getSampleModel() instanceof ComponentSampleModel;
+	}
+
 	/**
 	 * Checks to see if it is a known byte format
 	 */
@@ -0,0 +1,469 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.io.image;
+
+import boofcv.struct.image.*;
+
+import javax.annotation.Nullable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * <p>
+ * Reads and writes images using memory mapped files. Pixels are transferred between the file and the image's
+ * backing array using bulk copies, one row or one image at a time, so performance is limited by the storage
+ * bandwidth and not by per-pixel processing. Two formats are supported:
+ * </p>
+ *
+ * <ul>
+ *     <li>Binary PPM (P6) and PGM (P5) with 8-bit values.</li>
+ *     <li>BoofCV raw format. Supports every {@link ImageDataType} and image family. Intended for storing
+ *     intermediate results between processing stages.</li>
+ * </ul>
+ *
+ * <p>
+ * Raw format: A 32-byte header followed by pixel data. The header starts with the ASCII magic "BOOFRAW1",
+ * then a single character for the family ('G' = gray, 'P' = planar, 'I' = interleaved), the
+ * data type name padded with spaces to 3 characters, then width, height, and number of bands as 32-bit integers.
+ * The remaining header bytes are zero. Pixel values are stored in little endian row-major order without any
+ * padding. Planar images store each band one after another.
+ * </p>
+ *
+ * <p>
+ * NOTE: Java doesn't provide a way to explicitly unmap a file. On some operating systems a file can't be
+ * deleted until the mapped buffer has been garbage collected.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class NioImageIO {
+	/** Identifies a file as a BoofCV raw image */
+	public static final String RAW_MAGIC = "BOOFRAW1";
+	/** Number of bytes in the raw header */
+	public static final int RAW_HEADER_SIZE = 32;
+
+	/**
+	 * Reads a binary PGM image.
+	 *
+	 * @param file Location of the PGM file
+	 * @param storage (Optional) Where the image is written in to. Will be resized if needed. If null
+	 *                a new image is declared.
+	 * @return The image.
+	 */
+	public static GrayU8 loadPGM( File file, @Nullable GrayU8 storage ) throws IOException {
+		ByteBuffer buffer = mapRead(file);
+		Header header = readHeaderPNM(buffer, "P5");
+
+		if( storage == null )
+			storage = new GrayU8(header.width, header.height);
+		else
+			storage.reshape(header.width, header.height);
+
+		checkSize(buffer, header.width*header.height);
+		transferU8(buffer, storage.data, storage.startIndex, storage.stride, storage.width, storage.height, true);
+		return storage;
+	}
+
+	/**
+	 * Reads a binary PPM image into a planar image.
+	 *
+	 * @param file Location of the PPM file
+	 * @param storage (Optional) Where the image is written in to. Will be resized if needed. If null
+	 *                or the number of bands isn't 3, a new image is declared.
+	 * @return The image.
+	 */
+	public static Planar<GrayU8> loadPPM( File file, @Nullable Planar<GrayU8> storage ) throws IOException {
+		ByteBuffer buffer = mapRead(file);
+		Header header = readHeaderPNM(buffer, "P6");
+
+		if( storage == null || storage.getNumBands() != 3 )
+			storage = new Planar<>(GrayU8.class, header.width, header.height, 3);
+		else
+			storage.reshape(header.width, header.height);
+
+		checkSize(buffer, header.width*header.height*3);
+
+		byte[] row = new byte[storage.width*3];
+		byte[] band0 = storage.getBand(0).data;
+		byte[] band1 = storage.getBand(1).data;
+		byte[] band2 = storage.getBand(2).data;
+
+		for (int y = 0; y < storage.height; y++) {
+			buffer.get(row);
+			int indexOut = storage.startIndex + y*storage.stride;
+			int indexIn = 0;
+			for (int x = 0; x < storage.width; x++, indexOut++) {
+				band0[indexOut] = row[indexIn++];
+				band1[indexOut] = row[indexIn++];
+				band2[indexOut] = row[indexIn++];
+			}
+		}
+		return storage;
+	}
+
+	/**
+	 * Reads a binary PPM image into an interleaved image. Rows are copied directly into the image.
+	 *
+	 * @param file Location of the PPM file
+	 * @param storage (Optional) Where the image is written in to. Will be resized if needed. If null
+	 *                a new image is declared.
+	 * @return The image.
+	 */
+	public static InterleavedU8 loadPPMInterleaved( File file, @Nullable InterleavedU8 storage ) throws IOException {
+		ByteBuffer buffer = mapRead(file);
+		Header header = readHeaderPNM(buffer, "P6");
+
+		if( storage == null )
+			storage = new InterleavedU8(header.width, header.height, 3);
+		else
+			storage.reshape(header.width, header.height, 3);
+
+		checkSize(buffer, header.width*header.height*3);
+		transferU8(buffer, storage.data, storage.startIndex, storage.stride, storage.width*3, storage.height, true);
+		return storage;
+	}
+
+	/**
+	 * Saves an image in binary PGM format.
+	 */
+	public static void savePGM( GrayU8 gray, File file ) throws IOException {
+		byte[] header = headerPNM("P5", gray.width, gray.height);
+		ByteBuffer buffer = mapWrite(file, header.length + (long)gray.width*gray.height);
+		buffer.put(header);
+		transferU8(buffer, gray.data, gray.startIndex, gray.stride, gray.width, gray.height, false);
+	}
+
+	/**
+	 * Saves a 3-band planar image in binary PPM format.
+	 */
+	public static void savePPM( Planar<GrayU8> rgb, File file ) throws IOException {
+		if( rgb.getNumBands() != 3 )
+			throw new IllegalArgumentException("Image must have 3 bands");
+
+		byte[] header = headerPNM("P6", rgb.width, rgb.height);
+		ByteBuffer buffer = mapWrite(file, header.length + (long)rgb.width*rgb.height*3);
+		buffer.put(header);
+
+		byte[] row = new byte[rgb.width*3];
+		byte[] band0 = rgb.getBand(0).data;
+		byte[] band1 = rgb.getBand(1).data;
+		byte[] band2 = rgb.getBand(2).data;
+
+		for (int y = 0; y < rgb.height; y++) {
+			int indexIn = rgb.startIndex + y*rgb.stride;
+			int indexOut = 0;
+			for (int x = 0; x < rgb.width; x++, indexIn++) {
+				row[indexOut++] = band0[indexIn];
+				row[indexOut++] = band1[indexIn];
+				row[indexOut++] = band2[indexIn];
+			}
+			buffer.put(row);
+		}
+	}
+
+	/**
+	 * Saves a 3-band interleaved image in binary PPM format.
+	 */
+	public static void savePPM( InterleavedU8 rgb, File file ) throws IOException {
+		if( rgb.getNumBands() != 3 )
+			throw new IllegalArgumentException("Image must have 3 bands");
+
+		byte[] header = headerPNM("P6", rgb.width, rgb.height);
+		ByteBuffer buffer = mapWrite(file, header.length + (long)rgb.width*rgb.height*3);
+		buffer.put(header);
+		transferU8(buffer, rgb.data, rgb.startIndex, rgb.stride, rgb.width*3, rgb.height, false);
+	}
+
+	/**
+	 * Saves any image in the BoofCV raw format.
+	 *
+	 * @param image The image being saved
+	 * @param file Where it should be saved
+	 */
+	public static void saveRaw( ImageBase image, File file ) throws IOException {
+		ImageType type = image.getImageType();
+		int numBands = type.getNumBands();
+		long numBytes = (long)image.width*image.height*numBands*type.getDataType().getNumBits()/8;
+
+		ByteBuffer buffer = mapWrite(file, RAW_HEADER_SIZE + numBytes);
+		buffer.order(ByteOrder.LITTLE_ENDIAN);
+
+		buffer.put(RAW_MAGIC.getBytes(StandardCharsets.US_ASCII));
+		buffer.put((byte)familyToChar(type.getFamily()));
+		buffer.put(String.format("%-3s", type.getDataType().name()).getBytes(StandardCharsets.US_ASCII));
+		buffer.putInt(image.width);
+		buffer.putInt(image.height);
+		buffer.putInt(numBands);
+		buffer.position(RAW_HEADER_SIZE);
+
+		transferImage(buffer, image, false);
+	}
+
+	/**
+	 * Loads an image which was saved in the BoofCV raw format. The type of image is specified by the file.
+	 *
+	 * @param file Location of the image
+	 * @return The image.
+	 */
+	public static ImageBase loadRaw( File file ) throws IOException {
+		return loadRaw(file, null);
+	}
+
+	/**
+	 * Loads an image which was saved in the BoofCV raw format into the provided storage.
+	 *
+	 * @param file Location of the image
+	 * @param storage (Optional) Where the image is written in to. Will be resized if needed, but must be of
+	 *                the same type as the saved image. If null a new image is declared.
+	 * @return The image.
+	 */
+	public static <T extends ImageBase<T>> T loadRaw( File file, @Nullable T storage ) throws IOException {
+		ByteBuffer buffer = mapRead(file);
+		buffer.order(ByteOrder.LITTLE_ENDIAN);
+
+		if( buffer.remaining() < RAW_HEADER_SIZE )
+			throw new IOException("File is too small to be a raw image");
+		byte[] text = new byte[RAW_MAGIC.length()];
+		buffer.get(text);
+		if( !RAW_MAGIC.equals(new String(text, StandardCharsets.US_ASCII)) )
+			throw new IOException("Not a BoofCV raw image. Unexpected magic");
+
+		ImageType.Family family = charToFamily((char)buffer.get());
+		text = new byte[3];
+		buffer.get(text);
+		ImageDataType dataType = ImageDataType.valueOf(new String(text, StandardCharsets.US_ASCII).trim());
+		int width = buffer.getInt();
+		int height = buffer.getInt();
+		int numBands = buffer.getInt();
+		buffer.position(RAW_HEADER_SIZE);
+
+		ImageType<T> type = new ImageType<>(family, dataType, numBands);
+		if( storage == null ) {
+			storage = type.createImage(width, height);
+		} else {
+			ImageType<T> found = storage.getImageType();
+			if( found.getFamily() != family || found.getDataType() != dataType )
+				throw new IllegalArgumentException("Storage is "+found+" but the file contains "+type);
+			if( storage instanceof Planar ) {
+				((Planar)storage).setNumberOfBands(numBands);
+				storage.reshape(width, height);
+			} else if( storage instanceof ImageInterleaved ) {
+				((ImageInterleaved)storage).reshape(width, height, numBands);
+			} else {
+				storage.reshape(width, height);
+			}
+		}
+
+		checkSize(buffer, (long)width*height*numBands*dataType.getNumBits()/8);
+		transferImage(buffer, storage, true);
+		return storage;
+	}
+
+	/**
+	 * Copies pixels between the buffer and the image
+	 *
+	 * @param read If true then data is copied from the buffer into the image. Otherwise, the reverse.
+	 */
+	static void transferImage( ByteBuffer buffer, ImageBase image, boolean read ) {
+		if( image instanceof Planar ) {
+			Planar<?> planar = (Planar<?>)image;
+			for (int band = 0; band < planar.getNumBands(); band++) {
+				transferImage(buffer, planar.getBand(band), read);
+			}
+			return;
+		}
+
+		int numBands = image.getImageType().getNumBands();
+		int rowLength = image.width*numBands;
+		Object array = dataArray(image);
+
+		// A single copy is possible if there's no padding between rows
+		if( image.stride == rowLength ) {
+			transfer(buffer, array, image.startIndex, rowLength*image.height, read);
+		} else {
+			for (int y = 0; y < image.height; y++) {
+				transfer(buffer, array, image.startIndex + y*image.stride, rowLength, read);
+			}
+		}
+	}
+
+	/**
+	 * Copies elements between the buffer and a primitive array. The buffer's position is advanced.
+	 */
+	static void transfer( ByteBuffer buffer, Object array, int offset, int length, boolean read ) {
+		final int position = buffer.position();
+		final int bytes;
+		if( array instanceof byte[] ) {
+			if( read ) buffer.get((byte[])array, offset, length);
+			else buffer.put((byte[])array, offset, length);
+			return;
+		} else if( array instanceof short[] ) {
+			if( read ) buffer.asShortBuffer().get((short[])array, offset, length);
+			else buffer.asShortBuffer().put((short[])array, offset, length);
+			bytes = 2;
+		} else if( array instanceof int[] ) {
+			if( read ) buffer.asIntBuffer().get((int[])array, offset, length);
+			else buffer.asIntBuffer().put((int[])array, offset, length);
+			bytes = 4;
+		} else if( array instanceof long[] ) {
+			if( read ) buffer.asLongBuffer().get((long[])array, offset, length);
+			else buffer.asLongBuffer().put((long[])array, offset, length);
+			bytes = 8;
+		} else if( array instanceof float[] ) {
+			if( read ) buffer.asFloatBuffer().get((float[])array, offset, length);
+			else buffer.asFloatBuffer().put((float[])array, offset, length);
+			bytes = 4;
+		} else if( array instanceof double[] ) {
+			if( read ) buffer.asDoubleBuffer().get((double[])array, offset, length);
+			else buffer.asDoubleBuffer().put((double[])array, offset, length);
+			bytes = 8;
+		} else {
+			throw new IllegalArgumentException("Unknown array type "+array.getClass().getSimpleName());
+		}
+		// views don't modify the position of the original buffer
+		buffer.position(position + length*bytes);
+	}
+
+	/**
+	 * Copies rows of 8-bit data between the buffer and an array
+	 */
+	private static void transferU8( ByteBuffer buffer, byte[] data, int startIndex, int stride,
+									int rowLength, int rows, boolean read ) {
+		if( stride == rowLength ) {
+			transfer(buffer, data, startIndex, rowLength*rows, read);
+		} else {
+			for (int y = 0; y < rows; y++) {
+				transfer(buffer, data, startIndex + y*stride, rowLength, read);
+			}
+		}
+	}
+
+	/**
+	 * Returns the array which stores the image's pixels
+	 */
+	static Object dataArray( ImageBase image ) {
+		if( image instanceof GrayI8 ) return ((GrayI8)image).data;
+		if( image instanceof GrayI16 ) return ((GrayI16)image).data;
+		if( image instanceof GrayS32 ) return ((GrayS32)image).data;
+		if( image instanceof GrayS64 ) return ((GrayS64)image).data;
+		if( image instanceof GrayF32 ) return ((GrayF32)image).data;
+		if( image instanceof GrayF64 ) return ((GrayF64)image).data;
+		if( image instanceof InterleavedI8 ) return ((InterleavedI8)image).data;
+		if( image instanceof InterleavedI16 ) return ((InterleavedI16)image).data;
+		if( image instanceof InterleavedS32 ) return ((InterleavedS32)image).data;
+		if( image instanceof InterleavedS64 ) return ((InterleavedS64)image).data;
+		if( image instanceof InterleavedF32 ) return ((InterleavedF32)image).data;
+		if( image instanceof InterleavedF64 ) return ((InterleavedF64)image).data;
+		throw new IllegalArgumentException("Unsupported image type "+image.getClass().getSimpleName());
+	}
+
+	private static char familyToChar( ImageType.Family family ) {
+		return switch( family ) {
+			case GRAY -> 'G';
+			case PLANAR -> 'P';
+			case INTERLEAVED -> 'I';
+		};
+	}
+
+	private static ImageType.Family charToFamily( char c ) throws IOException {
+		return switch( c ) {
+			case 'G' -> ImageType.Family.GRAY;
+			case 'P' -> ImageType.Family.PLANAR;
+			case 'I' -> ImageType.Family.INTERLEAVED;
+			default -> throw new IOException("Unknown image family "+c);
+		};
+	}
+
+	private static byte[] headerPNM( String magic, int width, int height ) {
+		return String.format("%s\n%d %d\n255\n", magic, width, height).getBytes(StandardCharsets.US_ASCII);
+	}
+
+	/**
+	 * Parses the header of a PGM or PPM file. When done the buffer's position is at the start of the pixel data.
+	 */
+	static Header readHeaderPNM( ByteBuffer buffer, String expectedMagic ) throws IOException {
+		String magic = readToken(buffer);
+		if( !expectedMagic.equals(magic) )
+			throw new IOException("Expected "+expectedMagic+" but found "+magic);
+		var header = new Header();
+		header.width = Integer.parseInt(readToken(buffer));
+		header.height = Integer.parseInt(readToken(buffer));
+		int maxValue = Integer.parseInt(readToken(buffer));
+		if( maxValue > 255 )
+			throw new IOException("Only 8-bit images are supported. Max value = "+maxValue);
+		// A single white space character separates the header from the data
+		buffer.get();
+		return header;
+	}
+
+	/**
+	 * Reads the next token in a PNM header, skipping white space and comments
+	 */
+	private static String readToken( ByteBuffer buffer ) throws IOException {
+		var token = new StringBuilder();
+		while( buffer.hasRemaining() ) {
+			char c = (char)buffer.get(buffer.position());
+			if( c == '#' ) {
+				// skip comments until the end of the line
+				while( buffer.hasRemaining() && buffer.get() != '\n' ) {}
+			} else if( Character.isWhitespace(c) ) {
+				if( token.length() > 0 )
+					return token.toString();
+				buffer.get();
+			} else {
+				token.append(c);
+				buffer.get();
+			}
+		}
+		if( token.length() == 0 )
+			throw new IOException("Unexpected end of file in header");
+		return token.toString();
+	}
+
+	private static void checkSize( ByteBuffer buffer, long expected ) throws IOException {
+		if( buffer.remaining() < expected )
+			throw new IOException("File is truncated. Expected "+expected+" bytes of pixel data but found "+
+					buffer.remaining());
+	}
+
+	private static MappedByteBuffer mapRead( File file ) throws IOException {
+		try( FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ) ) {
+			return channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+		}
+	}
+
+	private static MappedByteBuffer mapWrite( File file, long size ) throws IOException {
+		if( size > Integer.MAX_VALUE )
+			throw new IllegalArgumentException("Image is too large to be mapped. bytes="+size);
+		try( FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE,
+				StandardOpenOption.TRUNCATE_EXISTING, StandardOpenOption.READ, StandardOpenOption.WRITE) ) {
+			return channel.map(FileChannel.MapMode.READ_WRITE, 0, size);
+		}
+	}
+
+	static class Header {
+		int width, height;
+	}
+}
@@ -18,6 +18,7 @@
 
 package boofcv.io.image;
 
+import boofcv.concurrency.BoofConcurrency;
 import boofcv.io.UtilIO;
 import boofcv.struct.image.*;
 import org.apache.commons.io.FilenameUtils;
@@ -29,9 +30,11 @@ import java.io.*;
 import java.net.URL;
 import java.net.URLDecoder;
 import java.nio.file.Files;
+import java.util.ArrayDeque;
 import java.util.ArrayList;
 import java.util.Collections;
 import java.util.List;
+import java.util.concurrent.*;
 
 import static boofcv.io.UtilIO.UTF8;
 
@@ -170,6 +173,109 @@ public class UtilImageIO {
 		return output;
 	}
 
+	/**
+	 * Loads all the images in the specified directory which match the provided regex and converts them into
+	 * the specified type. Images are decoded concurrently if {@link BoofConcurrency#USE_CONCURRENT} is true.
+	 *
+	 * @param directory File directory
+	 * @param regex Regex used to match file names
+	 * @param orderRgb If true then color images will be in RGB order
+	 * @param imageType Type of image that should be returned.
+	 * @return List of found images, sorted by file name. Images which could not be loaded are skipped.
+	 */
+	public static <T extends ImageBase<T>> List<T> loadImages( String directory , String regex ,
+															   boolean orderRgb, ImageType<T> imageType ) {
+		List<String> paths = UtilIO.listByRegex(directory,regex);
+		// Sort so that the order is deterministic
+		Collections.sort(paths);
+
+		List<T> ret = new ArrayList<>();
+		loadImages(paths, orderRgb, imageType, (index, path, image) -> {
+			if( image != null )
+				ret.add(image);
+		});
+		return ret;
+	}
+
+	/**
+	 * Loads a list of images and passes them to the handler one at a time in the same order as the list.
+	 * If {@link BoofConcurrency#USE_CONCURRENT} is true then several images are decoded in parallel on
+	 * background threads while the handler is processing earlier images. The number of decoded images
+	 * waiting to be handled is limited to twice the number of threads, so memory use is bounded even for
+	 * very long lists. The handler is always invoked on the calling thread.
+	 *
+	 * @param paths Path to each image
+	 * @param orderRgb If true then color images will be in RGB order
+	 * @param imageType Type of image that should be returned.
+	 * @param handler Processes each image after it has been loaded. The image is not recycled
+	 *                and can be saved by the handler.
+	 */
+	public static <T extends ImageBase<T>> void loadImages( List<String> paths , boolean orderRgb,
+															ImageType<T> imageType, LoadedImageHandler<T> handler ) {
+		if( !BoofConcurrency.USE_CONCURRENT ) {
+			for( int i = 0; i < paths.size(); i++ ) {
+				handler.handle(i, paths.get(i), loadAndConvert(paths.get(i), orderRgb, imageType));
+			}
+			return;
+		}
+
+		int numThreads = BoofConcurrency.getMaxThreads();
+		ExecutorService executor = Executors.newFixedThreadPool(numThreads, r -> {
+			Thread t = new Thread(r, "UtilImageIO.loadImages");
+			t.setDaemon(true);
+			return t;
+		});
+		ArrayDeque<Future<T>> pending = new ArrayDeque<>();
+		try {
+			int next = 0;
+			for( int i = 0; i < paths.size(); i++ ) {
+				// keep the threads busy while limiting the number of images in memory
+				while( next < paths.size() && pending.size() < 2*numThreads ) {
+					final String path = paths.get(next++);
+					pending.add(executor.submit(() -> loadAndConvert(path, orderRgb, imageType)));
+				}
+
+				T image;
+				try {
+					image = pending.removeFirst().get();
+				} catch( InterruptedException e ) {
+					throw new RuntimeException(e);
+				} catch( ExecutionException e ) {
+					if( e.getCause() instanceof RuntimeException )
+						throw (RuntimeException)e.getCause();
+					throw new RuntimeException(e.getCause());
+				}
+				handler.handle(i, paths.get(i), image);
+			}
+		} finally {
+			executor.shutdownNow();
+		}
+	}
+
+	private static <T extends ImageBase<T>> T loadAndConvert( String path , boolean orderRgb, ImageType<T> imageType ) {
+		BufferedImage img = loadImage(path);
+		if( img == null )
+			return null;
+
+		T output = imageType.createImage(img.getWidth(),img.getHeight());
+		ConvertBufferedImage.convertFrom(img, orderRgb, output);
+		return output;
+	}
+
+	/**
+	 * Used to process images as they are loaded by
+	 * {@link #loadImages(List, boolean, ImageType, LoadedImageHandler)}
+	 */
+	@FunctionalInterface
+	public interface LoadedImageHandler<T extends ImageBase<T>> {
+		/**
+		 * @param index Index of the image in the list of paths
+		 * @param path Path to the image
+		 * @param image The loaded image or null if it could not be loaded
+		 */
+		void handle( int index, String path, T image );
+	}
+
 	/**
 	 * Saves the {@link BufferedImage} to the specified file.  The image type of the output is determined by
 	 * the name's extension.  By default the file is saved using {@link ImageIO#write(RenderedImage, String, File)}}
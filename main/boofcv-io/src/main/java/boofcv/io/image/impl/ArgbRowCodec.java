@@ -0,0 +1,497 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.io.image.impl;
+
+import java.awt.color.ColorSpace;
+import java.awt.image.*;
+import java.util.Arrays;
+
+/**
+ * <p>
+ * Reads and writes entire rows of a {@link BufferedImage} as packed ARGB pixels, the same format used by
+ * {@link BufferedImage#getRGB(int, int)}. Layouts which don't have a dedicated conversion in {@link ImplConvertRaster},
+ * e.g. indexed color, bit packed binary, 16-bit gray and RGB, 5-6-5 / 5-5-5 packed, and integer rasters with
+ * non-standard masks, are decoded directly from the raster's data array using lookup tables. Going through the
+ * ColorModel one pixel at a time with getRGB() and setRGB() is 10 to 50 times slower. All other layouts fall back
+ * to the row versions of getRGB() and setRGB().
+ * </p>
+ *
+ * <p>
+ * Gray scale rasters are scaled linearly into 8-bit values. getRGB() distorts gray images, see Bug ID: 5051418.
+ * </p>
+ *
+ * <p>
+ * Thread safe as long as each thread reads and writes different rows.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public abstract class ArgbRowCodec {
+	// number of bits used to look up the memorized nearest color in indexed images
+	private static final int MEMO_BITS = 12;
+
+	/** Width of a row in pixels */
+	protected final int width;
+
+	protected ArgbRowCodec( int width ) {
+		this.width = width;
+	}
+
+	/**
+	 * Selects the fastest way to access the image's pixels
+	 */
+	public static ArgbRowCodec create( BufferedImage image ) {
+		WritableRaster raster = image.getRaster();
+		ColorModel cm = image.getColorModel();
+		SampleModel sm = raster.getSampleModel();
+		DataBuffer buffer = raster.getDataBuffer();
+
+		if( buffer.getNumBanks() != 1 || cm.isAlphaPremultiplied() )
+			return new Generic(image);
+
+		int dataType = buffer.getDataType();
+		boolean byteOrShort = dataType == DataBuffer.TYPE_BYTE || dataType == DataBuffer.TYPE_USHORT;
+
+		if( cm instanceof IndexColorModel ) {
+			if( sm instanceof MultiPixelPackedSampleModel && dataType == DataBuffer.TYPE_BYTE )
+				return new IndexedBits(image);
+			if( sm instanceof ComponentSampleModel && sm.getNumBands() == 1 && byteOrShort )
+				return new Indexed(image);
+		} else if( cm instanceof DirectColorModel && sm instanceof SinglePixelPackedSampleModel ) {
+			boolean valid = cm.getColorSpace().isCS_sRGB();
+			for (int i = 0; i < cm.getNumComponents(); i++) {
+				valid &= cm.getComponentSize(i) <= 16;
+			}
+			if( valid )
+				return new Packed(image);
+		} else if( cm instanceof ComponentColorModel && sm instanceof ComponentSampleModel && byteOrShort ) {
+			int numColor = cm.getNumColorComponents();
+			ColorSpace cs = cm.getColorSpace();
+			boolean valid = (numColor == 1 && cs.getType() == ColorSpace.TYPE_GRAY) || (numColor == 3 && cs.isCS_sRGB());
+			for (int i = 0; i < cm.getNumComponents(); i++) {
+				valid &= cm.getComponentSize(i) == DataBuffer.getDataTypeSize(dataType);
+			}
+			if( valid )
+				return new Component(image);
+		}
+		return new Generic(image);
+	}
+
+	/**
+	 * Reads row 'y' and converts it into ARGB
+	 *
+	 * @param y Which row in the image
+	 * @param argb (Output) Storage for the pixels in the row. Must be at least as long as the image is wide.
+	 */
+	public abstract void read( int y , int[] argb );
+
+	/**
+	 * Converts the ARGB pixels into the image's format and writes them into row 'y'
+	 *
+	 * @param y Which row in the image
+	 * @param argb Pixels in the row. Must be at least as long as the image is wide.
+	 */
+	public abstract void write( int y , int[] argb );
+
+	/**
+	 * Returns the first element in a pixel returned by {@link ColorModel#getDataElements(int, Object)}
+	 */
+	static int element( Object pixel ) {
+		if( pixel instanceof byte[] )
+			return ((byte[])pixel)[0] & 0xFF;
+		else if( pixel instanceof short[] )
+			return ((short[])pixel)[0] & 0xFFFF;
+		else
+			return ((int[])pixel)[0];
+	}
+
+	/**
+	 * Converts a 16-bit value into an 8-bit value with rounding
+	 */
+	static int to8( int value ) {
+		return (value*255 + 32767)/65535;
+	}
+
+	/**
+	 * Uses getRGB() and setRGB(). Works with every type of image.
+	 */
+	static class Generic extends ArgbRowCodec {
+		final BufferedImage image;
+
+		Generic( BufferedImage image ) {
+			super(image.getWidth());
+			this.image = image;
+		}
+
+		@Override
+		public void read(int y, int[] argb) {
+			image.getRGB(0, y, width, 1, argb, 0, width);
+		}
+
+		@Override
+		public void write(int y, int[] argb) {
+			image.setRGB(0, y, width, 1, argb, 0, width);
+		}
+	}
+
+	/**
+	 * Base class for images which are accessed through their data array
+	 */
+	static abstract class Direct extends ArgbRowCodec {
+		// translation from image to sample model coordinates. Non-zero for sub-images
+		final int translateX, translateY;
+		// offset of the first element in the data buffer
+		final int bufferOffset;
+
+		// The data array. Only one of them will not be null
+		final byte[] dataB;
+		final short[] dataS;
+		final int[] dataI;
+
+		Direct( BufferedImage image ) {
+			super(image.getWidth());
+			WritableRaster raster = image.getRaster();
+			translateX = raster.getSampleModelTranslateX();
+			translateY = raster.getSampleModelTranslateY();
+			DataBuffer buffer = raster.getDataBuffer();
+			bufferOffset = buffer.getOffset();
+
+			dataB = buffer instanceof DataBufferByte ? ((DataBufferByte)buffer).getData() : null;
+			dataS = buffer instanceof DataBufferUShort ? ((DataBufferUShort)buffer).getData() : null;
+			dataI = buffer instanceof DataBufferInt ? ((DataBufferInt)buffer).getData() : null;
+		}
+	}
+
+	/**
+	 * Base class for indexed images. The nearest palette index to a color is memorized since searching the palette
+	 * is expensive and images tend to only have a few distinct colors.
+	 */
+	static abstract class IndexedBase extends Direct {
+		final IndexColorModel cm;
+		// ARGB value of each possible pixel value
+		final int[] palette;
+		// The key is the RGB color in the upper 24-bits and the value is the index in the lower 8-bits. Only used
+		// when there are 256 or fewer colors and opaque colors, so that reads and writes are atomic.
+		final int[] memo;
+
+		IndexedBase( BufferedImage image , int pixelBits ) {
+			super(image);
+			cm = (IndexColorModel)image.getColorModel();
+			palette = new int[1 << pixelBits];
+			for (int i = 0; i < palette.length; i++) {
+				palette[i] = cm.getRGB(i);
+			}
+			if( cm.getMapSize() <= 256 ) {
+				memo = new int[1 << MEMO_BITS];
+				// black is always at the key zero so that's how it's initialized
+				Arrays.fill(memo, nearest(0xFF000000));
+			} else {
+				memo = null;
+			}
+		}
+
+		/**
+		 * Returns the palette index which best matches the color
+		 */
+		final int indexOf( int argb ) {
+			if( memo == null || (argb >>> 24) != 0xFF )
+				return nearest(argb);
+
+			int rgb = argb & 0xFFFFFF;
+			int slot = (rgb*0x9E3779B1) >>> (32-MEMO_BITS);
+			int entry = memo[slot];
+			if( (entry >>> 8) == rgb )
+				return entry & 0xFF;
+			int index = nearest(argb);
+			memo[slot] = rgb << 8 | index;
+			return index;
+		}
+
+		private int nearest( int argb ) {
+			return element(cm.getDataElements(argb, null));
+		}
+	}
+
+	/**
+	 * Indexed images with one pixel per element, e.g. {@link BufferedImage#TYPE_BYTE_INDEXED}
+	 */
+	static class Indexed extends IndexedBase {
+		final ComponentSampleModel sm;
+
+		Indexed( BufferedImage image ) {
+			super(image, DataBuffer.getDataTypeSize(image.getRaster().getDataBuffer().getDataType()));
+			sm = (ComponentSampleModel)image.getRaster().getSampleModel();
+		}
+
+		@Override
+		public void read(int y, int[] argb) {
+			int index = bufferOffset + sm.getOffset(-translateX, y - translateY, 0);
+			int pixelStride = sm.getPixelStride();
+
+			if( dataB != null ) {
+				for (int x = 0; x < width; x++, index += pixelStride) {
+					argb[x] = palette[dataB[index] & 0xFF];
+				}
+			} else {
+				for (int x = 0; x < width; x++, index += pixelStride) {
+					argb[x] = palette[dataS[index] & 0xFFFF];
+				}
+			}
+		}
+
+		@Override
+		public void write(int y, int[] argb) {
+			int index = bufferOffset + sm.getOffset(-translateX, y - translateY, 0);
+			int pixelStride = sm.getPixelStride();
+
+			if( dataB != null ) {
+				for (int x = 0; x < width; x++, index += pixelStride) {
+					dataB[index] = (byte)indexOf(argb[x]);
+				}
+			} else {
+				for (int x = 0; x < width; x++, index += pixelStride) {
+					dataS[index] = (short)indexOf(argb[x]);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Indexed images with multiple pixels packed into each byte, e.g. {@link BufferedImage#TYPE_BYTE_BINARY}
+	 */
+	static class IndexedBits extends IndexedBase {
+		final MultiPixelPackedSampleModel sm;
+		final int bits;
+		final int mask;
+
+		IndexedBits( BufferedImage image ) {
+			super(image, ((MultiPixelPackedSampleModel)image.getRaster().getSampleModel()).getPixelBitStride());
+			sm = (MultiPixelPackedSampleModel)image.getRaster().getSampleModel();
+			bits = sm.getPixelBitStride();
+			mask = (1 << bits) - 1;
+		}
+
+		@Override
+		public void read(int y, int[] argb) {
+			int rowStart = bufferOffset + (y - translateY)*sm.getScanlineStride();
+			int bit = -translateX*bits + sm.getDataBitOffset();
+
+			for (int x = 0; x < width; x++, bit += bits) {
+				int shift = 8 - (bit & 7) - bits;
+				argb[x] = palette[(dataB[rowStart + (bit >> 3)] >> shift) & mask];
+			}
+		}
+
+		@Override
+		public void write(int y, int[] argb) {
+			int rowStart = bufferOffset + (y - translateY)*sm.getScanlineStride();
+			int bit = -translateX*bits + sm.getDataBitOffset();
+
+			for (int x = 0; x < width; x++, bit += bits) {
+				int shift = 8 - (bit & 7) - bits;
+				int index = rowStart + (bit >> 3);
+				dataB[index] = (byte)((dataB[index] & ~(mask << shift)) | (indexOf(argb[x]) << shift));
+			}
+		}
+	}
+
+	/**
+	 * Each pixel is packed into a single element using bit masks, e.g. {@link BufferedImage#TYPE_USHORT_565_RGB}
+	 * or an integer image with a non-standard SampleModel. Each color component is converted using a lookup table.
+	 */
+	static class Packed extends Direct {
+		final SinglePixelPackedSampleModel sm;
+
+		// mask and shift for each component in ARGB order
+		final int[] masks = new int[4];
+		final int[] shifts = new int[4];
+		// converts the component into its ARGB value, already shifted into position
+		final int[][] decode = new int[4][];
+		// converts an 8-bit value into the component's value, already shifted and masked
+		final int[][] encode = new int[4][256];
+
+		Packed( BufferedImage image ) {
+			super(image);
+			sm = (SinglePixelPackedSampleModel)image.getRaster().getSampleModel();
+			DirectColorModel cm = (DirectColorModel)image.getColorModel();
+
+			masks[0] = cm.getAlphaMask();
+			masks[1] = cm.getRedMask();
+			masks[2] = cm.getGreenMask();
+			masks[3] = cm.getBlueMask();
+
+			for (int i = 0; i < 4; i++) {
+				int mask = masks[i];
+				shifts[i] = mask == 0 ? 0 : Integer.numberOfTrailingZeros(mask);
+				int[] table = decode[i] = new int[(mask >>> shifts[i]) + 1];
+				int outShift = 24 - i*8;
+				for (int value = 0; value < table.length; value++) {
+					int pixel = value << shifts[i];
+					int component = switch (i) {
+						case 0 -> mask == 0 ? 0xFF : cm.getAlpha(pixel);
+						case 1 -> cm.getRed(pixel);
+						case 2 -> cm.getGreen(pixel);
+						default -> cm.getBlue(pixel);
+					};
+					table[value] = component << outShift;
+				}
+				if( mask == 0 )
+					continue;
+				// the alpha is fully opaque when encoding colors so that it doesn't interfere
+				int opaque = i == 0 ? 0 : 0xFF000000;
+				for (int value = 0; value < 256; value++) {
+					encode[i][value] = element(cm.getDataElements(opaque | value << outShift, null)) & mask;
+				}
+			}
+		}
+
+		@Override
+		public void read(int y, int[] argb) {
+			int index = bufferOffset + sm.getOffset(-translateX, y - translateY);
+
+			// local copies so that the JIT doesn't need to reload them for every pixel
+			final int[] tableA = decode[0], tableR = decode[1], tableG = decode[2], tableB = decode[3];
+			final int maskA = masks[0], maskR = masks[1], maskG = masks[2], maskB = masks[3];
+			final int shiftA = shifts[0], shiftR = shifts[1], shiftG = shifts[2], shiftB = shifts[3];
+
+			for (int x = 0; x < width; x++) {
+				int pixel;
+				if( dataI != null )
+					pixel = dataI[index++];
+				else if( dataS != null )
+					pixel = dataS[index++] & 0xFFFF;
+				else
+					pixel = dataB[index++] & 0xFF;
+
+				argb[x] = tableA[(pixel & maskA) >>> shiftA] | tableR[(pixel & maskR) >>> shiftR] |
+						tableG[(pixel & maskG) >>> shiftG] | tableB[(pixel & maskB) >>> shiftB];
+			}
+		}
+
+		@Override
+		public void write(int y, int[] argb) {
+			int index = bufferOffset + sm.getOffset(-translateX, y - translateY);
+
+			final int[] tableA = encode[0], tableR = encode[1], tableG = encode[2], tableB = encode[3];
+
+			for (int x = 0; x < width; x++) {
+				int c = argb[x];
+				int pixel = tableA[c >>> 24] | tableR[(c >> 16) & 0xFF] | tableG[(c >> 8) & 0xFF] | tableB[c & 0xFF];
+
+				if( dataI != null )
+					dataI[index++] = pixel;
+				else if( dataS != null )
+					dataS[index++] = (short)pixel;
+				else
+					dataB[index++] = (byte)pixel;
+			}
+		}
+	}
+
+	/**
+	 * Each band is stored in its own 8-bit or 16-bit element, e.g. {@link BufferedImage#TYPE_USHORT_GRAY} or
+	 * a 16-bit RGB PNG. Gray or RGB with an optional alpha band.
+	 */
+	static class Component extends Direct {
+		final ComponentSampleModel sm;
+		// offset of each band inside the pixel in RGBA order. Gray only has the first one
+		final int offset0, offset1, offset2;
+		// offset of the alpha band or -1 if there is no alpha
+		final int offsetA;
+		final boolean gray;
+
+		Component( BufferedImage image ) {
+			super(image);
+			sm = (ComponentSampleModel)image.getRaster().getSampleModel();
+			ColorModel cm = image.getColorModel();
+			int[] bandOffsets = sm.getBandOffsets();
+			gray = cm.getNumColorComponents() == 1;
+			offset0 = bandOffsets[0];
+			offset1 = gray ? 0 : bandOffsets[1];
+			offset2 = gray ? 0 : bandOffsets[2];
+			offsetA = cm.hasAlpha() ? bandOffsets[cm.getNumColorComponents()] : -1;
+		}
+
+		@Override
+		public void read(int y, int[] argb) {
+			int pixelStride = sm.getPixelStride();
+			int index = bufferOffset + (y - translateY)*sm.getScanlineStride() - translateX*pixelStride;
+
+			if( dataB != null ) {
+				for (int x = 0; x < width; x++, index += pixelStride) {
+					int a = offsetA < 0 ? 0xFF : dataB[index + offsetA] & 0xFF;
+					if( gray ) {
+						int v = dataB[index + offset0] & 0xFF;
+						argb[x] = a << 24 | v << 16 | v << 8 | v;
+					} else {
+						argb[x] = a << 24 | (dataB[index + offset0] & 0xFF) << 16 |
+								(dataB[index + offset1] & 0xFF) << 8 | (dataB[index + offset2] & 0xFF);
+					}
+				}
+			} else {
+				for (int x = 0; x < width; x++, index += pixelStride) {
+					int a = offsetA < 0 ? 0xFF : to8(dataS[index + offsetA] & 0xFFFF);
+					if( gray ) {
+						int v = to8(dataS[index + offset0] & 0xFFFF);
+						argb[x] = a << 24 | v << 16 | v << 8 | v;
+					} else {
+						argb[x] = a << 24 | to8(dataS[index + offset0] & 0xFFFF) << 16 |
+								to8(dataS[index + offset1] & 0xFFFF) << 8 | to8(dataS[index + offset2] & 0xFFFF);
+					}
+				}
+			}
+		}
+
+		@Override
+		public void write(int y, int[] argb) {
+			int pixelStride = sm.getPixelStride();
+			int index = bufferOffset + (y - translateY)*sm.getScanlineStride() - translateX*pixelStride;
+
+			if( dataB != null ) {
+				for (int x = 0; x < width; x++, index += pixelStride) {
+					int c = argb[x];
+					int r = (c >> 16) & 0xFF, g = (c >> 8) & 0xFF, b = c & 0xFF;
+					if( offsetA >= 0 )
+						dataB[index + offsetA] = (byte)(c >>> 24);
+					if( gray ) {
+						dataB[index + offset0] = (byte)((r + g + b)/3);
+					} else {
+						dataB[index + offset0] = (byte)r;
+						dataB[index + offset1] = (byte)g;
+						dataB[index + offset2] = (byte)b;
+					}
+				}
+			} else {
+				for (int x = 0; x < width; x++, index += pixelStride) {
+					int c = argb[x];
+					int r = (c >> 16) & 0xFF, g = (c >> 8) & 0xFF, b = c & 0xFF;
+					if( offsetA >= 0 )
+						dataS[index + offsetA] = (short)((c >>> 24)*257);
+					if( gray ) {
+						dataS[index + offset0] = (short)(((r + g + b)/3)*257);
+					} else {
+						dataS[index + offset0] = (short)(r*257);
+						dataS[index + offset1] = (short)(g*257);
+						dataS[index + offset2] = (short)(b*257);
+					}
+				}
+			}
+		}
+	}
+}
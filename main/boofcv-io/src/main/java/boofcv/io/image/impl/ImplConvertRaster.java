@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -580,52 +580,30 @@ public class ImplConvertRaster {
 	}
 
 	public static void bufferedToGray(BufferedImage src, byte[] dstData, int dstStartIndex , int dstStride ) {
+		final int width = src.getWidth();
+		final int height = src.getHeight();
 
-		int width = src.getWidth();
-		int height = src.getHeight();
-
-		if (src.getType() == BufferedImage.TYPE_BYTE_GRAY) {
-			// If the buffered image is a gray scale image there is a bug where getRGB distorts
-			// the image.  See Bug ID: 5051418 , it has been around since 2004. Fuckers...
-			WritableRaster raster = src.getRaster();
-
-			//CONCURRENT_REMOVE_BELOW
-			int hack[] = new int[1];
-
-			//CONCURRENT_BELOW BoofConcurrency.loopFor(0, height, y -> {
-			for (int y = 0; y < height; y++) {
-				//CONCURRENT_INLINE int hack[] = new int[1];
-				int index = dstStartIndex + y * dstStride;
-				for (int x = 0; x < width; x++) {
-					raster.getPixel(x, y, hack);
+		ArgbRowCodec codec = ArgbRowCodec.create(src);
 
-					dstData[index++] = (byte) hack[0];
-				}
-			}
-			//CONCURRENT_ABOVE });
-		} else {
-			//CONCURRENT_BELOW BoofConcurrency.loopFor(0, height, y -> {
-			for (int y = 0; y < height; y++) {
-				int index = dstStartIndex + y * dstStride;
-				for (int x = 0; x < width; x++) {
-					int argb = src.getRGB(x, y);
+		//CONCURRENT_BELOW BoofConcurrency.loopBlocks(0, height, (y0,y1) -> {
+		final int y0 = 0, y1 = height;
+		final int[] row = new int[width];
+		for (int y = y0; y < y1; y++) {
+			codec.read(y, row);
+			int index = dstStartIndex + y * dstStride;
+			for (int x = 0; x < width; x++) {
+				int argb = row[x];
 
-					dstData[index++] = (byte) ((((argb >>> 16) & 0xFF) + ((argb >>> 8) & 0xFF) + (argb & 0xFF)) / 3);
-				}
+				dstData[index++] = (byte) ((((argb >>> 16) & 0xFF) + ((argb >>> 8) & 0xFF) + (argb & 0xFF)) / 3);
 			}
-			//CONCURRENT_ABOVE });
 		}
+		//CONCURRENT_INLINE });
 	}
 
 	/**
 	 * <p>
-	 * Converts a buffered image into an 16bit intensity image using the
-	 * BufferedImage's RGB interface.
-	 * </p>
-	 * <p>
-	 * This is much slower than working
-	 * directly with the BufferedImage's internal raster and should be
-	 * avoided if possible.
+	 * Converts a buffered image into an 16bit intensity image. Gray scale images are copied without any scaling,
+	 * otherwise the average of each color is used.
 	 * </p>
 	 *
 	 * @param src Input image.
@@ -641,33 +619,34 @@ public class ImplConvertRaster {
 			// If the buffered image is a gray scale image there is a bug where getRGB distorts
 			// the image.  See Bug ID: 5051418 , it has been around since 2004. Fuckers...
 			WritableRaster raster = src.getRaster();
-			//CONCURRENT_REMOVE_BELOW
-			int hack[] = new int[1];
 
-			//CONCURRENT_BELOW BoofConcurrency.loopFor(0, height, y -> {
-			for (int y = 0; y < height; y++) {
-				//CONCURRENT_INLINE int hack[] = new int[1];
+			//CONCURRENT_BELOW BoofConcurrency.loopBlocks(0, height, (y0,y1) -> {
+			final int y0 = 0, y1 = height;
+			final int[] row = new int[width];
+			for (int y = y0; y < y1; y++) {
+				raster.getSamples(0, y, width, 1, 0, row);
 				int index = dst.startIndex + y * dst.stride;
 				for (int x = 0; x < width; x++) {
-					raster.getPixel(x, y, hack);
-
-					data[index++] = (short) hack[0];
+					data[index++] = (short) row[x];
 				}
 			}
-			//CONCURRENT_ABOVE });
+			//CONCURRENT_INLINE });
 		} else {
-			// this will be totally garbage.  just here so that some unit test will pass
+			ArgbRowCodec codec = ArgbRowCodec.create(src);
 
-			//CONCURRENT_BELOW BoofConcurrency.loopFor(0, height, y -> {
-			for (int y = 0; y < height; y++) {
+			//CONCURRENT_BELOW BoofConcurrency.loopBlocks(0, height, (y0,y1) -> {
+			final int y0 = 0, y1 = height;
+			final int[] row = new int[width];
+			for (int y = y0; y < y1; y++) {
+				codec.read(y, row);
 				int index = dst.startIndex + y * dst.stride;
 				for (int x = 0; x < width; x++) {
-					int argb = src.getRGB(x, y);
+					int argb = row[x];
 
 					data[index++] = (short) ((((argb >>> 16) & 0xFF) + ((argb >>> 8) & 0xFF) + (argb & 0xFF)) / 3);
 				}
 			}
-			//CONCURRENT_ABOVE });
+			//CONCURRENT_INLINE });
 		}
 	}
 
@@ -675,51 +654,33 @@ public class ImplConvertRaster {
 		final int width = src.getWidth();
 		final int height = src.getHeight();
 
-		if (src.getType() == BufferedImage.TYPE_BYTE_GRAY) {
-			// If the buffered image is a gray scale image there is a bug where getRGB distorts
-			// the image.  See Bug ID: 5051418 , it has been around since 2004. Fuckers...
-			WritableRaster raster = src.getRaster();
-			//CONCURRENT_REMOVE_BELOW
-			float hack[] = new float[1];
-
-			//CONCURRENT_BELOW BoofConcurrency.loopFor(0, height, y -> {
-			for (int y = 0; y < height; y++) {
-				//CONCURRENT_INLINE int hack[] = new int[1];
-				int index = dstStartIndex + y * dstStride;
-				for (int x = 0; x < width; x++) {
-					raster.getPixel(x, y, hack);
+		ArgbRowCodec codec = ArgbRowCodec.create(src);
 
-					data[index++] = hack[0];
-				}
-			}
-			//CONCURRENT_ABOVE });
-		} else {
-			//CONCURRENT_BELOW BoofConcurrency.loopFor(0, height, y -> {
-			for (int y = 0; y < height; y++) {
-				int index = dstStartIndex + y * dstStride;
-				for (int x = 0; x < width; x++) {
-					int argb = src.getRGB(x, y);
+		//CONCURRENT_BELOW BoofConcurrency.loopBlocks(0, height, (y0,y1) -> {
+		final int y0 = 0, y1 = height;
+		final int[] row = new int[width];
+		for (int y = y0; y < y1; y++) {
+			codec.read(y, row);
+			int index = dstStartIndex + y * dstStride;
+			for (int x = 0; x < width; x++) {
+				int argb = row[x];
 
-					int r = (argb >>> 16) & 0xFF;
-					int g = (argb >>> 8) & 0xFF;
-					int b = argb & 0xFF;
+				int r = (argb >>> 16) & 0xFF;
+				int g = (argb >>> 8) & 0xFF;
+				int b = argb & 0xFF;
 
-					float ave = (r + g + b) / 3.0f;
+				float ave = (r + g + b) / 3.0f;
 
-					data[index++] = ave;
-				}
+				data[index++] = ave;
 			}
-			//CONCURRENT_ABOVE });
 		}
+		//CONCURRENT_INLINE });
 	}
 
 	/**
 	 * <p>
-	 * Converts a buffered image into an planar image using the BufferedImage's RGB interface.
-	 * </p>
-	 * <p>
-	 * This is much slower than working directly with the BufferedImage's internal raster and should be
-	 * avoided if possible.
+	 * Converts a buffered image into an planar image using {@link ArgbRowCodec}. Images with 3 bands are
+	 * in RGB order and images with 4 bands are in ARGB order.
 	 * </p>
 	 *
 	 * @param src Input image.
@@ -730,23 +691,31 @@ public class ImplConvertRaster {
 		final int width = src.getWidth();
 		final int height = src.getHeight();
 
-		if (dst.getNumBands() == 3) {
-			byte[] band1 = dst.getBand(0).data;
-			byte[] band2 = dst.getBand(1).data;
-			byte[] band3 = dst.getBand(2).data;
-
-			//CONCURRENT_BELOW BoofConcurrency.loopFor(0, height, y -> {
-			for (int y = 0; y < height; y++) {
+		if (dst.getNumBands() == 3 || dst.getNumBands() == 4) {
+			ArgbRowCodec codec = ArgbRowCodec.create(src);
+			final boolean alpha = dst.getNumBands() == 4;
+			byte[] bandA = alpha ? dst.getBand(0).data : null;
+			byte[] band1 = dst.getBand(alpha ? 1 : 0).data;
+			byte[] band2 = dst.getBand(alpha ? 2 : 1).data;
+			byte[] band3 = dst.getBand(alpha ? 3 : 2).data;
+
+			//CONCURRENT_BELOW BoofConcurrency.loopBlocks(0, height, (y0,y1) -> {
+			final int y0 = 0, y1 = height;
+			final int[] row = new int[width];
+			for (int y = y0; y < y1; y++) {
+				codec.read(y, row);
 				int index = dst.startIndex + y * dst.stride;
 				for (int x = 0; x < width; x++, index++) {
-					int argb = src.getRGB(x, y);
+					int argb = row[x];
 
+					if( alpha )
+						bandA[index] = (byte) (argb >>> 24);
 					band1[index] = (byte) (argb >>> 16);
 					band2[index] = (byte) (argb >>> 8);
 					band3[index] = (byte) argb;
 				}
 			}
-			//CONCURRENT_ABOVE });
+			//CONCURRENT_INLINE });
 		} else {
 			bufferedToGray(src, dst.getBand(0).data,dst.startIndex,dst.stride);
 			GrayU8 band1 = dst.getBand(0);
@@ -758,11 +727,8 @@ public class ImplConvertRaster {
 
 	/**
 	 * <p>
-	 * Converts a buffered image into an planar image using the BufferedImage's RGB interface.
-	 * </p>
-	 * <p>
-	 * This is much slower than working directly with the BufferedImage's internal raster and should be
-	 * avoided if possible.
+	 * Converts a buffered image into an planar image using {@link ArgbRowCodec}. Images with 3 bands are
+	 * in RGB order and images with 4 bands are in ARGB order.
 	 * </p>
 	 *
 	 * @param src Input image.
@@ -772,42 +738,31 @@ public class ImplConvertRaster {
 		final int width = src.getWidth();
 		final int height = src.getHeight();
 
-		if (dst.getNumBands() == 3) {
-			final float[] band1 = dst.getBand(0).data;
-			final float[] band2 = dst.getBand(1).data;
-			final float[] band3 = dst.getBand(2).data;
-
-			//CONCURRENT_BELOW BoofConcurrency.loopFor(0, height, y -> {
-			for (int y = 0; y < height; y++) {
+		if (dst.getNumBands() == 3 || dst.getNumBands() == 4) {
+			ArgbRowCodec codec = ArgbRowCodec.create(src);
+			final boolean alpha = dst.getNumBands() == 4;
+			final float[] bandA = alpha ? dst.getBand(0).data : null;
+			final float[] band1 = dst.getBand(alpha ? 1 : 0).data;
+			final float[] band2 = dst.getBand(alpha ? 2 : 1).data;
+			final float[] band3 = dst.getBand(alpha ? 3 : 2).data;
+
+			//CONCURRENT_BELOW BoofConcurrency.loopBlocks(0, height, (y0,y1) -> {
+			final int y0 = 0, y1 = height;
+			final int[] row = new int[width];
+			for (int y = y0; y < y1; y++) {
+				codec.read(y, row);
 				int index = dst.startIndex + y * dst.stride;
 				for (int x = 0; x < width; x++, index++) {
-					int argb = src.getRGB(x, y);
+					int argb = row[x];
 
+					if( alpha )
+						bandA[index] = (argb >>> 24) & 0xFF;
 					band1[index] = (argb >>> 16) & 0xFF;
 					band2[index] = (argb >>> 8) & 0xFF;
 					band3[index] = argb & 0xFF;
 				}
 			}
-			//CONCURRENT_ABOVE });
-		} else if (dst.getNumBands() == 4) {
-			final float[] band1 = dst.getBand(0).data;
-			final float[] band2 = dst.getBand(1).data;
-			final float[] band3 = dst.getBand(2).data;
-			final float[] band4 = dst.getBand(3).data;
-
-			//CONCURRENT_BELOW BoofConcurrency.loopFor(0, height, y -> {
-			for (int y = 0; y < height; y++) {
-				int index = dst.startIndex + y * dst.stride;
-				for (int x = 0; x < width; x++, index++) {
-					int argb = src.getRGB(x, y);
-
-					band1[index] = (argb >>> 24) & 0xFF;
-					band2[index] = (argb >>> 16) & 0xFF;
-					band3[index] = (argb >>> 8) & 0xFF;
-					band4[index] = argb & 0xFF;
-				}
-			}
-			//CONCURRENT_ABOVE });
+			//CONCURRENT_INLINE });
 		} else if( dst.getNumBands() == 1 ){
 			bufferedToGray(src, dst.getBand(0).data, dst.startIndex, dst.stride);
 		} else {
@@ -819,33 +774,27 @@ public class ImplConvertRaster {
 		final int width = src.getWidth();
 		final int height = src.getHeight();
 
-		if (dst.getNumBands() == 3) {
-			//CONCURRENT_BELOW BoofConcurrency.loopFor(0, height, y -> {
-			for (int y = 0; y < height; y++) {
-				int indexDst = dst.startIndex + y * dst.stride;
-				for (int x = 0; x < width; x++) {
-					int argb = src.getRGB(x, y);
+		if (dst.getNumBands() == 3 || dst.getNumBands() == 4) {
+			ArgbRowCodec codec = ArgbRowCodec.create(src);
+			final boolean alpha = dst.getNumBands() == 4;
 
-					dst.data[indexDst++] = (argb >>> 16) & 0xFF;
-					dst.data[indexDst++] = (argb >>> 8) & 0xFF;
-					dst.data[indexDst++] = argb & 0xFF;
-				}
-			}
-			//CONCURRENT_ABOVE });
-		} else if (dst.getNumBands() == 4) {
-			//CONCURRENT_BELOW BoofConcurrency.loopFor(0, height, y -> {
-			for (int y = 0; y < height; y++) {
+			//CONCURRENT_BELOW BoofConcurrency.loopBlocks(0, height, (y0,y1) -> {
+			final int y0 = 0, y1 = height;
+			final int[] row = new int[width];
+			for (int y = y0; y < y1; y++) {
+				codec.read(y, row);
 				int indexDst = dst.startIndex + y * dst.stride;
 				for (int x = 0; x < width; x++) {
-					int argb = src.getRGB(x, y);
+					int argb = row[x];
 
-					dst.data[indexDst++] = (argb >>> 24) & 0xFF;
+					if( alpha )
+						dst.data[indexDst++] = (argb >>> 24) & 0xFF;
 					dst.data[indexDst++] = (argb >>> 16) & 0xFF;
 					dst.data[indexDst++] = (argb >>> 8) & 0xFF;
 					dst.data[indexDst++] = argb & 0xFF;
 				}
 			}
-			//CONCURRENT_ABOVE });
+			//CONCURRENT_INLINE });
 		} else if( dst.getNumBands() == 1 ){
 			bufferedToGray(src, dst.data, dst.startIndex, dst.stride);
 		} else {
@@ -855,11 +804,8 @@ public class ImplConvertRaster {
 
 	/**
 	 * <p>
-	 * Converts a buffered image into an planar image using the BufferedImage's RGB interface.
-	 * </p>
-	 * <p>
-	 * This is much slower than working directly with the BufferedImage's internal raster and should be
-	 * avoided if possible.
+	 * Converts a buffered image into an interleaved image using {@link ArgbRowCodec}. Images with 3 bands are
+	 * in RGB order and images with 4 bands are in ARGB order.
 	 * </p>
 	 *
 	 * @param src Input image.
@@ -870,20 +816,27 @@ public class ImplConvertRaster {
 		final int width = src.getWidth();
 		final int height = src.getHeight();
 
-		if (dst.getNumBands() == 3) {
+		if (dst.getNumBands() == 3 || dst.getNumBands() == 4) {
+			ArgbRowCodec codec = ArgbRowCodec.create(src);
+			final boolean alpha = dst.getNumBands() == 4;
 
-			//CONCURRENT_BELOW BoofConcurrency.loopFor(0, height, y -> {
-			for (int y = 0; y < height; y++) {
+			//CONCURRENT_BELOW BoofConcurrency.loopBlocks(0, height, (y0,y1) -> {
+			final int y0 = 0, y1 = height;
+			final int[] row = new int[width];
+			for (int y = y0; y < y1; y++) {
+				codec.read(y, row);
 				int indexDst = dst.startIndex + y * dst.stride;
 				for (int x = 0; x < width; x++) {
-					int argb = src.getRGB(x, y);
+					int argb = row[x];
 
+					if( alpha )
+						dst.data[indexDst++] = (byte) (argb >>> 24);
 					dst.data[indexDst++] = (byte) (argb >>> 16);
 					dst.data[indexDst++] = (byte) (argb >>> 8);
 					dst.data[indexDst++] = (byte) argb;
 				}
 			}
-			//CONCURRENT_ABOVE });
+			//CONCURRENT_INLINE });
 		} else if( dst.getNumBands() == 1 ){
 			ImplConvertRaster.bufferedToGray(src, dst.data,dst.startIndex,dst.stride);
 		} else {
@@ -1477,20 +1430,23 @@ public class ImplConvertRaster {
 		final int width = dst.getWidth();
 		final int height = dst.getHeight();
 
+		ArgbRowCodec codec = ArgbRowCodec.create(dst);
+
 		byte[] data = src.data;
-		//CONCURRENT_BELOW BoofConcurrency.loopFor(0, height, y -> {
-		for (int y = 0; y < height; y++) {
+		//CONCURRENT_BELOW BoofConcurrency.loopBlocks(0, height, (y0,y1) -> {
+		final int y0 = 0, y1 = height;
+		final int[] row = new int[width];
+		for (int y = y0; y < y1; y++) {
 			int indexSrc = src.startIndex + src.stride * y;
 
 			for (int x = 0; x < width; x++) {
 				int v = data[indexSrc++] & 0xFF;
 
-				int rgb = v << 16 | v << 8 | v;
-
-				dst.setRGB(x, y, rgb);
+				row[x] = 0xFF << 24 | v << 16 | v << 8 | v;
 			}
+			codec.write(y, row);
 		}
-		//CONCURRENT_ABOVE });
+		//CONCURRENT_INLINE });
 
 	}
 
@@ -1499,98 +1455,122 @@ public class ImplConvertRaster {
 		final int width = dst.getWidth();
 		final int height = dst.getHeight();
 
+		ArgbRowCodec codec = ArgbRowCodec.create(dst);
+
 		short[] data = src.data;
-		//CONCURRENT_BELOW BoofConcurrency.loopFor(0, height, y -> {
-		for (int y = 0; y < height; y++) {
+		//CONCURRENT_BELOW BoofConcurrency.loopBlocks(0, height, (y0,y1) -> {
+		final int y0 = 0, y1 = height;
+		final int[] row = new int[width];
+		for (int y = y0; y < y1; y++) {
 			int indexSrc = src.startIndex + src.stride * y;
 
 			for (int x = 0; x < width; x++) {
 				int v = (int) data[indexSrc++];
 
-				int argb = v << 16 | v << 8 | v;
-
-				dst.setRGB(x, y, argb);
+				row[x] = 0xFF << 24 | v << 16 | v << 8 | v;
 			}
+			codec.write(y, row);
 		}
-		//CONCURRENT_ABOVE });
+		//CONCURRENT_INLINE });
 	}
 
 	public static void grayToBuffered(GrayF32 src, BufferedImage dst) {
 		final int width = dst.getWidth();
 		final int height = dst.getHeight();
 
+		ArgbRowCodec codec = ArgbRowCodec.create(dst);
+
 		float[] data = src.data;
-		//CONCURRENT_BELOW BoofConcurrency.loopFor(0, height, y -> {
-		for (int y = 0; y < height; y++) {
+		//CONCURRENT_BELOW BoofConcurrency.loopBlocks(0, height, (y0,y1) -> {
+		final int y0 = 0, y1 = height;
+		final int[] row = new int[width];
+		for (int y = y0; y < y1; y++) {
 			int indexSrc = src.startIndex + src.stride * y;
 
 			for (int x = 0; x < width; x++) {
 				int v = (int) data[indexSrc++];
 
-				int argb = v << 16 | v << 8 | v;
-
-				dst.setRGB(x, y, argb);
+				row[x] = 0xFF << 24 | v << 16 | v << 8 | v;
 			}
+			codec.write(y, row);
 		}
-		//CONCURRENT_ABOVE });
+		//CONCURRENT_INLINE });
 	}
 
 	public static void planarToBuffered_U8(Planar<GrayU8> src, BufferedImage dst) {
 
-		if (src.getNumBands() != 3)
-			throw new IllegalArgumentException("src must have three bands");
+		if (src.getNumBands() != 1 && src.getNumBands() != 3 && src.getNumBands() != 4)
+			throw new IllegalArgumentException("src must have one, three, or four bands");
 
 		final int width = dst.getWidth();
 		final int height = dst.getHeight();
 
-		byte[] band1 = src.getBand(0).data;
-		byte[] band2 = src.getBand(1).data;
-		byte[] band3 = src.getBand(2).data;
-
-		//CONCURRENT_BELOW BoofConcurrency.loopFor(0, height, y -> {
-		for (int y = 0; y < height; y++) {
+		ArgbRowCodec codec = ArgbRowCodec.create(dst);
+
+		// a single band is written as gray
+		final boolean alpha = src.getNumBands() == 4;
+		final int first = alpha ? 1 : 0;
+		final int step = src.getNumBands() == 1 ? 0 : 1;
+		byte[] bandA = alpha ? src.getBand(0).data : null;
+		byte[] band1 = src.getBand(first).data;
+		byte[] band2 = src.getBand(first + step).data;
+		byte[] band3 = src.getBand(first + 2*step).data;
+
+		//CONCURRENT_BELOW BoofConcurrency.loopBlocks(0, height, (y0,y1) -> {
+		final int y0 = 0, y1 = height;
+		final int[] row = new int[width];
+		for (int y = y0; y < y1; y++) {
 			int indexSrc = src.startIndex + src.stride * y;
 
 			for (int x = 0; x < width; x++, indexSrc++) {
+				int a = alpha ? bandA[indexSrc] & 0xFF : 0xFF;
 				int c1 = band1[indexSrc] & 0xFF;
 				int c2 = band2[indexSrc] & 0xFF;
 				int c3 = band3[indexSrc] & 0xFF;
 
-				int argb = c1 << 16 | c2 << 8 | c3;
-
-				dst.setRGB(x, y, argb);
+				row[x] = a << 24 | c1 << 16 | c2 << 8 | c3;
 			}
+			codec.write(y, row);
 		}
-		//CONCURRENT_ABOVE });
+		//CONCURRENT_INLINE });
 	}
 
 	public static void planarToBuffered_F32(Planar<GrayF32> src, BufferedImage dst) {
 
-		if (src.getNumBands() != 3)
-			throw new IllegalArgumentException("src must have three bands");
+		if (src.getNumBands() != 1 && src.getNumBands() != 3 && src.getNumBands() != 4)
+			throw new IllegalArgumentException("src must have one, three, or four bands");
 
 		final int width = dst.getWidth();
 		final int height = dst.getHeight();
 
-		float[] band1 = src.getBand(0).data;
-		float[] band2 = src.getBand(1).data;
-		float[] band3 = src.getBand(2).data;
-
-		//CONCURRENT_BELOW BoofConcurrency.loopFor(0, height, y -> {
-		for (int y = 0; y < height; y++) {
+		ArgbRowCodec codec = ArgbRowCodec.create(dst);
+
+		// a single band is written as gray
+		final boolean alpha = src.getNumBands() == 4;
+		final int first = alpha ? 1 : 0;
+		final int step = src.getNumBands() == 1 ? 0 : 1;
+		float[] bandA = alpha ? src.getBand(0).data : null;
+		float[] band1 = src.getBand(first).data;
+		float[] band2 = src.getBand(first + step).data;
+		float[] band3 = src.getBand(first + 2*step).data;
+
+		//CONCURRENT_BELOW BoofConcurrency.loopBlocks(0, height, (y0,y1) -> {
+		final int y0 = 0, y1 = height;
+		final int[] row = new int[width];
+		for (int y = y0; y < y1; y++) {
 			int indexSrc = src.startIndex + src.stride * y;
 
 			for (int x = 0; x < width; x++, indexSrc++) {
+				int a = alpha ? (int) bandA[indexSrc] : 0xFF;
 				int c1 = (int) band1[indexSrc];
 				int c2 = (int) band2[indexSrc];
 				int c3 = (int) band3[indexSrc];
 
-				int argb = c1 << 16 | c2 << 8 | c3;
-
-				dst.setRGB(x, y, argb);
+				row[x] = a << 24 | c1 << 16 | c2 << 8 | c3;
 			}
+			codec.write(y, row);
 		}
-		//CONCURRENT_ABOVE });
+		//CONCURRENT_INLINE });
 	}
 
 	public static void interleavedToBuffered(InterleavedU8 src, DataBufferInt buffer, WritableRaster dst) {
@@ -1667,27 +1647,33 @@ public class ImplConvertRaster {
 
 	public static void interleavedToBuffered( InterleavedU8 src, BufferedImage dst) {
 
-		if (src.getNumBands() != 3)
-			throw new IllegalArgumentException("src must have three bands");
+		if (src.getNumBands() != 1 && src.getNumBands() != 3 && src.getNumBands() != 4)
+			throw new IllegalArgumentException("src must have one, three, or four bands");
 
 		final int width = dst.getWidth();
 		final int height = dst.getHeight();
 
-		//CONCURRENT_BELOW BoofConcurrency.loopFor(0, height, y -> {
-		for (int y = 0; y < height; y++) {
+		ArgbRowCodec codec = ArgbRowCodec.create(dst);
+		final boolean alpha = src.getNumBands() == 4;
+		final boolean gray = src.getNumBands() == 1;
+
+		//CONCURRENT_BELOW BoofConcurrency.loopBlocks(0, height, (y0,y1) -> {
+		final int y0 = 0, y1 = height;
+		final int[] row = new int[width];
+		for (int y = y0; y < y1; y++) {
 			int indexSrc = src.startIndex + src.stride * y;
 
 			for (int x = 0; x < width; x++ ) {
+				int a = alpha ? src.data[indexSrc++] & 0xFF : 0xFF;
 				int c1 = src.data[indexSrc++] & 0xFF;
-				int c2 = src.data[indexSrc++] & 0xFF;
-				int c3 = src.data[indexSrc++] & 0xFF;
-
-				int argb = c1 << 16 | c2 << 8 | c3;
+				int c2 = gray ? c1 : src.data[indexSrc++] & 0xFF;
+				int c3 = gray ? c1 : src.data[indexSrc++] & 0xFF;
 
-				dst.setRGB(x, y, argb);
+				row[x] = a << 24 | c1 << 16 | c2 << 8 | c3;
 			}
+			codec.write(y, row);
 		}
-		//CONCURRENT_ABOVE });
+		//CONCURRENT_INLINE });
 	}
 
 	public static void interleavedToBuffered(InterleavedF32 src, DataBufferInt buffer, WritableRaster dst) {
@@ -1765,27 +1751,33 @@ public class ImplConvertRaster {
 
 	public static void interleavedToBuffered( InterleavedF32 src, BufferedImage dst) {
 
-		if (src.getNumBands() != 3)
-			throw new IllegalArgumentException("src must have three bands");
+		if (src.getNumBands() != 1 && src.getNumBands() != 3 && src.getNumBands() != 4)
+			throw new IllegalArgumentException("src must have one, three, or four bands");
 
 		final int width = dst.getWidth();
 		final int height = dst.getHeight();
 
-		//CONCURRENT_BELOW BoofConcurrency.loopFor(0, height, y -> {
-		for (int y = 0; y < height; y++) {
+		ArgbRowCodec codec = ArgbRowCodec.create(dst);
+		final boolean alpha = src.getNumBands() == 4;
+		final boolean gray = src.getNumBands() == 1;
+
+		//CONCURRENT_BELOW BoofConcurrency.loopBlocks(0, height, (y0,y1) -> {
+		final int y0 = 0, y1 = height;
+		final int[] row = new int[width];
+		for (int y = y0; y < y1; y++) {
 			int indexSrc = src.startIndex + src.stride * y;
 
 			for (int x = 0; x < width; x++ ) {
+				int a = alpha ? (int)src.data[indexSrc++] : 0xFF;
 				int c1 = (int)src.data[indexSrc++];
-				int c2 = (int)src.data[indexSrc++];
-				int c3 = (int)src.data[indexSrc++];
-
-				int argb = c1 << 16 | c2 << 8 | c3;
+				int c2 = gray ? c1 : (int)src.data[indexSrc++];
+				int c3 = gray ? c1 : (int)src.data[indexSrc++];
 
-				dst.setRGB(x, y, argb);
+				row[x] = a << 24 | c1 << 16 | c2 << 8 | c3;
 			}
+			codec.write(y, row);
 		}
-		//CONCURRENT_ABOVE });
+		//CONCURRENT_INLINE });
 	}
 
 	public static void orderBandsIntoRGB( InterleavedU8 image , BufferedImage input ) {
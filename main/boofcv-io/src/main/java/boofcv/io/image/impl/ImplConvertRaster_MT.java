@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -529,46 +529,29 @@ public class ImplConvertRaster_MT {
 	}
 
 	public static void bufferedToGray(BufferedImage src, byte[] dstData, int dstStartIndex , int dstStride ) {
+		final int width = src.getWidth();
+		final int height = src.getHeight();
 
-		int width = src.getWidth();
-		int height = src.getHeight();
-
-		if (src.getType() == BufferedImage.TYPE_BYTE_GRAY) {
-			// If the buffered image is a gray scale image there is a bug where getRGB distorts
-			// the image.  See Bug ID: 5051418 , it has been around since 2004. Fuckers...
-			WritableRaster raster = src.getRaster();
-
-
-			BoofConcurrency.loopFor(0, height, y -> {
-				int hack[] = new int[1];
-				int index = dstStartIndex + y * dstStride;
-				for (int x = 0; x < width; x++) {
-					raster.getPixel(x, y, hack);
+		ArgbRowCodec codec = ArgbRowCodec.create(src);
 
-					dstData[index++] = (byte) hack[0];
-				}
-			});
-		} else {
-			BoofConcurrency.loopFor(0, height, y -> {
-				int index = dstStartIndex + y * dstStride;
-				for (int x = 0; x < width; x++) {
-					int argb = src.getRGB(x, y);
+		BoofConcurrency.loopBlocks(0, height, (y0,y1) -> {
+		final int[] row = new int[width];
+		for (int y = y0; y < y1; y++) {
+			codec.read(y, row);
+			int index = dstStartIndex + y * dstStride;
+			for (int x = 0; x < width; x++) {
+				int argb = row[x];
 
-					dstData[index++] = (byte) ((((argb >>> 16) & 0xFF) + ((argb >>> 8) & 0xFF) + (argb & 0xFF)) / 3);
-				}
-			});
+				dstData[index++] = (byte) ((((argb >>> 16) & 0xFF) + ((argb >>> 8) & 0xFF) + (argb & 0xFF)) / 3);
+			}
 		}
+		});
 	}
 
 	/**
 	 * <p>
-	 * Converts a buffered image into an 16bit intensity image using the
-	 * BufferedImage's RGB interface.
-	 * </p>
-	 * <p>
-	 * This is much slower than working
-	 * directly with the BufferedImage's internal raster and should be
-	 * avoided if possible.
+	 * Converts a buffered image into an 16bit intensity image. Gray scale images are copied without any scaling,
+	 * otherwise the average of each color is used.
 	 * </p>
 	 *
 	 * @param src Input image.
@@ -585,25 +568,30 @@ public class ImplConvertRaster_MT {
 			// the image.  See Bug ID: 5051418 , it has been around since 2004. Fuckers...
 			WritableRaster raster = src.getRaster();
 
-			BoofConcurrency.loopFor(0, height, y -> {
-				int hack[] = new int[1];
+			BoofConcurrency.loopBlocks(0, height, (y0,y1) -> {
+			final int[] row = new int[width];
+			for (int y = y0; y < y1; y++) {
+				raster.getSamples(0, y, width, 1, 0, row);
 				int index = dst.startIndex + y * dst.stride;
 				for (int x = 0; x < width; x++) {
-					raster.getPixel(x, y, hack);
-
-					data[index++] = (short) hack[0];
+					data[index++] = (short) row[x];
 				}
+			}
 			});
 		} else {
-			// this will be totally garbage.  just here so that some unit test will pass
+			ArgbRowCodec codec = ArgbRowCodec.create(src);
 
-			BoofConcurrency.loopFor(0, height, y -> {
+			BoofConcurrency.loopBlocks(0, height, (y0,y1) -> {
+			final int[] row = new int[width];
+			for (int y = y0; y < y1; y++) {
+				codec.read(y, row);
 				int index = dst.startIndex + y * dst.stride;
 				for (int x = 0; x < width; x++) {
-					int argb = src.getRGB(x, y);
+					int argb = row[x];
 
 					data[index++] = (short) ((((argb >>> 16) & 0xFF) + ((argb >>> 8) & 0xFF) + (argb & 0xFF)) / 3);
 				}
+			}
 			});
 		}
 	}
@@ -612,45 +600,32 @@ public class ImplConvertRaster_MT {
 		final int width = src.getWidth();
 		final int height = src.getHeight();
 
-		if (src.getType() == BufferedImage.TYPE_BYTE_GRAY) {
-			// If the buffered image is a gray scale image there is a bug where getRGB distorts
-			// the image.  See Bug ID: 5051418 , it has been around since 2004. Fuckers...
-			WritableRaster raster = src.getRaster();
-
-			BoofConcurrency.loopFor(0, height, y -> {
-				int hack[] = new int[1];
-				int index = dstStartIndex + y * dstStride;
-				for (int x = 0; x < width; x++) {
-					raster.getPixel(x, y, hack);
+		ArgbRowCodec codec = ArgbRowCodec.create(src);
 
-					data[index++] = hack[0];
-				}
-			});
-		} else {
-			BoofConcurrency.loopFor(0, height, y -> {
-				int index = dstStartIndex + y * dstStride;
-				for (int x = 0; x < width; x++) {
-					int argb = src.getRGB(x, y);
+		BoofConcurrency.loopBlocks(0, height, (y0,y1) -> {
+		final int[] row = new int[width];
+		for (int y = y0; y < y1; y++) {
+			codec.read(y, row);
+			int index = dstStartIndex + y * dstStride;
+			for (int x = 0; x < width; x++) {
+				int argb = row[x];
 
-					int r = (argb >>> 16) & 0xFF;
-					int g = (argb >>> 8) & 0xFF;
-					int b = argb & 0xFF;
+				int r = (argb >>> 16) & 0xFF;
+				int g = (argb >>> 8) & 0xFF;
+				int b = argb & 0xFF;
 
-					float ave = (r + g + b) / 3.0f;
+				float ave = (r + g + b) / 3.0f;
 
-					data[index++] = ave;
-				}
-			});
+				data[index++] = ave;
+			}
 		}
+		});
 	}
 
 	/**
 	 * <p>
-	 * Converts a buffered image into an planar image using the BufferedImage's RGB interface.
-	 * </p>
-	 * <p>
-	 * This is much slower than working directly with the BufferedImage's internal raster and should be
-	 * avoided if possible.
+	 * Converts a buffered image into an planar image using {@link ArgbRowCodec}. Images with 3 bands are
+	 * in RGB order and images with 4 bands are in ARGB order.
 	 * </p>
 	 *
 	 * @param src Input image.
@@ -661,20 +636,29 @@ public class ImplConvertRaster_MT {
 		final int width = src.getWidth();
 		final int height = src.getHeight();
 
-		if (dst.getNumBands() == 3) {
-			byte[] band1 = dst.getBand(0).data;
-			byte[] band2 = dst.getBand(1).data;
-			byte[] band3 = dst.getBand(2).data;
-
-			BoofConcurrency.loopFor(0, height, y -> {
+		if (dst.getNumBands() == 3 || dst.getNumBands() == 4) {
+			ArgbRowCodec codec = ArgbRowCodec.create(src);
+			final boolean alpha = dst.getNumBands() == 4;
+			byte[] bandA = alpha ? dst.getBand(0).data : null;
+			byte[] band1 = dst.getBand(alpha ? 1 : 0).data;
+			byte[] band2 = dst.getBand(alpha ? 2 : 1).data;
+			byte[] band3 = dst.getBand(alpha ? 3 : 2).data;
+
+			BoofConcurrency.loopBlocks(0, height, (y0,y1) -> {
+			final int[] row = new int[width];
+			for (int y = y0; y < y1; y++) {
+				codec.read(y, row);
 				int index = dst.startIndex + y * dst.stride;
 				for (int x = 0; x < width; x++, index++) {
-					int argb = src.getRGB(x, y);
+					int argb = row[x];
 
+					if( alpha )
+						bandA[index] = (byte) (argb >>> 24);
 					band1[index] = (byte) (argb >>> 16);
 					band2[index] = (byte) (argb >>> 8);
 					band3[index] = (byte) argb;
 				}
+			}
 			});
 		} else {
 			bufferedToGray(src, dst.getBand(0).data,dst.startIndex,dst.stride);
@@ -687,11 +671,8 @@ public class ImplConvertRaster_MT {
 
 	/**
 	 * <p>
-	 * Converts a buffered image into an planar image using the BufferedImage's RGB interface.
-	 * </p>
-	 * <p>
-	 * This is much slower than working directly with the BufferedImage's internal raster and should be
-	 * avoided if possible.
+	 * Converts a buffered image into an planar image using {@link ArgbRowCodec}. Images with 3 bands are
+	 * in RGB order and images with 4 bands are in ARGB order.
 	 * </p>
 	 *
 	 * @param src Input image.
@@ -701,37 +682,29 @@ public class ImplConvertRaster_MT {
 		final int width = src.getWidth();
 		final int height = src.getHeight();
 
-		if (dst.getNumBands() == 3) {
-			final float[] band1 = dst.getBand(0).data;
-			final float[] band2 = dst.getBand(1).data;
-			final float[] band3 = dst.getBand(2).data;
-
-			BoofConcurrency.loopFor(0, height, y -> {
+		if (dst.getNumBands() == 3 || dst.getNumBands() == 4) {
+			ArgbRowCodec codec = ArgbRowCodec.create(src);
+			final boolean alpha = dst.getNumBands() == 4;
+			final float[] bandA = alpha ? dst.getBand(0).data : null;
+			final float[] band1 = dst.getBand(alpha ? 1 : 0).data;
+			final float[] band2 = dst.getBand(alpha ? 2 : 1).data;
+			final float[] band3 = dst.getBand(alpha ? 3 : 2).data;
+
+			BoofConcurrency.loopBlocks(0, height, (y0,y1) -> {
+			final int[] row = new int[width];
+			for (int y = y0; y < y1; y++) {
+				codec.read(y, row);
 				int index = dst.startIndex + y * dst.stride;
 				for (int x = 0; x < width; x++, index++) {
-					int argb = src.getRGB(x, y);
+					int argb = row[x];
 
+					if( alpha )
+						bandA[index] = (argb >>> 24) & 0xFF;
 					band1[index] = (argb >>> 16) & 0xFF;
 					band2[index] = (argb >>> 8) & 0xFF;
 					band3[index] = argb & 0xFF;
 				}
-			});
-		} else if (dst.getNumBands() == 4) {
-			final float[] band1 = dst.getBand(0).data;
-			final float[] band2 = dst.getBand(1).data;
-			final float[] band3 = dst.getBand(2).data;
-			final float[] band4 = dst.getBand(3).data;
-
-			BoofConcurrency.loopFor(0, height, y -> {
-				int index = dst.startIndex + y * dst.stride;
-				for (int x = 0; x < width; x++, index++) {
-					int argb = src.getRGB(x, y);
-
-					band1[index] = (argb >>> 24) & 0xFF;
-					band2[index] = (argb >>> 16) & 0xFF;
-					band3[index] = (argb >>> 8) & 0xFF;
-					band4[index] = argb & 0xFF;
-				}
+			}
 			});
 		} else if( dst.getNumBands() == 1 ){
 			bufferedToGray(src, dst.getBand(0).data, dst.startIndex, dst.stride);
@@ -744,28 +717,25 @@ public class ImplConvertRaster_MT {
 		final int width = src.getWidth();
 		final int height = src.getHeight();
 
-		if (dst.getNumBands() == 3) {
-			BoofConcurrency.loopFor(0, height, y -> {
-				int indexDst = dst.startIndex + y * dst.stride;
-				for (int x = 0; x < width; x++) {
-					int argb = src.getRGB(x, y);
+		if (dst.getNumBands() == 3 || dst.getNumBands() == 4) {
+			ArgbRowCodec codec = ArgbRowCodec.create(src);
+			final boolean alpha = dst.getNumBands() == 4;
 
-					dst.data[indexDst++] = (argb >>> 16) & 0xFF;
-					dst.data[indexDst++] = (argb >>> 8) & 0xFF;
-					dst.data[indexDst++] = argb & 0xFF;
-				}
-			});
-		} else if (dst.getNumBands() == 4) {
-			BoofConcurrency.loopFor(0, height, y -> {
+			BoofConcurrency.loopBlocks(0, height, (y0,y1) -> {
+			final int[] row = new int[width];
+			for (int y = y0; y < y1; y++) {
+				codec.read(y, row);
 				int indexDst = dst.startIndex + y * dst.stride;
 				for (int x = 0; x < width; x++) {
-					int argb = src.getRGB(x, y);
+					int argb = row[x];
 
-					dst.data[indexDst++] = (argb >>> 24) & 0xFF;
+					if( alpha )
+						dst.data[indexDst++] = (argb >>> 24) & 0xFF;
 					dst.data[indexDst++] = (argb >>> 16) & 0xFF;
 					dst.data[indexDst++] = (argb >>> 8) & 0xFF;
 					dst.data[indexDst++] = argb & 0xFF;
 				}
+			}
 			});
 		} else if( dst.getNumBands() == 1 ){
 			bufferedToGray(src, dst.data, dst.startIndex, dst.stride);
@@ -776,11 +746,8 @@ public class ImplConvertRaster_MT {
 
 	/**
 	 * <p>
-	 * Converts a buffered image into an planar image using the BufferedImage's RGB interface.
-	 * </p>
-	 * <p>
-	 * This is much slower than working directly with the BufferedImage's internal raster and should be
-	 * avoided if possible.
+	 * Converts a buffered image into an interleaved image using {@link ArgbRowCodec}. Images with 3 bands are
+	 * in RGB order and images with 4 bands are in ARGB order.
 	 * </p>
 	 *
 	 * @param src Input image.
@@ -791,17 +758,25 @@ public class ImplConvertRaster_MT {
 		final int width = src.getWidth();
 		final int height = src.getHeight();
 
-		if (dst.getNumBands() == 3) {
+		if (dst.getNumBands() == 3 || dst.getNumBands() == 4) {
+			ArgbRowCodec codec = ArgbRowCodec.create(src);
+			final boolean alpha = dst.getNumBands() == 4;
 
-			BoofConcurrency.loopFor(0, height, y -> {
+			BoofConcurrency.loopBlocks(0, height, (y0,y1) -> {
+			final int[] row = new int[width];
+			for (int y = y0; y < y1; y++) {
+				codec.read(y, row);
 				int indexDst = dst.startIndex + y * dst.stride;
 				for (int x = 0; x < width; x++) {
-					int argb = src.getRGB(x, y);
+					int argb = row[x];
 
+					if( alpha )
+						dst.data[indexDst++] = (byte) (argb >>> 24);
 					dst.data[indexDst++] = (byte) (argb >>> 16);
 					dst.data[indexDst++] = (byte) (argb >>> 8);
 					dst.data[indexDst++] = (byte) argb;
 				}
+			}
 			});
 		} else if( dst.getNumBands() == 1 ){
 			ImplConvertRaster.bufferedToGray(src, dst.data,dst.startIndex,dst.stride);
@@ -1340,17 +1315,21 @@ public class ImplConvertRaster_MT {
 		final int width = dst.getWidth();
 		final int height = dst.getHeight();
 
+		ArgbRowCodec codec = ArgbRowCodec.create(dst);
+
 		byte[] data = src.data;
-		BoofConcurrency.loopFor(0, height, y -> {
+		BoofConcurrency.loopBlocks(0, height, (y0,y1) -> {
+		final int[] row = new int[width];
+		for (int y = y0; y < y1; y++) {
 			int indexSrc = src.startIndex + src.stride * y;
 
 			for (int x = 0; x < width; x++) {
 				int v = data[indexSrc++] & 0xFF;
 
-				int rgb = v << 16 | v << 8 | v;
-
-				dst.setRGB(x, y, rgb);
+				row[x] = 0xFF << 24 | v << 16 | v << 8 | v;
 			}
+			codec.write(y, row);
+		}
 		});
 
 	}
@@ -1360,17 +1339,21 @@ public class ImplConvertRaster_MT {
 		final int width = dst.getWidth();
 		final int height = dst.getHeight();
 
+		ArgbRowCodec codec = ArgbRowCodec.create(dst);
+
 		short[] data = src.data;
-		BoofConcurrency.loopFor(0, height, y -> {
+		BoofConcurrency.loopBlocks(0, height, (y0,y1) -> {
+		final int[] row = new int[width];
+		for (int y = y0; y < y1; y++) {
 			int indexSrc = src.startIndex + src.stride * y;
 
 			for (int x = 0; x < width; x++) {
 				int v = (int) data[indexSrc++];
 
-				int argb = v << 16 | v << 8 | v;
-
-				dst.setRGB(x, y, argb);
+				row[x] = 0xFF << 24 | v << 16 | v << 8 | v;
 			}
+			codec.write(y, row);
+		}
 		});
 	}
 
@@ -1378,71 +1361,95 @@ public class ImplConvertRaster_MT {
 		final int width = dst.getWidth();
 		final int height = dst.getHeight();
 
+		ArgbRowCodec codec = ArgbRowCodec.create(dst);
+
 		float[] data = src.data;
-		BoofConcurrency.loopFor(0, height, y -> {
+		BoofConcurrency.loopBlocks(0, height, (y0,y1) -> {
+		final int[] row = new int[width];
+		for (int y = y0; y < y1; y++) {
 			int indexSrc = src.startIndex + src.stride * y;
 
 			for (int x = 0; x < width; x++) {
 				int v = (int) data[indexSrc++];
 
-				int argb = v << 16 | v << 8 | v;
-
-				dst.setRGB(x, y, argb);
+				row[x] = 0xFF << 24 | v << 16 | v << 8 | v;
 			}
+			codec.write(y, row);
+		}
 		});
 	}
 
 	public static void planarToBuffered_U8(Planar<GrayU8> src, BufferedImage dst) {
 
-		if (src.getNumBands() != 3)
-			throw new IllegalArgumentException("src must have three bands");
+		if (src.getNumBands() != 1 && src.getNumBands() != 3 && src.getNumBands() != 4)
+			throw new IllegalArgumentException("src must have one, three, or four bands");
 
 		final int width = dst.getWidth();
 		final int height = dst.getHeight();
 
-		byte[] band1 = src.getBand(0).data;
-		byte[] band2 = src.getBand(1).data;
-		byte[] band3 = src.getBand(2).data;
+		ArgbRowCodec codec = ArgbRowCodec.create(dst);
 
-		BoofConcurrency.loopFor(0, height, y -> {
+		// a single band is written as gray
+		final boolean alpha = src.getNumBands() == 4;
+		final int first = alpha ? 1 : 0;
+		final int step = src.getNumBands() == 1 ? 0 : 1;
+		byte[] bandA = alpha ? src.getBand(0).data : null;
+		byte[] band1 = src.getBand(first).data;
+		byte[] band2 = src.getBand(first + step).data;
+		byte[] band3 = src.getBand(first + 2*step).data;
+
+		BoofConcurrency.loopBlocks(0, height, (y0,y1) -> {
+		final int[] row = new int[width];
+		for (int y = y0; y < y1; y++) {
 			int indexSrc = src.startIndex + src.stride * y;
 
 			for (int x = 0; x < width; x++, indexSrc++) {
+				int a = alpha ? bandA[indexSrc] & 0xFF : 0xFF;
 				int c1 = band1[indexSrc] & 0xFF;
 				int c2 = band2[indexSrc] & 0xFF;
 				int c3 = band3[indexSrc] & 0xFF;
 
-				int argb = c1 << 16 | c2 << 8 | c3;
-
-				dst.setRGB(x, y, argb);
+				row[x] = a << 24 | c1 << 16 | c2 << 8 | c3;
 			}
+			codec.write(y, row);
+		}
 		});
 	}
 
 	public static void planarToBuffered_F32(Planar<GrayF32> src, BufferedImage dst) {
 
-		if (src.getNumBands() != 3)
-			throw new IllegalArgumentException("src must have three bands");
+		if (src.getNumBands() != 1 && src.getNumBands() != 3 && src.getNumBands() != 4)
+			throw new IllegalArgumentException("src must have one, three, or four bands");
 
 		final int width = dst.getWidth();
 		final int height = dst.getHeight();
 
-		float[] band1 = src.getBand(0).data;
-		float[] band2 = src.getBand(1).data;
-		float[] band3 = src.getBand(2).data;
+		ArgbRowCodec codec = ArgbRowCodec.create(dst);
 
-		BoofConcurrency.loopFor(0, height, y -> {
+		// a single band is written as gray
+		final boolean alpha = src.getNumBands() == 4;
+		final int first = alpha ? 1 : 0;
+		final int step = src.getNumBands() == 1 ? 0 : 1;
+		float[] bandA = alpha ? src.getBand(0).data : null;
+		float[] band1 = src.getBand(first).data;
+		float[] band2 = src.getBand(first + step).data;
+		float[] band3 = src.getBand(first + 2*step).data;
+
+		BoofConcurrency.loopBlocks(0, height, (y0,y1) -> {
+		final int[] row = new int[width];
+		for (int y = y0; y < y1; y++) {
 			int indexSrc = src.startIndex + src.stride * y;
 
 			for (int x = 0; x < width; x++, indexSrc++) {
+				int a = alpha ? (int) bandA[indexSrc] : 0xFF;
 				int c1 = (int) band1[indexSrc];
 				int c2 = (int) band2[indexSrc];
 				int c3 = (int) band3[indexSrc];
 
-				int argb = c1 << 16 | c2 << 8 | c3;
-
-				dst.setRGB(x, y, argb);
+				row[x] = a << 24 | c1 << 16 | c2 << 8 | c3;
 			}
+			codec.write(y, row);
+		}
 		});
 	}
 
@@ -1514,24 +1521,31 @@ public class ImplConvertRaster_MT {
 
 	public static void interleavedToBuffered( InterleavedU8 src, BufferedImage dst) {
 
-		if (src.getNumBands() != 3)
-			throw new IllegalArgumentException("src must have three bands");
+		if (src.getNumBands() != 1 && src.getNumBands() != 3 && src.getNumBands() != 4)
+			throw new IllegalArgumentException("src must have one, three, or four bands");
 
 		final int width = dst.getWidth();
 		final int height = dst.getHeight();
 
-		BoofConcurrency.loopFor(0, height, y -> {
+		ArgbRowCodec codec = ArgbRowCodec.create(dst);
+		final boolean alpha = src.getNumBands() == 4;
+		final boolean gray = src.getNumBands() == 1;
+
+		BoofConcurrency.loopBlocks(0, height, (y0,y1) -> {
+		final int[] row = new int[width];
+		for (int y = y0; y < y1; y++) {
 			int indexSrc = src.startIndex + src.stride * y;
 
 			for (int x = 0; x < width; x++ ) {
+				int a = alpha ? src.data[indexSrc++] & 0xFF : 0xFF;
 				int c1 = src.data[indexSrc++] & 0xFF;
-				int c2 = src.data[indexSrc++] & 0xFF;
-				int c3 = src.data[indexSrc++] & 0xFF;
-
-				int argb = c1 << 16 | c2 << 8 | c3;
+				int c2 = gray ? c1 : src.data[indexSrc++] & 0xFF;
+				int c3 = gray ? c1 : src.data[indexSrc++] & 0xFF;
 
-				dst.setRGB(x, y, argb);
+				row[x] = a << 24 | c1 << 16 | c2 << 8 | c3;
 			}
+			codec.write(y, row);
+		}
 		});
 	}
 
@@ -1604,24 +1618,31 @@ public class ImplConvertRaster_MT {
 
 	public static void interleavedToBuffered( InterleavedF32 src, BufferedImage dst) {
 
-		if (src.getNumBands() != 3)
-			throw new IllegalArgumentException("src must have three bands");
+		if (src.getNumBands() != 1 && src.getNumBands() != 3 && src.getNumBands() != 4)
+			throw new IllegalArgumentException("src must have one, three, or four bands");
 
 		final int width = dst.getWidth();
 		final int height = dst.getHeight();
 
-		BoofConcurrency.loopFor(0, height, y -> {
+		ArgbRowCodec codec = ArgbRowCodec.create(dst);
+		final boolean alpha = src.getNumBands() == 4;
+		final boolean gray = src.getNumBands() == 1;
+
+		BoofConcurrency.loopBlocks(0, height, (y0,y1) -> {
+		final int[] row = new int[width];
+		for (int y = y0; y < y1; y++) {
 			int indexSrc = src.startIndex + src.stride * y;
 
 			for (int x = 0; x < width; x++ ) {
+				int a = alpha ? (int)src.data[indexSrc++] : 0xFF;
 				int c1 = (int)src.data[indexSrc++];
-				int c2 = (int)src.data[indexSrc++];
-				int c3 = (int)src.data[indexSrc++];
-
-				int argb = c1 << 16 | c2 << 8 | c3;
+				int c2 = gray ? c1 : (int)src.data[indexSrc++];
+				int c3 = gray ? c1 : (int)src.data[indexSrc++];
 
-				dst.setRGB(x, y, argb);
+				row[x] = a << 24 | c1 << 16 | c2 << 8 | c3;
 			}
+			codec.write(y, row);
+		}
 		});
 	}
 
@@ -20,6 +20,7 @@ package boofcv.io.points;
 
 import boofcv.alg.cloud.PointCloudReader;
 import boofcv.alg.cloud.PointCloudWriter;
+import boofcv.alg.cloud.PointCloudWriter.CloudArraysF32;
 import boofcv.io.points.impl.PlyCodec;
 import boofcv.struct.Point3dRgbI_F64;
 import georegression.struct.point.Point3D_F32;
@@ -27,6 +28,7 @@ import georegression.struct.point.Point3D_F64;
 import org.ddogleg.struct.FastQueue;
 
 import javax.annotation.Nullable;
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.io.OutputStream;
@@ -62,6 +64,49 @@ public class PointCloudIO {
 	}
 
 
+	/**
+	 * Saves a point cloud stored in packed arrays to disk. The file is memory mapped and points are written
+	 * in bulk, making this much faster than {@link #save3D(Format, PointCloudReader, boolean, OutputStream)}
+	 * for large clouds. Points are saved as 4-byte floats.
+	 *
+	 * @param format File format
+	 * @param cloud The point cloud
+	 * @param saveRGB If true the color of each point is saved
+	 * @param file Where it's saved
+	 */
+	public static void save3D(Format format, CloudArraysF32 cloud , boolean saveRGB, File file ) throws IOException {
+		switch( format ) {
+			case PLY:
+				PlyCodec.saveBinary(cloud, ByteOrder.BIG_ENDIAN, saveRGB, file);
+				break;
+
+			default:
+				throw new IllegalArgumentException("Unknown format "+format);
+		}
+	}
+
+	/**
+	 * Loads a point cloud from disk into packed arrays. Binary files are memory mapped and points are read in bulk.
+	 *
+	 * @param format File format
+	 * @param file The file being read
+	 * @param storage (Optional) Storage for the cloud. If null a new instance is declared.
+	 * @return The point cloud
+	 */
+	public static CloudArraysF32
+	load3D( Format format , File file , @Nullable CloudArraysF32 storage ) throws IOException {
+		if( storage == null )
+			storage = new CloudArraysF32();
+		switch( format ) {
+			case PLY:
+				PlyCodec.read(file,storage);
+				break;
+			default:
+				throw new IllegalArgumentException("Unknown format "+format);
+		}
+		return storage;
+	}
+
 	public static FastQueue<Point3D_F32>
 	load3D32F( Format format , InputStream input , @Nullable FastQueue<Point3D_F32> storage  ) throws IOException {
 		if( storage == null )
@@ -20,24 +20,43 @@ package boofcv.io.points.impl;
 
 import boofcv.alg.cloud.PointCloudReader;
 import boofcv.alg.cloud.PointCloudWriter;
+import boofcv.alg.cloud.PointCloudWriter.CloudArraysF32;
 import boofcv.io.UtilIO;
 import georegression.struct.point.Point3D_F64;
 
-import java.io.IOException;
-import java.io.InputStream;
-import java.io.OutputStream;
-import java.io.Writer;
+import javax.annotation.Nullable;
+import java.io.*;
 import java.nio.ByteBuffer;
 import java.nio.ByteOrder;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.StandardOpenOption;
 import java.util.ArrayList;
 import java.util.List;
 
 /**
- * For reading PLY point files
+ * <p>
+ * For reading PLY point files. There are two APIs. The first reads and writes points one at a time through
+ * {@link PointCloudReader} and {@link PointCloudWriter} and works with any stream. The second works directly
+ * with the packed arrays in {@link CloudArraysF32} and memory maps the file, copying points in bulk. Use the
+ * second for large clouds, e.g. from dense stereo, since its speed is limited by the disk.
+ * </p>
+ *
+ * <p>
+ * NOTE: Only the vertex element is supported. Only the x,y,z and red,green,blue properties are used and the others
+ * are skipped over.
+ * </p>
  *
  * @author Peter Abeles
  */
 public class PlyCodec {
+	/** Maximum number of bytes in a single memory mapped region */
+	public static final int DEFAULT_CHUNK_BYTES = 1 << 30;
+
+	// Number of bytes in the block which is read or written at once when using streams
+	private static final int STREAM_BLOCK_BYTES = 64*1024;
+
 	public static void saveAscii(PointCloudReader cloud , boolean saveRgb , Writer outputWriter ) throws IOException {
 		outputWriter.write("ply\n");
 		outputWriter.write("format ascii 1.0\n");
@@ -82,55 +101,128 @@ public class PlyCodec {
 	 */
 	public static void saveBinary(PointCloudReader cloud , ByteOrder order, boolean saveRgb , boolean saveAsFloat ,
 								  OutputStream outputWriter ) throws IOException {
-		String format = "UTF-8";
-		String dataType = saveAsFloat ? "float" : "double";
-		int dataLength = saveAsFloat ? 4 : 8;
-		outputWriter.write("ply\n".getBytes(format));
-		outputWriter.write("format binary_big_endian 1.0\n".getBytes(format));
-		outputWriter.write("comment Created using BoofCV!\n".getBytes(format));
-		outputWriter.write(("element vertex "+cloud.size()+"\n").getBytes(format));
-		outputWriter.write((
-				"property "+dataType+" x\n" +
-				"property "+dataType+" y\n" +
-				"property "+dataType+" z\n").getBytes(format));
-		if( saveRgb ) {
-			outputWriter.write(
-					("property uchar red\n" +
-					 "property uchar green\n" +
-					 "property uchar blue\n").getBytes(format));
-		}
-		outputWriter.write("end_header\n".getBytes(format));
+		outputWriter.write(headerBinary(cloud.size(), order, saveRgb, saveAsFloat));
+
+		final int dataLength = saveAsFloat ? 4 : 8;
+		final int end = dataLength*3;
+		final int stride = end + (saveRgb?3:0);
 
-		int end = dataLength*3;
-		var bytes = ByteBuffer.allocate(dataLength*3 + (saveRgb?3:0));
+		// Points are encoded into a block then the entire block is written at once
+		final int blockPoints = Math.max(1,STREAM_BLOCK_BYTES/stride);
+		var bytes = ByteBuffer.allocate(blockPoints*stride);
 		bytes.order(order);
 		Point3D_F64 p = new Point3D_F64();
-		for (int i = 0; i < cloud.size(); i++) {
-			cloud.get(i,p);
-			if( saveAsFloat ) {
-				bytes.putFloat(0, (float) p.x);
-				bytes.putFloat(4, (float) p.y);
-				bytes.putFloat(8, (float) p.z);
-			} else {
-				bytes.putDouble(0, p.x);
-				bytes.putDouble(8, p.y);
-				bytes.putDouble(16, p.z);
-			}
+		for (int i = 0; i < cloud.size(); i += blockPoints) {
+			int count = Math.min(blockPoints, cloud.size()-i);
+			for (int j = 0; j < count; j++) {
+				int location = j*stride;
+				cloud.get(i+j,p);
+				if( saveAsFloat ) {
+					bytes.putFloat(location    , (float) p.x);
+					bytes.putFloat(location + 4, (float) p.y);
+					bytes.putFloat(location + 8, (float) p.z);
+				} else {
+					bytes.putDouble(location     , p.x);
+					bytes.putDouble(location +  8, p.y);
+					bytes.putDouble(location + 16, p.z);
+				}
 
-			if( saveRgb ) {
-				int rgb = cloud.getRGB(i);
-				int r = (rgb >> 16)&0xFF;
-				int g = (rgb >> 8)&0xFF;
-				int b = rgb&0xFF;
-				bytes.put(end,(byte)r);
-				bytes.put(end+1,(byte)g);
-				bytes.put(end+2,(byte)b);
+				if( saveRgb ) {
+					int rgb = cloud.getRGB(i+j);
+					bytes.put(location + end    , (byte)(rgb >> 16));
+					bytes.put(location + end + 1, (byte)(rgb >> 8));
+					bytes.put(location + end + 2, (byte)rgb);
+				}
 			}
-			outputWriter.write(bytes.array());
+			outputWriter.write(bytes.array(), 0, count*stride);
 		}
 		outputWriter.flush();
 	}
 
+	/**
+	 * Saves the point cloud to a file in binary format using 4-byte floats. The file is memory mapped
+	 * and points are copied in bulk from the cloud's arrays.
+	 *
+	 * @param cloud (Input) Point cloud data
+	 * @param order The byte order of the binary data. ByteOrder.BIG_ENDIAN is recommended
+	 * @param saveRgb if true it will save RGB information. The cloud must have a color for every point.
+	 * @param file Where it will be saved
+	 */
+	public static void saveBinary(CloudArraysF32 cloud , ByteOrder order, boolean saveRgb , File file )
+			throws IOException {
+		saveBinary(cloud, order, saveRgb, file, DEFAULT_CHUNK_BYTES);
+	}
+
+	static void saveBinary(CloudArraysF32 cloud , ByteOrder order, boolean saveRgb , File file ,
+						   int chunkBytes ) throws IOException {
+		if( saveRgb && !cloud.hasColor() )
+			throw new IllegalArgumentException("Can't save RGB since the cloud doesn't have a color for every point");
+
+		final int numPoints = cloud.size();
+		final int stride = 12 + (saveRgb?3:0);
+		final int chunkPoints = Math.max(1,chunkBytes/stride);
+		final float[] xyz = cloud.cloudXyz.data;
+		final int[] colors = cloud.cloudRgb.data;
+
+		final int blockPoints = STREAM_BLOCK_BYTES/stride;
+		final ByteBuffer block = ByteBuffer.allocate(blockPoints*stride);
+		block.order(order);
+
+		try( FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.CREATE,
+				StandardOpenOption.READ, StandardOpenOption.WRITE, StandardOpenOption.TRUNCATE_EXISTING) ) {
+			byte[] header = headerBinary(numPoints, order, saveRgb, true);
+			channel.write(ByteBuffer.wrap(header));
+
+			long position = header.length;
+			for (int i = 0; i < numPoints; i += chunkPoints) {
+				int count = Math.min(chunkPoints, numPoints-i);
+				MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_WRITE, position, (long)count*stride);
+				buffer.order(order);
+
+				if( saveRgb ) {
+					// Points are encoded into a block on the heap, which is much faster to write to, then copied
+					for (int j = 0; j < count; j += blockPoints ) {
+						int blockCount = Math.min(blockPoints, count-j);
+						for (int k = 0, indexXyz = (i+j)*3, location = 0; k < blockCount; k++, location += stride) {
+							block.putFloat(location    , xyz[indexXyz++]);
+							block.putFloat(location + 4, xyz[indexXyz++]);
+							block.putFloat(location + 8, xyz[indexXyz++]);
+							int rgb = colors[i+j+k];
+							block.put(location + 12, (byte)(rgb >> 16));
+							block.put(location + 13, (byte)(rgb >> 8));
+							block.put(location + 14, (byte)rgb);
+						}
+						buffer.put(block.array(), 0, blockCount*stride);
+					}
+				} else {
+					buffer.asFloatBuffer().put(xyz, i*3, count*3);
+				}
+				position += (long)count*stride;
+			}
+		}
+	}
+
+	/**
+	 * Creates the header for a binary file
+	 */
+	private static byte[] headerBinary( int numPoints, ByteOrder order, boolean saveRgb, boolean saveAsFloat ) {
+		String dataType = saveAsFloat ? "float" : "double";
+		String header = "ply\n" +
+				"format "+(order == ByteOrder.BIG_ENDIAN ? "binary_big_endian" : "binary_little_endian")+" 1.0\n" +
+				"comment Created using BoofCV!\n" +
+				"element vertex "+numPoints+"\n" +
+				"property "+dataType+" x\n" +
+				"property "+dataType+" y\n" +
+				"property "+dataType+" z\n";
+		if( saveRgb ) {
+			header += "property uchar red\n" +
+					"property uchar green\n" +
+					"property uchar blue\n";
+		}
+		header += "end_header\n";
+		return header.getBytes(StandardCharsets.UTF_8);
+	}
+
 	private static String readNextPly(InputStream reader , boolean failIfNull , StringBuffer buffer ) throws IOException {
 		String line = UtilIO.readLine(reader,buffer);
 		while( line.length() != 0 ) {
@@ -147,7 +239,142 @@ public class PlyCodec {
 
 	public static void read(InputStream input, PointCloudWriter output ) throws IOException {
 		StringBuffer buffer = new StringBuffer();
+		Header header = readHeader(input, buffer);
+
+		output.init(header.vertexCount);
+
+		switch (header.format) {
+			case ASCII:readAscii(output, input, header.words, buffer, header.vertexCount, header.rgb);break;
+			case BINARY_LITTLE:readBinary(output, input, header, ByteOrder.LITTLE_ENDIAN);break;
+			case BINARY_BIG:readBinary(output, input, header, ByteOrder.BIG_ENDIAN);break;
+			default: throw new RuntimeException("BUG!");
+		}
+	}
 
+	/**
+	 * Reads a PLY file directly into packed arrays. Binary files are memory mapped and points are decoded in bulk.
+	 * ASCII files are read through a stream.
+	 *
+	 * @param file The PLY file
+	 * @param output (Output) Storage for the point cloud. If the file has no color then cloudRgb will be empty.
+	 */
+	public static void read(File file, CloudArraysF32 output ) throws IOException {
+		read(file, output, DEFAULT_CHUNK_BYTES);
+	}
+
+	static void read(File file, CloudArraysF32 output, int chunkBytes ) throws IOException {
+		try( FileChannel channel = FileChannel.open(file.toPath(), StandardOpenOption.READ) ) {
+			final long fileSize = channel.size();
+
+			// The header is parsed from the mapped file so that where it ends is known exactly. Pages are only
+			// loaded when accessed so mapping more than the header costs nothing
+			MappedByteBuffer start = channel.map(FileChannel.MapMode.READ_ONLY, 0, Math.min(fileSize, Integer.MAX_VALUE));
+			Header header = readHeader(new ByteBufferInputStream(start), new StringBuffer());
+
+			if( header.format == Format.ASCII ) {
+				try( InputStream input = new BufferedInputStream(new FileInputStream(file)) ) {
+					read(input, output);
+				}
+				return;
+			}
+
+			if( header.find(VarType.X) == null || header.find(VarType.Y) == null || header.find(VarType.Z) == null )
+				throw new IOException("File is missing x, y, or z");
+
+			final int numPoints = header.vertexCount;
+			final int stride = header.stride;
+			if( start.position() + (long)numPoints*stride > fileSize )
+				throw new IOException("File is too small for "+numPoints+" points");
+
+			output.cloudXyz.resize(numPoints*3);
+			output.cloudRgb.resize(header.rgb ? numPoints : 0);
+
+			final ByteOrder order = header.format == Format.BINARY_BIG ? ByteOrder.BIG_ENDIAN : ByteOrder.LITTLE_ENDIAN;
+			final int chunkPoints = Math.max(1,chunkBytes/stride);
+			long position = start.position();
+			for (int i = 0; i < numPoints; i += chunkPoints) {
+				int count = Math.min(chunkPoints, numPoints-i);
+				MappedByteBuffer buffer = channel.map(FileChannel.MapMode.READ_ONLY, position, (long)count*stride);
+				buffer.order(order);
+				decodeBinary(buffer, header, count, output.cloudXyz.data, i*3,
+						header.rgb ? output.cloudRgb.data : null, i);
+				position += (long)count*stride;
+			}
+		}
+	}
+
+	/**
+	 * Decodes binary points from the buffer directly into arrays
+	 *
+	 * @param bb Buffer with the first point at position 0
+	 * @param count Number of points
+	 * @param xyz Storage for the points coordinates
+	 * @param indexXyz Index of the first element in xyz
+	 * @param colors Storage for RGB. If null it's ignored
+	 * @param indexRgb Index of the first element in colors
+	 */
+	static void decodeBinary( ByteBuffer bb, Header header, int count,
+							  float[] xyz, int indexXyz, @Nullable int[] colors, int indexRgb ) {
+		final int stride = header.stride;
+		final DataWord X = header.find(VarType.X), Y = header.find(VarType.Y), Z = header.find(VarType.Z);
+
+		if( X.data == DataType.FLOAT && Y.data == DataType.FLOAT && Z.data == DataType.FLOAT ) {
+			if( stride == 12 && X.offset == 0 && Y.offset == 4 && Z.offset == 8 ) {
+				// The entire buffer is just the coordinates so copy them all at once
+				bb.asFloatBuffer().get(xyz, indexXyz, count*3);
+			} else {
+				for (int i = 0, location = 0; i < count; i++, location += stride) {
+					xyz[indexXyz++] = bb.getFloat(location + X.offset);
+					xyz[indexXyz++] = bb.getFloat(location + Y.offset);
+					xyz[indexXyz++] = bb.getFloat(location + Z.offset);
+				}
+			}
+		} else {
+			for (int i = 0, location = 0; i < count; i++, location += stride) {
+				xyz[indexXyz++] = (float)readDouble(bb, location + X.offset, X.data);
+				xyz[indexXyz++] = (float)readDouble(bb, location + Y.offset, Y.data);
+				xyz[indexXyz++] = (float)readDouble(bb, location + Z.offset, Z.data);
+			}
+		}
+
+		if( colors == null )
+			return;
+
+		final DataWord R = header.find(VarType.R), G = header.find(VarType.G), B = header.find(VarType.B);
+		for (int i = 0, location = 0; i < count; i++, location += stride) {
+			int r = R == null ? 0 : readInt(bb, location + R.offset, R.data);
+			int g = G == null ? 0 : readInt(bb, location + G.offset, G.data);
+			int b = B == null ? 0 : readInt(bb, location + B.offset, B.data);
+			colors[indexRgb++] = r << 16 | g << 8 | b;
+		}
+	}
+
+	private static double readDouble( ByteBuffer bb, int location, DataType type ) {
+		switch( type ) {
+			case FLOAT: return bb.getFloat(location);
+			case DOUBLE: return bb.getDouble(location);
+			default: return readInt(bb, location, type);
+		}
+	}
+
+	private static int readInt( ByteBuffer bb, int location, DataType type ) {
+		switch( type ) {
+			case FLOAT:  return (int)bb.getFloat(location);
+			case DOUBLE: return (int)bb.getDouble(location);
+			case CHAR:   return bb.get(location);
+			case UCHAR:  return bb.get(location)&0xFF;
+			case SHORT:  return bb.getShort(location);
+			case USHORT: return bb.getShort(location)&0xFFFF;
+			case INT:
+			case UINT:   return bb.getInt(location); // NOTE: not really uint...
+			default: throw new RuntimeException("Unsupported");
+		}
+	}
+
+	/**
+	 * Parses the header. When done the stream is at the start of the data.
+	 */
+	static Header readHeader( InputStream input, StringBuffer buffer ) throws IOException {
 		String line = UtilIO.readLine(input,buffer);
 		if( line.length() == 0 ) throw new IOException("Missing first line");
 		if( line.compareToIgnoreCase("ply")!=0 ) throw new IOException("Expected PLY at start of file");
@@ -210,14 +437,16 @@ public class PlyCodec {
 		if( format == null )
 			throw new IOException("Format is never specified");
 
-		output.init(vertexCount);
-
-		switch (format) {
-			case ASCII:readAscii(output, input, dataWords, buffer, vertexCount, rgb);break;
-			case BINARY_LITTLE:readBinary(output, input, dataWords, ByteOrder.LITTLE_ENDIAN, vertexCount, rgb);break;
-			case BINARY_BIG:readBinary(output, input, dataWords, ByteOrder.BIG_ENDIAN, vertexCount, rgb);break;
-			default: throw new RuntimeException("BUG!");
+		var header = new Header();
+		header.format = format;
+		header.vertexCount = vertexCount;
+		header.words = dataWords;
+		header.rgb = rgb;
+		for( DataWord d : dataWords ) {
+			d.offset = header.stride;
+			header.stride += d.data.size;
 		}
+		return header;
 	}
 
 	private static void readAscii(PointCloudWriter output, InputStream reader, List<DataWord> dataWords,
@@ -268,17 +497,17 @@ public class PlyCodec {
 		}
 	}
 
-	private static void readBinary(PointCloudWriter output, InputStream reader, List<DataWord> dataWords,
-								   ByteOrder order,
-								   int vertexCount, boolean rgb) throws IOException {
-
-		int totalBytes = 0;
-		for (int i = 0; i < dataWords.size(); i++) {
-			totalBytes += dataWords.get(i).data.size;
-		}
-
-		final byte[] line = new byte[totalBytes];
-		final ByteBuffer bb = ByteBuffer.wrap(line);
+	private static void readBinary(PointCloudWriter output, InputStream reader, Header header,
+								   ByteOrder order ) throws IOException {
+		final List<DataWord> dataWords = header.words;
+		final int vertexCount = header.vertexCount;
+		final boolean rgb = header.rgb;
+		final int stride = header.stride;
+
+		// Points are read in blocks since reading them one at a time from the stream is slow
+		final int blockPoints = Math.max(1,STREAM_BLOCK_BYTES/stride);
+		final byte[] block = new byte[blockPoints*stride];
+		final ByteBuffer bb = ByteBuffer.wrap(block);
 		bb.order(order);
 
 		// storage for read in values
@@ -289,49 +518,102 @@ public class PlyCodec {
 		int r=-1,g=-1,b=-1;
 		double x=-1,y=-1,z=-1;
 
-		for (int i = 0; i < vertexCount; i++) {
-			int found = reader.read(line);
-			if( line.length != found )
-				throw new IOException("Read unexpected number of bytes. "+found+" vs "+line.length);
-
-			int location = 0;
-
-			for (int j = 0; j < dataWords.size(); j++) {
-				DataWord d = dataWords.get(j);
-				switch( d.data ) {
-					case FLOAT:  F64 = bb.getFloat(location); break;
-					case DOUBLE: F64 = bb.getDouble(location); break;
-					case CHAR:  I32 = bb.get(location); break;
-					case UCHAR:  I32 = bb.get(location)&0xFF; break;
-					case SHORT: I32 = bb.getShort(location); break;
-					case USHORT: I32 = bb.getShort(location)&0xFFFF; break;
-					case INT: I32 = bb.getInt(location); break;
-					case UINT: I32 = bb.getInt(location); break; // NOTE: not really uint...
-					default: throw new RuntimeException("Unsupported");
+		for (int i = 0; i < vertexCount; i += blockPoints) {
+			int count = Math.min(blockPoints, vertexCount-i);
+			int found = readFully(reader, block, count*stride);
+			if( count*stride != found )
+				throw new IOException("Read unexpected number of bytes. "+found+" vs "+count*stride);
+
+			for (int k = 0; k < count; k++) {
+				int location = k*stride;
+
+				for (int j = 0; j < dataWords.size(); j++) {
+					DataWord d = dataWords.get(j);
+					switch( d.data ) {
+						case FLOAT:
+						case DOUBLE: F64 = readDouble(bb, location, d.data); break;
+						default:     I32 = readInt(bb, location, d.data); break;
+					}
+					location += d.data.size;
+					switch( d.var ) {
+						case X: x = F64; break;
+						case Y: y = F64; break;
+						case Z: z = F64; break;
+						case R: r = I32; break;
+						case G: g = I32; break;
+						case B: b = I32; break;
+					}
 				}
-				location += d.data.size;
-				switch( d.var ) {
-					case X: x = F64; break;
-					case Y: y = F64; break;
-					case Z: z = F64; break;
-					case R: r = I32; break;
-					case G: g = I32; break;
-					case B: b = I32; break;
+
+				if( rgb ) {
+					output.add(x,y,z, r << 16 | g << 8 | b);
+				} else {
+					output.add(x,y,z);
 				}
 			}
+		}
+	}
 
-			if( rgb ) {
-				output.add(x,y,z, r << 16 | g << 8 | b);
-			} else {
-				output.add(x,y,z);
+	/**
+	 * Reads until the requested number of bytes has been read or the end of the stream is reached
+	 *
+	 * @return Number of bytes read
+	 */
+	private static int readFully( InputStream input, byte[] data, int length ) throws IOException {
+		int total = 0;
+		while( total < length ) {
+			int found = input.read(data, total, length-total);
+			if( found < 0 )
+				break;
+			total += found;
+		}
+		return total;
+	}
+
+	/**
+	 * Description of the data which was read from the header
+	 */
+	static class Header {
+		Format format;
+		int vertexCount;
+		List<DataWord> words;
+		boolean rgb;
+		// number of bytes in a single point for binary files
+		int stride;
+
+		/** Returns the word for the variable or null if there is none */
+		@Nullable DataWord find( VarType var ) {
+			for (int i = 0; i < words.size(); i++) {
+				if( words.get(i).var == var )
+					return words.get(i);
 			}
+			return null;
+		}
+	}
+
+	/**
+	 * Provides a stream view of a buffer so that the header can be parsed with the same code. Advances the
+	 * buffer's position.
+	 */
+	private static class ByteBufferInputStream extends InputStream {
+		ByteBuffer buffer;
+
+		public ByteBufferInputStream(ByteBuffer buffer) {
+			this.buffer = buffer;
+		}
+
+		@Override
+		public int read() {
+			return buffer.hasRemaining() ? buffer.get() & 0xFF : -1;
 		}
 	}
 
-	private static class DataWord
+	static class DataWord
 	{
 		VarType var;
 		DataType data;
+		// location of the word relative to the start of a binary point
+		int offset;
 
 		public DataWord(VarType var, DataType data) {
 			this.var = var;
@@ -339,11 +621,11 @@ public class PlyCodec {
 		}
 	}
 
-	private enum VarType {
+	enum VarType {
 		X,Y,Z,R,G,B,UNKNOWN
 	}
 
-	private enum DataType {
+	enum DataType {
 		FLOAT(4),
 		DOUBLE(8),
 		CHAR(1),
@@ -359,7 +641,7 @@ public class PlyCodec {
 		}
 	}
 
-	private enum Format {
+	enum Format {
 		ASCII,
 		BINARY_LITTLE,
 		BINARY_BIG
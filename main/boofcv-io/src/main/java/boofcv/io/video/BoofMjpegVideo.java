@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2017, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -19,13 +19,16 @@
 package boofcv.io.video;
 
 import boofcv.io.image.SimpleImageSequence;
-import boofcv.io.wrapper.images.MjpegStreamSequence;
+import boofcv.io.wrapper.images.JpegByteImageSequence;
 import boofcv.struct.image.ImageBase;
 import boofcv.struct.image.ImageType;
 
-import java.io.FileNotFoundException;
+import java.io.File;
+import java.io.IOException;
 
 /**
+ * Opens MJPEG files using a memory mapped {@link MjpegMappedFile}. Frames are decoded directly from the mapped file.
+ *
  * @author Peter Abeles
  */
 public class BoofMjpegVideo implements VideoInterface {
@@ -33,8 +36,8 @@ public class BoofMjpegVideo implements VideoInterface {
 	public <T extends ImageBase<T>> SimpleImageSequence<T> load(String fileName, ImageType<T> imageType) {
 
 		try {
-			return new MjpegStreamSequence(fileName,imageType);
-		} catch (FileNotFoundException e) {
+			return new JpegByteImageSequence<>(imageType, new MjpegMappedFile(new File(fileName)), false);
+		} catch (IOException e) {
 			return null;
 		}
 	}
@@ -0,0 +1,66 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.io.video;
+
+import javax.imageio.stream.ImageInputStreamImpl;
+import java.nio.ByteBuffer;
+
+/**
+ * {@link javax.imageio.stream.ImageInputStream} which reads directly from a {@link ByteBuffer}. When passed to
+ * {@link javax.imageio.ImageIO} the data is decoded without being copied into an intermediate array or cache,
+ * which is what happens with a generic {@link java.io.InputStream}. The buffer's position and limit
+ * are not modified.
+ *
+ * @author Peter Abeles
+ */
+public class ByteBufferImageInputStream extends ImageInputStreamImpl {
+	// data being read. Index 0 is the start of the stream
+	final ByteBuffer data;
+
+	public ByteBufferImageInputStream( ByteBuffer data ) {
+		this.data = data.slice();
+	}
+
+	@Override
+	public int read() {
+		if( streamPos >= data.limit() )
+			return -1;
+		bitOffset = 0;
+		return data.get((int)streamPos++) & 0xFF;
+	}
+
+	@Override
+	public int read( byte[] b, int off, int len ) {
+		if( streamPos >= data.limit() )
+			return -1;
+		bitOffset = 0;
+		int length = (int)Math.min(len, data.limit()-streamPos);
+		// a duplicate is used so that this is thread safe if multiple streams share the same buffer
+		ByteBuffer d = data.duplicate();
+		d.position((int)streamPos);
+		d.get(b, off, length);
+		streamPos += length;
+		return length;
+	}
+
+	@Override
+	public long length() {
+		return data.limit();
+	}
+}
@@ -30,6 +30,7 @@ import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.lang.reflect.InvocationTargetException;
+import java.net.URISyntaxException;
 import java.net.URL;
 import java.util.List;
 
@@ -74,14 +75,20 @@ public class DynamicVideoInterface implements VideoInterface {
 
 		InputStream stream=null;
 		try {
-			stream = url.openStream();
-
 			// Use built in movie readers for these file types
 			if( lowerName.endsWith("mjpeg") || lowerName.endsWith("mjpg") ) {
+				// Local files are memory mapped instead of being loaded into memory
+				if( protocol.equals("file") ) {
+					SimpleImageSequence<T> sequence = loadMappedMjpeg(url, imageType);
+					if( sequence != null )
+						return sequence;
+				}
+				stream = url.openStream();
 				VideoMjpegCodec codec = new VideoMjpegCodec();
 				List<byte[]> data = codec.read(stream);
 				return new JpegByteImageSequence<>(imageType, data, false);
 			} else if( lowerName.endsWith("mpng") ) {
+				stream = url.openStream();
 				return new ImageStreamSequence<>(stream, true, imageType);
 			}
 
@@ -122,6 +129,20 @@ public class DynamicVideoInterface implements VideoInterface {
 		return null;
 	}
 
+	/**
+	 * Opens a local MJPEG file using a memory mapped reader. The URL's path is percent encoded and needs
+	 * to be decoded first.
+	 *
+	 * @return The sequence or null if it failed
+	 */
+	private <T extends ImageBase<T>> SimpleImageSequence<T> loadMappedMjpeg( URL url, ImageType<T> imageType ) {
+		try {
+			return mjpeg.load(new File(url.toURI()).getPath(), imageType);
+		} catch (URISyntaxException | IllegalArgumentException e) {
+			return null;
+		}
+	}
+
 	/**
 	 * Loads the specified default {@link VideoInterface}.
 	 *
@@ -0,0 +1,215 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.io.video;
+
+import org.ddogleg.struct.GrowQueue_I32;
+import org.ddogleg.struct.GrowQueue_I64;
+
+import java.io.Closeable;
+import java.io.File;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.StandardOpenOption;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * <p>
+ * Reads a MJPEG file using memory mapping. When opened the file is scanned once to build an index of where
+ * each frame starts and ends. After that any frame can be accessed in constant time and is returned as a
+ * {@link ByteBuffer} which references the mapped file directly. No data is copied and the file is never
+ * loaded into the heap, so multi-gigabyte files can be read.
+ * </p>
+ *
+ * <p>
+ * A frame starts at a start of image (SOI) marker and ends after the following end of image (EOI) marker. If the
+ * last frame is incomplete, e.g. the recording was interrupted, then it's ignored. The file is mapped in
+ * large chunks. A frame which crosses the boundary between two chunks is mapped on its own.
+ * </p>
+ *
+ * <p>
+ * NOTE: Java does not provide a way to explicitly unmap a file. Memory is released when the buffers are
+ * garbage collected.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class MjpegMappedFile implements Closeable {
+	// Default size of each mapped region. Must be less than Integer.MAX_VALUE
+	public static final int DEFAULT_CHUNK_SIZE = 1 << 30;
+
+	FileChannel channel;
+	// Size of the file in bytes
+	long fileSize;
+
+	// Maximum size of a mapped region
+	final int chunkSize;
+	// mapped regions of the file in order
+	final List<MappedByteBuffer> chunks = new ArrayList<>();
+
+	// Location of the first byte in each frame
+	final GrowQueue_I64 frameStart = new GrowQueue_I64();
+	// Number of bytes in each frame
+	final GrowQueue_I32 frameLength = new GrowQueue_I32();
+
+	/**
+	 * Opens the file and builds the index of frames
+	 *
+	 * @param file The MJPEG file
+	 */
+	public MjpegMappedFile( File file ) throws IOException {
+		this(file, DEFAULT_CHUNK_SIZE);
+	}
+
+	/**
+	 * Opens the file and builds the index of frames
+	 *
+	 * @param file The MJPEG file
+	 * @param chunkSize Maximum number of bytes in a single mapped region.
+	 */
+	public MjpegMappedFile( File file, int chunkSize ) throws IOException {
+		if( chunkSize <= 0 )
+			throw new IllegalArgumentException("chunkSize must be positive");
+		this.chunkSize = chunkSize;
+
+		channel = FileChannel.open(file.toPath(), StandardOpenOption.READ);
+		try {
+			fileSize = channel.size();
+			for( long start = 0; start < fileSize; start += chunkSize ) {
+				long length = Math.min(chunkSize, fileSize-start);
+				chunks.add(channel.map(FileChannel.MapMode.READ_ONLY, start, length));
+			}
+			buildIndex();
+		} catch( IOException | RuntimeException e ) {
+			close();
+			throw e;
+		}
+	}
+
+	/**
+	 * Scans through the file and finds the location of each frame.
+	 */
+	void buildIndex() {
+		// Data is copied in blocks into an array since scanning an array is much faster than calling get()
+		byte[] block = new byte[64*1024];
+
+		boolean insideFrame = false;
+		boolean previousFF = false;
+		long start = 0;
+
+		long offset = 0;
+		for( MappedByteBuffer chunk : chunks ) {
+			ByteBuffer b = chunk.duplicate();
+			while( b.hasRemaining() ) {
+				int length = Math.min(block.length, b.remaining());
+				b.get(block, 0, length);
+
+				for( int i = 0; i < length; i++ ) {
+					byte d = block[i];
+					if( previousFF ) {
+						if( !insideFrame && d == VideoMjpegCodec.SOI ) {
+							start = offset + i - 1;
+							insideFrame = true;
+						} else if( insideFrame && d == VideoMjpegCodec.EOI ) {
+							long frameSize = offset + i + 1 - start;
+							if( frameSize > Integer.MAX_VALUE )
+								throw new IllegalArgumentException("Frame is too large. Offset = "+start);
+							frameStart.add(start);
+							frameLength.add((int)frameSize);
+							insideFrame = false;
+						}
+					}
+					previousFF = d == (byte)0xFF;
+				}
+				offset += length;
+			}
+		}
+	}
+
+	/**
+	 * Returns the number of frames in the file
+	 */
+	public int size() {
+		return frameStart.size;
+	}
+
+	/**
+	 * Returns the JPEG data for the specified frame. The returned buffer references the mapped file and
+	 * is read only. Its position is zero and limit is the length of the frame.
+	 *
+	 * @param index Index of the frame
+	 * @return JPEG encoded image, including the SOI and EOI markers
+	 */
+	public ByteBuffer getFrame( int index ) {
+		if( index < 0 || index >= size() )
+			throw new IllegalArgumentException("Index out of bounds. index="+index+" size="+size());
+
+		long start = frameStart.get(index);
+		int length = frameLength.get(index);
+
+		int chunkIdx = (int)(start/chunkSize);
+		int chunkOffset = (int)(start - (long)chunkIdx*chunkSize);
+
+		if( chunkOffset + length <= chunks.get(chunkIdx).limit() ) {
+			ByteBuffer b = chunks.get(chunkIdx).duplicate();
+			b.position(chunkOffset);
+			b.limit(chunkOffset + length);
+			return b.slice();
+		}
+
+		// The frame crosses the boundary between two chunks and needs to be mapped by itself
+		try {
+			return channel.map(FileChannel.MapMode.READ_ONLY, start, length);
+		} catch( IOException e ) {
+			throw new RuntimeException(e);
+		}
+	}
+
+	/**
+	 * Returns the location in the file of the first byte in the frame
+	 */
+	public long getFrameOffset( int index ) {
+		return frameStart.get(index);
+	}
+
+	/**
+	 * Returns the number of bytes in the frame
+	 */
+	public int getFrameLength( int index ) {
+		return frameLength.get(index);
+	}
+
+	public long getFileSize() {
+		return fileSize;
+	}
+
+	/**
+	 * Closes the file. Frames which have already been returned can still be accessed until they are garbage
+	 * collected.
+	 */
+	@Override
+	public void close() throws IOException {
+		if( channel != null ) {
+			channel.close();
+			channel = null;
+		}
+	}
+}
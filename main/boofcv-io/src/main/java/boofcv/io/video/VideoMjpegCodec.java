@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2017, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -24,7 +24,7 @@ import java.util.ArrayList;
 import java.util.List;
 
 /**
- * Very simple MJPEG reader
+ * Very simple MJPEG reader. To read large files without loading them into memory see {@link #openMapped(File)}.
  *
  * @author Peter Abeles
  */
@@ -34,6 +34,17 @@ public class VideoMjpegCodec {
 	// end of image
 	public static final byte EOI = (byte)0xD9;
 
+	/**
+	 * Opens a MJPEG file using memory mapping. Individual frames can be accessed without copying them
+	 * and without reading the whole file into memory.
+	 *
+	 * @param file MJPEG file
+	 * @return Memory mapped file with an index of all the frames
+	 */
+	public static MjpegMappedFile openMapped( File file ) throws IOException {
+		return new MjpegMappedFile(file);
+	}
+
 	public List<byte[]> read( InputStream streamIn ) {
 		// read the whole movie in at once to make it faster
 
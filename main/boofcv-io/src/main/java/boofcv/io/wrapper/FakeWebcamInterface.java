@@ -0,0 +1,177 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.io.wrapper;
+
+import boofcv.alg.misc.GImageMiscOps;
+import boofcv.io.image.ConvertBufferedImage;
+import boofcv.io.image.SimpleImageSequence;
+import boofcv.struct.image.ImageBase;
+import boofcv.struct.image.ImageType;
+
+import java.awt.image.BufferedImage;
+
+/**
+ * Simulated webcam which renders synthetic frames at a fixed frame rate. Useful for testing code which processes
+ * a live video stream without needing any hardware. Like a real camera, {@link SimpleImageSequence#next()} blocks
+ * until the next frame is due. Each frame has a background which changes intensity with time and a bright
+ * vertical bar which moves across the image.
+ *
+ * @author Peter Abeles
+ */
+public class FakeWebcamInterface implements WebcamInterface {
+	/** Default width of an image if none is specified */
+	public static final int DEFAULT_WIDTH = 640;
+	/** Default height of an image if none is specified */
+	public static final int DEFAULT_HEIGHT = 480;
+
+	// Number of frames it will generate every second
+	double fps;
+
+	/**
+	 * @param fps Frames per second. If &le; 0 then frames are generated as fast as possible.
+	 */
+	public FakeWebcamInterface( double fps ) {
+		this.fps = fps;
+	}
+
+	public FakeWebcamInterface() {
+		this(30);
+	}
+
+	/**
+	 * Opens a simulated camera. The device is ignored. If width or height are &le; 0 then the default is used.
+	 */
+	@Override
+	public <T extends ImageBase<T>> SimpleImageSequence<T>
+	open(String device, int width, int height, ImageType<T> imageType) {
+		if( width <= 0 || height <= 0 ) {
+			width = DEFAULT_WIDTH;
+			height = DEFAULT_HEIGHT;
+		}
+		return new SimpleSequence<>(width, height, fps, imageType);
+	}
+
+	public double getFps() {
+		return fps;
+	}
+
+	public static class SimpleSequence<T extends ImageBase<T>> implements SimpleImageSequence<T> {
+		T output;
+		BufferedImage bufferedImage;
+		int frames = -1;
+
+		// nano seconds between each frame
+		long periodNano;
+		// System.nanoTime() when the first frame was produced
+		long startNano;
+		boolean closed;
+
+		public SimpleSequence( int width, int height, double fps, ImageType<T> imageType ) {
+			this.output = imageType.createImage(width, height);
+			this.periodNano = fps <= 0 ? 0 : (long)(1e9/fps);
+		}
+
+		@Override
+		public int getWidth() {
+			return output.width;
+		}
+
+		@Override
+		public int getHeight() {
+			return output.height;
+		}
+
+		@Override
+		public boolean hasNext() {
+			return !closed;
+		}
+
+		@Override
+		public T next() {
+			if( closed )
+				throw new IllegalStateException("Camera has been closed");
+			frames++;
+			if( frames == 0 ) {
+				startNano = System.nanoTime();
+			} else {
+				waitUntil(startNano + frames*periodNano);
+			}
+			render(frames);
+			return output;
+		}
+
+		/**
+		 * Renders the synthetic image for the specified frame
+		 */
+		protected void render( int frame ) {
+			int barWidth = Math.max(1, output.width/20);
+			GImageMiscOps.fill(output, 50 + (frame*2)%150);
+			GImageMiscOps.fillRectangle(output, 255, (frame*barWidth/4)%output.width, 0, barWidth, output.height);
+		}
+
+		private static void waitUntil( long timeNano ) {
+			long remaining;
+			while( (remaining = timeNano - System.nanoTime()) > 0 ) {
+				try {
+					Thread.sleep(remaining/1_000_000, (int)(remaining%1_000_000));
+				} catch (InterruptedException e) {
+					throw new RuntimeException(e);
+				}
+			}
+		}
+
+		@Override
+		public T getImage() {
+			return output;
+		}
+
+		@Override
+		public void close() {
+			closed = true;
+		}
+
+		@Override
+		public int getFrameNumber() {
+			return frames;
+		}
+
+		@Override
+		public void setLoop( boolean loop ) {}
+
+		@Override
+		public ImageType<T> getImageType() {
+			return output.getImageType();
+		}
+
+		@Override
+		public void reset() {
+			frames = -1;
+		}
+
+		/**
+		 * Converts the current frame into a BufferedImage. The same instance is returned every time.
+		 */
+		@Override
+		public BufferedImage getGuiImage() {
+			bufferedImage = ConvertBufferedImage.checkDeclare(output.width, output.height, bufferedImage,
+					output.getImageType().getNumBands() == 1 ? BufferedImage.TYPE_BYTE_GRAY : BufferedImage.TYPE_INT_RGB);
+			return ConvertBufferedImage.convertTo(output, bufferedImage, true);
+		}
+	}
+}
@@ -0,0 +1,282 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.io.wrapper.images;
+
+import boofcv.io.image.SimpleImageSequence;
+import boofcv.struct.image.ImageBase;
+import boofcv.struct.image.ImageType;
+
+import java.util.ArrayDeque;
+
+/**
+ * Base class for sequences which read frames from another {@link SimpleImageSequence} on a background thread.
+ * Frames are copied into a fixed pool of recycled images. It manages the frame queues, the thread's life cycle,
+ * and passes exceptions thrown by the wrapped sequence on to the user. Subclasses only implement the loop
+ * which runs on the background thread and decides what to do when the user falls behind.
+ *
+ * @author Peter Abeles
+ */
+abstract class BackgroundImageSequence<T extends ImageBase<T>> implements SimpleImageSequence<T> {
+
+	// The sequence which is being read in the background
+	final SimpleImageSequence<T> source;
+
+	// Frames which are available to be written into
+	final ArrayDeque<Frame<T>> free = new ArrayDeque<>();
+	// Frames which have been read and are waiting to be returned, oldest first
+	final ArrayDeque<Frame<T>> ready = new ArrayDeque<>();
+	// Frame which was last returned by next(). It's not recycled until next() is called again
+	Frame<T> current;
+
+	// Used to synchronize access to the queues. Subclasses also use it to guard their own state
+	final Object lock = new Object();
+
+	// The thread which is reading from the source. null if not running
+	Thread thread;
+	// Set to true to request that the thread stop
+	boolean stopRequested;
+
+	/**
+	 * @param source The sequence which is to be read in the background
+	 * @param numFrames Number of images in the pool of recycled frames
+	 */
+	BackgroundImageSequence( SimpleImageSequence<T> source , int numFrames ) {
+		this.source = source;
+		for (int i = 0; i < numFrames; i++) {
+			free.add(new Frame<>(source.getImageType().createImage(1,1)));
+		}
+	}
+
+	@Override
+	public int getWidth() {
+		return peekCurrent().image.getWidth();
+	}
+
+	@Override
+	public int getHeight() {
+		return peekCurrent().image.getHeight();
+	}
+
+	@Override
+	public boolean hasNext() {
+		return waitForReady().status == Status.IMAGE;
+	}
+
+	@Override
+	public T next() {
+		// The lock is held the whole time so that the frame can't be recycled after it has been selected
+		synchronized (lock) {
+			Frame<T> f = waitForReady();
+			if( f.status != Status.IMAGE )
+				throw new IllegalStateException("There are no more images");
+
+			ready.removeFirst();
+			if( current != null ) {
+				free.add(current);
+				lock.notifyAll();
+			}
+			current = f;
+			frameReturned(f);
+			return f.image;
+		}
+	}
+
+	/**
+	 * Called by {@link #next()} with the lock held after the frame has become the current frame
+	 */
+	void frameReturned( Frame<T> f ) {}
+
+	@Override
+	public T getImage() {
+		return current == null ? null : current.image;
+	}
+
+	@Override
+	public <InternalImage> InternalImage getGuiImage() {
+		return current == null ? null : (InternalImage)current.gui;
+	}
+
+	@Override
+	public void close() {
+		stopThread();
+		source.close();
+	}
+
+	@Override
+	public int getFrameNumber() {
+		return current == null ? -1 : current.frameNumber;
+	}
+
+	/**
+	 * Changes the looping behavior of the wrapped sequence. Frames which have already been read are kept.
+	 */
+	@Override
+	public void setLoop( boolean loop ) {
+		stopThread();
+		// If the end of the sequence was reached it might no longer be the end
+		Frame<T> last = ready.peekLast();
+		if( last != null && last.status == Status.END ) {
+			ready.removeLast();
+			free.add(last);
+		}
+		source.setLoop(loop);
+	}
+
+	@Override
+	public ImageType<T> getImageType() {
+		return source.getImageType();
+	}
+
+	/**
+	 * Discards all frames which have been read in advance and resets the wrapped sequence
+	 */
+	@Override
+	public void reset() {
+		stopThread();
+		free.addAll(ready);
+		ready.clear();
+		if( current != null ) {
+			free.add(current);
+			current = null;
+		}
+		source.reset();
+	}
+
+	/**
+	 * Returns the current frame or, if next() has not been called yet, the next frame.
+	 */
+	Frame<T> peekCurrent() {
+		if( current != null )
+			return current;
+		Frame<T> f = waitForReady();
+		if( f.status != Status.IMAGE )
+			throw new IllegalStateException("There are no images");
+		return f;
+	}
+
+	/**
+	 * Blocks until the next frame has been read. Starts the background thread if needed. If reading the
+	 * frame failed then the exception is rethrown.
+	 */
+	Frame<T> waitForReady() {
+		synchronized (lock) {
+			if( ready.isEmpty() && thread == null )
+				startThread();
+			while( ready.isEmpty() ) {
+				try {
+					lock.wait();
+				} catch (InterruptedException e) {
+					throw new RuntimeException(e);
+				}
+			}
+			Frame<T> f = ready.peekFirst();
+			if( f.status == Status.ERROR ) {
+				if( f.error instanceof RuntimeException )
+					throw (RuntimeException)f.error;
+				if( f.error instanceof Error )
+					throw (Error)f.error;
+				throw new RuntimeException(f.error);
+			}
+			return f;
+		}
+	}
+
+	/**
+	 * Starts the background thread. Must be called with the lock held.
+	 */
+	void startThread() {
+		stopRequested = false;
+		thread = new Thread(this::readFrames,getClass().getSimpleName());
+		thread.setDaemon(true);
+		thread.start();
+	}
+
+	/**
+	 * Stops the background thread. If it's in the middle of reading a frame it will finish reading it first.
+	 */
+	void stopThread() {
+		Thread thread;
+		synchronized (lock) {
+			thread = this.thread;
+			if( thread == null )
+				return;
+			stopRequested = true;
+			lock.notifyAll();
+		}
+		try {
+			thread.join();
+		} catch (InterruptedException e) {
+			throw new RuntimeException(e);
+		}
+		this.thread = null;
+	}
+
+	/**
+	 * Main loop for the background thread. Takes frames from {@link #free}, fills them in using
+	 * {@link #readFrame}, and adds them to {@link #ready}. It must return once {@link #stopRequested} is true
+	 * or a frame which isn't an image has been added to {@link #ready}.
+	 */
+	abstract void readFrames();
+
+	/**
+	 * Reads the next frame from the source into 'f'. Must be called without the lock held, so that the user
+	 * can access frames which have already been read.
+	 */
+	void readFrame( Frame<T> f ) {
+		try {
+			if( source.hasNext() ) {
+				T image = source.next();
+				f.timestampNano = System.nanoTime();
+				f.image.setTo(image);
+				f.gui = source.getGuiImage();
+				f.frameNumber = source.getFrameNumber();
+				f.status = Status.IMAGE;
+			} else {
+				f.status = Status.END;
+			}
+		} catch( Throwable e ) {
+			// Errors are caught too, otherwise the user would wait forever for a frame
+			f.error = e;
+			f.status = Status.ERROR;
+		}
+	}
+
+	enum Status {
+		IMAGE, END, ERROR
+	}
+
+	/**
+	 * Storage for a frame which has been read from the source
+	 */
+	static class Frame<T extends ImageBase<T>> {
+		final T image;
+		Object gui;
+		int frameNumber;
+		// System.nanoTime() when it was read
+		long timestampNano;
+		// time between being read and being returned by next()
+		long latencyNano;
+		Status status;
+		Throwable error;
+
+		Frame( T image ) {
+			this.image = image;
+		}
+	}
+}
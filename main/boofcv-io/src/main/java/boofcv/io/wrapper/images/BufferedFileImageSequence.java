@@ -33,7 +33,8 @@ import java.util.List;
 
 
 /**
- * Loads or plays a sequence of buffered images.
+ * Loads or plays a sequence of buffered images. All the images are loaded into memory when it's constructed.
+ * For long sequences consider {@link StreamingFileImageSequence} instead.
  *
  * @author Peter Abeles
  */
@@ -0,0 +1,212 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.io.wrapper.images;
+
+import boofcv.io.image.SimpleImageSequence;
+import boofcv.struct.image.ImageBase;
+
+/**
+ * <p>
+ * Wraps a live {@link SimpleImageSequence}, such as a webcam, and grabs frames from it on a background thread
+ * while the user is processing the current frame. Frames are copied into a fixed pool of recycled images, so no
+ * memory is allocated once it's running. Up to 'capacity' frames are kept waiting. If processing is slower than
+ * the camera then the oldest waiting frame is dropped to make room for the new one, which keeps the latency
+ * bounded. With a capacity of 1 {@link #next()} will always return the most recent frame which hasn't been seen
+ * yet. Frames are returned in the order they were captured.
+ * </p>
+ *
+ * <p>
+ * The time each frame was captured is recorded, along with its latency, i.e. how long it waited before
+ * being returned by {@link #next()}. Statistics on latency and the number of frames which were dropped are
+ * also kept and can be reset with {@link #resetStatistics()}. Times are from {@link System#nanoTime()}.
+ * </p>
+ *
+ * <p>
+ * The wrapped sequence is only accessed by the background thread while it's running and should not be
+ * accessed directly by the user. If the wrapped sequence throws an exception it will be rethrown
+ * by {@link #hasNext()} or {@link #next()} once all the frames before it have been consumed.
+ * </p>
+ *
+ * <p>
+ * NOTE: The GUI image returned is the same instance that the wrapped sequence returned when the
+ * frame was read. If the wrapped sequence recycles its GUI image then it might have been modified.
+ * </p>
+ *
+ * @see PrefetchImageSequence
+ * @author Peter Abeles
+ */
+public class CaptureImageSequence<T extends ImageBase<T>> extends BackgroundImageSequence<T> {
+
+	// Maximum number of frames waiting to be processed
+	final int capacity;
+
+	// Statistics since the last time they were reset
+	int totalCaptured;
+	int totalDropped;
+	int totalDelivered;
+	long sumLatencyNano;
+	long maxLatencyNano;
+
+	/**
+	 * Creates the capture sequence
+	 *
+	 * @param source The live sequence which is to be read in the background
+	 * @param capacity Maximum number of frames which can wait to be processed. Must be &ge; 1.
+	 */
+	public CaptureImageSequence( SimpleImageSequence<T> source , int capacity ) {
+		// One image for the frame being processed by the user and one for the frame being captured
+		super(source, capacity+2);
+		if( capacity < 1 )
+			throw new IllegalArgumentException("capacity must be at least 1");
+		this.capacity = capacity;
+	}
+
+	/**
+	 * Starts capturing frames in the background. Called automatically the first time a frame is requested.
+	 */
+	public void start() {
+		synchronized (lock) {
+			if( thread == null )
+				startThread();
+		}
+	}
+
+	@Override
+	void frameReturned( Frame<T> f ) {
+		f.latencyNano = System.nanoTime() - f.timestampNano;
+		totalDelivered++;
+		sumLatencyNano += f.latencyNano;
+		maxLatencyNano = Math.max(maxLatencyNano, f.latencyNano);
+	}
+
+	/**
+	 * Returns the value of {@link System#nanoTime()} when the current frame was captured
+	 */
+	public long getTimestampNano() {
+		return current == null ? -1 : current.timestampNano;
+	}
+
+	/**
+	 * Returns how long the current frame waited between being captured and returned by {@link #next()}
+	 */
+	public double getLatencyMS() {
+		return current == null ? 0 : current.latencyNano*1e-6;
+	}
+
+	/**
+	 * Average latency of all the frames returned by {@link #next()}
+	 */
+	public double getAverageLatencyMS() {
+		synchronized (lock) {
+			return totalDelivered == 0 ? 0 : sumLatencyNano*1e-6/totalDelivered;
+		}
+	}
+
+	/**
+	 * Maximum latency of all the frames returned by {@link #next()}
+	 */
+	public double getMaxLatencyMS() {
+		synchronized (lock) {
+			return maxLatencyNano*1e-6;
+		}
+	}
+
+	/**
+	 * Number of frames which have been captured from the wrapped sequence
+	 */
+	public int getTotalCaptured() {
+		synchronized (lock) {
+			return totalCaptured;
+		}
+	}
+
+	/**
+	 * Number of frames which were discarded because processing was too slow
+	 */
+	public int getTotalDropped() {
+		synchronized (lock) {
+			return totalDropped;
+		}
+	}
+
+	/**
+	 * Number of frames which have been returned by {@link #next()}
+	 */
+	public int getTotalDelivered() {
+		synchronized (lock) {
+			return totalDelivered;
+		}
+	}
+
+	/**
+	 * Sets all the statistics back to zero
+	 */
+	public void resetStatistics() {
+		synchronized (lock) {
+			totalCaptured = 0;
+			totalDropped = 0;
+			totalDelivered = 0;
+			sumLatencyNano = 0;
+			maxLatencyNano = 0;
+		}
+	}
+
+	/**
+	 * Returns the maximum number of frames which can wait to be processed
+	 */
+	public int getCapacity() {
+		return capacity;
+	}
+
+	/**
+	 * Captures frames until the end of the sequence is reached, an exception is thrown, or it's asked to stop.
+	 * Never blocks waiting for the user. If processing has fallen behind the oldest waiting frame is dropped.
+	 */
+	@Override
+	void readFrames() {
+		while( true ) {
+			Frame<T> f;
+			synchronized (lock) {
+				if( stopRequested )
+					return;
+				// There's always a free frame since at most 'capacity' frames are waiting and one is being processed
+				f = free.removeFirst();
+			}
+
+			readFrame(f);
+
+			synchronized (lock) {
+				if( f.status == Status.IMAGE ) {
+					totalCaptured++;
+					// Drop the oldest frame if processing has fallen behind
+					if( ready.size() >= capacity ) {
+						free.add(ready.removeFirst());
+						totalDropped++;
+					}
+				}
+				ready.add(f);
+				lock.notifyAll();
+				// Nothing more can be read
+				if( f.status != Status.IMAGE ) {
+					return;
+				}
+			}
+		}
+	}
+}
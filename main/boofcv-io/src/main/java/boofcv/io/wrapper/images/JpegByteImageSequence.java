@@ -20,6 +20,8 @@ package boofcv.io.wrapper.images;
 
 import boofcv.io.image.ConvertBufferedImage;
 import boofcv.io.image.SimpleImageSequence;
+import boofcv.io.video.ByteBufferImageInputStream;
+import boofcv.io.video.MjpegMappedFile;
 import boofcv.struct.image.ImageBase;
 import boofcv.struct.image.ImageType;
 
@@ -32,8 +34,8 @@ import java.util.List;
 
 
 /**
- * Create a sequence from an array of jpeg images in byte[] array format.  Each image is decompressed
- * as need
+ * Create a sequence from an array of jpeg images in byte[] array format or from a memory mapped
+ * MJPEG file.  Each image is decompressed as need
  *
  * @author Peter Abeles
  */
@@ -41,6 +43,8 @@ public class JpegByteImageSequence<T extends ImageBase<T>> implements SimpleImag
 
 	int index;
 	List<byte[]> jpegData = new ArrayList<>();
+	// If not null then images are read from this file instead of jpegData
+	MjpegMappedFile mapped;
 
 	// type of image it outputs
 	ImageType<T> imageType;
@@ -68,6 +72,20 @@ public class JpegByteImageSequence<T extends ImageBase<T>> implements SimpleImag
 		this(ImageType.single((Class)imageType), jpegData,loop);
 	}
 
+	/**
+	 * Reads images from a memory mapped MJPEG file. Frames are decoded directly from the mapped file.
+	 * The file is closed when {@link #close()} is called.
+	 */
+	public JpegByteImageSequence(ImageType<T> imageType, MjpegMappedFile mapped, boolean loop) {
+		this.imageType = imageType;
+		this.jpegData = null;
+		this.mapped = mapped;
+		this.loop = loop;
+
+		output = imageType.createImage(1,1);
+		loadNext();
+	}
+
 	@Override
 	public int getWidth() {
 		return imageNext.getWidth();
@@ -80,7 +98,7 @@ public class JpegByteImageSequence<T extends ImageBase<T>> implements SimpleImag
 
 	@Override
 	public boolean hasNext() {
-		return loop || index < jpegData.size();
+		return loop || index < size();
 	}
 
 	@Override
@@ -91,8 +109,8 @@ public class JpegByteImageSequence<T extends ImageBase<T>> implements SimpleImag
 
 		if(forward) {
 			index++;
-			if( loop && index >= jpegData.size() ) {
-				index = jpegData.size()-1;
+			if( loop && index >= size() ) {
+				index = size()-1;
 				forward = false;
 			}
 		} else {
@@ -112,9 +130,32 @@ public class JpegByteImageSequence<T extends ImageBase<T>> implements SimpleImag
 		return output;
 	}
 
+	/**
+	 * Changes which frame will be returned by the next call to {@link #next()}
+	 *
+	 * @param frame Index of the frame
+	 */
+	public void seek( int frame ) {
+		if( frame < 0 || frame >= size() )
+			throw new IllegalArgumentException("Frame out of bounds. frame="+frame+" size="+size());
+		index = frame;
+		forward = true;
+		loadNext();
+	}
+
+	/**
+	 * Number of frames in the sequence
+	 */
+	public int size() {
+		return mapped != null ? mapped.size() : jpegData.size();
+	}
+
 	private void loadNext() {
 		try {
-			imageNext = ImageIO.read(new ByteArrayInputStream(jpegData.get(index)));
+			if( mapped != null )
+				imageNext = ImageIO.read(new ByteBufferImageInputStream(mapped.getFrame(index)));
+			else
+				imageNext = ImageIO.read(new ByteArrayInputStream(jpegData.get(index)));
 		} catch (IOException e) {
 			throw new RuntimeException(e);
 		}
@@ -132,6 +173,13 @@ public class JpegByteImageSequence<T extends ImageBase<T>> implements SimpleImag
 
 	@Override
 	public void close() {
+		if( mapped != null ) {
+			try {
+				mapped.close();
+			} catch (IOException e) {
+				throw new RuntimeException(e);
+			}
+		}
 	}
 
 	@Override
@@ -148,5 +196,7 @@ public class JpegByteImageSequence<T extends ImageBase<T>> implements SimpleImag
 	public void reset() {
 		index = 0;
 		forward = true;
+		if( size() > 0 )
+			loadNext();
 	}
 }
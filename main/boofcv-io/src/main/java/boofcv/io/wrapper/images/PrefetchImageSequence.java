@@ -0,0 +1,106 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.io.wrapper.images;
+
+import boofcv.io.image.SimpleImageSequence;
+import boofcv.struct.image.ImageBase;
+
+/**
+ * <p>
+ * Wraps another {@link SimpleImageSequence} and reads images from it on a background thread, while the user is
+ * processing the current image. This allows the cost of decoding and converting a frame to overlap with whatever
+ * is being done with the previous frame. Up to 'lookAhead' frames are read in advance and stored in a
+ * pool of recycled images. When the pool is exhausted the background thread blocks until the user calls
+ * {@link #next()}, which bounds the amount of memory used. Frames are always returned in the same order as the
+ * wrapped sequence.
+ * </p>
+ *
+ * <p>
+ * The wrapped sequence is only accessed by the background thread while it's running and should not be
+ * accessed directly by the user. If the wrapped sequence throws an exception it will be rethrown
+ * by {@link #hasNext()} or {@link #next()} once all the frames before it have been consumed.
+ * </p>
+ *
+ * <p>
+ * NOTE: The GUI image returned is the same instance that the wrapped sequence returned when the
+ * frame was read. If the wrapped sequence recycles its GUI image then it might have been modified.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class PrefetchImageSequence<T extends ImageBase<T>> extends BackgroundImageSequence<T> {
+
+	// Maximum number of frames read in advance
+	final int lookAhead;
+
+	/**
+	 * Creates the prefetching sequence
+	 *
+	 * @param source The sequence which is to be read in the background
+	 * @param lookAhead Maximum number of frames which will be read in advance. Must be &ge; 1.
+	 */
+	public PrefetchImageSequence( SimpleImageSequence<T> source , int lookAhead ) {
+		// one additional frame is needed for the image which the user is currently processing
+		super(source, lookAhead+1);
+		if( lookAhead < 1 )
+			throw new IllegalArgumentException("lookAhead must be at least 1");
+		this.lookAhead = lookAhead;
+	}
+
+	/**
+	 * Returns the maximum number of frames which are read in advance
+	 */
+	public int getLookAhead() {
+		return lookAhead;
+	}
+
+	/**
+	 * Reads frames into free images until the end of the sequence is reached, an exception is thrown, or it's
+	 * asked to stop. When there are no free images it waits for the user to call {@link #next()}.
+	 */
+	@Override
+	void readFrames() {
+		while( true ) {
+			Frame<T> f;
+			synchronized (lock) {
+				while( free.isEmpty() && !stopRequested ) {
+					try {
+						lock.wait();
+					} catch (InterruptedException e) {
+						return;
+					}
+				}
+				if( stopRequested )
+					return;
+				f = free.removeFirst();
+			}
+
+			readFrame(f);
+
+			synchronized (lock) {
+				ready.add(f);
+				lock.notifyAll();
+				// Nothing more can be read
+				if( f.status != Status.IMAGE ) {
+					return;
+				}
+			}
+		}
+	}
+}
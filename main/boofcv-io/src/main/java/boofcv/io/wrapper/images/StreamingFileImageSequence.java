@@ -0,0 +1,363 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.io.wrapper.images;
+
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.io.image.ConvertBufferedImage;
+import boofcv.io.image.SimpleImageSequence;
+import boofcv.io.image.UtilImageIO;
+import boofcv.struct.image.ImageBase;
+import boofcv.struct.image.ImageType;
+
+import java.awt.image.BufferedImage;
+import java.io.File;
+import java.util.*;
+import java.util.concurrent.CompletableFuture;
+import java.util.concurrent.CompletionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+
+/**
+ * <p>
+ * Plays a sequence of images in a directory, like {@link BufferedFileImageSequence}, but only the file names
+ * are read when it's constructed. Images are loaded and converted when they are needed and only the most
+ * recently used images are kept in memory. This allows very long sequences to be played without needing to
+ * store them all in memory.
+ * </p>
+ *
+ * <p>
+ * If read ahead is enabled, the next several images in the sequence are loaded in parallel by a thread pool
+ * while the current image is being processed. Images are independent files, so unlike a video they can
+ * be decoded at the same time. The cache is always large enough to hold all the images being read ahead.
+ * </p>
+ *
+ * <p>
+ * The image returned by {@link #next()} is the one stored in the cache and should not be modified.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class StreamingFileImageSequence<T extends ImageBase<T>> implements SimpleImageSequence<T> {
+
+	// path to each image in the sequence
+	List<String> paths;
+
+	// type of image it outputs
+	ImageType<T> type;
+
+	// Recently used images. Key is the index of the image in the sequence
+	Map<Integer, CompletableFuture<Frame<T>>> cache;
+	// Maximum number of images stored in the cache
+	int cacheSize;
+	// Number of images which are loaded in advance
+	int readAhead;
+	// Used to load images in the background. null if read ahead is disabled or it hasn't been needed yet
+	ExecutorService executor;
+
+	// index of the next image to be read
+	int index;
+	// the current image
+	Frame<T> current;
+	// index of the current image
+	int currentIndex = -1;
+
+	boolean loop = true;
+	boolean forwards = true;
+
+	/**
+	 * Creates a sequence which loads images on demand without reading ahead
+	 *
+	 * @param type Type of image which is output
+	 * @param directory The directory containing the images.
+	 * @param suffix The suffix that the images have.
+	 * @param cacheSize Maximum number of images stored in memory. &ge; 1
+	 */
+	public StreamingFileImageSequence( ImageType<T> type, File directory, String suffix, int cacheSize ) {
+		this(type, listImages(directory, suffix), cacheSize, 0);
+	}
+
+	/**
+	 * Creates a sequence which loads images in the background in parallel
+	 *
+	 * @param type Type of image which is output
+	 * @param directory The directory containing the images.
+	 * @param suffix The suffix that the images have.
+	 * @param cacheSize Maximum number of images stored in memory. &ge; 1
+	 * @param readAhead Number of images which are loaded in advance. If 0 then images are only loaded on demand.
+	 */
+	public StreamingFileImageSequence( ImageType<T> type, File directory, String suffix,
+									   int cacheSize, int readAhead ) {
+		this(type, listImages(directory, suffix), cacheSize, readAhead);
+	}
+
+	/**
+	 * Creates a sequence from a list of image files
+	 *
+	 * @param type Type of image which is output
+	 * @param paths Path to each image in the order they are to be played.
+	 * @param cacheSize Maximum number of images stored in memory. &ge; 1
+	 * @param readAhead Number of images which are loaded in advance. If 0 then images are only loaded on demand.
+	 */
+	public StreamingFileImageSequence( ImageType<T> type, List<String> paths, int cacheSize, int readAhead ) {
+		if( cacheSize < 1 )
+			throw new IllegalArgumentException("cacheSize must be at least 1");
+		if( readAhead < 0 )
+			throw new IllegalArgumentException("readAhead can't be negative");
+
+		this.type = type;
+		this.paths = paths;
+		this.readAhead = readAhead;
+		// the current image and all the images being read ahead must fit
+		this.cacheSize = Math.max(cacheSize, readAhead+1);
+
+		cache = new LinkedHashMap<>(16, 0.75f, true) {
+			@Override
+			protected boolean removeEldestEntry( Map.Entry<Integer, CompletableFuture<Frame<T>>> eldest ) {
+				if( size() <= StreamingFileImageSequence.this.cacheSize )
+					return false;
+				// don't waste time loading an image which is no longer needed
+				eldest.getValue().cancel(false);
+				return true;
+			}
+		};
+	}
+
+	/**
+	 * Returns a sorted list of all the images in the directory which contain the suffix in their name
+	 */
+	static List<String> listImages( File directory, String suffix ) {
+		if (!directory.isDirectory()) throw new IllegalArgumentException("directory must specify a directory");
+
+		String[] files = directory.list(( dir, name ) -> name.contains(suffix));
+		List<String> paths = new ArrayList<>();
+		if( files == null )
+			return paths;
+
+		Arrays.sort(files);
+		for( String s : files ) {
+			paths.add(new File(directory, s).getPath());
+		}
+		return paths;
+	}
+
+	@Override
+	public void setLoop( boolean loop ) {
+		this.loop = loop;
+	}
+
+	@Override
+	public int getWidth() {
+		return current.gui.getWidth();
+	}
+
+	@Override
+	public int getHeight() {
+		return current.gui.getHeight();
+	}
+
+	/**
+	 * True if there is another image to read and false if there are no more.
+	 */
+	@Override
+	public boolean hasNext() {
+		if( loop )
+			return paths.size() > 0;
+		else
+			return index >= 0 && index < paths.size();
+	}
+
+	@Override
+	public T next() {
+		if( !hasNext() )
+			throw new IllegalStateException("There are no more images");
+
+		adjustForLoop();
+		currentIndex = index;
+		index += forwards ? 1 : -1;
+
+		current = get(currentIndex);
+		scheduleReadAhead();
+		return current.image;
+	}
+
+	/**
+	 * When looping the direction is reversed once an end of the sequence is reached
+	 */
+	private void adjustForLoop() {
+		if( !loop )
+			return;
+		if( forwards ) {
+			if( index >= paths.size() ) {
+				index = paths.size()-1;
+				forwards = false;
+			}
+		} else {
+			if( index < 0 ) {
+				index = 0;
+				forwards = true;
+			}
+		}
+	}
+
+	/**
+	 * Returns the image at the specified index. If it's not in the cache it's loaded
+	 */
+	private Frame<T> get( int which ) {
+		CompletableFuture<Frame<T>> future = cache.get(which);
+		if( future == null || future.isCancelled() ) {
+			future = CompletableFuture.completedFuture(load(which));
+			cache.put(which, future);
+		}
+		try {
+			return future.join();
+		} catch( CompletionException e ) {
+			// Remove it so that it will try loading it again if requested
+			cache.remove(which);
+			if( e.getCause() instanceof RuntimeException )
+				throw (RuntimeException)e.getCause();
+			throw e;
+		}
+	}
+
+	/**
+	 * Starts loading the images which will be read next, if they are not already in the cache
+	 */
+	private void scheduleReadAhead() {
+		if( readAhead == 0 )
+			return;
+		if( executor == null ) {
+			int threads = Math.max(1, Math.min(readAhead, BoofConcurrency.getMaxThreads()));
+			executor = Executors.newFixedThreadPool(threads, r -> {
+				Thread t = new Thread(r, "StreamingFileImageSequence");
+				t.setDaemon(true);
+				return t;
+			});
+		}
+
+		// Simulate calls to next() to find which images are needed
+		int savedIndex = index;
+		boolean savedForwards = forwards;
+		for( int i = 0; i < readAhead && hasNext(); i++ ) {
+			adjustForLoop();
+			final int which = index;
+			index += forwards ? 1 : -1;
+
+			CompletableFuture<Frame<T>> future = cache.get(which);
+			if( future == null || future.isCancelled() ) {
+				cache.put(which, CompletableFuture.supplyAsync(() -> load(which), executor));
+			}
+		}
+		index = savedIndex;
+		forwards = savedForwards;
+
+		// mark the current image as the most recently used so that it isn't discarded
+		cache.get(currentIndex);
+	}
+
+	/**
+	 * Loads and converts the image at the specified index
+	 */
+	Frame<T> load( int which ) {
+		String path = paths.get(which);
+		BufferedImage b = UtilImageIO.loadImage(path);
+		if( b == null )
+			throw new RuntimeException("Could not load image at index "+which+" "+path);
+		T image = type.createImage(b.getWidth(), b.getHeight());
+		ConvertBufferedImage.convertFrom(b, image, true);
+		return new Frame<>(b, image);
+	}
+
+	@Override
+	public T getImage() {
+		return current == null ? null : current.image;
+	}
+
+	@Override
+	public BufferedImage getGuiImage() {
+		return current == null ? null : current.gui;
+	}
+
+	@Override
+	public ImageType<T> getImageType() {
+		return type;
+	}
+
+	/**
+	 * Returns the index of the current image in the list of files
+	 */
+	@Override
+	public int getFrameNumber() {
+		return currentIndex;
+	}
+
+	/**
+	 * Stops the background threads and discards all cached images
+	 */
+	@Override
+	public void close() {
+		if( executor != null ) {
+			executor.shutdownNow();
+			executor = null;
+		}
+		for( CompletableFuture<Frame<T>> f : cache.values() ) {
+			f.cancel(false);
+		}
+		cache.clear();
+		current = null;
+	}
+
+	/**
+	 * Goes back to the first image. Cached images are kept.
+	 */
+	@Override
+	public void reset() {
+		index = 0;
+		currentIndex = -1;
+		forwards = true;
+		current = null;
+	}
+
+	/**
+	 * Returns the list of image files which are being played
+	 */
+	public List<String> getPaths() {
+		return paths;
+	}
+
+	public int getCacheSize() {
+		return cacheSize;
+	}
+
+	public int getReadAhead() {
+		return readAhead;
+	}
+
+	/**
+	 * A loaded image in both formats
+	 */
+	static class Frame<T extends ImageBase<T>> {
+		final BufferedImage gui;
+		final T image;
+
+		Frame( BufferedImage gui, T image ) {
+			this.gui = gui;
+			this.image = image;
+		}
+	}
+}
@@ -28,7 +28,13 @@ import org.junit.jupiter.api.Test;
 
 import javax.swing.*;
 import java.awt.*;
+import java.awt.color.ColorSpace;
 import java.awt.image.BufferedImage;
+import java.awt.image.ComponentColorModel;
+import java.awt.image.DataBuffer;
+import java.awt.image.DirectColorModel;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Random;
 
 import static org.junit.jupiter.api.Assertions.*;
@@ -587,6 +593,74 @@ public class TestConvertBufferedImage {
 		}
 	}
 
+ 	/**
+	 * Images with layouts that the dedicated raster conversions don't handle
+	 */
+	List<BufferedImage> createUnusualLayouts() {
+		List<BufferedImage> images = new ArrayList<>();
+		images.add(new BufferedImage(imgWidth, imgHeight, BufferedImage.TYPE_USHORT_565_RGB));
+		images.add(new BufferedImage(imgWidth, imgHeight, BufferedImage.TYPE_USHORT_555_RGB));
+		images.add(new BufferedImage(imgWidth, imgHeight, BufferedImage.TYPE_BYTE_INDEXED));
+
+		// integer image with a non-standard SampleModel
+		DirectColorModel directCM = new DirectColorModel(24, 0xFF00, 0xFF, 0xFF0000);
+		images.add(new BufferedImage(directCM, directCM.createCompatibleWritableRaster(imgWidth, imgHeight), false, null));
+
+		// 16-bit RGB, e.g. from a PNG
+		ComponentColorModel componentCM = new ComponentColorModel(ColorSpace.getInstance(ColorSpace.CS_sRGB),
+				false, false, Transparency.OPAQUE, DataBuffer.TYPE_USHORT);
+		images.add(new BufferedImage(componentCM, componentCM.createCompatibleWritableRaster(imgWidth, imgHeight), false, null));
+
+		for( BufferedImage image : images ) {
+			TestConvertRaster.randomize(image, rand);
+		}
+		return images;
+	}
+
+ 	@Test
+	void convertFrom_unusualLayouts() {
+		for( BufferedImage origImg : createUnusualLayouts() ) {
+			for( int j = 0; j < 2; j++ ) {
+				if( j == 1 ) {
+					origImg = origImg.getSubimage(1, 2, imgWidth - 1, imgHeight - 2);
+				}
+
+				GrayU8 gray = ConvertBufferedImage.convertFrom(origImg, (GrayU8)null);
+				BufferedImageChecks.checkEquals(origImg, gray, false, 1);
+
+				Planar<GrayF32> planar = ConvertBufferedImage.convertFromPlanar(origImg, null, false, GrayF32.class);
+				assertEquals(3, planar.getNumBands());
+				BufferedImageChecks.checkEquals(origImg, planar, false, 1);
+
+				InterleavedU8 interleaved = new InterleavedU8(1, 1, 3);
+				ConvertBufferedImage.convertFromInterleaved(origImg, interleaved, false);
+				BufferedImageChecks.checkEquals(origImg, interleaved, false, 1);
+			}
+		}
+	}
+
+	/**
+	 * The output should be the same as if setRGB() was called for each pixel
+	 */
+ 	@Test
+	void convertTo_unusualLayouts() {
+		Planar<GrayU8> input = new Planar<>(GrayU8.class, imgWidth, imgHeight, 3);
+		GImageMiscOps.fillUniform(input, rand, 0, 255);
+
+		for( BufferedImage output : createUnusualLayouts() ) {
+			ConvertBufferedImage.convertTo(input, output, false);
+
+			BufferedImage expected = ConvertBufferedImage.checkCopy(output, null);
+			for (int y = 0; y < imgHeight; y++) {
+				for (int x = 0; x < imgWidth; x++) {
+					int r = input.getBand(0).get(x, y), g = input.getBand(1).get(x, y), b = input.getBand(2).get(x, y);
+					expected.setRGB(x, y, r << 16 | g << 8 | b);
+				}
+			}
+			BufferedImageChecks.checkIdentical(expected, output);
+		}
+	}
+
  	@Test
 	void convertTo_JComponent() {
 		JLabel label = new JLabel("Hi");
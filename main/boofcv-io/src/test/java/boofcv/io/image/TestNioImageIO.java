@@ -0,0 +1,172 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.io.image;
+
+import boofcv.alg.misc.GImageMiscOps;
+import boofcv.struct.image.*;
+import boofcv.testing.BoofTesting;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.charset.StandardCharsets;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Peter Abeles
+ */
+class TestNioImageIO {
+	Random rand = new Random(234);
+	int width = 25;
+	int height = 16;
+
+	File file;
+
+	ImageDataType[] dataTypes = new ImageDataType[]{ImageDataType.U8, ImageDataType.S8, ImageDataType.U16,
+			ImageDataType.S16, ImageDataType.S32, ImageDataType.S64, ImageDataType.F32, ImageDataType.F64};
+
+	@BeforeEach
+	void before() throws IOException {
+		file = File.createTempFile("NioImageIO", ".img");
+	}
+
+	@AfterEach
+	void after() {
+		// On some operating systems this will fail until the mapped buffer has been garbage collected
+		file.delete();
+	}
+
+	@Test
+	void pgm() throws IOException {
+		for (boolean subimage : new boolean[]{false, true}) {
+			var expected = new GrayU8(width, height);
+			GImageMiscOps.fillUniform(expected, rand, 0, 255);
+			expected = BoofTesting.createSubImageOf(expected);
+			if( !subimage )
+				expected = expected.clone();
+
+			NioImageIO.savePGM(expected, file);
+			// should be readable by the original reader and the NIO reader
+			BoofTesting.assertEquals(expected, UtilImageIO.loadPGM_U8(file.getPath(), null), 0);
+			BoofTesting.assertEquals(expected, NioImageIO.loadPGM(file, null), 0);
+
+			// read into a subimage
+			GrayU8 storage = BoofTesting.createSubImageOf(new GrayU8(width, height));
+			BoofTesting.assertEquals(expected, NioImageIO.loadPGM(file, storage), 0);
+		}
+	}
+
+	@Test
+	void ppm() throws IOException {
+		var expected = new Planar<>(GrayU8.class, width, height, 3);
+		GImageMiscOps.fillUniform(expected, rand, 0, 255);
+
+		NioImageIO.savePPM(expected, file);
+		BoofTesting.assertEquals(expected, UtilImageIO.loadPPM_U8(file.getPath(), null, null), 0);
+		BoofTesting.assertEquals(expected, NioImageIO.loadPPM(file, null), 0);
+
+		InterleavedU8 interleaved = NioImageIO.loadPPMInterleaved(file, null);
+		for (int y = 0; y < height; y++) {
+			for (int x = 0; x < width; x++) {
+				for (int band = 0; band < 3; band++) {
+					assertEquals(expected.getBand(band).get(x, y), interleaved.getBand(x, y, band));
+				}
+			}
+		}
+
+		// Save the interleaved image and make sure it's the same as the planar file
+		UtilImageIO.savePPM(expected, file.getPath(), null);
+		BoofTesting.assertEquals(expected, NioImageIO.loadPPM(file, null), 0);
+		NioImageIO.savePPM(BoofTesting.createSubImageOf(interleaved), file);
+		BoofTesting.assertEquals(expected, NioImageIO.loadPPM(file, null), 0);
+	}
+
+	/**
+	 * Header has comments and unusual white space
+	 */
+	@Test
+	void pgm_header() throws IOException {
+		try (var out = new FileOutputStream(file)) {
+			out.write("P5\n# a comment\n  3\t2 # another\n255\n".getBytes(StandardCharsets.US_ASCII));
+			out.write(new byte[]{1, 2, 3, 4, 5, (byte)200});
+		}
+		GrayU8 found = NioImageIO.loadPGM(file, null);
+		assertEquals(3, found.width);
+		assertEquals(2, found.height);
+		assertEquals(1, found.get(0, 0));
+		assertEquals(200, found.get(2, 1));
+	}
+
+	@Test
+	void pgm_truncated() throws IOException {
+		try (var out = new FileOutputStream(file)) {
+			out.write("P5\n3 2\n255\n".getBytes(StandardCharsets.US_ASCII));
+			out.write(new byte[]{1, 2, 3});
+		}
+		assertThrows(IOException.class, () -> NioImageIO.loadPGM(file, null));
+	}
+
+	/**
+	 * Save and load every type of image in the raw format
+	 */
+	@Test
+	void raw_allTypes() throws IOException {
+		for (ImageType.Family family : ImageType.Family.values()) {
+			for (ImageDataType dataType : dataTypes) {
+				for (boolean subimage : new boolean[]{false, true}) {
+					int numBands = family == ImageType.Family.GRAY ? 1 : 3;
+					ImageBase expected = new ImageType(family, dataType, numBands).createImage(width, height);
+					GImageMiscOps.fillUniform(expected, rand, -100, 100);
+					if( subimage )
+						expected = BoofTesting.createSubImageOf(expected);
+
+					NioImageIO.saveRaw(expected, file);
+					assertEquals(NioImageIO.RAW_HEADER_SIZE + width*height*numBands*dataType.getNumBits()/8,
+							file.length());
+					ImageBase found = NioImageIO.loadRaw(file);
+					assertTrue(expected.getImageType().isSameType(found.getImageType()));
+					BoofTesting.assertEquals(expected, found, 0);
+
+					// read into provided storage which is the wrong shape
+					ImageBase storage = expected.getImageType().createImage(2, 3);
+					assertSame(storage, NioImageIO.loadRaw(file, storage));
+					BoofTesting.assertEquals(expected, storage, 0);
+				}
+			}
+		}
+	}
+
+	@Test
+	void raw_wrongStorage() throws IOException {
+		NioImageIO.saveRaw(new GrayF32(width, height), file);
+		assertThrows(IllegalArgumentException.class, () -> NioImageIO.loadRaw(file, new GrayU8(1, 1)));
+		assertThrows(IllegalArgumentException.class, () -> NioImageIO.loadRaw(file, new InterleavedF32(1, 1, 1)));
+	}
+
+	@Test
+	void raw_notRaw() throws IOException {
+		NioImageIO.savePGM(new GrayU8(width, height), file);
+		assertThrows(IOException.class, () -> NioImageIO.loadRaw(file));
+	}
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -19,17 +19,23 @@
 package boofcv.io.image;
 
 import boofcv.alg.misc.GImageMiscOps;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.io.UtilIO;
+import boofcv.struct.image.GrayF32;
 import boofcv.struct.image.GrayU8;
+import boofcv.struct.image.ImageType;
 import boofcv.struct.image.Planar;
 import org.junit.jupiter.api.Test;
 
 import java.awt.image.BufferedImage;
 import java.io.File;
 import java.io.IOException;
+import java.nio.file.Files;
+import java.util.ArrayList;
+import java.util.List;
 import java.util.Random;
 
-import static org.junit.jupiter.api.Assertions.assertEquals;
-import static org.junit.jupiter.api.Assertions.assertTrue;
+import static org.junit.jupiter.api.Assertions.*;
 
 /**
  * @author Peter Abeles
@@ -118,4 +124,64 @@ public class TestUtilImageIO {
 		assertTrue( UtilImageIO.loadImage("asdasdasdasd") == null );
 	}
 
+
+	/**
+	 * Load images concurrently and see if it produces the same results, in the same order, as loading
+	 * them one at a time
+	 */
+	@Test
+	public void loadImages_concurrent() throws IOException {
+		File directory = Files.createTempDirectory("loadImages").toFile();
+		int numImages = 13;
+		for (int i = 0; i < numImages; i++) {
+			GrayU8 image = new GrayU8(width+i, height);
+			GImageMiscOps.fillUniform(image, rand, 0, 255);
+			UtilImageIO.saveImage(image, new File(directory, String.format("image%02d.png", i)).getPath());
+		}
+		// a file which can't be loaded
+		assertTrue(new File(directory, "image99.png").createNewFile());
+
+		ImageType<GrayF32> type = ImageType.single(GrayF32.class);
+		int maxThreads = BoofConcurrency.getMaxThreads();
+		boolean useConcurrent = BoofConcurrency.USE_CONCURRENT;
+		try {
+			BoofConcurrency.USE_CONCURRENT = false;
+			List<GrayF32> expected = UtilImageIO.loadImages(directory.getPath(), "image\\d+.png", true, type);
+			assertEquals(numImages, expected.size());
+
+			BoofConcurrency.setMaxThreads(3);
+			List<GrayF32> found = UtilImageIO.loadImages(directory.getPath(), "image\\d+.png", true, type);
+			assertEquals(numImages, found.size());
+			for (int i = 0; i < numImages; i++) {
+				assertEquals(width+i, found.get(i).width);
+				for (int j = 0; j < expected.get(i).data.length; j++) {
+					assertEquals(expected.get(i).data[j], found.get(i).data[j]);
+				}
+			}
+
+			// the handler should see every path in order, including ones which failed
+			List<String> paths = UtilIO.listByRegex(directory.getPath(), "image\\d+.png");
+			java.util.Collections.sort(paths);
+			List<Integer> indexes = new ArrayList<>();
+			UtilImageIO.loadImages(paths, true, type, (index, path, image) -> {
+				assertEquals(paths.get(index), path);
+				assertEquals(index == numImages, image == null);
+				indexes.add(index);
+			});
+			assertEquals(numImages+1, indexes.size());
+			for (int i = 0; i < indexes.size(); i++) {
+				assertEquals(i, indexes.get(i));
+			}
+
+			// exceptions in the handler should be passed on
+			assertThrows(IllegalArgumentException.class, () ->
+					UtilImageIO.loadImages(paths, true, type, (index, path, image) -> {
+						throw new IllegalArgumentException("Stop");
+					}));
+		} finally {
+			BoofConcurrency.setMaxThreads(maxThreads);
+			BoofConcurrency.USE_CONCURRENT = useConcurrent;
+			UtilIO.deleteRecursive(directory);
+		}
+	}
 }
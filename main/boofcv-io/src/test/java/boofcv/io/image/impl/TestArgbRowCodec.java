@@ -0,0 +1,199 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.io.image.impl;
+
+import org.junit.jupiter.api.Test;
+
+import java.awt.*;
+import java.awt.color.ColorSpace;
+import java.awt.image.*;
+import java.util.ArrayList;
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+class TestArgbRowCodec {
+	Random rand = new Random(234);
+	int width = 30, height = 20;
+
+	/**
+	 * Every standard type plus a few custom images
+	 */
+	List<BufferedImage> createImages() {
+		List<BufferedImage> images = new ArrayList<>();
+		int[] types = {BufferedImage.TYPE_INT_RGB, BufferedImage.TYPE_INT_ARGB, BufferedImage.TYPE_INT_ARGB_PRE,
+				BufferedImage.TYPE_INT_BGR, BufferedImage.TYPE_3BYTE_BGR, BufferedImage.TYPE_4BYTE_ABGR,
+				BufferedImage.TYPE_4BYTE_ABGR_PRE, BufferedImage.TYPE_USHORT_565_RGB, BufferedImage.TYPE_USHORT_555_RGB,
+				BufferedImage.TYPE_BYTE_GRAY, BufferedImage.TYPE_USHORT_GRAY, BufferedImage.TYPE_BYTE_BINARY,
+				BufferedImage.TYPE_BYTE_INDEXED};
+		for( int type : types ) {
+			images.add(new BufferedImage(width, height, type));
+		}
+
+		// integer image with the colors in an unusual order
+		DirectColorModel directCM = new DirectColorModel(32, 0xFF, 0xFF000000, 0xFF00, 0xFF0000);
+		images.add(new BufferedImage(directCM, directCM.createCompatibleWritableRaster(width, height), false, null));
+
+		// 16-bit RGBA, e.g. from a PNG
+		ComponentColorModel componentCM = new ComponentColorModel(ColorSpace.getInstance(ColorSpace.CS_sRGB),
+				true, false, Transparency.TRANSLUCENT, DataBuffer.TYPE_USHORT);
+		images.add(new BufferedImage(componentCM, componentCM.createCompatibleWritableRaster(width, height), false, null));
+
+		// 2-bit indexed
+		byte[] gray = {0, (byte)80, (byte)160, (byte)255};
+		IndexColorModel indexCM = new IndexColorModel(2, 4, gray, gray, gray);
+		images.add(new BufferedImage(width, height, BufferedImage.TYPE_BYTE_BINARY, indexCM));
+
+		for( BufferedImage image : images ) {
+			for (int y = 0; y < height; y++) {
+				for (int x = 0; x < width; x++) {
+					image.setRGB(x, y, rand.nextInt());
+				}
+			}
+		}
+		return images;
+	}
+
+	static boolean isGray( BufferedImage image ) {
+		return image.getColorModel().getColorSpace().getType() == ColorSpace.TYPE_GRAY;
+	}
+
+	/**
+	 * Only images which can't be handled directly should use getRGB()/setRGB()
+	 */
+	@Test
+	void create() {
+		for( BufferedImage image : createImages() ) {
+			ArgbRowCodec codec = ArgbRowCodec.create(image);
+			boolean premultiplied = image.getColorModel().isAlphaPremultiplied();
+			assertEquals(premultiplied, codec instanceof ArgbRowCodec.Generic, "type " + image.getType());
+		}
+	}
+
+	/**
+	 * Compare against getRGB(). Gray images are compared against the raster since getRGB() distorts them.
+	 */
+	@Test
+	void read() {
+		for( BufferedImage image : createImages() ) {
+			read(image);
+			read(image.getSubimage(2, 3, width - 5, height - 4));
+		}
+	}
+
+	void read( BufferedImage image ) {
+		ArgbRowCodec codec = ArgbRowCodec.create(image);
+		int[] row = new int[image.getWidth()];
+		int scale = image.getRaster().getDataBuffer().getDataType() == DataBuffer.TYPE_USHORT ? 257 : 1;
+
+		for (int y = 0; y < image.getHeight(); y++) {
+			codec.read(y, row);
+			for (int x = 0; x < image.getWidth(); x++) {
+				if( isGray(image) ) {
+					int expected = Math.round(image.getRaster().getSample(x, y, 0)/(float)scale);
+					assertEquals(0xFF000000 | expected*0x010101, row[x]);
+				} else {
+					assertArgb(image.getRGB(x, y), row[x], scale > 1 ? 1 : 0);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Compare against setRGB(). Gray images are compared by reading the values back in.
+	 */
+	@Test
+	void write() {
+		for( BufferedImage image : createImages() ) {
+			write(image);
+			write(image.getSubimage(2, 3, width - 5, height - 4));
+		}
+	}
+
+	void write( BufferedImage image ) {
+		ArgbRowCodec codec = ArgbRowCodec.create(image);
+		BufferedImage expected = new BufferedImage(image.getColorModel(),
+				image.getColorModel().createCompatibleWritableRaster(image.getWidth(), image.getHeight()),
+				image.isAlphaPremultiplied(), null);
+		int[] row = new int[image.getWidth()];
+		int[] found = new int[image.getWidth()];
+
+		for (int y = 0; y < image.getHeight(); y++) {
+			for (int x = 0; x < row.length; x++) {
+				int v = rand.nextInt(256);
+				row[x] = isGray(image) ? 0xFF000000 | v*0x010101 : rand.nextInt();
+				expected.setRGB(x, y, row[x]);
+			}
+			codec.write(y, row);
+			codec.read(y, found);
+			for (int x = 0; x < row.length; x++) {
+				if( isGray(image) ) {
+					assertEquals(row[x], found[x]);
+				} else {
+					assertArgb(expected.getRGB(x, y), image.getRGB(x, y), 1);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Writing to the image must only modify the specified row, even when pixels are packed into bits
+	 */
+	@Test
+	void write_onlyModifiesRow() {
+		for( BufferedImage image : createImages() ) {
+			BufferedImage sub = image.getSubimage(3, 2, width - 7, height - 4);
+			ArgbRowCodec codec = ArgbRowCodec.create(sub);
+			int[] before = image.getRGB(0, 0, width, height, null, 0, width);
+
+			int[] row = new int[sub.getWidth()];
+			codec.read(5, row);
+			for (int x = 0; x < row.length; x++) {
+				row[x] = row[x] == 0xFFFFFFFF ? 0xFF000000 : 0xFFFFFFFF;
+			}
+			codec.write(5, row);
+
+			int[] after = image.getRGB(0, 0, width, height, null, 0, width);
+			int changed = 0;
+			for (int y = 0; y < height; y++) {
+				for (int x = 0; x < width; x++) {
+					boolean inside = y == 7 && x >= 3 && x < 3 + sub.getWidth();
+					if( !inside )
+						assertEquals(before[y*width + x], after[y*width + x]);
+					else if( before[y*width + x] != after[y*width + x] )
+						changed++;
+				}
+			}
+			assertTrue(changed > 0, "type " + image.getType());
+		}
+	}
+
+	private static void assertArgb( int expected , int found , int tol ) {
+		for (int shift = 0; shift < 32; shift += 8) {
+			int a = (expected >>> shift) & 0xFF;
+			int b = (found >>> shift) & 0xFF;
+			assertEquals(a, b, tol, String.format("expected 0x%08X found 0x%08X", expected, found));
+		}
+	}
+}
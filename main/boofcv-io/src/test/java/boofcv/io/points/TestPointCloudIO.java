@@ -19,6 +19,7 @@
 package boofcv.io.points;
 
 import boofcv.alg.cloud.PointCloudReader;
+import boofcv.alg.cloud.PointCloudWriter.CloudArraysF32;
 import boofcv.io.points.PointCloudIO.Format;
 import georegression.struct.point.Point3D_F32;
 import georegression.struct.point.Point3D_F64;
@@ -28,6 +29,7 @@ import org.junit.jupiter.api.Test;
 
 import java.io.ByteArrayInputStream;
 import java.io.ByteArrayOutputStream;
+import java.io.File;
 import java.io.IOException;
 import java.io.InputStream;
 import java.util.ArrayList;
@@ -88,4 +90,31 @@ class TestPointCloudIO {
 			}
 		}
 	}
-}
\ No newline at end of file
+
+	@Test
+	void encode_decode_arrays() throws IOException {
+		var expected = new CloudArraysF32();
+		for (int i = 0; i < 10; i++) {
+			expected.add(i*123.45f,i-1.01f,i+2.34f, i*0x010203);
+		}
+
+		File file = File.createTempFile("PointCloudIO", ".ply");
+		try {
+			Format[] formats = new Format[]{Format.PLY};
+			for( Format f : formats ) {
+				PointCloudIO.save3D(f, expected, true, file);
+				CloudArraysF32 found = PointCloudIO.load3D(f, file, null);
+
+				assertEquals(expected.size(), found.size());
+				for (int i = 0; i < expected.cloudXyz.size; i++) {
+					assertEquals(expected.cloudXyz.get(i), found.cloudXyz.get(i));
+				}
+				for (int i = 0; i < expected.cloudRgb.size; i++) {
+					assertEquals(expected.cloudRgb.get(i), found.cloudRgb.get(i));
+				}
+			}
+		} finally {
+			file.delete();
+		}
+	}
+}
@@ -20,23 +20,43 @@ package boofcv.io.points.impl;
 
 import boofcv.alg.cloud.PointCloudReader;
 import boofcv.alg.cloud.PointCloudWriter;
+import boofcv.alg.cloud.PointCloudWriter.CloudArraysF32;
 import boofcv.struct.Point3dRgbI_F64;
 import georegression.struct.point.Point3D_F64;
 import org.ddogleg.struct.FastQueue;
 import org.ejml.UtilEjml;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
 import org.junit.jupiter.api.Test;
 
 import java.io.*;
 import java.nio.ByteOrder;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Random;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertThrows;
 
 /**
  * @author Peter Abeles
  */
 class TestPlyCodec {
+	Random rand = new Random(234);
+
+	File file;
+
+	@BeforeEach
+	void before() throws IOException {
+		file = File.createTempFile("PlyCodec", ".ply");
+	}
+
+	@AfterEach
+	void after() {
+		// On some operating systems this will fail until the mapped buffer has been garbage collected
+		file.delete();
+	}
+
 	@Test
 	void encode_decode_3D_ascii() throws IOException {
 		List<Point3D_F64> expected = new ArrayList<>();
@@ -135,4 +155,110 @@ class TestPlyCodec {
 		}
 	}
 
-}
\ No newline at end of file
+	/**
+	 * The header should specify the byte order which was actually used
+	 */
+	@Test
+	void encode_decode_3DRGB_binary_littleEndian() throws IOException {
+		List<Point3dRgbI_F64> expected = new ArrayList<>();
+		for (int i = 0; i < 10; i++) {
+			expected.add( new Point3dRgbI_F64(i*123.45,i-1.01,i+2.34,i*0x050403));
+		}
+
+		FastQueue<Point3dRgbI_F64> found = new FastQueue<>(Point3dRgbI_F64::new);
+
+		ByteArrayOutputStream output = new ByteArrayOutputStream();
+		PlyCodec.saveBinary(PointCloudReader.wrapF64RGB(expected), ByteOrder.LITTLE_ENDIAN, true, false, output);
+		PlyCodec.read(new ByteArrayInputStream(output.toByteArray()), PointCloudWriter.wrapF64RGB(found));
+
+		assertEquals(expected.size(), found.size);
+		for (int i = 0; i < found.size; i++) {
+			assertEquals(0.0, found.get(i).distance(expected.get(i)), UtilEjml.TEST_F64);
+			assertEquals(expected.get(i).rgb, found.get(i).rgb);
+		}
+	}
+
+	/**
+	 * Read and write using the memory mapped bulk API. A small chunk size is used so that points are split
+	 * across multiple mapped regions
+	 */
+	@Test
+	void encode_decode_arrays_mapped() throws IOException {
+		for( ByteOrder order : new ByteOrder[]{ByteOrder.BIG_ENDIAN, ByteOrder.LITTLE_ENDIAN}) {
+			for (boolean saveRgb : new boolean[]{true, false}) {
+				CloudArraysF32 expected = createCloud(101);
+
+				PlyCodec.saveBinary(expected, order, saveRgb, file, 100);
+				var found = new CloudArraysF32();
+				found.add(1, 2, 3, 4);
+				PlyCodec.read(file, found, 100);
+				checkIdentical(expected, found, saveRgb);
+
+				// the stream reader should read the same file
+				var foundStream = new CloudArraysF32();
+				try( InputStream input = new FileInputStream(file) ) {
+					PlyCodec.read(input, foundStream);
+				}
+				checkIdentical(expected, foundStream, saveRgb);
+			}
+		}
+	}
+
+	/**
+	 * Files with a layout other than the one BoofCV writes should be decoded by the bulk reader too
+	 */
+	@Test
+	void read_arrays_mapped_otherFormats() throws IOException {
+		CloudArraysF32 expected = createCloud(53);
+		for( boolean asFloat : new boolean[]{true,false}) {
+			try( OutputStream output = new FileOutputStream(file) ) {
+				PlyCodec.saveBinary(expected, ByteOrder.LITTLE_ENDIAN, true, asFloat, output);
+			}
+			var found = new CloudArraysF32();
+			PlyCodec.read(file, found, 64);
+			checkIdentical(expected, found, true);
+		}
+
+		try( Writer output = new FileWriter(file) ) {
+			PlyCodec.saveAscii(expected, true, output);
+		}
+		var found = new CloudArraysF32();
+		PlyCodec.read(file, found);
+		assertEquals(expected.size(), found.size());
+		for (int i = 0; i < expected.cloudXyz.size; i++) {
+			assertEquals(expected.cloudXyz.get(i), found.cloudXyz.get(i), 1e-4);
+		}
+		assertEquals(expected.cloudRgb.size, found.cloudRgb.size);
+	}
+
+	@Test
+	void saveBinary_arrays_missingColor() {
+		CloudArraysF32 cloud = createCloud(10);
+		cloud.cloudRgb.reset();
+		assertThrows(IllegalArgumentException.class, ()->PlyCodec.saveBinary(cloud, ByteOrder.BIG_ENDIAN, true, file));
+	}
+
+	private CloudArraysF32 createCloud( int numPoints ) {
+		var cloud = new CloudArraysF32();
+		cloud.init(numPoints);
+		for (int i = 0; i < numPoints; i++) {
+			cloud.add(rand.nextGaussian()*10, rand.nextGaussian(), rand.nextDouble()*100, rand.nextInt() & 0xFFFFFF);
+		}
+		return cloud;
+	}
+
+	private static void checkIdentical( CloudArraysF32 expected, CloudArraysF32 found, boolean rgb ) {
+		assertEquals(expected.cloudXyz.size, found.cloudXyz.size);
+		for (int i = 0; i < expected.cloudXyz.size; i++) {
+			assertEquals(expected.cloudXyz.get(i), found.cloudXyz.get(i));
+		}
+		if( rgb ) {
+			assertEquals(expected.cloudRgb.size, found.cloudRgb.size);
+			for (int i = 0; i < expected.cloudRgb.size; i++) {
+				assertEquals(expected.cloudRgb.get(i), found.cloudRgb.get(i));
+			}
+		} else {
+			assertEquals(0, found.cloudRgb.size);
+		}
+	}
+}
@@ -0,0 +1,74 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.io.video;
+
+import boofcv.io.image.ConvertBufferedImage;
+import boofcv.io.image.SimpleImageSequence;
+import boofcv.struct.image.GrayU8;
+import boofcv.struct.image.ImageType;
+import org.junit.jupiter.api.Test;
+
+import javax.imageio.ImageIO;
+import java.io.File;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.file.Files;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Peter Abeles
+ */
+class TestDynamicVideoInterface {
+	/**
+	 * The path to a local MJPEG file is converted into a URL. Make sure characters which are encoded in the
+	 * URL don't prevent it from being opened.
+	 */
+	@Test
+	void mjpeg_pathWithSpace() throws IOException {
+		File directory = Files.createTempDirectory("dynamic video").toFile();
+		File file = new File(directory, "a b.mjpeg");
+		try {
+			int numFrames = 3;
+			try( var out = new FileOutputStream(file) ) {
+				for (int i = 0; i < numFrames; i++) {
+					var gray = new GrayU8(40, 30);
+					gray.data[0] = 1;
+					ImageIO.write(ConvertBufferedImage.convertTo(gray, null), "jpg", out);
+				}
+			}
+
+			SimpleImageSequence<GrayU8> sequence =
+					new DynamicVideoInterface().load(file.getPath(), ImageType.single(GrayU8.class));
+			assertNotNull(sequence);
+			int count = 0;
+			while( sequence.hasNext() ) {
+				GrayU8 image = sequence.next();
+				assertEquals(40, image.width);
+				assertEquals(30, image.height);
+				count++;
+			}
+			assertEquals(numFrames, count);
+			sequence.close();
+		} finally {
+			assertTrue(file.delete());
+			assertTrue(directory.delete());
+		}
+	}
+}
@@ -0,0 +1,183 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.io.video;
+
+import boofcv.io.image.ConvertBufferedImage;
+import boofcv.io.wrapper.images.JpegByteImageSequence;
+import boofcv.struct.image.GrayU8;
+import boofcv.struct.image.ImageType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import javax.imageio.ImageIO;
+import java.awt.image.BufferedImage;
+import java.io.ByteArrayOutputStream;
+import java.io.File;
+import java.io.FileInputStream;
+import java.io.FileOutputStream;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.util.ArrayList;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Peter Abeles
+ */
+class TestMjpegMappedFile {
+
+	int numFrames = 5;
+	// encoded frames in the order they appear in the file
+	List<byte[]> frames = new ArrayList<>();
+	File file;
+
+	/**
+	 * Creates a MJPEG file where each frame has a different intensity
+	 */
+	@BeforeEach
+	void createFile() throws IOException {
+		file = File.createTempFile("mapped", ".mjpeg");
+		try( var out = new FileOutputStream(file) ) {
+			// garbage at the start which should be skipped
+			out.write(new byte[]{1, 2, (byte)0xFF, 3});
+			for (int i = 0; i < numFrames; i++) {
+				var gray = new GrayU8(40, 30);
+				gray.data[0] = 1; // so that it's not a uniform image
+				for (int j = 1; j < gray.data.length; j++) {
+					gray.data[j] = (byte)(i*40);
+				}
+				BufferedImage b = ConvertBufferedImage.convertTo(gray, null);
+				var bytes = new ByteArrayOutputStream();
+				ImageIO.write(b, "jpg", bytes);
+				frames.add(bytes.toByteArray());
+				out.write(bytes.toByteArray());
+			}
+			// an incomplete frame at the end should be ignored
+			out.write(new byte[]{(byte)0xFF, VideoMjpegCodec.SOI, 5, 6});
+		}
+	}
+
+	@AfterEach
+	void deleteFile() {
+		assertTrue(file.delete());
+	}
+
+	@Test
+	void index() throws IOException {
+		try( var alg = new MjpegMappedFile(file) ) {
+			assertEquals(numFrames, alg.size());
+			assertEquals(file.length(), alg.getFileSize());
+			long expectedOffset = 4;
+			for (int i = 0; i < numFrames; i++) {
+				assertEquals(expectedOffset, alg.getFrameOffset(i));
+				assertEquals(frames.get(i).length, alg.getFrameLength(i));
+				checkEquals(frames.get(i), alg.getFrame(i));
+				expectedOffset += frames.get(i).length;
+			}
+		}
+	}
+
+	/**
+	 * Use tiny chunks so that frames cross the chunk boundaries and markers are split between chunks
+	 */
+	@Test
+	void framesCrossChunks() throws IOException {
+		for (int chunkSize : new int[]{1, 7, 200, 1000}) {
+			try( var alg = new MjpegMappedFile(file, chunkSize) ) {
+				assertEquals(numFrames, alg.size());
+				for (int i = 0; i < numFrames; i++) {
+					checkEquals(frames.get(i), alg.getFrame(i));
+				}
+			}
+		}
+	}
+
+	/**
+	 * Should find the same frames as the original stream reader
+	 */
+	@Test
+	void compareToCodecRead() throws IOException {
+		List<byte[]> expected = new VideoMjpegCodec().read(new FileInputStream(file));
+		try( var alg = VideoMjpegCodec.openMapped(file) ) {
+			for (int i = 0; i < alg.size(); i++) {
+				// the codec strips off the EOI marker
+				ByteBuffer frame = alg.getFrame(i);
+				frame.limit(frame.limit()-2);
+				checkEquals(expected.get(i), frame);
+			}
+		}
+	}
+
+	/**
+	 * Decode frames directly from the mapped file
+	 */
+	@Test
+	void decodeWithSequence() throws IOException {
+		var sequence = new JpegByteImageSequence<>(ImageType.single(GrayU8.class), new MjpegMappedFile(file), false);
+		assertEquals(numFrames, sequence.size());
+
+		for (int i = 0; i < numFrames; i++) {
+			assertTrue(sequence.hasNext());
+			GrayU8 image = sequence.next();
+			assertEquals(40, image.width);
+			assertEquals(30, image.height);
+			assertEquals(i*40, image.get(20, 15), 3);
+		}
+		assertFalse(sequence.hasNext());
+
+		// random access
+		sequence.seek(3);
+		assertEquals(3*40, sequence.next().get(20, 15), 3);
+		sequence.reset();
+		assertEquals(0, sequence.next().get(20, 15), 3);
+		sequence.close();
+	}
+
+	@Test
+	void byteBufferImageInputStream() throws IOException {
+		byte[] data = frames.get(2);
+		// put the data in the middle of a larger buffer to make sure it's handled correctly
+		ByteBuffer buffer = ByteBuffer.allocate(data.length + 20);
+		buffer.position(10);
+		buffer.put(data);
+		buffer.position(10);
+		buffer.limit(10 + data.length);
+
+		BufferedImage expected = ImageIO.read(new java.io.ByteArrayInputStream(data));
+		BufferedImage found = ImageIO.read(new ByteBufferImageInputStream(buffer));
+		assertEquals(expected.getWidth(), found.getWidth());
+		for (int y = 0; y < expected.getHeight(); y++) {
+			for (int x = 0; x < expected.getWidth(); x++) {
+				assertEquals(expected.getRGB(x, y), found.getRGB(x, y));
+			}
+		}
+		// position and limit should not be modified
+		assertEquals(10, buffer.position());
+		assertEquals(10 + data.length, buffer.limit());
+	}
+
+	private static void checkEquals( byte[] expected, ByteBuffer found ) {
+		assertEquals(expected.length, found.remaining());
+		for (int i = 0; i < expected.length; i++) {
+			assertEquals(expected[i], found.get(found.position() + i));
+		}
+	}
+}
@@ -0,0 +1,95 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.io.wrapper;
+
+import boofcv.alg.misc.ImageStatistics;
+import boofcv.io.image.SimpleImageSequence;
+import boofcv.struct.image.GrayU8;
+import boofcv.struct.image.ImageType;
+import boofcv.struct.image.InterleavedU8;
+import org.junit.jupiter.api.Test;
+
+import java.awt.image.BufferedImage;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Peter Abeles
+ */
+class TestFakeWebcamInterface {
+	@Test
+	void shapeAndType() {
+		var alg = new FakeWebcamInterface(0);
+		SimpleImageSequence<InterleavedU8> sequence = alg.open(null, 40, 30, ImageType.il(3, InterleavedU8.class));
+
+		assertEquals(40, sequence.getWidth());
+		assertEquals(30, sequence.getHeight());
+		assertEquals(-1, sequence.getFrameNumber());
+		assertTrue(sequence.hasNext());
+
+		InterleavedU8 image = sequence.next();
+		assertEquals(0, sequence.getFrameNumber());
+		assertEquals(40, image.width);
+		assertEquals(30, image.height);
+		assertEquals(3, image.numBands);
+
+		BufferedImage gui = sequence.getGuiImage();
+		assertEquals(40, gui.getWidth());
+		assertEquals(30, gui.getHeight());
+
+		sequence.close();
+		assertFalse(sequence.hasNext());
+
+		// default shape
+		sequence = alg.open(null, -1, -1, ImageType.il(3, InterleavedU8.class));
+		assertEquals(FakeWebcamInterface.DEFAULT_WIDTH, sequence.getWidth());
+		assertEquals(FakeWebcamInterface.DEFAULT_HEIGHT, sequence.getHeight());
+	}
+
+	/**
+	 * Each frame should be different
+	 */
+	@Test
+	void framesChange() {
+		SimpleImageSequence<GrayU8> sequence = new FakeWebcamInterface(0).open(null, 40, 30, ImageType.single(GrayU8.class));
+
+		GrayU8 previous = sequence.next().clone();
+		for (int i = 0; i < 5; i++) {
+			GrayU8 image = sequence.next();
+			assertEquals(i + 1, sequence.getFrameNumber());
+			assertTrue(ImageStatistics.meanDiffAbs(image, previous) > 0);
+			previous.setTo(image);
+		}
+	}
+
+	/**
+	 * Frames should not be produced faster than the frame rate
+	 */
+	@Test
+	void frameRate() {
+		SimpleImageSequence<GrayU8> sequence = new FakeWebcamInterface(100).open(null, 40, 30, ImageType.single(GrayU8.class));
+
+		long before = System.nanoTime();
+		for (int i = 0; i < 11; i++) {
+			sequence.next();
+		}
+		double elapsedMS = (System.nanoTime() - before)*1e-6;
+		assertTrue(elapsedMS >= 100, "elapsed "+elapsedMS);
+	}
+}
@@ -0,0 +1,173 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.io.wrapper.images;
+
+import boofcv.io.wrapper.FakeWebcamInterface;
+import boofcv.io.wrapper.images.TestPrefetchImageSequence.DummySequence;
+import boofcv.struct.image.GrayU8;
+import boofcv.struct.image.ImageType;
+import boofcv.testing.BoofTesting;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Peter Abeles
+ */
+class TestCaptureImageSequence {
+
+	/**
+	 * If the user doesn't keep up then only the most recent frames should be kept
+	 */
+	@Test
+	void dropOldest() throws InterruptedException {
+		var source = new DummySequence(20);
+		var alg = new CaptureImageSequence<>(source, 3);
+
+		assertEquals(3, alg.getCapacity());
+		assertSame(source.getImageType(), alg.getImageType());
+		assertNull(alg.getImage());
+		assertEquals(-1, alg.getFrameNumber());
+
+		alg.start();
+		while( alg.getTotalCaptured() < 20 ) {
+			Thread.sleep(5);
+		}
+		Thread.sleep(20);
+
+		for (int i = 17; i < 20; i++) {
+			assertTrue(alg.hasNext());
+			GrayU8 image = alg.next();
+			assertSame(image, alg.getImage());
+			assertEquals(i, alg.getFrameNumber());
+			assertEquals(i, image.get(2, 3));
+			assertEquals("gui"+i, alg.getGuiImage());
+			// the source recycles its image so it must have been copied
+			assertNotSame(source.image, image);
+			// the frames sat in the queue so there will be some latency
+			assertTrue(alg.getLatencyMS() >= 20);
+		}
+		assertFalse(alg.hasNext());
+		assertThrows(IllegalStateException.class, alg::next);
+
+		assertEquals(20, alg.getTotalCaptured());
+		assertEquals(17, alg.getTotalDropped());
+		assertEquals(3, alg.getTotalDelivered());
+		assertTrue(alg.getAverageLatencyMS() >= 20);
+		assertTrue(alg.getMaxLatencyMS() >= alg.getAverageLatencyMS());
+
+		alg.resetStatistics();
+		assertEquals(0, alg.getTotalCaptured());
+		assertEquals(0, alg.getTotalDropped());
+		assertEquals(0, alg.getTotalDelivered());
+		assertEquals(0.0, alg.getAverageLatencyMS());
+		assertEquals(0.0, alg.getMaxLatencyMS());
+
+		alg.close();
+		assertTrue(source.closed);
+	}
+
+	/**
+	 * Frames should be returned in order they were captured and the current frame should not be modified while
+	 * the camera keeps on capturing
+	 */
+	@Test
+	void liveCamera() throws InterruptedException {
+		var camera = new FakeWebcamInterface(200).open(null, 40, 30, ImageType.single(GrayU8.class));
+		var alg = new CaptureImageSequence<>(camera, 2);
+
+		assertEquals(40, alg.getWidth());
+		assertEquals(30, alg.getHeight());
+
+		int previousFrame = -1;
+		long previousTime = 0;
+		for (int i = 0; i < 10; i++) {
+			GrayU8 image = alg.next();
+			assertTrue(alg.getFrameNumber() > previousFrame);
+			assertTrue(alg.getTimestampNano() > previousTime);
+			previousFrame = alg.getFrameNumber();
+			previousTime = alg.getTimestampNano();
+
+			// process slower than the camera so that frames are dropped
+			GrayU8 copy = image.clone();
+			Thread.sleep(15);
+			BoofTesting.assertEquals(copy, alg.getImage(), 0);
+		}
+		assertTrue(alg.getTotalDropped() > 0);
+		assertTrue(alg.getTotalCaptured() >= alg.getTotalDropped() + alg.getTotalDelivered());
+		assertEquals(10, alg.getTotalDelivered());
+
+		alg.close();
+		assertFalse(camera.hasNext());
+	}
+
+	@Test
+	void reset() {
+		var source = new DummySequence(10);
+		var alg = new CaptureImageSequence<>(source, 20);
+
+		for (int i = 0; i < 4; i++) {
+			alg.next();
+		}
+		alg.reset();
+		assertNull(alg.getImage());
+		// the capacity is large enough that no frames are dropped
+		for (int i = 0; i < 10; i++) {
+			assertEquals(i, alg.next().get(2, 3));
+		}
+		assertFalse(alg.hasNext());
+		assertEquals(0, alg.getTotalDropped());
+		alg.close();
+	}
+
+	/**
+	 * Exceptions in the source should be passed to the user after all the good frames have been returned
+	 */
+	@Test
+	void exceptionInSource() {
+		var source = new DummySequence(10);
+		source.failAt = 4;
+		var alg = new CaptureImageSequence<>(source, 10);
+
+		for (int i = 0; i < 4; i++) {
+			assertEquals(i, alg.next().get(2, 3));
+		}
+		assertThrows(IllegalArgumentException.class, alg::hasNext);
+		assertThrows(IllegalArgumentException.class, alg::next);
+		alg.close();
+	}
+
+	/**
+	 * An Error in the source should be passed to the user and not kill the thread silently
+	 */
+	@Test
+	void errorInSource() {
+		var source = new DummySequence(10);
+		source.failAt = 4;
+		source.failWithError = true;
+		var alg = new CaptureImageSequence<>(source, 10);
+
+		for (int i = 0; i < 4; i++) {
+			assertEquals(i, alg.next().get(2, 3));
+		}
+		assertThrows(AssertionError.class, alg::hasNext);
+		assertThrows(AssertionError.class, alg::next);
+		alg.close();
+	}
+}
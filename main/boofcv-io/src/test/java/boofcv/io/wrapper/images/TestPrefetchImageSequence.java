@@ -0,0 +1,210 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.io.wrapper.images;
+
+import boofcv.io.image.SimpleImageSequence;
+import boofcv.struct.image.GrayU8;
+import boofcv.struct.image.ImageType;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Peter Abeles
+ */
+class TestPrefetchImageSequence {
+
+	/**
+	 * Images should be returned in order and have the expected contents
+	 */
+	@Test
+	void readAll() {
+		var source = new DummySequence(10);
+		var alg = new PrefetchImageSequence<>(source, 3);
+
+		assertEquals(3, alg.getLookAhead());
+		assertSame(source.getImageType(), alg.getImageType());
+		assertNull(alg.getImage());
+		assertEquals(-1, alg.getFrameNumber());
+		// width should be available before next() has been called
+		assertEquals(20, alg.getWidth());
+		assertEquals(15, alg.getHeight());
+
+		for (int i = 0; i < 10; i++) {
+			assertTrue(alg.hasNext());
+			GrayU8 image = alg.next();
+			assertSame(image, alg.getImage());
+			assertEquals(i, alg.getFrameNumber());
+			assertEquals(i, image.get(2, 3));
+			assertEquals("gui"+i, alg.getGuiImage());
+			// the source recycles its image so it must have been copied
+			assertNotSame(source.image, image);
+		}
+		assertFalse(alg.hasNext());
+		assertThrows(IllegalStateException.class, alg::next);
+
+		alg.close();
+		assertTrue(source.closed);
+	}
+
+	/**
+	 * The background thread should not read more than lookAhead images in advance
+	 */
+	@Test
+	void boundedLookAhead() throws InterruptedException {
+		var source = new DummySequence(20);
+		var alg = new PrefetchImageSequence<>(source, 2);
+
+		for (int i = 0; i < 5; i++) {
+			alg.next();
+			// give the thread a chance to read as far ahead as it can
+			Thread.sleep(50);
+			synchronized (alg.lock) {
+				assertTrue(source.totalRead <= i + 1 + 2);
+			}
+			// the current image should not be modified by the background thread
+			assertEquals(i, alg.getImage().get(2, 3));
+		}
+		alg.close();
+	}
+
+	@Test
+	void reset() {
+		var source = new DummySequence(10);
+		var alg = new PrefetchImageSequence<>(source, 3);
+
+		for (int i = 0; i < 4; i++) {
+			alg.next();
+		}
+		alg.reset();
+		assertNull(alg.getImage());
+		for (int i = 0; i < 10; i++) {
+			assertEquals(i, alg.next().get(2, 3));
+		}
+		assertFalse(alg.hasNext());
+		alg.close();
+	}
+
+	/**
+	 * Turning on looping after the end has been reached should allow it to keep reading
+	 */
+	@Test
+	void setLoop() {
+		var source = new DummySequence(3);
+		var alg = new PrefetchImageSequence<>(source, 2);
+
+		for (int i = 0; i < 3; i++) {
+			assertEquals(i, alg.next().get(2, 3));
+		}
+		assertFalse(alg.hasNext());
+		alg.setLoop(true);
+		assertTrue(source.loop);
+		for (int i = 0; i < 5; i++) {
+			assertEquals((3 + i)%3, alg.next().get(2, 3));
+		}
+		alg.close();
+	}
+
+	/**
+	 * Exceptions in the source should be passed to the user after all the good frames have been returned
+	 */
+	@Test
+	void exceptionInSource() {
+		var source = new DummySequence(10);
+		source.failAt = 4;
+		var alg = new PrefetchImageSequence<>(source, 3);
+
+		for (int i = 0; i < 4; i++) {
+			assertEquals(i, alg.next().get(2, 3));
+		}
+		assertThrows(IllegalArgumentException.class, alg::hasNext);
+		assertThrows(IllegalArgumentException.class, alg::next);
+		alg.close();
+	}
+
+	/**
+	 * An Error in the source should be passed to the user and not kill the thread silently
+	 */
+	@Test
+	void errorInSource() {
+		var source = new DummySequence(10);
+		source.failAt = 4;
+		source.failWithError = true;
+		var alg = new PrefetchImageSequence<>(source, 3);
+
+		for (int i = 0; i < 4; i++) {
+			assertEquals(i, alg.next().get(2, 3));
+		}
+		assertThrows(AssertionError.class, alg::hasNext);
+		assertThrows(AssertionError.class, alg::next);
+		alg.close();
+	}
+
+	/**
+	 * Sequence which recycles its output image and fills it with the frame number
+	 */
+	static class DummySequence implements SimpleImageSequence<GrayU8> {
+		ImageType<GrayU8> imageType = ImageType.single(GrayU8.class);
+		GrayU8 image = new GrayU8(20, 15);
+		int length;
+		int frame = -1;
+		int totalRead = 0;
+		int failAt = -1;
+		// If true an Error is thrown at failAt instead of an exception
+		boolean failWithError;
+		boolean loop;
+		boolean closed;
+
+		DummySequence( int length ) {
+			this.length = length;
+		}
+
+		@Override public int getWidth() {return image.width;}
+
+		@Override public int getHeight() {return image.height;}
+
+		@Override public boolean hasNext() {return loop || frame + 1 < length;}
+
+		@Override public GrayU8 next() {
+			totalRead++;
+			frame++;
+			if( frame == failAt ) {
+				if( failWithError )
+					throw new AssertionError("Failed");
+				throw new IllegalArgumentException("Failed");
+			}
+			image.set(2, 3, frame%length);
+			return image;
+		}
+
+		@Override public GrayU8 getImage() {return image;}
+
+		@Override public <InternalImage> InternalImage getGuiImage() {return (InternalImage)("gui"+frame);}
+
+		@Override public void close() {closed = true;}
+
+		@Override public int getFrameNumber() {return frame;}
+
+		@Override public void setLoop( boolean loop ) {this.loop = loop;}
+
+		@Override public ImageType<GrayU8> getImageType() {return imageType;}
+
+		@Override public void reset() {frame = -1;}
+	}
+}
@@ -0,0 +1,142 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.io.wrapper.images;
+
+import boofcv.io.UtilIO;
+import boofcv.io.image.UtilImageIO;
+import boofcv.struct.image.GrayU8;
+import boofcv.struct.image.ImageType;
+import org.junit.jupiter.api.AfterEach;
+import org.junit.jupiter.api.BeforeEach;
+import org.junit.jupiter.api.Test;
+
+import java.io.File;
+import java.io.IOException;
+import java.nio.file.Files;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Peter Abeles
+ */
+class TestStreamingFileImageSequence {
+
+	ImageType<GrayU8> type = ImageType.single(GrayU8.class);
+	int numImages = 7;
+	File directory;
+
+	/**
+	 * Creates a directory with images that have the frame number encoded in them
+	 */
+	@BeforeEach
+	void createImages() throws IOException {
+		directory = Files.createTempDirectory("streaming").toFile();
+		for (int i = 0; i < numImages; i++) {
+			var image = new GrayU8(30, 20);
+			image.set(1, 2, i*10);
+			UtilImageIO.saveImage(image, new File(directory, String.format("image%02d.png", i)).getPath());
+		}
+		// this should be skipped because of its suffix
+		assertTrue(new File(directory, "notes.txt").createNewFile());
+	}
+
+	@AfterEach
+	void deleteImages() {
+		UtilIO.deleteRecursive(directory);
+	}
+
+	@Test
+	void readAll_noLoop() {
+		for (int readAhead : new int[]{0, 1, 3}) {
+			var alg = new StreamingFileImageSequence<>(type, directory, "png", 2, readAhead);
+			alg.setLoop(false);
+			assertEquals(numImages, alg.getPaths().size());
+
+			for (int i = 0; i < numImages; i++) {
+				assertTrue(alg.hasNext());
+				GrayU8 image = alg.next();
+				assertEquals(i*10, image.get(1, 2));
+				assertEquals(i, alg.getFrameNumber());
+				assertEquals(30, alg.getWidth());
+				assertEquals(20, alg.getHeight());
+				assertEquals(30, alg.getGuiImage().getWidth());
+				// only a limited number of images should be in memory
+				assertTrue(alg.cache.size() <= alg.getCacheSize());
+			}
+			assertFalse(alg.hasNext());
+			alg.close();
+		}
+	}
+
+	/**
+	 * When looping it should produce the same sequence as BufferedFileImageSequence
+	 */
+	@Test
+	void loop_compareToBuffered() {
+		for (int readAhead : new int[]{0, 2}) {
+			var expected = new BufferedFileImageSequence<>(type, directory, "png");
+			var alg = new StreamingFileImageSequence<>(type, directory, "png", 3, readAhead);
+
+			for (int i = 0; i < numImages*3; i++) {
+				assertTrue(alg.hasNext());
+				assertEquals(expected.next().get(1, 2), alg.next().get(1, 2));
+			}
+			alg.close();
+		}
+	}
+
+	@Test
+	void reset() {
+		var alg = new StreamingFileImageSequence<>(type, directory, "png", 2, 1);
+		alg.setLoop(false);
+		for (int i = 0; i < 4; i++) {
+			alg.next();
+		}
+		alg.reset();
+		assertNull(alg.getImage());
+		assertEquals(-1, alg.getFrameNumber());
+		for (int i = 0; i < numImages; i++) {
+			assertEquals(i*10, alg.next().get(1, 2));
+		}
+		assertFalse(alg.hasNext());
+		alg.close();
+	}
+
+	/**
+	 * The cache must be able to hold all the images which are being read ahead
+	 */
+	@Test
+	void cacheSizeAtLeastReadAhead() {
+		var alg = new StreamingFileImageSequence<>(type, directory, "png", 1, 4);
+		assertEquals(5, alg.getCacheSize());
+		alg.close();
+	}
+
+	@Test
+	void badImage() throws IOException {
+		assertTrue(new File(directory, "image99.png").createNewFile());
+		var alg = new StreamingFileImageSequence<>(type, directory, "png", 2, 3);
+		alg.setLoop(false);
+		for (int i = 0; i < numImages; i++) {
+			alg.next();
+		}
+		assertThrows(RuntimeException.class, alg::next);
+		alg.close();
+	}
+}
@@ -0,0 +1,114 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.abst.filter.binary;
+
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.factory.filter.binary.FactoryBinaryContourFinder;
+import boofcv.factory.filter.binary.FactoryThresholdBinary;
+import boofcv.struct.image.GrayU8;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Compares thresholding followed by contour finding against doing both in a single stage
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+@Fork(value=1)
+public class BenchmarkThresholdContours {
+	@Param({"true","false"})
+	public boolean concurrent;
+
+	@Param({"1000","3000"})
+	public int size;
+
+	GrayU8 gray = new GrayU8(1,1);
+	GrayU8 binary = new GrayU8(1,1);
+
+	InputToBinary<GrayU8> threshold;
+
+	BinaryContourFinder finderCopy;
+	BinaryContourFinder finderPadded;
+	BinaryContourHelper helper;
+	InputToExternalContours<GrayU8> fused;
+
+	@Setup
+	public void setup() {
+		BoofConcurrency.USE_CONCURRENT = concurrent;
+		Random rand = new Random(234);
+
+		// Dark squares on a light noisy background
+		gray.reshape(size,size);
+		binary.reshape(size,size);
+		ImageMiscOps.fillUniform(gray,rand,150,255);
+		for (int y = 10; y+30 < size; y += 50) {
+			for (int x = 10; x+30 < size; x += 50) {
+				ImageMiscOps.fillRectangle(gray,20,x,y,30,30);
+			}
+		}
+
+		threshold = FactoryThresholdBinary.globalOtsu(0,255,1.0,true,GrayU8.class);
+
+		finderCopy = FactoryBinaryContourFinder.linearExternal();
+		finderPadded = FactoryBinaryContourFinder.linearExternal();
+		helper = new BinaryContourHelper(finderPadded,false);
+		helper.reshape(size,size);
+
+		fused = FactoryBinaryContourFinder.thresholdExternal(threshold);
+	}
+
+	/** Thresholds into a binary image which is then copied into a padded image */
+	@Benchmark
+	public void separate() {
+		threshold.process(gray,binary);
+		finderCopy.process(binary);
+	}
+
+	/** Thresholds into a padded binary image. This is what the fiducial detectors do */
+	@Benchmark
+	public void separatePadded() {
+		threshold.process(gray,helper.withoutPadding());
+		finderPadded.process(helper.padded());
+	}
+
+	@Benchmark
+	public void fused() {
+		fused.process(gray);
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		Options opt = new OptionsBuilder()
+				.include(BenchmarkThresholdContours.class.getSimpleName())
+				.build();
+
+		new Runner(opt).run();
+	}
+}
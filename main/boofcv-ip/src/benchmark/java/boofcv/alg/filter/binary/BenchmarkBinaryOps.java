@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -20,6 +20,7 @@ package boofcv.alg.filter.binary;
 
 import boofcv.alg.misc.ImageMiscOps;
 import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.image.GrayF32;
 import boofcv.struct.image.GrayU8;
 import org.openjdk.jmh.annotations.*;
 
@@ -48,6 +49,7 @@ public class BenchmarkBinaryOps  {
 	private GrayU8 inputA = new GrayU8(size, size);
 	private GrayU8 inputB = new GrayU8(size, size);
 	private GrayU8 output = new GrayU8(size, size);
+	private GrayF32 distance = new GrayF32(size, size);
 
 	@Setup
 	public void setup() {
@@ -57,6 +59,7 @@ public class BenchmarkBinaryOps  {
 		inputA.reshape(size, size);
 		inputB.reshape(size, size);
 		output.reshape(size, size);
+		distance.reshape(size, size);
 
 		ImageMiscOps.fillUniform(inputA, rand, 0, 1);
 		ImageMiscOps.fillUniform(inputB, rand, 0, 1);
@@ -122,4 +125,9 @@ public class BenchmarkBinaryOps  {
 		BinaryImageOps.thin(inputA,5,output);
 	}
 
+	@Benchmark
+	public void distanceTransform() {
+		BinaryImageOps.distanceTransform(inputA,distance);
+	}
+
 }
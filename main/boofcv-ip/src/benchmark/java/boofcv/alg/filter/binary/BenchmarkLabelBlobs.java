@@ -0,0 +1,97 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.filter.binary;
+
+import boofcv.alg.filter.blur.BlurImageOps;
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.ConnectRule;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.GrayS32;
+import boofcv.struct.image.GrayU8;
+import org.openjdk.jmh.annotations.*;
+import org.openjdk.jmh.runner.Runner;
+import org.openjdk.jmh.runner.RunnerException;
+import org.openjdk.jmh.runner.options.Options;
+import org.openjdk.jmh.runner.options.OptionsBuilder;
+
+import java.util.Random;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Benchmark for labeling blobs in large binary images, e.g. segmentation masks
+ *
+ * @author Peter Abeles
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.MILLISECONDS)
+@Warmup(iterations = 2)
+@Measurement(iterations = 5)
+@State(Scope.Benchmark)
+@Fork(value=1, jvmArgs = {"-Xmx4g"})
+public class BenchmarkLabelBlobs {
+	@Param({"true","false"})
+	public boolean concurrent;
+
+	// 7000 is about 50 megapixels
+	@Param({"1000","7000"})
+	public int size;
+
+	GrayU8 binary = new GrayU8(1,1);
+	GrayS32 labeled = new GrayS32(1,1);
+
+	@Setup
+	public void setup() {
+		BoofConcurrency.USE_CONCURRENT = concurrent;
+		Random rand = new Random(234);
+
+		// Blurring random noise creates blobs with a variety of shapes and sizes
+		GrayF32 noise = new GrayF32(size,size);
+		ImageMiscOps.fillUniform(noise,rand,0,1);
+		BlurImageOps.mean(noise,noise,4,null,null);
+		binary.reshape(size,size);
+		for (int i = 0; i < noise.data.length; i++) {
+			binary.data[i] = (byte)(noise.data[i] > 0.5f ? 1 : 0);
+		}
+		labeled.reshape(size,size);
+	}
+
+	@Benchmark
+	public int labelBlobs4() {
+		return BinaryImageOps.labelBlobs(binary, ConnectRule.FOUR, labeled);
+	}
+
+	@Benchmark
+	public int labelBlobs8() {
+		return BinaryImageOps.labelBlobs(binary, ConnectRule.EIGHT, labeled);
+	}
+
+	@Benchmark
+	public int contour8() {
+		return BinaryImageOps.contour(binary, ConnectRule.EIGHT, labeled).size();
+	}
+
+	public static void main(String[] args) throws RunnerException {
+		Options opt = new OptionsBuilder()
+				.include(BenchmarkLabelBlobs.class.getSimpleName())
+				.build();
+
+		new Runner(opt).run();
+	}
+}
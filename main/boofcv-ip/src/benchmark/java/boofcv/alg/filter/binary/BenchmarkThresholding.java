@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -50,8 +50,8 @@ public class BenchmarkThresholding {
 	@Param({"true","false"})
 	public boolean concurrent;
 
-//	@Param({"5","50"})
-	@Param("50")
+	// integral image based algorithms should be insensitive to the region's size
+	@Param({"5","50","150"})
 	public int region;
 
 	//	@Param({"100", "500", "1000", "5000", "10000"})
@@ -71,6 +71,8 @@ public class BenchmarkThresholding {
 	InputToBinary<GrayU8> localGaussianU8;
 	InputToBinary<GrayF32> localSauvolaF32;
 	InputToBinary<GrayF32> localNickF32;
+	InputToBinary<GrayF32> localSauvolaIntegralF32;
+	InputToBinary<GrayF32> localNickIntegralF32;
 
 	InputToBinary<GrayU8> blockMeanU8;
 	InputToBinary<GrayU8> blockMinMaxU8;
@@ -98,6 +100,8 @@ public class BenchmarkThresholding {
 		localGaussianU8 = FactoryThresholdBinary.localGaussian(configLength,1.0,true,GrayU8.class);
 		localSauvolaF32 = FactoryThresholdBinary.localSauvola(configLength, true, 0.3f, GrayF32.class);
 		localNickF32 = FactoryThresholdBinary.localNick(configLength, true, -0.15f, GrayF32.class);
+		localSauvolaIntegralF32 = FactoryThresholdBinary.localSauvolaIntegral(configLength, true, 0.3f, GrayF32.class);
+		localNickIntegralF32 = FactoryThresholdBinary.localNickIntegral(configLength, true, -0.15f, GrayF32.class);
 
 		blockMeanU8 = FactoryThresholdBinary.blockMean(configLength,1.0,true,true,GrayU8.class);
 		blockMinMaxU8 = FactoryThresholdBinary.blockMinMax(configLength,1.0,true, true, 5, GrayU8.class);
@@ -144,6 +148,16 @@ public class BenchmarkThresholding {
 		localNickF32.process(inputF32,output);
 	}
 
+	@Benchmark
+	public void localSauvolaIntegral() {
+		localSauvolaIntegralF32.process(inputF32,output);
+	}
+
+	@Benchmark
+	public void localNickIntegral() {
+		localNickIntegralF32.process(inputF32,output);
+	}
+
 	@Benchmark
 	public void blockMean() {
 		blockMeanU8.process(inputU8,output);
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -18,6 +18,7 @@
 
 package boofcv.core.encoding;
 
+import boofcv.alg.filter.misc.AverageDownSampleOps;
 import boofcv.alg.misc.GImageMiscOps;
 import boofcv.concurrency.BoofConcurrency;
 import boofcv.core.image.ConvertImage;
@@ -54,6 +55,12 @@ public class BenchmarkConvertNV21 {
 	Planar<GrayF32> planarF32 = new Planar<GrayF32>(GrayF32.class, 1, 1, 3);
 	InterleavedU8 interU8 = new InterleavedU8(1, 1, 3);
 	InterleavedF32 interF32 = new InterleavedF32(1, 1, 3);
+	Planar<GrayU8> planarHalfU8 = new Planar<>(GrayU8.class, 1, 1, 3);
+
+	// gray at full resolution and color at half resolution
+	FusedYuvConverter fusedGrayRgbHalf = new FusedYuvConverter();
+	// every output the fused converter supports
+	FusedYuvConverter fusedAll = new FusedYuvConverter();
 
 	@Setup
 	public void setup() {
@@ -69,6 +76,7 @@ public class BenchmarkConvertNV21 {
 		interF32.reshape(size,size);
 		planarU8.reshape(size,size);
 		planarF32.reshape(size,size);
+		planarHalfU8.reshape(size/2,size/2);
 
 		// convert is faster than more random numbers
 		GImageMiscOps.fillUniform(grayU8,rand,0,200);
@@ -77,6 +85,13 @@ public class BenchmarkConvertNV21 {
 		ConvertImage.convert(interU8,interF32);
 		GImageMiscOps.fillUniform(planarU8,rand,0,200);
 		GConvertImage.convert(planarU8,planarF32);
+
+		fusedGrayRgbHalf.gray = new GrayU8(size,size);
+		fusedGrayRgbHalf.rgbHalf = new Planar<>(GrayU8.class,size/2,size/2,3);
+		fusedAll.gray = new GrayU8(size,size);
+		fusedAll.rgb = new Planar<>(GrayU8.class,size,size,3);
+		fusedAll.grayHalf = new GrayU8(size/2,size/2);
+		fusedAll.rgbHalf = new Planar<>(GrayU8.class,size/2,size/2,3);
 	}
 
 	@Benchmark
@@ -108,5 +123,24 @@ public class BenchmarkConvertNV21 {
 	public void nv21ToInterleaved_F32() {
 		ConvertNV21.nv21ToInterleaved(nv21, size, size, interF32);
 	}
-}
 
+	@Benchmark
+	public void fused_GrayRgbHalf() {
+		fusedGrayRgbHalf.processNV21(nv21, size, size);
+	}
+
+	/**
+	 * Same output as {@link #fused_GrayRgbHalf()} but computed with separate calls
+	 */
+	@Benchmark
+	public void separate_GrayRgbHalf() {
+		ConvertNV21.nv21ToGray(nv21, size, size, grayU8);
+		ConvertNV21.nv21TPlanarRgb_U8(nv21, size, size, planarU8);
+		AverageDownSampleOps.down(planarU8, 2, planarHalfU8);
+	}
+
+	@Benchmark
+	public void fused_All() {
+		fusedAll.processNV21(nv21, size, size);
+	}
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -30,7 +30,7 @@ import boofcv.struct.image.ImageType;
  *
  * @author Peter Abeles
  */
-public abstract class GlobalBinaryFilter<T extends ImageGray<T>> implements InputToBinary<T> {
+public abstract class GlobalBinaryFilter<T extends ImageGray<T>> implements InputToBinaryRows<T> {
 
 	ImageType<T> inputType;
 
@@ -42,6 +42,12 @@ public abstract class GlobalBinaryFilter<T extends ImageGray<T>> implements Inpu
 	double minValue;
 	double maxValue;
 
+	// threshold used when processing rows
+	double rowsThreshold;
+	// storage for sub-images of rows
+	T inputRows;
+	GrayU8 outputRows = new GrayU8();
+
 	/**
 	 * @see GThresholdImageOps#computeOtsu
 	 */
@@ -56,9 +62,24 @@ public abstract class GlobalBinaryFilter<T extends ImageGray<T>> implements Inpu
 
 	@Override
 	public void process(T input, GrayU8 output) {
+		GThresholdImageOps.threshold(input,output,computeScaledThreshold(input),down);
+	}
+
+	@Override
+	public void initializeRows(T input) {
+		rowsThreshold = computeScaledThreshold(input);
+	}
+
+	@Override
+	public void processRows(T input, int y0, int y1, GrayU8 output) {
+		inputRows = input.subimage(0,y0,input.width,y1,inputRows);
+		output.subimage(0,y0,output.width,y1,outputRows);
+		GThresholdImageOps.threshold(inputRows,outputRows,rowsThreshold,down);
+	}
+
+	private double computeScaledThreshold( T input ) {
 		double scale = down ? this.scale : (this.scale<=0.0 ? 0.0 : 1.0/ this.scale);
-		double threshold = computeThreshold(input) * scale;
-		GThresholdImageOps.threshold(input,output,threshold,down);
+		return computeThreshold(input) * scale;
 	}
 
 	@Override
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2017, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -30,13 +30,17 @@ import boofcv.struct.image.ImageType;
  *
  * @author Peter Abeles
  */
-public class GlobalFixedBinaryFilter<T extends ImageGray<T>> implements InputToBinary<T> {
+public class GlobalFixedBinaryFilter<T extends ImageGray<T>> implements InputToBinaryRows<T> {
 
 	ImageType<T> inputType;
 
 	double threshold;
 	boolean down;
 
+	// storage for sub-images of rows
+	T inputRows;
+	GrayU8 outputRows = new GrayU8();
+
 	/**
 	 * @see GThresholdImageOps#threshold
 	 */
@@ -51,6 +55,16 @@ public class GlobalFixedBinaryFilter<T extends ImageGray<T>> implements InputToB
 		GThresholdImageOps.threshold(input,output,threshold,down);
 	}
 
+	@Override
+	public void initializeRows(T input) {}
+
+	@Override
+	public void processRows(T input, int y0, int y1, GrayU8 output) {
+		inputRows = input.subimage(0,y0,input.width,y1,inputRows);
+		output.subimage(0,y0,output.width,y1,outputRows);
+		GThresholdImageOps.threshold(inputRows,outputRows,threshold,down);
+	}
+
 	@Override
 	public ImageType<T> getInputType() {
 		return inputType;
@@ -0,0 +1,50 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.abst.filter.binary;
+
+import boofcv.struct.image.GrayU8;
+import boofcv.struct.image.ImageGray;
+
+/**
+ * Threshold filter where each row in the output only depends on the same row in the input once image wide
+ * statistics have been computed. This allows the binary image to be created a few rows at a time, as
+ * they are needed.
+ *
+ * @see boofcv.alg.filter.binary.LinearExternalContours.RowProducer
+ *
+ * @author Peter Abeles
+ */
+public interface InputToBinaryRows<Input extends ImageGray<Input>> extends InputToBinary<Input> {
+	/**
+	 * Computes image wide statistics, e.g. the threshold. Must be called before {@link #processRows}.
+	 *
+	 * @param input Input image.  Not modified.
+	 */
+	void initializeRows( Input input );
+
+	/**
+	 * Thresholds rows y0 (inclusive) to y1 (exclusive)
+	 *
+	 * @param input Input image.  Not modified.
+	 * @param y0 First row. Inclusive.
+	 * @param y1 Last row. Exclusive.
+	 * @param output Output binary image. Same shape as input. Modified.
+	 */
+	void processRows( Input input , int y0 , int y1 , GrayU8 output );
+}
@@ -0,0 +1,169 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.abst.filter.binary;
+
+import boofcv.alg.filter.binary.ContourPacked;
+import boofcv.alg.filter.binary.LinearExternalContours;
+import boofcv.struct.ConnectRule;
+import boofcv.struct.image.GrayU8;
+import boofcv.struct.image.ImageGray;
+import georegression.struct.point.Point2D_I32;
+import org.ddogleg.struct.FastQueue;
+
+import java.util.List;
+
+/**
+ * <p>
+ * Fuses thresholding and {@link LinearExternalContours} into a single stage. Normally the binary image is computed
+ * by an {@link InputToBinary}, then a padded copy is made for the contour finder, and then it's read again to
+ * find the contours. Here the threshold is written directly into an internal padded image which the
+ * contour finder works on, removing the copy and the need for the caller to own a binary image.
+ * </p>
+ *
+ * <p>
+ * If the threshold implements {@link InputToBinaryRows} then the binary image is created a block of rows at a
+ * time as the contour finder first needs them. Each block is then traced while it's still in the cache. Other
+ * thresholds process the entire image before the contour finder is called.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class InputToExternalContours<T extends ImageGray<T>> implements BinaryContourInterface {
+
+	// Converts the input image into a binary image
+	InputToBinary<T> inputToBinary;
+	// Finds contours in the binary image
+	LinearExternalContours alg;
+
+	// binary image with a 1-pixel border
+	GrayU8 padded = new GrayU8(1,1);
+	// sub-image of padded without the border
+	GrayU8 binary = new GrayU8();
+
+	// Image that's being processed by the row producer
+	T input;
+	// Creates rows in the binary image on demand
+	LinearExternalContours.RowProducer producer;
+
+	FastQueue<ContourPacked> contours = new FastQueue<>(ContourPacked::new);
+
+	public InputToExternalContours( InputToBinary<T> inputToBinary , LinearExternalContours alg ) {
+		this.inputToBinary = inputToBinary;
+		this.alg = alg;
+
+		if( inputToBinary instanceof InputToBinaryRows ) {
+			InputToBinaryRows<T> rows = (InputToBinaryRows<T>)inputToBinary;
+			producer = (y0, y1) -> rows.processRows(input, y0, y1, binary);
+		}
+	}
+
+	/**
+	 * Thresholds the image and finds the external contours of all the blobs
+	 *
+	 * @param gray Input image.  Not modified.
+	 */
+	public void process( T gray ) {
+		padded.reshape(gray.width+2, gray.height+2);
+		padded.subimage(1,1,gray.width+1,gray.height+1,binary);
+
+		if( producer != null ) {
+			this.input = gray;
+			((InputToBinaryRows<T>)inputToBinary).initializeRows(gray);
+			alg.process(padded,producer);
+			this.input = null;
+		} else {
+			inputToBinary.process(gray,binary);
+			alg.process(padded,1,1);
+		}
+
+		// create the contours list
+		contours.reset();
+		for( int i = 0; i < alg.getExternalContours().size(); i++ ) {
+			ContourPacked p = contours.grow();
+			p.externalIndex = i;
+			p.id = i;
+		}
+	}
+
+	/**
+	 * Binary image from the most recent call to {@link #process}. Pixels along the border and traced contours
+	 * have been modified by the contour finder. See {@link LinearExternalContours}.
+	 */
+	public GrayU8 getBinary() {
+		return binary;
+	}
+
+	public InputToBinary<T> getInputToBinary() {
+		return inputToBinary;
+	}
+
+	@Override
+	public List<ContourPacked> getContours() {
+		return contours.toList();
+	}
+
+	@Override
+	public void loadContour(int contourID, FastQueue<Point2D_I32> storage) {
+		alg.getExternalContours().getSet(contourID,storage);
+	}
+
+	@Override
+	public void writeContour(int contourID, List<Point2D_I32> storage) {
+		alg.getExternalContours().writeOverSet(contourID,storage);
+	}
+
+	@Override
+	public void setSaveInnerContour(boolean enabled) {
+	}
+
+	@Override
+	public boolean isSaveInternalContours() {
+		return false;
+	}
+
+	@Override
+	public void setMinContour(int length) {
+		alg.setMinContourLength(length);
+	}
+
+	@Override
+	public int getMinContour() {
+		return alg.getMinContourLength();
+	}
+
+	@Override
+	public void setMaxContour(int length) {
+		alg.setMaxContourLength(length);
+	}
+
+	@Override
+	public int getMaxContour() {
+		return alg.getMaxContourLength();
+	}
+
+	@Override
+	public void setConnectRule(ConnectRule rule) {
+		alg.setConnectRule(rule);
+	}
+
+	@Override
+	public ConnectRule getConnectRule() {
+		return alg.getConnectRule();
+	}
+}
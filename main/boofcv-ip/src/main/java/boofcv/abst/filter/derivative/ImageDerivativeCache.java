@@ -0,0 +1,261 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.abst.filter.derivative;
+
+import boofcv.alg.transform.ii.GIntegralImageOps;
+import boofcv.struct.image.ImageGray;
+import boofcv.struct.image.ImageType;
+import boofcv.struct.pyramid.PyramidDiscrete;
+import lombok.Getter;
+
+import javax.annotation.Nullable;
+
+/**
+ * <p>
+ * Per-frame cache of an image's pyramid, derivatives, and integral image. When several detectors and trackers
+ * are applied to the same frame they can all pull from the same cache instead of each one recomputing the
+ * same pyramid and gradient. Everything is computed lazily the first time it's requested after
+ * {@link #setImage} is called and the results are reused until the next image is passed in.
+ * </p>
+ *
+ * <p>
+ * Level 0 is always the input image at its original resolution. If a pyramid is provided then the number of
+ * levels and their scale is specified by the pyramid, otherwise there is only a single level. First order derivatives
+ * are computed from the level's image and second order derivatives are computed from the first order derivatives.
+ * </p>
+ *
+ * <p>
+ * NOTE: Returned images are owned by the cache and will be modified when the next image is processed.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+@SuppressWarnings({"unchecked"})
+public class ImageDerivativeCache<I extends ImageGray<I>, D extends ImageGray<D>> {
+
+	/**
+	 * The different image derivatives which are cached
+	 */
+	public enum Term {
+		/** First derivative along x-axis */
+		X,
+		/** First derivative along y-axis */
+		Y,
+		/** Second derivative along x-axis then x-axis */
+		XX,
+		/** Second derivative along y-axis then y-axis */
+		YY,
+		/** Second derivative along x-axis then y-axis */
+		XY
+	}
+
+	/** Computes the first order image derivatives */
+	@Getter ImageGradient<I, D> gradient;
+	/** Computes the second order image derivatives. Can be null. */
+	@Getter @Nullable ImageHessian<D> hessian;
+
+	// The image pyramid. null if only the input image is used
+	@Nullable PyramidDiscrete<I> pyramid;
+
+	/** Image which derivatives are being computed for */
+	@Getter I image;
+
+	// Type of derivative images
+	ImageType<D> derivType;
+
+	// derivative images. first index is the term, second index is the level
+	D[][] derivatives = (D[][])new ImageGray[Term.values().length][];
+	// true if the derivatives in that level need to be recomputed
+	boolean[] staleGradient = new boolean[0];
+	boolean[] staleHessian = new boolean[0];
+	boolean stalePyramid;
+
+	// integral image of the input image. Type depends on the input image's type
+	@Nullable ImageGray integral;
+	boolean staleIntegral;
+
+	/**
+	 * Specifies how derivatives are computed and the pyramid structure
+	 *
+	 * @param pyramid Specifies the scale of each level in the pyramid. A copy is made internally. If null
+	 *                then there will only be one level.
+	 * @param gradient Computes the image gradient
+	 * @param hessian Computes the image hessian. If null then second order derivatives can't be requested.
+	 */
+	public ImageDerivativeCache( @Nullable PyramidDiscrete<I> pyramid,
+								 ImageGradient<I, D> gradient,
+								 @Nullable ImageHessian<D> hessian ) {
+		this.gradient = gradient;
+		this.hessian = hessian;
+		this.derivType = gradient.getDerivativeType();
+		if( pyramid != null ) {
+			this.pyramid = pyramid.copyStructure();
+			// The cache is only valid while the input image isn't modified, so there's no need to copy it
+			this.pyramid.setSaveOriginalReference(true);
+		}
+	}
+
+	/**
+	 * Specifies the image which is to be processed. All previously computed results are marked as stale.
+	 *
+	 * @param image The input image. A reference is saved and it must not be modified while the cache is in use.
+	 */
+	public void setImage( I image ) {
+		this.image = image;
+
+		stalePyramid = true;
+		staleIntegral = true;
+		int numLevels = pyramid == null ? 1 : computeNumLevels(image);
+		if( staleGradient.length != numLevels ) {
+			staleGradient = new boolean[numLevels];
+			staleHessian = new boolean[numLevels];
+			for( int i = 0; i < derivatives.length; i++ ) {
+				derivatives[i] = derivType.createArray(numLevels);
+			}
+		}
+		for( int i = 0; i < numLevels; i++ ) {
+			staleGradient[i] = true;
+			staleHessian[i] = true;
+		}
+	}
+
+	private int computeNumLevels( I image ) {
+		// initialize is a no-op if the shape didn't change
+		pyramid.initialize(image.width, image.height);
+		return pyramid.getNumLayers();
+	}
+
+	/**
+	 * Returns the image pyramid after updating it, if needed. Null if no pyramid was specified.
+	 */
+	public @Nullable PyramidDiscrete<I> getPyramid() {
+		if( pyramid != null && stalePyramid ) {
+			pyramid.process(image);
+			stalePyramid = false;
+		}
+		return pyramid;
+	}
+
+	/**
+	 * Number of levels in the pyramid. If there is no pyramid then this will be 1.
+	 */
+	public int getNumLevels() {
+		return staleGradient.length;
+	}
+
+	/**
+	 * Returns the image at the specified level.
+	 */
+	public I getLevel( int level ) {
+		if( pyramid == null ) {
+			if( level != 0 )
+				throw new IllegalArgumentException("There is only one level when no pyramid is used");
+			return image;
+		}
+		return getPyramid().getLayer(level);
+	}
+
+	/**
+	 * Returns the specified derivative at the specified level. Computed if needed.
+	 *
+	 * @param term Which derivative
+	 * @param level Which level in the pyramid
+	 * @return The derivative image. Owned by the cache.
+	 */
+	public D getDerivative( Term term, int level ) {
+		switch( term ) {
+			case X: case Y: updateGradient(level); break;
+			default: updateHessian(level); break;
+		}
+		return derivatives[term.ordinal()][level];
+	}
+
+	/**
+	 * Returns the specified derivative for all levels in the pyramid. Computed if needed.
+	 *
+	 * @param term Which derivative
+	 * @return Array with one derivative image for each level. Owned by the cache.
+	 */
+	public D[] getDerivatives( Term term ) {
+		for( int level = 0; level < getNumLevels(); level++ ) {
+			getDerivative(term, level);
+		}
+		return derivatives[term.ordinal()];
+	}
+
+	/**
+	 * Returns the integral image of the input image. The type is determined by
+	 * {@link GIntegralImageOps#getIntegralType}.
+	 */
+	public <II extends ImageGray<II>> II getIntegral() {
+		if( staleIntegral ) {
+			if( integral != null )
+				integral.reshape(image.width, image.height);
+			integral = GIntegralImageOps.transform(image, integral);
+			staleIntegral = false;
+		}
+		return (II)integral;
+	}
+
+	/**
+	 * Returns the type of derivative images
+	 */
+	public ImageType<D> getDerivativeType() {
+		return derivType;
+	}
+
+	private void updateGradient( int level ) {
+		if( !staleGradient[level] )
+			return;
+
+		I input = getLevel(level);
+		D derivX = declare(Term.X, level, input);
+		D derivY = declare(Term.Y, level, input);
+		gradient.process(input, derivX, derivY);
+		staleGradient[level] = false;
+	}
+
+	private void updateHessian( int level ) {
+		if( !staleHessian[level] )
+			return;
+		if( hessian == null )
+			throw new IllegalArgumentException("No hessian was specified in the constructor");
+
+		updateGradient(level);
+		D derivX = derivatives[Term.X.ordinal()][level];
+		D derivXX = declare(Term.XX, level, derivX);
+		D derivYY = declare(Term.YY, level, derivX);
+		D derivXY = declare(Term.XY, level, derivX);
+		hessian.process(derivX, derivatives[Term.Y.ordinal()][level], derivXX, derivYY, derivXY);
+		staleHessian[level] = false;
+	}
+
+	/**
+	 * Makes sure the derivative image has been declared and has the same shape as the input
+	 */
+	private D declare( Term term, int level, ImageGray<?> shape ) {
+		D[] levels = derivatives[term.ordinal()];
+		if( levels[level] == null ) {
+			levels[level] = derivType.createImage(shape.width, shape.height);
+		} else {
+			levels[level].reshape(shape.width, shape.height);
+		}
+		return levels[level];
+	}
+}
@@ -27,6 +27,7 @@ import boofcv.alg.misc.ImageMiscOps;
 import boofcv.concurrency.BoofConcurrency;
 import boofcv.factory.filter.binary.FactoryBinaryContourFinder;
 import boofcv.struct.ConnectRule;
+import boofcv.struct.image.GrayF32;
 import boofcv.struct.image.GrayS32;
 import boofcv.struct.image.GrayU8;
 import georegression.struct.point.Point2D_I32;
@@ -425,13 +426,32 @@ public class BinaryImageOps {
 		output = InputSanityCheck.checkDeclare(input, output);
 
 		output.setTo(input);
-		BinaryThinning thinning = new BinaryThinning();
+		BinaryThinning thinning = BoofConcurrency.USE_CONCURRENT ? new BinaryThinning_MT() : new BinaryThinning();
 
 		thinning.apply(output,maxIterations);
 
 		return output;
 	}
 
+	/**
+	 * Computes the Euclidean distance from each pixel to the closest background (zero) pixel.
+	 *
+	 * @see EuclideanDistanceTransform
+	 *
+	 * @param input Input image.  Not modified.
+	 * @param output If not null, the output image.  If null a new image is declared and returned.  Modified.
+	 * @return Output image.
+	 */
+	public static GrayF32 distanceTransform(GrayU8 input , GrayF32 output ) {
+		output = InputSanityCheck.checkDeclare(input, output, GrayF32.class);
+
+		EuclideanDistanceTransform alg = BoofConcurrency.USE_CONCURRENT ?
+				new EuclideanDistanceTransform_MT() : new EuclideanDistanceTransform();
+		alg.process(input,output);
+
+		return output;
+	}
+
 	/**
 	 * <p>
 	 * Given a binary image, connect together pixels to form blobs/clusters using the specified connectivity rule.
@@ -468,6 +488,42 @@ public class BinaryImageOps {
 		return convertContours(alg);
 	}
 
+	/**
+	 * <p>
+	 * Labels the blobs in a binary image without saving their contours. Background pixels are assigned a label of 0
+	 * and each blob is assigned a unique ID starting from 1. The labels are identical to the ones found by
+	 * {@link #contour(GrayU8, ConnectRule, GrayS32)}.
+	 * </p>
+	 *
+	 * <p>
+	 * If concurrency is turned on and more than one thread is available then the image is split into strips
+	 * which are labeled in parallel and then merged together.
+	 * </p>
+	 *
+	 * @see LinearContourLabelChang2004
+	 * @see ComponentLabelStrips_MT
+	 *
+	 * @param input Input binary image.  Not modified.
+	 * @param rule Connectivity rule.  Can be 4 or 8.  8 is more commonly used.
+	 * @param output Output labeled image. Reshaped to match the input. Modified.
+	 * @return Number of blobs found.
+	 */
+	public static int labelBlobs(GrayU8 input, ConnectRule rule, GrayS32 output) {
+		output.reshape(input.width,input.height);
+
+		if( ComponentLabelStrips_MT.useConcurrent() ) {
+			ComponentLabelStrips_MT alg = new ComponentLabelStrips_MT(rule);
+			alg.setLabelBackground(false);
+			alg.process(input,output);
+			return alg.getNumberOfComponents();
+		} else {
+			LinearContourLabelChang2004 alg = new LinearContourLabelChang2004(rule);
+			alg.setSaveInternalContours(false);
+			alg.process(input,output);
+			return alg.getContours().size;
+		}
+	}
+
 	/**
 	 * Finds the external contours only in the image
 	 * @param input Input binary image.  Not modified.
@@ -0,0 +1,331 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.filter.binary;
+
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.ConnectRule;
+import boofcv.struct.image.GrayS32;
+import boofcv.struct.image.GrayU8;
+import lombok.Getter;
+import lombok.Setter;
+import org.ddogleg.struct.FastQueue;
+import org.ddogleg.struct.GrowQueue_B;
+import org.ddogleg.struct.GrowQueue_I32;
+
+/**
+ * <p>
+ * Labels the connected components in a binary image using multiple threads. The image is split into horizontal
+ * strips and each strip is labeled independently in a single pass using union-find. Labels which touch across
+ * strip boundaries are then stitched together by examining the two rows on each side of the boundary. The
+ * background can also be labeled using the complementary connectivity rule, e.g. 4-connect when the foreground is
+ * 8-connect. Background components which don't touch the image border are the holes inside of blobs.
+ * </p>
+ *
+ * <p>
+ * Components are numbered starting from zero in the raster order of their first pixel, which is the order a
+ * single threaded row by row scan would encounter them in. If the background isn't labeled then background
+ * pixels are assigned a value of -1.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class ComponentLabelStrips_MT {
+	/** Connectivity rule for the foreground. The background uses the other rule. */
+	@Getter @Setter ConnectRule rule;
+	/** If true any pixel which isn't zero is foreground. Otherwise only pixels with a value of 1 are foreground. */
+	@Getter @Setter boolean anyNonZero = false;
+	/** If true the background is labeled too. Otherwise background pixels are assigned a value of -1. */
+	@Getter @Setter boolean labelBackground = true;
+	/** Number of strips the image is split into. If &le; 0 then it's the number of threads. */
+	@Getter @Setter int numberOfStrips = 0;
+	/** The minimum number of rows in a strip */
+	@Getter @Setter int minimumStripHeight = 16;
+
+	/** Component each pixel belongs to. Only used if an output image isn't passed in */
+	@Getter final GrayS32 labels = new GrayS32(1,1);
+	/** Index of the first pixel in each component, y*width + x */
+	@Getter final GrowQueue_I32 firstPixel = new GrowQueue_I32();
+	/** If a component belongs to the foreground or background */
+	@Getter final GrowQueue_B foreground = new GrowQueue_B();
+
+	// Image being processed
+	GrayU8 binary;
+	// Image the labels are written to
+	GrayS32 output;
+	// added to the component index to get the output label
+	int labelOffset;
+	// output value for background pixels when the background isn't labeled
+	int backgroundValue;
+
+	final FastQueue<Strip> strips = new FastQueue<>(Strip::new);
+	// union-find forest after all the strip labels have been converted into global labels
+	final GrowQueue_I32 parent = new GrowQueue_I32();
+	// first pixel of each global label
+	final GrowQueue_I32 first = new GrowQueue_I32();
+	// global label to component
+	final GrowQueue_I32 compact = new GrowQueue_I32();
+
+	public ComponentLabelStrips_MT( ConnectRule rule ) {
+		this.rule = rule;
+	}
+
+	/**
+	 * Returns true if the strip labeler, and the concurrent contour finders built on top of it, should be used
+	 * instead of their sequential versions. They are slower than the sequential versions when only a single
+	 * thread is available.
+	 */
+	public static boolean useConcurrent() {
+		return BoofConcurrency.USE_CONCURRENT && BoofConcurrency.getMaxThreads() > 1;
+	}
+
+	/**
+	 * Labels the components in the binary image
+	 *
+	 * @param binary Input binary image. Not modified.
+	 */
+	public void process( GrayU8 binary ) {
+		labels.reshape(binary.width,binary.height);
+		process(binary,labels,0,-1);
+	}
+
+	/**
+	 * Labels the blobs in the binary image using the same convention as {@link LinearContourLabelChang2004}.
+	 * Background pixels are 0 and blobs are labeled starting from 1 in the order their first pixel is
+	 * encountered in a row by row scan. The background must not be labeled.
+	 *
+	 * @param binary Input binary image. Not modified.
+	 * @param output Output labeled image. Same shape as binary. Modified.
+	 */
+	public void process( GrayU8 binary , GrayS32 output ) {
+		if( labelBackground )
+			throw new IllegalArgumentException("Background labeling must be turned off");
+		if( binary.width != output.width || binary.height != output.height )
+			throw new IllegalArgumentException("Input and output must have the same shape");
+		process(binary,output,1,0);
+	}
+
+	private void process( GrayU8 binary , GrayS32 output , int labelOffset , int backgroundValue ) {
+		this.binary = binary;
+		this.output = output;
+		this.labelOffset = labelOffset;
+		this.backgroundValue = backgroundValue;
+		firstPixel.reset();
+		foreground.reset();
+		if( binary.width == 0 || binary.height == 0 )
+			return;
+
+		// Split the image into strips and label each one independently
+		int numStrips = numberOfStrips > 0 ? numberOfStrips : BoofConcurrency.getMaxThreads();
+		numStrips = Math.max(1,Math.min(numStrips,binary.height/Math.max(1,minimumStripHeight)));
+		strips.resize(numStrips);
+		for (int i = 0; i < numStrips; i++) {
+			Strip s = strips.get(i);
+			s.y0 = i*binary.height/numStrips;
+			s.y1 = (i+1)*binary.height/numStrips;
+		}
+		BoofConcurrency.loopFor(0,numStrips,i->labelStrip(strips.get(i)));
+
+		// Merge the local labels into a single global forest
+		int total = 0;
+		for (int i = 0; i < numStrips; i++) {
+			strips.get(i).offset = total;
+			total += strips.get(i).parent.size;
+		}
+		parent.resize(total);
+		first.resize(total);
+		for (int i = 0; i < numStrips; i++) {
+			Strip s = strips.get(i);
+			for (int j = 0; j < s.parent.size; j++) {
+				parent.data[s.offset+j] = s.parent.data[j] + s.offset;
+				first.data[s.offset+j] = s.first.data[j];
+			}
+		}
+		for (int i = 1; i < numStrips; i++) {
+			stitch(strips.get(i-1),strips.get(i));
+		}
+
+		// Since the smallest label is always the root, roots are in the same order as their first pixel
+		compact.resize(total);
+		for (int label = 0; label < total; label++) {
+			int root = find(parent.data,label);
+			if( root == label ) {
+				compact.data[label] = firstPixel.size;
+				firstPixel.add(first.data[label]);
+				int x = first.data[label]%binary.width;
+				int y = first.data[label]/binary.width;
+				foreground.add(isOne(binary.data[binary.startIndex+y*binary.stride+x]));
+			} else {
+				compact.data[label] = compact.data[root];
+			}
+		}
+
+		// Convert local labels into the final component labels
+		BoofConcurrency.loopFor(0,numStrips,i->{
+			Strip s = strips.get(i);
+			final int[] compact = this.compact.data;
+			final int[] data = output.data;
+			final int offset = s.offset;
+			for (int y = s.y0; y < s.y1; y++) {
+				int index = output.startIndex + y*output.stride;
+				int end = index + output.width;
+				for (; index < end; index++) {
+					int label = data[index];
+					data[index] = label >= 0 ? compact[label+offset] + labelOffset : backgroundValue;
+				}
+			}
+		});
+	}
+
+	/**
+	 * Labels pixels inside the strip. Each pixel is connected to the pixels before it in the raster order.
+	 */
+	void labelStrip( Strip s ) {
+		s.parent.reset();
+		s.first.reset();
+
+		final byte[] data = binary.data;
+		final int[] labelsData = output.data;
+		final int width = binary.width;
+		final boolean foregroundEight = rule == ConnectRule.EIGHT;
+
+		for (int y = s.y0; y < s.y1; y++) {
+			int indexIn = binary.startIndex + y*binary.stride;
+			int indexOut = output.startIndex + y*output.stride;
+			boolean hasAbove = y > s.y0;
+
+			for (int x = 0; x < width; x++, indexIn++, indexOut++) {
+				boolean one = isOne(data[indexIn]);
+				if( !one && !labelBackground ) {
+					labelsData[indexOut] = -1;
+					continue;
+				}
+
+				int label = -1;
+				if( x > 0 && one == isOne(data[indexIn-1]) )
+					label = labelsData[indexOut-1];
+				if( hasAbove ) {
+					int above = indexIn-binary.stride;
+					int aboveOut = indexOut-output.stride;
+					if( one == isOne(data[above]) ) {
+						// if connected to the pixel above the diagonals would already be connected through it
+						label = join(s.parent,label,labelsData[aboveOut]);
+					} else if( one == foregroundEight ) {
+						if( x > 0 && one == isOne(data[above-1]) )
+							label = join(s.parent,label,labelsData[aboveOut-1]);
+						if( x+1 < width && one == isOne(data[above+1]) )
+							label = join(s.parent,label,labelsData[aboveOut+1]);
+					}
+				}
+
+				if( label == -1 ) {
+					label = s.parent.size;
+					s.parent.add(label);
+					s.first.add(y*width+x);
+				}
+				labelsData[indexOut] = label;
+			}
+		}
+	}
+
+	/**
+	 * Connects labels in the first row of the lower strip to labels in the last row of the upper strip
+	 */
+	void stitch( Strip upper , Strip lower ) {
+		final byte[] data = binary.data;
+		final int[] labelsData = output.data;
+		final int width = binary.width;
+		final boolean foregroundEight = rule == ConnectRule.EIGHT;
+
+		int indexIn = binary.startIndex + lower.y0*binary.stride;
+		int indexOut = output.startIndex + lower.y0*output.stride;
+		for (int x = 0; x < width; x++, indexIn++, indexOut++) {
+			boolean one = isOne(data[indexIn]);
+			if( !one && !labelBackground )
+				continue;
+
+			int label = labelsData[indexOut] + lower.offset;
+			int above = indexIn-binary.stride;
+			int aboveOut = indexOut-output.stride;
+			if( one == isOne(data[above]) ) {
+				join(parent,label,labelsData[aboveOut]+upper.offset);
+			} else if( one == foregroundEight ) {
+				if( x > 0 && one == isOne(data[above-1]) )
+					join(parent,label,labelsData[aboveOut-1]+upper.offset);
+				if( x+1 < width && one == isOne(data[above+1]) )
+					join(parent,label,labelsData[aboveOut+1]+upper.offset);
+			}
+		}
+	}
+
+	private boolean isOne( byte value ) {
+		return anyNonZero ? value != 0 : value == 1;
+	}
+
+	/**
+	 * Merges the two sets and returns the root. The smaller label always becomes the root.
+	 *
+	 * @param a Label of one set or -1 if there is no set
+	 * @param b Label of the other set
+	 */
+	static int join( GrowQueue_I32 parent , int a , int b ) {
+		int rootB = find(parent.data,b);
+		if( a == -1 )
+			return rootB;
+		int rootA = find(parent.data,a);
+		if( rootA < rootB ) {
+			parent.data[rootB] = rootA;
+			return rootA;
+		} else {
+			parent.data[rootA] = rootB;
+			return rootB;
+		}
+	}
+
+	/**
+	 * Finds the root of the set while halving the path
+	 */
+	static int find( int[] parent , int label ) {
+		while( parent[label] != label ) {
+			parent[label] = parent[parent[label]];
+			label = parent[label];
+		}
+		return label;
+	}
+
+	/**
+	 * Returns the number of components found
+	 */
+	public int getNumberOfComponents() {
+		return firstPixel.size;
+	}
+
+	/**
+	 * Labels for a horizontal strip of the image. Labels are local to the strip.
+	 */
+	static class Strip {
+		// first row, inclusive, and last row, exclusive
+		int y0, y1;
+		// converts a local label into a global label
+		int offset;
+		// union-find forest
+		final GrowQueue_I32 parent = new GrowQueue_I32();
+		// index of the first pixel of each label
+		final GrowQueue_I32 first = new GrowQueue_I32();
+	}
+}
@@ -0,0 +1,232 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.filter.binary;
+
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.GrayS32;
+import boofcv.struct.image.GrayU8;
+import org.ddogleg.struct.GrowQueue_F64;
+import org.ddogleg.struct.GrowQueue_I32;
+
+/**
+ * <p>
+ * Computes the exact Euclidean distance transform of a binary image in linear time using the algorithm from [1].
+ * The value of each pixel in the output is the distance to the closest background (value of 0) pixel. Background
+ * pixels have a distance of zero. If there are no background pixels in the image then the distance is
+ * {@link Float#POSITIVE_INFINITY} for the Euclidean distance and {@link #INFINITY} for the squared distance.
+ * </p>
+ *
+ * <p>
+ * The transform is separable. First the distance to the closest background pixel in the same column is found.
+ * Then for each row the lower envelope of parabolas centered at each pixel is computed, which gives the distance
+ * to the closest background pixel in the image. Each column and row is independent of all the others.
+ * </p>
+ *
+ * <p>
+ * [1] Felzenszwalb, Pedro F., and Daniel P. Huttenlocher. "Distance transforms of sampled functions."
+ * Theory of Computing 8.1 (2012): 415-428.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class EuclideanDistanceTransform {
+	/** Squared distance when there are no background pixels */
+	public static final int INFINITY = Integer.MAX_VALUE;
+
+	// Squared distance along each column
+	protected final GrayS32 columnSq = new GrayS32(1,1);
+	// Storage for the squared distance when the Euclidean distance is requested
+	protected final GrayS32 storageSq = new GrayS32(1,1);
+
+	// Workspace for a single row
+	protected final RowWork work = new RowWork();
+
+	// The images being processed
+	protected GrayU8 binary;
+	protected GrayS32 distanceSq;
+
+	/**
+	 * Computes the Euclidean distance of every pixel to the closest background pixel
+	 *
+	 * @param binary Input binary image. Not modified.
+	 * @param distance Output distance. Reshaped to match the input. Modified.
+	 */
+	public void process( GrayU8 binary , GrayF32 distance ) {
+		distance.reshape(binary.width,binary.height);
+		processSq(binary,storageSq);
+		computeSqrt(distance,0,binary.height);
+	}
+
+	/**
+	 * Computes the squared Euclidean distance of every pixel to the closest background pixel. The squared distance
+	 * is an integer and has no round off error.
+	 *
+	 * @param binary Input binary image. Not modified.
+	 * @param distanceSq Output squared distance. Reshaped to match the input. Modified.
+	 */
+	public void processSq( GrayU8 binary , GrayS32 distanceSq ) {
+		this.binary = binary;
+		this.distanceSq = distanceSq;
+		columnSq.reshape(binary.width,binary.height);
+		distanceSq.reshape(binary.width,binary.height);
+
+		processColumns(work,0,binary.width);
+		processRows(work,0,binary.height);
+	}
+
+	/**
+	 * Finds the distance to the closest background pixel in the same column. The image is traversed one row at a
+	 * time to be cache friendly.
+	 */
+	protected void processColumns( RowWork work , int x0 , int x1 ) {
+		final int height = binary.height;
+		final int[] dst = columnSq.data;
+		work.reshape(x1-x0);
+		final int[] below = work.v.data;
+
+		// distance to the closest background pixel above
+		for (int y = 0; y < height; y++) {
+			int indexIn = binary.startIndex + y*binary.stride + x0;
+			int indexOut = columnSq.startIndex + y*columnSq.stride + x0;
+			for (int x = x0; x < x1; x++, indexIn++, indexOut++) {
+				if( binary.data[indexIn] == 0 ) {
+					dst[indexOut] = 0;
+				} else if( y == 0 ) {
+					dst[indexOut] = INFINITY;
+				} else {
+					int d = dst[indexOut-columnSq.stride];
+					dst[indexOut] = d == INFINITY ? INFINITY : d+1;
+				}
+			}
+		}
+
+		// distance to the closest background pixel below. Then save the squared distance of the closest
+		for (int i = 0; i < x1-x0; i++) {
+			below[i] = INFINITY;
+		}
+		for (int y = height-1; y >= 0; y--) {
+			int indexOut = columnSq.startIndex + y*columnSq.stride + x0;
+			for (int i = 0; i < x1-x0; i++, indexOut++) {
+				int above = dst[indexOut];
+				int d = below[i];
+				if( above == 0 )
+					d = 0;
+				else if( d != INFINITY )
+					d++;
+				below[i] = d;
+				int best = Math.min(above,d);
+				dst[indexOut] = best == INFINITY ? INFINITY : best*best;
+			}
+		}
+	}
+
+	/**
+	 * Finds the distance to the closest background pixel using the distances along each column
+	 */
+	protected void processRows( RowWork work , int y0 , int y1 ) {
+		final int width = binary.width;
+		work.reshape(width);
+		final int[] v = work.v.data;
+		final double[] z = work.z.data;
+
+		for (int y = y0; y < y1; y++) {
+			final int indexF = columnSq.startIndex + y*columnSq.stride;
+			final int[] f = columnSq.data;
+			int indexOut = distanceSq.startIndex + y*distanceSq.stride;
+
+			// Compute the lower envelope of the parabolas. Pixels with no background in their column are skipped
+			int k = -1;
+			for (int q = 0; q < width; q++) {
+				int fq = f[indexF+q];
+				if( fq == INFINITY )
+					continue;
+				if( k == -1 ) {
+					k = 0;
+					v[0] = q;
+					z[0] = Double.NEGATIVE_INFINITY;
+					z[1] = Double.POSITIVE_INFINITY;
+					continue;
+				}
+
+				// remove parabolas which are no longer part of the lower envelope
+				double s = intersection(f, indexF, v[k], q);
+				while( s <= z[k] ) {
+					k--;
+					s = intersection(f, indexF, v[k], q);
+				}
+				k++;
+				v[k] = q;
+				z[k] = s;
+				z[k+1] = Double.POSITIVE_INFINITY;
+			}
+
+			if( k == -1 ) {
+				for (int x = 0; x < width; x++) {
+					distanceSq.data[indexOut++] = INFINITY;
+				}
+				continue;
+			}
+
+			// Look up the distance from the lower envelope
+			k = 0;
+			for (int q = 0; q < width; q++) {
+				while( z[k+1] < q )
+					k++;
+				int dx = q-v[k];
+				distanceSq.data[indexOut++] = dx*dx + f[indexF+v[k]];
+			}
+		}
+	}
+
+	/**
+	 * Location where the parabolas centered at p and q intersect
+	 */
+	private static double intersection( int[] f , int indexF , int p , int q ) {
+		return ((f[indexF+q] + (double)q*q) - (f[indexF+p] + (double)p*p))/(2.0*(q-p));
+	}
+
+	/**
+	 * Converts the squared distance into the Euclidean distance
+	 */
+	protected void computeSqrt( GrayF32 distance , int y0 , int y1 ) {
+		for (int y = y0; y < y1; y++) {
+			int indexIn = storageSq.startIndex + y*storageSq.stride;
+			int indexOut = distance.startIndex + y*distance.stride;
+			for (int x = 0; x < distance.width; x++) {
+				int d = storageSq.data[indexIn++];
+				distance.data[indexOut++] = d == INFINITY ? Float.POSITIVE_INFINITY : (float)Math.sqrt(d);
+			}
+		}
+	}
+
+	/**
+	 * Storage for the lower envelope of a single row
+	 */
+	protected static class RowWork {
+		// location of each parabola in the lower envelope
+		final GrowQueue_I32 v = new GrowQueue_I32();
+		// where each parabola starts being the lowest
+		final GrowQueue_F64 z = new GrowQueue_F64();
+
+		public void reshape( int width ) {
+			v.resize(width);
+			z.resize(width+1);
+		}
+	}
+}
@@ -0,0 +1,55 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.filter.binary;
+
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.GrayS32;
+import boofcv.struct.image.GrayU8;
+import org.ddogleg.struct.FastQueue;
+
+/**
+ * Concurrent implementation of {@link EuclideanDistanceTransform}. Columns are processed in parallel and then
+ * rows are processed in parallel. Each thread has its own storage for the lower envelope.
+ *
+ * @author Peter Abeles
+ */
+public class EuclideanDistanceTransform_MT extends EuclideanDistanceTransform {
+
+	// Storage for the lower envelope used by each thread
+	FastQueue<RowWork> workspace = new FastQueue<>(RowWork::new);
+
+	@Override
+	public void process( GrayU8 binary , GrayF32 distance ) {
+		distance.reshape(binary.width,binary.height);
+		processSq(binary,storageSq);
+		BoofConcurrency.loopBlocks(0,binary.height,(y0,y1)->computeSqrt(distance,y0,y1));
+	}
+
+	@Override
+	public void processSq( GrayU8 binary , GrayS32 distanceSq ) {
+		this.binary = binary;
+		this.distanceSq = distanceSq;
+		columnSq.reshape(binary.width,binary.height);
+		distanceSq.reshape(binary.width,binary.height);
+
+		BoofConcurrency.loopBlocks(0,binary.width,workspace,this::processColumns);
+		BoofConcurrency.loopBlocks(0,binary.height,workspace,this::processRows);
+	}
+}
@@ -69,11 +69,11 @@ public class LinearContourLabelChang2004 {
 	private ContourTracer tracer;
 
 	// binary image with a border of zero.
-	private GrayU8 border = new GrayU8(1,1);
+	GrayU8 border = new GrayU8(1,1);
 
 	// predeclared/recycled data structures
 	PackedSetsPoint2D_I32 packedPoints = new PackedSetsPoint2D_I32(2000);
-	private FastQueue<ContourPacked> contours = new FastQueue<>(ContourPacked::new);
+	FastQueue<ContourPacked> contours = new FastQueue<>(ContourPacked::new);
 
 	// internal book keeping variables
 	private int x,y,indexIn,indexOut;
@@ -96,13 +96,7 @@ public class LinearContourLabelChang2004 {
 	public void process(GrayU8 binary , GrayS32 labeled ) {
 		// initialize data structures
 		labeled.reshape(binary.width,binary.height);
-
-		// ensure that the image border pixels are filled with zero by enlarging the image
-		if( border.width != binary.width+2 || border.height != binary.height+2)  {
-			border.reshape(binary.width + 2, binary.height + 2);
-			ImageMiscOps.fillBorder(border, 0, 1);
-		}
-		border.subimage(1,1,border.width-1,border.height-1, null).setTo(binary);
+		copyIntoBorder(binary);
 
 		// labeled image must initially be filled with zeros
 		ImageMiscOps.fill(labeled,0);
@@ -151,6 +145,18 @@ public class LinearContourLabelChang2004 {
 		}
 	}
 
+	/**
+	 * Copies the binary image into the inner portion of {@link #border}, which has a border of zeros
+	 */
+	void copyIntoBorder( GrayU8 binary ) {
+		// ensure that the image border pixels are filled with zero by enlarging the image
+		if( border.width != binary.width+2 || border.height != binary.height+2)  {
+			border.reshape(binary.width + 2, binary.height + 2);
+			ImageMiscOps.fillBorder(border, 0, 1);
+		}
+		border.subimage(1,1,border.width-1,border.height-1, null).setTo(binary);
+	}
+
 	/**
 	 * Faster when there's a specialized function which searches for one pixels
 	 */
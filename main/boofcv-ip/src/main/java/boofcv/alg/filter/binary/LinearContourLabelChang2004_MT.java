@@ -0,0 +1,206 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.filter.binary;
+
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.ConnectRule;
+import boofcv.struct.PackedSetsPoint2D_I32;
+import boofcv.struct.image.GrayS32;
+import boofcv.struct.image.GrayU8;
+import org.ddogleg.struct.FastQueue;
+import org.ddogleg.struct.GrowQueue_B;
+import org.ddogleg.struct.GrowQueue_I32;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * <p>
+ * Concurrent implementation of {@link LinearContourLabelChang2004}. The output is identical, including the order of
+ * points in {@link #getPackedPoints()}. Instead of tracing contours while scanning the image, blobs and holes are
+ * first found in parallel using {@link ComponentLabelStrips_MT}. This reveals where the single threaded algorithm
+ * would have started tracing each contour. External contours start at the first pixel of a blob and internal
+ * contours start at the pixel above the first pixel of a hole. All the contours are then traced in parallel.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class LinearContourLabelChang2004_MT extends LinearContourLabelChang2004 {
+
+	// Finds blobs and holes
+	ComponentLabelStrips_MT components;
+
+	// Where each contour starts in the border image, which blob it belongs to, and if it's external
+	GrowQueue_I32 startPixel = new GrowQueue_I32();
+	GrowQueue_I32 startBlob = new GrowQueue_I32();
+	GrowQueue_B startExternal = new GrowQueue_B();
+
+	// look up table from component to blob ID. 0 for the background
+	GrowQueue_I32 componentToBlob = new GrowQueue_I32();
+
+	// Storage for contours traced by each thread
+	FastQueue<TraceWork> workspace = new FastQueue<>(TraceWork::new);
+
+	public LinearContourLabelChang2004_MT( ConnectRule rule ) {
+		super(rule);
+		components = new ComponentLabelStrips_MT(rule);
+	}
+
+	@Override
+	public void process( GrayU8 binary, GrayS32 labeled ) {
+		labeled.reshape(binary.width,binary.height);
+		copyIntoBorder(binary);
+		packedPoints.reset();
+		contours.reset();
+
+		// Find the blobs and holes
+		components.setRule(getConnectRule());
+		components.process(border);
+
+		final int numComponents = components.getNumberOfComponents();
+		componentToBlob.resize(numComponents);
+		int totalBlobs = 0;
+		for (int i = 0; i < numComponents; i++) {
+			componentToBlob.data[i] = components.foreground.data[i] ? ++totalBlobs : 0;
+		}
+
+		// Write out the labeled image
+		final GrayS32 compLabels = components.labels;
+		BoofConcurrency.loopFor(0,labeled.height,y->{
+			int indexIn = compLabels.startIndex + (y+1)*compLabels.stride + 1;
+			int indexOut = labeled.startIndex + y*labeled.stride;
+			for (int x = 0; x < labeled.width; x++) {
+				labeled.data[indexOut++] = componentToBlob.data[compLabels.data[indexIn++]];
+			}
+		});
+
+		selectContourStarts();
+
+		// Trace all the contours
+		workspace.reset();
+		BoofConcurrency.loopBlocks(0,startPixel.size,workspace,(work,idx0,idx1)->traceContours(work,labeled,idx0,idx1));
+
+		// Copy the results in the same order the single threaded algorithm would have found them
+		for (int i = 0; i < totalBlobs; i++) {
+			ContourPacked c = contours.grow();
+			c.reset();
+			c.id = i+1;
+		}
+		Arrays.sort(workspace.data,0,workspace.size,Comparator.comparingInt(a->a.index0));
+		for (int i = 0; i < workspace.size; i++) {
+			TraceWork work = workspace.get(i);
+			for (int set = 0; set < work.points.size(); set++) {
+				int index = work.index0+set;
+				ContourPacked c = contours.get(startBlob.data[index]-1);
+				if( startExternal.data[index] )
+					c.externalIndex = packedPoints.size();
+				else
+					c.internalIndexes.add(packedPoints.size());
+				packedPoints.appendSet(work.points,set);
+			}
+		}
+	}
+
+	/**
+	 * Creates a list of where each contour starts in raster order. A blob's first pixel starts its external
+	 * contour and the pixel above a hole's first pixel starts an internal contour. When both start at the same
+	 * pixel the external contour is first.
+	 */
+	void selectContourStarts() {
+		startPixel.reset();
+		startBlob.reset();
+		startExternal.reset();
+
+		final int numComponents = components.getNumberOfComponents();
+		final int stride = components.labels.width;
+		final GrowQueue_I32 first = components.firstPixel;
+
+		// The first component is the background which touches the image border and not a hole
+		int indexHole = 1;
+		for (int indexBlob = 1; indexBlob < numComponents; indexBlob++) {
+			if( !components.foreground.data[indexBlob] )
+				continue;
+
+			int pixelBlob = first.data[indexBlob];
+			// add all the holes which start before this blob
+			for (; indexHole < numComponents; indexHole++) {
+				if( components.foreground.data[indexHole] )
+					continue;
+				int pixelHole = first.data[indexHole]-stride;
+				if( pixelHole >= pixelBlob )
+					break;
+				addInternal(pixelHole);
+			}
+
+			startPixel.add(pixelBlob);
+			startBlob.add(componentToBlob.data[indexBlob]);
+			startExternal.add(true);
+		}
+		for (; indexHole < numComponents; indexHole++) {
+			if( !components.foreground.data[indexHole] )
+				addInternal(first.data[indexHole]-stride);
+		}
+	}
+
+	private void addInternal( int pixel ) {
+		startPixel.add(pixel);
+		startBlob.add(componentToBlob.data[components.labels.data[pixel]]);
+		startExternal.add(false);
+	}
+
+	/**
+	 * Traces the contours in the specified range and saves them in the work space
+	 */
+	void traceContours( TraceWork work, GrayS32 labeled, int idx0, int idx1 ) {
+		if( work.tracer == null || work.tracer.getConnectRule() != getConnectRule() )
+			work.tracer = new ContourTracer(getConnectRule());
+		work.index0 = idx0;
+		work.points.reset();
+		work.tracer.setInputs(border,labeled,work.points);
+
+		final int maxContourSize = getMaxContourSize();
+		final int minContourSize = getMinContourSize();
+		final int stride = border.stride;
+
+		for (int i = idx0; i < idx1; i++) {
+			int pixel = startPixel.data[i];
+			boolean external = startExternal.data[i];
+
+			work.points.grow();
+			work.tracer.setMaxContourSize(external || isSaveInternalContours() ? maxContourSize : 0);
+			work.tracer.trace(startBlob.data[i],pixel%stride,pixel/stride,external);
+
+			// Keep track that this was a contour, but free up all the points used in defining it
+			if( work.points.sizeOfTail() >= maxContourSize || work.points.sizeOfTail() < minContourSize ) {
+				work.points.removeTail();
+				work.points.grow();
+			}
+		}
+	}
+
+	/**
+	 * Contours traced by a single thread
+	 */
+	static class TraceWork {
+		// index of the first contour
+		int index0;
+		ContourTracer tracer;
+		final PackedSetsPoint2D_I32 points = new PackedSetsPoint2D_I32();
+	}
+}
@@ -45,6 +45,10 @@ import boofcv.struct.image.GrayU8;
  *
  * To get the external contours after processing call {@link #getExternalContours()}.
  *
+ * Instead of computing the entire binary image in advance a {@link RowProducer} can be provided which creates rows
+ * in the binary image on demand. Rows are only requested when the scan or a contour trace first needs them, which
+ * lets the thresholding and contour tracing share the same cache lines.
+ *
  * <p>
  * [1] Fu Chang and Chun-jen Chen and Chi-jen Lu, "A linear-time component-labeling algorithm using contour
  * tracing technique" Computer Vision and Image Understanding, 2004<br>
@@ -60,13 +64,23 @@ public class LinearExternalContours {
 	private int minContourLength = 0;
 
 	// adjusts coordinate from binary to output
-	private int adjustX , adjustY;
+	int adjustX , adjustY;
+
+	// number of rows which are requested from the producer at once
+	private int producerBlockRows = 16;
 
 	private Tracer tracer;
-	private PackedSetsPoint2D_I32 storagePoints = new PackedSetsPoint2D_I32();
+	PackedSetsPoint2D_I32 storagePoints = new PackedSetsPoint2D_I32();
+
+	// Creates rows on demand. null if the entire binary image is available
+	RowProducer producer;
+	// Rows in the padded binary image before this one have been created
+	int rowsReady = Integer.MAX_VALUE;
+	// height of the padded binary image being processed
+	int binaryHeight;
 
 	public LinearExternalContours( ConnectRule rule ) {
-		tracer = new Tracer(rule);
+		tracer = new Tracer(rule,storagePoints);
 	}
 
 	/**
@@ -76,9 +90,47 @@ public class LinearExternalContours {
 	 * @param adjustY adjustment applied to coordinate in binary image for contour. 0 or 1 is typical
 	 */
 	public void process( GrayU8 binary , int adjustX , int adjustY ) {
+		this.producer = null;
+		this.rowsReady = Integer.MAX_VALUE;
+		scan(binary, adjustX, adjustY);
+	}
+
+	/**
+	 * Detects contours inside a binary image which is created on demand by the producer. The image has a 1-pixel
+	 * border which is filled in with zeros. Rows are requested in increasing order and only once. The returned
+	 * contours are in the coordinate system of the image without the border.
+	 *
+	 * @param binary Binary image with a 1-pixel border. Will be modified. See class description
+	 * @param producer Writes rows into the binary image, without its border, as they are needed.
+	 */
+	public void process( GrayU8 binary , RowProducer producer ) {
+		this.producer = producer;
+		this.rowsReady = 1;
+		scan(binary, 1, 1);
+		// Finish off the image so that the binary image is complete
+		ensureRowsReady(binaryHeight-1);
+		this.producer = null;
+	}
+
+	/**
+	 * Makes sure all the rows in the padded binary image before 'row' have been created
+	 */
+	void ensureRowsReady( int row ) {
+		if( row <= rowsReady )
+			return;
+		// the last row is part of the border
+		int end = Math.min(binaryHeight-1, Math.max(row, rowsReady+producerBlockRows));
+		if( end <= rowsReady )
+			return;
+		producer.produceRows(rowsReady-1, end-1);
+		rowsReady = end;
+	}
+
+	private void scan( GrayU8 binary , int adjustX , int adjustY ) {
 		// Initialize data structures
 		this.adjustX = adjustX;
 		this.adjustY = adjustY;
+		this.binaryHeight = binary.height;
 		storagePoints.reset();
 		ImageMiscOps.fillBorder(binary, 0, 1);
 
@@ -87,6 +139,9 @@ public class LinearExternalContours {
 
 		// Scan through the image one row at a time looking for pixels with 1
 		for (int y = 1; y < binary.height-1; y++) {
+			// tracing a contour looks at the pixels below it
+			if( y+2 > rowsReady )
+				ensureRowsReady(y+2);
 			int x = 1;
 			int indexBinary = binary.startIndex + y*binary.stride + 1;
 
@@ -159,8 +214,12 @@ public class LinearExternalContours {
 
 		public int maxContourLength = Integer.MAX_VALUE;
 
-		public Tracer(ConnectRule rule) {
+		// where the contour is saved
+		final PackedSetsPoint2D_I32 storagePoints;
+
+		public Tracer(ConnectRule rule, PackedSetsPoint2D_I32 storagePoints) {
 			super(rule);
+			this.storagePoints = storagePoints;
 		}
 
 		public boolean trace( int initialX , int initialY , boolean external )
@@ -299,15 +358,31 @@ public class LinearExternalContours {
 			int a = indexBinary - binary.startIndex;
 			x = a%binary.stride;
 			y = a/binary.stride;
+			// make sure the neighbors below have been created
+			if( y+2 > rowsReady )
+				ensureRowsReady(y+2);
 		}
 	}
 
+	/**
+	 * Creates rows in the binary image on demand
+	 */
+	public interface RowProducer {
+		/**
+		 * Writes rows into the binary image. Coordinates are for the image without its 1-pixel border.
+		 *
+		 * @param y0 First row. Inclusive.
+		 * @param y1 Last row. Exclusive.
+		 */
+		void produceRows( int y0 , int y1 );
+	}
+
 	public ConnectRule getConnectRule() {
 		return tracer.rule;
 	}
 
 	public void setConnectRule( ConnectRule rule ) {
-		tracer = new Tracer(rule);
+		tracer = new Tracer(rule,storagePoints);
 	}
 
 	public PackedSetsPoint2D_I32 getExternalContours() {
@@ -322,6 +397,14 @@ public class LinearExternalContours {
 		this.maxContourLength = maxContourLength;
 	}
 
+	public int getProducerBlockRows() {
+		return producerBlockRows;
+	}
+
+	public void setProducerBlockRows(int producerBlockRows) {
+		this.producerBlockRows = producerBlockRows;
+	}
+
 	public int getMinContourLength() {
 		return minContourLength;
 	}
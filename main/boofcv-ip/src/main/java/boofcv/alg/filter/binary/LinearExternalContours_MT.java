@@ -0,0 +1,124 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.filter.binary;
+
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.ConnectRule;
+import boofcv.struct.PackedSetsPoint2D_I32;
+import boofcv.struct.image.GrayU8;
+import org.ddogleg.struct.FastQueue;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * <p>
+ * Concurrent implementation of {@link LinearExternalContours}. The found contours are identical and in the same
+ * order. Blobs are first found in parallel using {@link ComponentLabelStrips_MT}. The first pixel of each blob is
+ * where the single threaded algorithm would start tracing its external contour. All the external contours are then
+ * traced in parallel.
+ * </p>
+ *
+ * <p>
+ * The input image is still modified, but unlike the single threaded version only pixels along external
+ * contours are marked.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class LinearExternalContours_MT extends LinearExternalContours {
+
+	// Finds blobs
+	ComponentLabelStrips_MT components;
+
+	// Storage for contours traced by each thread
+	FastQueue<TraceWork> workspace = new FastQueue<>(TraceWork::new);
+
+	public LinearExternalContours_MT( ConnectRule rule ) {
+		super(rule);
+		components = new ComponentLabelStrips_MT(rule);
+		components.setAnyNonZero(true);
+		components.setLabelBackground(false);
+	}
+
+	@Override
+	public void process( GrayU8 binary , int adjustX , int adjustY ) {
+		// Initialize data structures
+		this.adjustX = adjustX;
+		this.adjustY = adjustY;
+		storagePoints.reset();
+		ImageMiscOps.fillBorder(binary, 0, 1);
+
+		// Find where each blob starts
+		components.setRule(getConnectRule());
+		components.process(binary);
+
+		// Trace the contours of every blob
+		workspace.reset();
+		BoofConcurrency.loopBlocks(0,components.getNumberOfComponents(),workspace,(work,idx0,idx1)->{
+			if( work.tracer == null || work.rule != getConnectRule() ) {
+				work.rule = getConnectRule();
+				work.tracer = new Tracer(work.rule,work.points);
+			}
+			work.index0 = idx0;
+			work.points.reset();
+			work.tracer.setInputs(binary);
+
+			for (int i = idx0; i < idx1; i++) {
+				int pixel = components.firstPixel.data[i];
+				// It's the first pixel in the blob, so this is always an external contour
+				work.tracer.trace(pixel%binary.width,pixel/binary.width,true);
+				int N = work.points.sizeOfTail();
+				if( N < getMinContourLength() || N >= getMaxContourLength())
+					work.points.removeTail();
+			}
+		});
+
+		// Copy the results in the same order the single threaded algorithm would have found them
+		Arrays.sort(workspace.data,0,workspace.size,Comparator.comparingInt(a->a.index0));
+		for (int i = 0; i < workspace.size; i++) {
+			TraceWork work = workspace.get(i);
+			for (int set = 0; set < work.points.size(); set++) {
+				storagePoints.appendSet(work.points,set);
+			}
+		}
+	}
+
+	/**
+	 * Blobs are found using the entire image, so all the rows are requested from the producer before any contours
+	 * are traced.
+	 */
+	@Override
+	public void process( GrayU8 binary , RowProducer producer ) {
+		producer.produceRows(0, binary.height-2);
+		process(binary, 1, 1);
+	}
+
+	/**
+	 * Contours traced by a single thread
+	 */
+	class TraceWork {
+		// index of the first blob
+		int index0;
+		ConnectRule rule;
+		Tracer tracer;
+		final PackedSetsPoint2D_I32 points = new PackedSetsPoint2D_I32();
+	}
+}
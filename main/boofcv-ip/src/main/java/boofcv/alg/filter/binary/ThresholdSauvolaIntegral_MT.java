@@ -0,0 +1,175 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.filter.binary;
+
+import boofcv.abst.filter.binary.InputToBinary;
+import boofcv.alg.misc.ImageStatistics;
+import boofcv.alg.transform.ii.IntegralImageOps;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.ConfigLength;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.GrayF64;
+import boofcv.struct.image.GrayU8;
+import boofcv.struct.image.ImageType;
+
+/**
+ * Concurrent implementation of {@link ThresholdSauvolaIntegral}.
+ *
+ * @author Peter Abeles
+ */
+@SuppressWarnings("Duplicates")
+public class ThresholdSauvolaIntegral_MT implements InputToBinary<GrayF32> {
+
+	// user specified threshold
+	float k;
+	// size of local region
+	ConfigLength width;
+	// should it threshold down or up
+	boolean down;
+
+	// integral images of I and I^2
+	GrayF64 integral = new GrayF64(1,1);
+	GrayF64 integralSq = new GrayF64(1,1);
+
+	// storage for intermediate results
+	GrayF32 inputMean = new GrayF32(1,1); // local mean of I
+	GrayF32 stdev = new GrayF32(1,1); // computed standard deviation
+
+	/**
+	 * Configures the algorithm.
+	 * @param width size of local region.  Try 31
+	 * @param k User specified threshold adjustment factor.  Must be positive. Try 0.3
+	 * @param down Threshold down or up
+	 */
+	public ThresholdSauvolaIntegral_MT(ConfigLength width, float k, boolean down) {
+		this.k = k;
+		this.width = width;
+		this.down = down;
+	}
+
+	/**
+	 * Converts the input image into a binary image.
+	 *
+	 * @param input Input image.  Not modified.
+	 * @param output Output binary image.  Modified.
+	 */
+	@Override
+	public void process(GrayF32 input , GrayU8 output ) {
+		output.reshape(input.width,input.height);
+		inputMean.reshape(input.width,input.height);
+		stdev.reshape(input.width,input.height);
+
+		int radius = width.computeI(Math.min(input.width,input.height))/2;
+
+		IntegralImageOps.transformWithSquare(input,integral,integralSq);
+
+		// compute the mean and standard deviation inside the region around each pixel
+		BoofConcurrency.loopFor(0, input.height, y -> {
+			// the block's lower extent is exclusive. -1 is outside the image
+			int y0 = Math.max(-1,y-radius-1);
+			int y1 = Math.min(input.height-1,y+radius);
+			int index0 = y0*integral.stride;
+			int index1 = y1*integral.stride;
+			int i = y*stdev.width;
+
+			for (int x = 0; x < input.width; x++, i++) {
+				int x0 = Math.max(-1,x-radius-1);
+				int x1 = Math.min(input.width-1,x+radius);
+
+				double sum = integral.data[index1+x1];
+				double sumSq = integralSq.data[index1+x1];
+				if( x0 >= 0 ) {
+					sum -= integral.data[index1+x0];
+					sumSq -= integralSq.data[index1+x0];
+				}
+				if( y0 >= 0 ) {
+					sum -= integral.data[index0+x1];
+					sumSq -= integralSq.data[index0+x1];
+					if( x0 >= 0 ) {
+						sum += integral.data[index0+x0];
+						sumSq += integralSq.data[index0+x0];
+					}
+				}
+
+				double area = (x1-x0)*(y1-y0);
+				double mean = sum/area;
+				inputMean.data[i] = (float)mean;
+				// standard deviation = sqrt( E[X^2] - E[X]^2)
+				stdev.data[i] = (float)Math.sqrt(Math.max(0.0,sumSq/area - mean*mean));
+			}
+		});
+
+		float R = ImageStatistics.max(stdev);
+
+		if( down ) {
+			BoofConcurrency.loopFor(0, input.height, y -> {
+				int i = y * stdev.width;
+				int indexIn = input.startIndex + y * input.stride;
+				int indexOut = output.startIndex + y * output.stride;
+
+				for (int x = 0; x < input.width; x++, i++) {
+					// threshold = mean.*(1 + k * ((deviation/R)-1));
+					float threshold = inputMean.data[i] * (1.0f + k * (stdev.data[i] / R - 1.0f));
+					output.data[indexOut++] = (byte) (input.data[indexIn++] <= threshold ? 1 : 0);
+				}
+			});
+		} else {
+			BoofConcurrency.loopFor(0, input.height, y -> {
+				int i = y * stdev.width;
+				int indexIn = input.startIndex + y * input.stride;
+				int indexOut = output.startIndex + y * output.stride;
+
+				for (int x = 0; x < input.width; x++, i++) {
+					// threshold = mean.*(1 + k * ((deviation/R)-1));
+					float threshold = inputMean.data[i] * (1.0f + k * (stdev.data[i] / R - 1.0f));
+					output.data[indexOut++] = (byte) (input.data[indexIn++] >= threshold ? 1 : 0);
+				}
+			});
+		}
+	}
+
+	@Override
+	public ImageType<GrayF32> getInputType() {
+		return ImageType.SB_F32;
+	}
+
+	public float getK() {
+		return k;
+	}
+
+	public void setK(float k) {
+		this.k = k;
+	}
+
+	public ConfigLength getWidth() {
+		return width;
+	}
+
+	public void setWidth(ConfigLength width) {
+		this.width = width;
+	}
+
+	public boolean isDown() {
+		return down;
+	}
+
+	public void setDown(boolean down) {
+		this.down = down;
+	}
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -114,7 +114,7 @@ public class BinaryThinning {
 
 				zerosOut.reset();
 				ones1.reset();
-				masks[i].apply(ones0, ones1, zerosOut);
+				applyMask(masks[i], ones0, ones1, zerosOut);
 
 				changed |= ones0.size != ones1.size;
 
@@ -135,6 +135,14 @@ public class BinaryThinning {
 
 	}
 
+	/**
+	 * Applies the mask to all the one valued pixels. The image is not modified, so the pixels can be examined
+	 * in any order.
+	 */
+	protected void applyMask( Mask mask , GrowQueue_I32 onesIn , GrowQueue_I32 onesOut, GrowQueue_I32 zerosOut ) {
+		mask.apply(onesIn, 0, onesIn.size, onesOut, zerosOut);
+	}
+
 	/**
 	 * Scans through the image and record the array index of all marked pixels
 	 */
@@ -168,10 +176,19 @@ public class BinaryThinning {
 		 * @param zerosOut (output) Indexes of pixels whose values have changed form 1 to 0
 		 */
 		public void apply( GrowQueue_I32 onesIn , GrowQueue_I32 onesOut, GrowQueue_I32 zerosOut ) {
+			apply(onesIn, 0, onesIn.size, onesOut, zerosOut);
+		}
+
+		/**
+		 * Applies the mask to elements idx0 (inclusive) to idx1 (exclusive) in onesIn. Only reads from the image,
+		 * so different ranges can be processed at the same time.
+		 */
+		public void apply( GrowQueue_I32 onesIn , int idx0 , int idx1 ,
+						   GrowQueue_I32 onesOut, GrowQueue_I32 zerosOut ) {
 			int w = binary.width-1;
 			int h = binary.height-1;
 
-			for (int i = 0; i < onesIn.size; i++) {
+			for (int i = idx0; i < idx1; i++) {
 				int indexIn = onesIn.get(i);
 				int x = (indexIn - binary.startIndex)% binary.stride;
 				int y = (indexIn - binary.startIndex)/ binary.stride;
@@ -0,0 +1,73 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.filter.binary.impl;
+
+import boofcv.concurrency.BoofConcurrency;
+import org.ddogleg.struct.FastQueue;
+import org.ddogleg.struct.GrowQueue_I32;
+
+import java.util.Arrays;
+import java.util.Comparator;
+
+/**
+ * <p>
+ * Concurrent implementation of {@link BinaryThinning}. Each mask is a sub-iteration which decides which pixels
+ * to remove while only reading the image. The list of one valued pixels is split into blocks which are examined
+ * by different threads. Once every thread has finished the pixels are removed and the next mask is applied.
+ * The blocks are merged in their original order so the results are identical to the single threaded version.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class BinaryThinning_MT extends BinaryThinning {
+
+	// Storage for the results of each thread
+	FastQueue<MaskWork> workspace = new FastQueue<>(MaskWork::new);
+
+	@Override
+	protected void applyMask( Mask mask , GrowQueue_I32 onesIn , GrowQueue_I32 onesOut, GrowQueue_I32 zerosOut ) {
+		workspace.reset();
+		BoofConcurrency.loopBlocks(0,onesIn.size,workspace,(work,idx0,idx1)->{
+			work.index0 = idx0;
+			work.ones.reset();
+			work.zeros.reset();
+			mask.apply(onesIn,idx0,idx1,work.ones,work.zeros);
+		});
+
+		// Workspace elements are not in the same order as the blocks
+		Arrays.sort(workspace.data,0,workspace.size,Comparator.comparingInt(a->a.index0));
+		for (int i = 0; i < workspace.size; i++) {
+			MaskWork work = workspace.get(i);
+			onesOut.addAll(work.ones);
+			zerosOut.addAll(work.zeros);
+		}
+	}
+
+	/**
+	 * Results from applying a mask to a block of pixels
+	 */
+	static class MaskWork {
+		// first element in the block
+		int index0;
+		// pixels which are still one
+		final GrowQueue_I32 ones = new GrowQueue_I32();
+		// pixels which are now zero
+		final GrowQueue_I32 zeros = new GrowQueue_I32();
+	}
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -112,6 +112,45 @@ public class IntegralImageOps {
 		return transformed;
 	}
 
+	/**
+	 * Computes the integral image of the input and the integral image of the input squared in a single pass.
+	 * Double precision is used so that the sum of squares doesn't lose precision or overflow in large images.
+	 *
+	 * @param input Regular image. Not modified.
+	 * @param transformed Integral image of the input. Reshaped. Modified.
+	 * @param transformedSq Integral image of the input squared. Reshaped. Modified.
+	 */
+	public static void transformWithSquare( GrayF32 input , GrayF64 transformed , GrayF64 transformedSq ) {
+		transformed.reshape(input.width,input.height);
+		transformedSq.reshape(input.width,input.height);
+
+		for( int y = 0; y < input.height; y++ ) {
+			int indexSrc = input.startIndex + input.stride*y;
+			int indexDst = transformed.startIndex + transformed.stride*y;
+			int indexDstSq = transformedSq.startIndex + transformedSq.stride*y;
+			int end = indexSrc + input.width;
+
+			double total = 0, totalSq = 0;
+			if( y == 0 ) {
+				for( ; indexSrc < end; indexSrc++ ) {
+					double v = input.data[indexSrc];
+					transformed.data[indexDst++] = total += v;
+					transformedSq.data[indexDstSq++] = totalSq += v*v;
+				}
+			} else {
+				int indexPrev = indexDst - transformed.stride;
+				int indexPrevSq = indexDstSq - transformedSq.stride;
+				for( ; indexSrc < end; indexSrc++ ) {
+					double v = input.data[indexSrc];
+					total += v;
+					totalSq += v*v;
+					transformed.data[indexDst++] = transformed.data[indexPrev++] + total;
+					transformedSq.data[indexDstSq++] = transformedSq.data[indexPrevSq++] + totalSq;
+				}
+			}
+		}
+	}
+
 	/**
 	 * General code for convolving a box filter across an image using the integral image.
 	 *
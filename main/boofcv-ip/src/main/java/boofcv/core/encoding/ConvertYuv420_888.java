@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -20,7 +20,9 @@ package boofcv.core.encoding;
 
 import boofcv.alg.color.ColorFormat;
 import boofcv.concurrency.BWorkArrays;
+import boofcv.concurrency.BoofConcurrency;
 import boofcv.core.encoding.impl.ImplConvertYuv420_888;
+import boofcv.core.encoding.impl.ImplConvertYuv420_888_MT;
 import boofcv.struct.image.*;
 
 import javax.annotation.Nullable;
@@ -134,20 +136,13 @@ public class ConvertYuv420_888
 		}
 		if( workArrays == null )
 			workArrays = new BWorkArrays();
-		workArrays.reset(width);
-		byte[] work = workArrays.pop();
 
-		int indexDst = 0;
-		for (int y = 0, indexRow=0; y < height; y++,indexRow += strideRow) {
-			bufferY.position(indexRow);
-			bufferY.get(work,0,width);
-			for (int x = 0; x < width; x++) {
-				output.data[indexDst++] = work[x]&0xFF;
-			}
+		if( BoofConcurrency.USE_CONCURRENT ) {
+			ImplConvertYuv420_888_MT.yuvToGray(bufferY, width, height, strideRow, workArrays, output);
+		} else {
+			ImplConvertYuv420_888.yuvToGray(bufferY, width, height, strideRow, workArrays, output);
 		}
 
-		workArrays.recycle(work);
-
 		return output;
 	}
 
@@ -167,48 +162,6 @@ public class ConvertYuv420_888
 		return output;
 	}
 
-	public interface ProcessorYuv
-	{
-		void processYUV(final int y , final int u ,final int v );
-	}
-
-	abstract static class ProcessorYuvRgb implements ProcessorYuv
-	{
-		final public void processYUV(final int y , final int u ,final int v ) {
-			int Y = 1191*(y - 16);
-			int CR = u - 128;
-			int CB = v - 128;
-
-			// if( y < 0 ) y = 0;
-			Y = ((Y >>> 31)^1)*Y;
-
-			int r = (Y + 1836*CR) >> 10;
-			int g = (Y - 547*CR - 218*CB) >> 10;
-			int b = (Y + 2165*CB) >> 10;
-
-//				if( r < 0 ) r = 0; else if( r > 255 ) r = 255;
-//				if( g < 0 ) g = 0; else if( g > 255 ) g = 255;
-//				if( b < 0 ) b = 0; else if( b > 255 ) b = 255;
-
-			r *= ((r >>> 31)^1);
-			g *= ((g >>> 31)^1);
-			b *= ((b >>> 31)^1);
-
-			// The bitwise code below isn't faster than than the if statement below
-//				r |= (((255-r) >>> 31)*0xFF);
-//				g |= (((255-g) >>> 31)*0xFF);
-//				b |= (((255-b) >>> 31)*0xFF);
-
-			if( r > 255 ) r = 255;
-			if( g > 255 ) g = 255;
-			if( b > 255 ) b = 255;
-
-			processRGB(r,g,b);
-		}
-
-		public abstract void processRGB(final int r ,final int g , final int b );
-	}
-
 	public static Planar<GrayU8> yuvToPlanarRgbU8(ByteBuffer bufferY, ByteBuffer bufferU , ByteBuffer bufferV  ,
 												  int width, int height, int strideY , int strideUV , int stridePixelUV,
 												  @Nullable Planar<GrayU8> output , @Nullable BWorkArrays workArrays ) {
@@ -219,22 +172,14 @@ public class ConvertYuv420_888
 		}
 		if( workArrays == null )
 			workArrays = new BWorkArrays();
-		final byte[] red = output.getBand(0).data;
-		final byte[] green = output.getBand(1).data;
-		final byte[] blue = output.getBand(2).data;
-
-		ProcessorYuv processor = new ProcessorYuvRgb() {
-			int indexOut = 0;
-
-			@Override
-			public void processRGB( final int r , final int g , final int b ) {
-				red[indexOut] = (byte)r;
-				green[indexOut] = (byte)g;
-				blue[indexOut++] = (byte)b;
-			}
-		};
 
-		ImplConvertYuv420_888.processYuv(bufferY, bufferU, bufferV, width, height, strideY, strideUV, stridePixelUV, workArrays, processor);
+		if( BoofConcurrency.USE_CONCURRENT ) {
+			ImplConvertYuv420_888_MT.yuvToPlanarRgbU8(bufferY, bufferU, bufferV, width, height,
+					strideY, strideUV, stridePixelUV, workArrays, output);
+		} else {
+			ImplConvertYuv420_888.yuvToPlanarRgbU8(bufferY, bufferU, bufferV, width, height,
+					strideY, strideUV, stridePixelUV, workArrays, output);
+		}
 
 		return output;
 	}
@@ -251,27 +196,13 @@ public class ConvertYuv420_888
 		if( workArrays == null )
 			workArrays = new BWorkArrays();
 
-		final float[] red = output.getBand(0).data;
-		final float[] green = output.getBand(1).data;
-		final float[] blue = output.getBand(2).data;
-
-		ProcessorYuv processor = new ProcessorYuvRgb() {
-			int indexOut = 0;
-
-			@Override
-			public void processRGB( final int r , final int g , final int b ) {
-				red[indexOut] = r;
-				green[indexOut] = g;
-				blue[indexOut++] = b;
-			}
-		};
-
-//		if(BoofConcurrency.USE_CONCURRENT) {
-//			ImplConvertYuv420_888_MT.processYuv(bufferY, bufferU, bufferV, width, height, strideY, strideUV, stridePixelUV, workArrays, processor);
-//		} else {
-			ImplConvertYuv420_888.processYuv(bufferY, bufferU, bufferV, width, height, strideY, strideUV, stridePixelUV, workArrays, processor);
-//		}
-
+		if( BoofConcurrency.USE_CONCURRENT ) {
+			ImplConvertYuv420_888_MT.yuvToPlanarRgbF32(bufferY, bufferU, bufferV, width, height,
+					strideY, strideUV, stridePixelUV, workArrays, output);
+		} else {
+			ImplConvertYuv420_888.yuvToPlanarRgbF32(bufferY, bufferU, bufferV, width, height,
+					strideY, strideUV, stridePixelUV, workArrays, output);
+		}
 
 		return output;
 	}
@@ -288,20 +219,13 @@ public class ConvertYuv420_888
 		if( workArrays == null )
 			workArrays = new BWorkArrays();
 
-		InterleavedU8 _output = output;
-
-		ProcessorYuv processor = new ProcessorYuvRgb() {
-			int indexOut = 0;
-
-			@Override
-			public void processRGB( final int r , final int g , final int b ) {
-				_output.data[indexOut++] = (byte)r;
-				_output.data[indexOut++] = (byte)g;
-				_output.data[indexOut++] = (byte)b;
-			}
-		};
-
-		ImplConvertYuv420_888.processYuv(bufferY, bufferU, bufferV, width, height, strideY, strideUV, stridePixelUV, workArrays, processor);
+		if( BoofConcurrency.USE_CONCURRENT ) {
+			ImplConvertYuv420_888_MT.yuvToInterleavedRgbU8(bufferY, bufferU, bufferV, width, height,
+					strideY, strideUV, stridePixelUV, workArrays, output);
+		} else {
+			ImplConvertYuv420_888.yuvToInterleavedRgbU8(bufferY, bufferU, bufferV, width, height,
+					strideY, strideUV, stridePixelUV, workArrays, output);
+		}
 
 		return output;
 	}
@@ -318,20 +242,13 @@ public class ConvertYuv420_888
 		if( workArrays == null )
 			workArrays = new BWorkArrays();
 
-		InterleavedF32 _output = output;
-
-		ProcessorYuv processor = new ProcessorYuvRgb() {
-			int indexOut = 0;
-
-			@Override
-			public void processRGB( final int r , final int g , final int b ) {
-				_output.data[indexOut++] = r;
-				_output.data[indexOut++] = g;
-				_output.data[indexOut++] = b;
-			}
-		};
-
-		ImplConvertYuv420_888.processYuv(bufferY, bufferU, bufferV, width, height, strideY, strideUV, stridePixelUV, workArrays, processor);
+		if( BoofConcurrency.USE_CONCURRENT ) {
+			ImplConvertYuv420_888_MT.yuvToInterleavedRgbF32(bufferY, bufferU, bufferV, width, height,
+					strideY, strideUV, stridePixelUV, workArrays, output);
+		} else {
+			ImplConvertYuv420_888.yuvToInterleavedRgbF32(bufferY, bufferU, bufferV, width, height,
+					strideY, strideUV, stridePixelUV, workArrays, output);
+		}
 
 		return output;
 	}
@@ -348,21 +265,13 @@ public class ConvertYuv420_888
 		if( workArrays == null )
 			workArrays = new BWorkArrays();
 
-		final byte[] dataY = output.getBand(0).data;
-		final byte[] dataU = output.getBand(1).data;
-		final byte[] dataV = output.getBand(2).data;
-
-		ProcessorYuv processor = new ProcessorYuv() {
-			int indexOut = 0;
-			@Override
-			final public void processYUV(final int y, final int u, final int v) {
-				dataY[indexOut] = (byte)y;
-				dataU[indexOut] = (byte)u;
-				dataV[indexOut++] = (byte)v;
-			}
-		};
-
-		ImplConvertYuv420_888.processYuv(bufferY, bufferU, bufferV, width, height, strideY, strideUV, stridePixelUV, workArrays, processor);
+		if( BoofConcurrency.USE_CONCURRENT ) {
+			ImplConvertYuv420_888_MT.yuvToPlanarYuvU8(bufferY, bufferU, bufferV, width, height,
+					strideY, strideUV, stridePixelUV, workArrays, output);
+		} else {
+			ImplConvertYuv420_888.yuvToPlanarYuvU8(bufferY, bufferU, bufferV, width, height,
+					strideY, strideUV, stridePixelUV, workArrays, output);
+		}
 
 		return output;
 	}
@@ -379,19 +288,14 @@ public class ConvertYuv420_888
 		if( workArrays == null )
 			workArrays = new BWorkArrays();
 
-		final byte[] data = output.data;
-
-		ProcessorYuv processor = new ProcessorYuv() {
-			int indexOut = 0;
-			@Override
-			final public void processYUV(final int y, final int u, final int v) {
-				data[indexOut++] = (byte)y;
-				data[indexOut++] = (byte)u;
-				data[indexOut++] = (byte)v;
-			}
-		};
+		if( BoofConcurrency.USE_CONCURRENT ) {
+			ImplConvertYuv420_888_MT.yuvToInterleavedYuvU8(bufferY, bufferU, bufferV, width, height,
+					strideY, strideUV, stridePixelUV, workArrays, output);
+		} else {
+			ImplConvertYuv420_888.yuvToInterleavedYuvU8(bufferY, bufferU, bufferV, width, height,
+					strideY, strideUV, stridePixelUV, workArrays, output);
+		}
 
-		ImplConvertYuv420_888.processYuv(bufferY, bufferU, bufferV, width, height, strideY, strideUV, stridePixelUV, workArrays, processor);
 		return output;
 	}
 }
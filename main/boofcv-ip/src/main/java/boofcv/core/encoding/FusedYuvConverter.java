@@ -0,0 +1,380 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.core.encoding;
+
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.concurrency.IntRangeObjectConsumer;
+import boofcv.core.encoding.impl.ImplConvertYuv420_888;
+import boofcv.struct.image.*;
+import org.ddogleg.struct.FastQueue;
+
+import javax.annotation.Nullable;
+import java.nio.ByteBuffer;
+
+/**
+ * <p>
+ * Converts a YUV 4:2:0 image into several BoofCV images with a single pass through the input. Typically a camera
+ * feed needs a full resolution gray image for processing and a half resolution color image for visualization.
+ * Converting each one separately reads the input multiple times and the half resolution image has to be
+ * created from a full resolution color image. Here the input is processed two rows at a time, which is the
+ * region that shares the same chroma values, and each requested output is written while the data is still
+ * in the cache.
+ * </p>
+ *
+ * <p>
+ * Outputs are requested by assigning an image to the corresponding field. Fields which are null are skipped.
+ * Images are reshaped to the appropriate size. Color images can be {@link Planar} of {@link GrayU8} or
+ * {@link InterleavedU8} and are in RGB order. Half resolution images have the shape given by
+ * {@link boofcv.alg.filter.misc.AverageDownSampleOps#downSampleSize} with a square width of 2. The half
+ * resolution gray image is identical to average down sampling the full resolution gray image. The half
+ * resolution color image is computed from the averaged gray value and the chroma of the 2x2 block, which is
+ * the color that's actually encoded in 4:2:0.
+ * </p>
+ *
+ * <p>
+ * Full resolution outputs are identical to what {@link ConvertNV21}, {@link ConvertYV12}, and
+ * {@link ConvertYuv420_888} produce. If {@link BoofConcurrency#USE_CONCURRENT} is true then blocks of rows
+ * are processed in parallel.
+ * </p>
+ *
+ * @author Peter Abeles
+ */
+public class FusedYuvConverter {
+	/** Full resolution gray image. */
+	public @Nullable GrayU8 gray;
+	/** Full resolution color image. */
+	public @Nullable ImageMultiBand rgb;
+	/** Half resolution gray image. */
+	public @Nullable GrayU8 grayHalf;
+	/** Half resolution color image. */
+	public @Nullable ImageMultiBand rgbHalf;
+
+	// Shape of the input image and the number of bytes between chroma values along a row
+	private int width, height;
+	private int strideC;
+	private Source source;
+
+	private final FastQueue<WorkSpace> workspace = new FastQueue<>(WorkSpace.class, WorkSpace::new);
+	private final ComputeBlock computeBlock = new ComputeBlock();
+
+	public FusedYuvConverter() {
+		workspace.grow();
+	}
+
+	/**
+	 * Converts a NV21 encoded image.
+	 *
+	 * @param data (input) NV21 byte array
+	 * @param width (input) image width
+	 * @param height (input) image height
+	 */
+	public void processNV21( byte[] data, int width, int height ) {
+		final int uvStride = width/2;
+		final int startUV = width*height;
+
+		process(width, height, 2, ( ws, pair ) -> {
+			ws.input = data;
+			ws.indexY0 = 2*pair*width;
+			ws.indexY1 = ws.indexY0 + width;
+			ws.indexCr = startUV + pair*(2*uvStride);
+			ws.indexCb = ws.indexCr + 1;
+		});
+	}
+
+	/**
+	 * Converts a YV12 encoded image.
+	 *
+	 * @param data (input) YV12 byte array
+	 * @param width (input) image width
+	 * @param height (input) image height
+	 */
+	public void processYV12( byte[] data, int width, int height ) {
+		final int uvStride = width/2;
+		final int startU = width*height;
+		final int offsetV = uvStride*(height/2);
+
+		process(width, height, 1, ( ws, pair ) -> {
+			ws.input = data;
+			ws.indexY0 = 2*pair*width;
+			ws.indexY1 = ws.indexY0 + width;
+			ws.indexCb = startU + pair*uvStride;
+			ws.indexCr = ws.indexCb + offsetV;
+		});
+	}
+
+	/**
+	 * Converts a YUV 420 888 encoded image. The chroma planes must be sampled at 1/2 the resolution of
+	 * the gray plane. See {@link ConvertYuv420_888} for a description of the parameters.
+	 * The buffers are not modified.
+	 */
+	public void processYuv420_888( ByteBuffer bufferY, ByteBuffer bufferU, ByteBuffer bufferV,
+								   int width, int height, int strideY, int strideUV, int stridePixelUV ) {
+		if( ImplConvertYuv420_888.periodUV(width, strideUV, stridePixelUV) != 2 )
+			throw new IllegalArgumentException("Chroma planes must be sampled at 1/2 resolution");
+
+		// Number of bytes in each chroma plane's row which are read
+		final int rowBytesUV = ((width+1)/2-1)*stridePixelUV + 1;
+
+		process(width, height, stridePixelUV, ( ws, pair ) -> {
+			if( ws.work.length < 2*width + 2*rowBytesUV ) {
+				ws.work = new byte[2*width + 2*rowBytesUV];
+			}
+			ws.input = ws.work;
+			if( ws.bufferY == null ) {
+				// duplicate so that the position of the user's buffer isn't shared between threads
+				ws.bufferY = bufferY.duplicate();
+				ws.bufferU = bufferU.duplicate();
+				ws.bufferV = bufferV.duplicate();
+			}
+			int row0 = 2*pair;
+			int row1 = Math.min(row0 + 1, height - 1);
+			ws.bufferY.position(row0*strideY);
+			ws.bufferY.get(ws.work, 0, width);
+			ws.bufferY.position(row1*strideY);
+			ws.bufferY.get(ws.work, width, width);
+
+			int positionUV = pair*strideUV;
+			ws.bufferU.position(positionUV);
+			ws.bufferU.get(ws.work, 2*width, Math.min(rowBytesUV, ws.bufferU.limit() - positionUV));
+			ws.bufferV.position(positionUV);
+			ws.bufferV.get(ws.work, 2*width + rowBytesUV, Math.min(rowBytesUV, ws.bufferV.limit() - positionUV));
+
+			ws.indexY0 = 0;
+			ws.indexY1 = width;
+			// Same convention as ConvertYuv420_888, the U plane is used for red
+			ws.indexCr = 2*width;
+			ws.indexCb = 2*width + rowBytesUV;
+		});
+	}
+
+	private void process( int width, int height, int strideC, Source source ) {
+		this.width = width;
+		this.height = height;
+		this.strideC = strideC;
+		this.source = source;
+
+		int halfWidth = width/2 + width%2;
+		int halfHeight = height/2 + height%2;
+
+		if( gray != null )
+			gray.reshape(width, height);
+		if( rgb != null )
+			reshape(rgb, width, height);
+		if( grayHalf != null )
+			grayHalf.reshape(halfWidth, halfHeight);
+		if( rgbHalf != null )
+			reshape(rgbHalf, halfWidth, halfHeight);
+
+		if( BoofConcurrency.USE_CONCURRENT ) {
+			BoofConcurrency.loopBlocks(0, halfHeight, workspace, computeBlock);
+		} else {
+			computeBlock.accept(workspace.get(0), 0, halfHeight);
+		}
+
+		// don't hold onto references to the user's data
+		for (int i = 0; i < workspace.size; i++) {
+			workspace.get(i).release();
+		}
+	}
+
+	private static void reshape( ImageMultiBand image, int width, int height ) {
+		if( image instanceof Planar ) {
+			Planar planar = (Planar)image;
+			if( planar.getBandType() != GrayU8.class )
+				throw new IllegalArgumentException("Planar images must have GrayU8 bands");
+			planar.reshape(width, height, 3);
+		} else if( image instanceof InterleavedU8 ) {
+			((InterleavedU8)image).reshape(width, height, 3);
+		} else {
+			throw new IllegalArgumentException("Color images must be Planar<GrayU8> or InterleavedU8");
+		}
+	}
+
+	/**
+	 * Specifies where the two rows and chroma row for a pair of rows can be found
+	 */
+	private interface Source {
+		void setPair( WorkSpace ws, int pair );
+	}
+
+	private static class WorkSpace {
+		// input data and the location of each row in it
+		byte[] input = new byte[0];
+		int indexY0, indexY1, indexCr, indexCb;
+		// copy of the rows when the input isn't an array
+		byte[] work = new byte[0];
+		// color of each pixel in a row packed into an int
+		int[] rgbRow = new int[0];
+		// duplicates of the 888 buffers
+		@Nullable ByteBuffer bufferY, bufferU, bufferV;
+
+		void release() {
+			input = work;
+			bufferY = bufferU = bufferV = null;
+		}
+	}
+
+	private class ComputeBlock implements IntRangeObjectConsumer<WorkSpace> {
+		@Override
+		public void accept( WorkSpace ws, int pair0, int pair1 ) {
+			if( ws.rgbRow.length < width )
+				ws.rgbRow = new int[width];
+
+			for (int pair = pair0; pair < pair1; pair++) {
+				source.setPair(ws, pair);
+				int row0 = 2*pair;
+				boolean twoRows = row0 + 1 < height;
+
+				if( gray != null ) {
+					System.arraycopy(ws.input, ws.indexY0, gray.data, gray.startIndex + row0*gray.stride, width);
+					if( twoRows )
+						System.arraycopy(ws.input, ws.indexY1, gray.data, gray.startIndex + (row0+1)*gray.stride, width);
+				}
+				if( rgb != null ) {
+					convertRow(ws, ws.indexY0);
+					writeRow(ws.rgbRow, width, rgb, row0);
+					if( twoRows ) {
+						convertRow(ws, ws.indexY1);
+						writeRow(ws.rgbRow, width, rgb, row0 + 1);
+					}
+				}
+				if( grayHalf != null || rgbHalf != null ) {
+					downSampleRow(ws, pair, twoRows);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Converts a row into RGB and saves the results in the work space
+	 */
+	private void convertRow( WorkSpace ws, int indexY ) {
+		final byte[] data = ws.input;
+		final int[] rgbRow = ws.rgbRow;
+		int indexCr = ws.indexCr;
+		int indexCb = ws.indexCb;
+
+		for (int x = 0; x < width; x += 2) {
+			int cr = (data[indexCr] & 0xFF) - 128;
+			int cb = (data[indexCb] & 0xFF) - 128;
+			rgbRow[x] = yuvToRgb(data[indexY++] & 0xFF, cr, cb);
+			if( x + 1 < width )
+				rgbRow[x + 1] = yuvToRgb(data[indexY++] & 0xFF, cr, cb);
+			indexCr += strideC;
+			indexCb += strideC;
+		}
+	}
+
+	/**
+	 * Averages 2x2 blocks in the gray image and converts the block into color
+	 */
+	private void downSampleRow( WorkSpace ws, int pair, boolean twoRows ) {
+		final byte[] data = ws.input;
+		final int[] rgbRow = ws.rgbRow;
+		final int halfWidth = width/2 + width%2;
+		int indexY0 = ws.indexY0;
+		int indexY1 = twoRows ? ws.indexY1 : ws.indexY0;
+		int indexCr = ws.indexCr;
+		int indexCb = ws.indexCb;
+		int indexGray = grayHalf == null ? 0 : grayHalf.startIndex + pair*grayHalf.stride;
+
+		for (int x = 0; x < halfWidth; x++) {
+			int total, count;
+			if( 2*x + 1 < width ) {
+				total = (data[indexY0++] & 0xFF) + (data[indexY0++] & 0xFF);
+				if( twoRows )
+					total += (data[indexY1++] & 0xFF) + (data[indexY1++] & 0xFF);
+				count = twoRows ? 4 : 2;
+			} else {
+				total = data[indexY0] & 0xFF;
+				if( twoRows )
+					total += data[indexY1] & 0xFF;
+				count = twoRows ? 2 : 1;
+			}
+			int value = (total + count/2)/count;
+
+			if( grayHalf != null )
+				grayHalf.data[indexGray++] = (byte)value;
+			if( rgbHalf != null ) {
+				int cr = (data[indexCr] & 0xFF) - 128;
+				int cb = (data[indexCb] & 0xFF) - 128;
+				rgbRow[x] = yuvToRgb(value, cr, cb);
+				indexCr += strideC;
+				indexCb += strideC;
+			}
+		}
+
+		if( rgbHalf != null )
+			writeRow(rgbRow, halfWidth, rgbHalf, pair);
+	}
+
+	/**
+	 * Copies the packed RGB values into the output image
+	 */
+	private static void writeRow( int[] rgbRow, int width, ImageMultiBand output, int row ) {
+		if( output instanceof Planar ) {
+			Planar<GrayU8> planar = (Planar<GrayU8>)output;
+			byte[] red = planar.getBand(0).data;
+			byte[] green = planar.getBand(1).data;
+			byte[] blue = planar.getBand(2).data;
+			int indexOut = planar.startIndex + row*planar.stride;
+			for (int x = 0; x < width; x++, indexOut++) {
+				int rgb = rgbRow[x];
+				red[indexOut] = (byte)(rgb >> 16);
+				green[indexOut] = (byte)(rgb >> 8);
+				blue[indexOut] = (byte)rgb;
+			}
+		} else {
+			InterleavedU8 interleaved = (InterleavedU8)output;
+			byte[] data = interleaved.data;
+			int indexOut = interleaved.startIndex + row*interleaved.stride;
+			for (int x = 0; x < width; x++) {
+				int rgb = rgbRow[x];
+				data[indexOut++] = (byte)(rgb >> 16);
+				data[indexOut++] = (byte)(rgb >> 8);
+				data[indexOut++] = (byte)rgb;
+			}
+		}
+	}
+
+	/**
+	 * Converts a YUV pixel into RGB which is packed into an int as r << 16 | g << 8 | b. Same fixed point
+	 * math as the other YUV converters.
+	 */
+	private static int yuvToRgb( int gray, int cr, int cb ) {
+		int y = 1191*(gray - 16);
+
+		// if( y < 0 ) y = 0;
+		y = ((y >>> 31)^1)*y;
+
+		int r = (y + 1836*cr) >> 10;
+		int g = (y - 547*cr - 218*cb) >> 10;
+		int b = (y + 2165*cb) >> 10;
+
+		r *= ((r >>> 31)^1);
+		g *= ((g >>> 31)^1);
+		b *= ((b >>> 31)^1);
+
+		if( r > 255 ) r = 255;
+		if( g > 255 ) g = 255;
+		if( b > 255 ) b = 255;
+
+		return r << 16 | g << 8 | b;
+	}
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -19,86 +19,311 @@
 package boofcv.core.encoding.impl;
 
 import boofcv.concurrency.BWorkArrays;
-import boofcv.core.encoding.ConvertYuv420_888.ProcessorYuv;
+import boofcv.struct.image.*;
 
 import java.nio.ByteBuffer;
 
-// NOTES:
-// Creating a concurrent version is a bit tricky since the input buffer needs to be locked AND
-// the threads can't share the same processor, since it internally increments the pixel index
+//CONCURRENT_INLINE import boofcv.concurrency.BoofConcurrency;
 
 /**
+ * <p>
+ * Implementations of functions in {@link boofcv.core.encoding.ConvertYuv420_888}. Each row is copied from the
+ * buffers into a work array then converted. To support concurrency each block of rows has its own work array and
+ * duplicates of the buffers, so that the buffer position isn't shared between threads. The caller's buffers
+ * are not modified.
+ * </p>
  *
+ * <p>
+ * Layout of a work array: The Y row is at the start, followed by the U row at strideY, then the V row
+ * at strideY + strideUV.
+ * </p>
  *
  * @author Peter Abeles
  */
 public class ImplConvertYuv420_888 {
-	public static void processYuv(ByteBuffer bufferY, ByteBuffer bufferU , ByteBuffer bufferV  ,
-								  int width, int height, int strideY , int strideUV , int stridePixelUV,
-								  BWorkArrays workArrays, ProcessorYuv processor )
-	{
-		// U and V stride are the same by 420_888 specification
-
+	/**
+	 * Number of pixels along each axis which share the same UV values
+	 */
+	public static int periodUV( int width, int strideUV, int stridePixelUV ) {
 		// not sure the best way to compute this. The width of a plane should be used here and not the stride
 		// but the plane's width isn't specified.
-		int periodUV = (int)Math.round(width/(strideUV/(double)stridePixelUV));
-
-		int workLength = strideY + strideUV + strideUV;
-		workArrays.reset(workLength);
-		byte[] work = workArrays.pop();
-
-		// Index of the start of the row in the buffer
-		int positionY=0,positionUV=0;
-		int rowBytesUV = ((width/periodUV)-1)*stridePixelUV+1;
-
-		// start of each band in the work buffer
-		int offsetU = strideY;
-		int offsetV = strideY + strideUV;
-
-		// save for debugging purposes
-		int totalBytesY = bufferY.limit();
-		int totalBytesU = bufferU.limit();
-		int totalBytesV = bufferV.limit();
-
-		int x=-1,y=-1,indexY=-1,indexU=-1,indexV=-1;
-		try {
-			for (y = 0; y < height; y++) {
-				// Read all the data for this row from each plane
-				bufferY.position(positionY);
-				bufferY.get(work, 0, width);
-				positionY += strideY;
-
-				if (y % periodUV == 0) {
-					bufferU.position(positionUV);
-					bufferU.get(work, offsetU, rowBytesUV);
-					bufferV.position(positionUV);
-					bufferV.get(work, offsetV, rowBytesUV);
-					positionUV += strideUV;
+		return (int)Math.round(width/(strideUV/(double)stridePixelUV));
+	}
+
+	/**
+	 * Copies a row from each plane into the work array. The UV planes are only read if requested since
+	 * multiple rows share the same UV values.
+	 *
+	 * @param readUV If true the UV rows will be read
+	 */
+	static void readRow( ByteBuffer bufferY, ByteBuffer bufferU, ByteBuffer bufferV, int y, boolean readUV,
+						 int width, int strideY, int strideUV, int stridePixelUV, int periodUV, byte[] work ) {
+		bufferY.position(y*strideY);
+		bufferY.get(work, 0, width);
+
+		if( readUV ) {
+			// round up so that the last column has chroma when the width isn't divisible by the period
+			int rowBytesUV = (((width + periodUV - 1)/periodUV)-1)*stridePixelUV+1;
+			int positionUV = (y/periodUV)*strideUV;
+			bufferU.position(positionUV);
+			bufferU.get(work, strideY, Math.min(rowBytesUV, bufferU.limit() - positionUV));
+			bufferV.position(positionUV);
+			bufferV.get(work, strideY + strideUV, Math.min(rowBytesUV, bufferV.limit() - positionUV));
+		}
+	}
+
+	/**
+	 * Converts a YUV pixel into RGB which is packed into an int as r << 16 | g << 8 | b
+	 */
+	static int yuvToRgb( int y, int u, int v ) {
+		int Y = 1191*(y - 16);
+		int CR = u - 128;
+		int CB = v - 128;
+
+		// if( y < 0 ) y = 0;
+		Y = ((Y >>> 31)^1)*Y;
+
+		int r = (Y + 1836*CR) >> 10;
+		int g = (Y - 547*CR - 218*CB) >> 10;
+		int b = (Y + 2165*CB) >> 10;
+
+		r *= ((r >>> 31)^1);
+		g *= ((g >>> 31)^1);
+		b *= ((b >>> 31)^1);
+
+		if( r > 255 ) r = 255;
+		if( g > 255 ) g = 255;
+		if( b > 255 ) b = 255;
+
+		return r << 16 | g << 8 | b;
+	}
+
+	public static void yuvToGray( ByteBuffer bufferY, int width, int height, int strideY,
+								  BWorkArrays workArrays, GrayF32 output ) {
+		workArrays.reset(width);
+
+		//CONCURRENT_BELOW BoofConcurrency.loopBlocks(0, height, (y0,y1) -> {
+		final int y0 = 0, y1 = height;
+		final byte[] work = workArrays.pop();
+		final ByteBuffer bY = bufferY.duplicate();
+		for (int y = y0; y < y1; y++) {
+			bY.position(y*strideY);
+			bY.get(work, 0, width);
+
+			int indexDst = output.startIndex + y*output.stride;
+			for (int x = 0; x < width; x++) {
+				output.data[indexDst++] = work[x]&0xFF;
+			}
+		}
+		workArrays.recycle(work);
+		//CONCURRENT_INLINE });
+	}
+
+	public static void yuvToPlanarRgbU8( ByteBuffer bufferY, ByteBuffer bufferU, ByteBuffer bufferV,
+										 int width, int height, int strideY, int strideUV, int stridePixelUV,
+										 BWorkArrays workArrays, Planar<GrayU8> output ) {
+		final int periodUV = periodUV(width, strideUV, stridePixelUV);
+		workArrays.reset(strideY + 2*strideUV);
+
+		final byte[] red = output.getBand(0).data;
+		final byte[] green = output.getBand(1).data;
+		final byte[] blue = output.getBand(2).data;
+
+		//CONCURRENT_BELOW BoofConcurrency.loopBlocks(0, height, (y0,y1) -> {
+		final int y0 = 0, y1 = height;
+		final byte[] work = workArrays.pop();
+		final ByteBuffer bY = bufferY.duplicate(), bU = bufferU.duplicate(), bV = bufferV.duplicate();
+		for (int y = y0; y < y1; y++) {
+			readRow(bY, bU, bV, y, y == y0 || y%periodUV == 0, width, strideY, strideUV, stridePixelUV, periodUV, work);
+
+			int indexU = strideY;
+			int indexV = strideY + strideUV;
+			int indexOut = output.startIndex + y*output.stride;
+			for (int x = 0, count = 0; x < width; x++, indexOut++) {
+				int rgb = yuvToRgb(work[x] & 0xFF, work[indexU] & 0xFF, work[indexV] & 0xFF);
+				red[indexOut] = (byte)(rgb >> 16);
+				green[indexOut] = (byte)(rgb >> 8);
+				blue[indexOut] = (byte)rgb;
+
+				if( ++count == periodUV ) {
+					count = 0;
+					indexU += stridePixelUV;
+					indexV += stridePixelUV;
+				}
+			}
+		}
+		workArrays.recycle(work);
+		//CONCURRENT_INLINE });
+	}
+
+	public static void yuvToPlanarRgbF32( ByteBuffer bufferY, ByteBuffer bufferU, ByteBuffer bufferV,
+										  int width, int height, int strideY, int strideUV, int stridePixelUV,
+										  BWorkArrays workArrays, Planar<GrayF32> output ) {
+		final int periodUV = periodUV(width, strideUV, stridePixelUV);
+		workArrays.reset(strideY + 2*strideUV);
+
+		final float[] red = output.getBand(0).data;
+		final float[] green = output.getBand(1).data;
+		final float[] blue = output.getBand(2).data;
+
+		//CONCURRENT_BELOW BoofConcurrency.loopBlocks(0, height, (y0,y1) -> {
+		final int y0 = 0, y1 = height;
+		final byte[] work = workArrays.pop();
+		final ByteBuffer bY = bufferY.duplicate(), bU = bufferU.duplicate(), bV = bufferV.duplicate();
+		for (int y = y0; y < y1; y++) {
+			readRow(bY, bU, bV, y, y == y0 || y%periodUV == 0, width, strideY, strideUV, stridePixelUV, periodUV, work);
+
+			int indexU = strideY;
+			int indexV = strideY + strideUV;
+			int indexOut = output.startIndex + y*output.stride;
+			for (int x = 0, count = 0; x < width; x++, indexOut++) {
+				int rgb = yuvToRgb(work[x] & 0xFF, work[indexU] & 0xFF, work[indexV] & 0xFF);
+				red[indexOut] = (rgb >> 16) & 0xFF;
+				green[indexOut] = (rgb >> 8) & 0xFF;
+				blue[indexOut] = rgb & 0xFF;
+
+				if( ++count == periodUV ) {
+					count = 0;
+					indexU += stridePixelUV;
+					indexV += stridePixelUV;
+				}
+			}
+		}
+		workArrays.recycle(work);
+		//CONCURRENT_INLINE });
+	}
+
+	public static void yuvToInterleavedRgbU8( ByteBuffer bufferY, ByteBuffer bufferU, ByteBuffer bufferV,
+											  int width, int height, int strideY, int strideUV, int stridePixelUV,
+											  BWorkArrays workArrays, InterleavedU8 output ) {
+		final int periodUV = periodUV(width, strideUV, stridePixelUV);
+		workArrays.reset(strideY + 2*strideUV);
+
+		//CONCURRENT_BELOW BoofConcurrency.loopBlocks(0, height, (y0,y1) -> {
+		final int y0 = 0, y1 = height;
+		final byte[] work = workArrays.pop();
+		final ByteBuffer bY = bufferY.duplicate(), bU = bufferU.duplicate(), bV = bufferV.duplicate();
+		for (int y = y0; y < y1; y++) {
+			readRow(bY, bU, bV, y, y == y0 || y%periodUV == 0, width, strideY, strideUV, stridePixelUV, periodUV, work);
+
+			int indexU = strideY;
+			int indexV = strideY + strideUV;
+			int indexOut = output.startIndex + y*output.stride;
+			for (int x = 0, count = 0; x < width; x++) {
+				int rgb = yuvToRgb(work[x] & 0xFF, work[indexU] & 0xFF, work[indexV] & 0xFF);
+				output.data[indexOut++] = (byte)(rgb >> 16);
+				output.data[indexOut++] = (byte)(rgb >> 8);
+				output.data[indexOut++] = (byte)rgb;
+
+				if( ++count == periodUV ) {
+					count = 0;
+					indexU += stridePixelUV;
+					indexV += stridePixelUV;
 				}
+			}
+		}
+		workArrays.recycle(work);
+		//CONCURRENT_INLINE });
+	}
+
+	public static void yuvToInterleavedRgbF32( ByteBuffer bufferY, ByteBuffer bufferU, ByteBuffer bufferV,
+											   int width, int height, int strideY, int strideUV, int stridePixelUV,
+											   BWorkArrays workArrays, InterleavedF32 output ) {
+		final int periodUV = periodUV(width, strideUV, stridePixelUV);
+		workArrays.reset(strideY + 2*strideUV);
+
+		//CONCURRENT_BELOW BoofConcurrency.loopBlocks(0, height, (y0,y1) -> {
+		final int y0 = 0, y1 = height;
+		final byte[] work = workArrays.pop();
+		final ByteBuffer bY = bufferY.duplicate(), bU = bufferU.duplicate(), bV = bufferV.duplicate();
+		for (int y = y0; y < y1; y++) {
+			readRow(bY, bU, bV, y, y == y0 || y%periodUV == 0, width, strideY, strideUV, stridePixelUV, periodUV, work);
+
+			int indexU = strideY;
+			int indexV = strideY + strideUV;
+			int indexOut = output.startIndex + y*output.stride;
+			for (int x = 0, count = 0; x < width; x++) {
+				int rgb = yuvToRgb(work[x] & 0xFF, work[indexU] & 0xFF, work[indexV] & 0xFF);
+				output.data[indexOut++] = (rgb >> 16) & 0xFF;
+				output.data[indexOut++] = (rgb >> 8) & 0xFF;
+				output.data[indexOut++] = rgb & 0xFF;
+
+				if( ++count == periodUV ) {
+					count = 0;
+					indexU += stridePixelUV;
+					indexV += stridePixelUV;
+				}
+			}
+		}
+		workArrays.recycle(work);
+		//CONCURRENT_INLINE });
+	}
+
+	public static void yuvToPlanarYuvU8( ByteBuffer bufferY, ByteBuffer bufferU, ByteBuffer bufferV,
+										 int width, int height, int strideY, int strideUV, int stridePixelUV,
+										 BWorkArrays workArrays, Planar<GrayU8> output ) {
+		final int periodUV = periodUV(width, strideUV, stridePixelUV);
+		workArrays.reset(strideY + 2*strideUV);
+
+		final byte[] dataY = output.getBand(0).data;
+		final byte[] dataU = output.getBand(1).data;
+		final byte[] dataV = output.getBand(2).data;
+
+		//CONCURRENT_BELOW BoofConcurrency.loopBlocks(0, height, (y0,y1) -> {
+		final int y0 = 0, y1 = height;
+		final byte[] work = workArrays.pop();
+		final ByteBuffer bY = bufferY.duplicate(), bU = bufferU.duplicate(), bV = bufferV.duplicate();
+		for (int y = y0; y < y1; y++) {
+			readRow(bY, bU, bV, y, y == y0 || y%periodUV == 0, width, strideY, strideUV, stridePixelUV, periodUV, work);
+
+			int indexU = strideY;
+			int indexV = strideY + strideUV;
+			int indexOut = output.startIndex + y*output.stride;
+			System.arraycopy(work, 0, dataY, indexOut, width);
+			for (int x = 0, count = 0; x < width; x++, indexOut++) {
+				dataU[indexOut] = work[indexU];
+				dataV[indexOut] = work[indexV];
+
+				if( ++count == periodUV ) {
+					count = 0;
+					indexU += stridePixelUV;
+					indexV += stridePixelUV;
+				}
+			}
+		}
+		workArrays.recycle(work);
+		//CONCURRENT_INLINE });
+	}
+
+	public static void yuvToInterleavedYuvU8( ByteBuffer bufferY, ByteBuffer bufferU, ByteBuffer bufferV,
+											  int width, int height, int strideY, int strideUV, int stridePixelUV,
+											  BWorkArrays workArrays, InterleavedU8 output ) {
+		final int periodUV = periodUV(width, strideUV, stridePixelUV);
+		workArrays.reset(strideY + 2*strideUV);
 
-				indexY = 0;
-				indexU = offsetU;
-				indexV = offsetV;
+		//CONCURRENT_BELOW BoofConcurrency.loopBlocks(0, height, (y0,y1) -> {
+		final int y0 = 0, y1 = height;
+		final byte[] work = workArrays.pop();
+		final ByteBuffer bY = bufferY.duplicate(), bU = bufferU.duplicate(), bV = bufferV.duplicate();
+		for (int y = y0; y < y1; y++) {
+			readRow(bY, bU, bV, y, y == y0 || y%periodUV == 0, width, strideY, strideUV, stridePixelUV, periodUV, work);
 
-				for (x = 0; x < width; x++, indexY++) {
-					processor.processYUV(work[indexY] & 0xFF, work[indexU] & 0xFF, work[indexV] & 0xFF);
+			int indexU = strideY;
+			int indexV = strideY + strideUV;
+			int indexOut = output.startIndex + y*output.stride;
+			for (int x = 0, count = 0; x < width; x++) {
+				output.data[indexOut++] = work[x];
+				output.data[indexOut++] = work[indexU];
+				output.data[indexOut++] = work[indexV];
 
-					// this is intended to be a fast way to do if a == 0 ? 1 : 0
-					int stepUV = stridePixelUV * ((x + 1) % periodUV == 0 ? 1 : 0);
-					indexU += stepUV;
-					indexV += stepUV;
+				if( ++count == periodUV ) {
+					count = 0;
+					indexU += stridePixelUV;
+					indexV += stridePixelUV;
 				}
 			}
-		} catch( RuntimeException e ) {
-			e.printStackTrace();
-
-			String message = "Crashed in YUV. "+e.getMessage()+" bytes Y="+totalBytesY+" U="+totalBytesU+
-					" V="+totalBytesV+" width="+width+" height="+height+" work.length="+work.length+
-					" strideY="+strideY+" strideUV="+strideUV+" stridePixelUV="+stridePixelUV+" periodUV="+periodUV+
-					" x="+x+" y="+y+" indexY="+indexY+" indexU="+indexU+" indexV="+indexV;
-			throw new RuntimeException(message,e);
-		} finally {
-			workArrays.recycle(work);
 		}
+		workArrays.recycle(work);
+		//CONCURRENT_INLINE });
 	}
 }
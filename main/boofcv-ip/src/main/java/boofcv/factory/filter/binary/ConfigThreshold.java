@@ -72,6 +72,15 @@ public class ConfigThreshold implements Configuration {
 	 */
 	public float nickK = -0.2f;
 
+	/**
+	 * If true then the local mean and variance are computed using integral images. The cost per pixel no longer
+	 * depends on the region's width, which helps when the region is large.
+	 *
+	 * @see ThresholdType#LOCAL_SAVOLA
+	 * @see ThresholdType#LOCAL_NICK
+	 */
+	public boolean useIntegral = false;
+
 	/**
 	 * Minimum pixel value.  Only used for some algorithms.
 	 */
@@ -143,6 +152,7 @@ public class ConfigThreshold implements Configuration {
 		this.width.setTo(src.width);
 		this.savolaK = src.savolaK;
 		this.nickK = src.nickK;
+		this.useIntegral = src.useIntegral;
 		this.minPixelValue = src.minPixelValue;
 		this.maxPixelValue = src.maxPixelValue;
 		this.thresholdFromLocalBlocks = src.thresholdFromLocalBlocks;
@@ -162,6 +172,8 @@ public class ConfigThreshold implements Configuration {
 				", down=" + down +
 				", width=" + width +
 				", savolaK=" + savolaK +
+				", nickK=" + nickK +
+				", useIntegral=" + useIntegral +
 				", minPixelValue=" + minPixelValue +
 				", maxPixelValue=" + maxPixelValue +
 				'}';
@@ -21,6 +21,14 @@ package boofcv.factory.filter.binary;
 import boofcv.abst.filter.binary.BinaryContourFinderLinearExternal;
 import boofcv.abst.filter.binary.BinaryLabelContourFinder;
 import boofcv.abst.filter.binary.BinaryLabelContourFinderChang2004;
+import boofcv.abst.filter.binary.InputToBinary;
+import boofcv.abst.filter.binary.InputToExternalContours;
+import boofcv.alg.filter.binary.ComponentLabelStrips_MT;
+import boofcv.alg.filter.binary.LinearContourLabelChang2004_MT;
+import boofcv.alg.filter.binary.LinearExternalContours;
+import boofcv.alg.filter.binary.LinearExternalContours_MT;
+import boofcv.struct.ConnectRule;
+import boofcv.struct.image.ImageGray;
 
 /**
  * Creates instances of {@link BinaryLabelContourFinder}
@@ -37,6 +45,8 @@ public class FactoryBinaryContourFinder {
 	public static BinaryLabelContourFinder linearChang2004() {
 		if( BOverrideFactoryBinaryContourFinder.chang2004 != null ) {
 			return BOverrideFactoryBinaryContourFinder.chang2004.createChang2004();
+		} else if( ComponentLabelStrips_MT.useConcurrent() ) {
+			return new BinaryLabelContourFinderChang2004(new LinearContourLabelChang2004_MT(ConnectRule.FOUR));
 		} else {
 			return new BinaryLabelContourFinderChang2004();
 		}
@@ -46,6 +56,26 @@ public class FactoryBinaryContourFinder {
 	 * Binary contour finder for external contours only
 	 */
 	public static BinaryContourFinderLinearExternal linearExternal() {
-		return new BinaryContourFinderLinearExternal();
+		if( ComponentLabelStrips_MT.useConcurrent() ) {
+			return new BinaryContourFinderLinearExternal(new LinearExternalContours_MT(ConnectRule.FOUR));
+		} else {
+			return new BinaryContourFinderLinearExternal();
+		}
+	}
+
+	/**
+	 * Thresholds the image and finds external contours in a single stage without an intermediate binary image
+	 *
+	 * @see InputToExternalContours
+	 *
+	 * @param inputToBinary Used to threshold the input image
+	 */
+	public static <T extends ImageGray<T>>
+	InputToExternalContours<T> thresholdExternal( InputToBinary<T> inputToBinary ) {
+		if( ComponentLabelStrips_MT.useConcurrent() ) {
+			return new InputToExternalContours<>(inputToBinary, new LinearExternalContours_MT(ConnectRule.FOUR));
+		} else {
+			return new InputToExternalContours<>(inputToBinary, new LinearExternalContours(ConnectRule.FOUR));
+		}
 	}
 }
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -97,6 +97,55 @@ public class FactoryThresholdBinary {
 		return new InputToBinarySwitch<>(new ThresholdNick(width, k, down),inputType);
 	}
 
+	/**
+	 * Same as {@link #localSauvola} but the local mean and standard deviation are computed using integral
+	 * images. The cost per pixel doesn't depend on the region's width, which makes it a good choice for
+	 * large regions.
+	 *
+	 * @see ThresholdSauvolaIntegral
+	 *
+	 * @param width Width of square region.
+	 * @param down Should it threshold up or down.
+	 * @param k User specified threshold adjustment factor.  Must be positive. Try 0.3
+	 * @param inputType Type of input image
+	 * @return Filter to binary
+	 */
+	public static <T extends ImageGray<T>>
+	InputToBinary<T> localSauvolaIntegral(ConfigLength width, boolean down, float k, Class<T> inputType)
+	{
+		InputToBinary<GrayF32> sauvola;
+		if( BoofConcurrency.USE_CONCURRENT ) {
+			sauvola = new ThresholdSauvolaIntegral_MT(width, k, down);
+		} else {
+			sauvola = new ThresholdSauvolaIntegral(width, k, down);
+		}
+		return new InputToBinarySwitch<>(sauvola,inputType);
+	}
+
+	/**
+	 * Same as {@link #localNick} but the local statistics are computed using integral images. The cost per
+	 * pixel doesn't depend on the region's width, which makes it a good choice for large regions.
+	 *
+	 * @see ThresholdNickIntegral
+	 *
+	 * @param width size of local region.  Try 31
+	 * @param down Should it threshold up or down.
+	 * @param k The Niblack factor. Recommend -0.1 to -0.2
+	 * @param inputType Type of input image
+	 * @return Filter to binary
+	 */
+	public static <T extends ImageGray<T>>
+	InputToBinary<T> localNickIntegral(ConfigLength width, boolean down, float k, Class<T> inputType)
+	{
+		InputToBinary<GrayF32> nick;
+		if( BoofConcurrency.USE_CONCURRENT ) {
+			nick = new ThresholdNickIntegral_MT(width, k, down);
+		} else {
+			nick = new ThresholdNickIntegral(width, k, down);
+		}
+		return new InputToBinarySwitch<>(nick,inputType);
+	}
+
 	/**
 	 * @see boofcv.alg.filter.binary.GThresholdImageOps#localMean
 	 *
@@ -338,9 +387,13 @@ public class FactoryThresholdBinary {
 				return localGaussian(config.width, config.scale, config.down, inputType);
 
 			case LOCAL_SAVOLA:
+				if( config.useIntegral )
+					return localSauvolaIntegral(config.width, config.down, config.savolaK, inputType);
 				return localSauvola(config.width, config.down, config.savolaK, inputType);
 
 			case LOCAL_NICK:
+				if( config.useIntegral )
+					return localNickIntegral(config.width, config.down, config.nickK, inputType);
 				return localNick(config.width, config.down, config.nickK, inputType);
 
 			case LOCAL_MEAN:
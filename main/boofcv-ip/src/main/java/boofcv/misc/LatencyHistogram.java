@@ -0,0 +1,154 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.misc;
+
+import java.util.Arrays;
+
+/**
+ * Histogram of positive integer values, such as elapsed nano seconds, that's used to estimate percentiles.
+ * Bins are spaced logarithmically. Each power of two is split into {@link #SUB_BINS} bins so the relative error of
+ * a percentile is less than 1/{@link #SUB_BINS}. The amount of memory used is fixed and adding a value is O(1).
+ *
+ * @author Peter Abeles
+ */
+public class LatencyHistogram {
+	/** Number of bins each power of two is divided into. Must be a power of two. */
+	public static final int SUB_BINS = 32;
+	private static final int SUB_BITS = Integer.numberOfTrailingZeros(SUB_BINS);
+
+	// number of values in each bin
+	final long[] bins = new long[(64-SUB_BITS)*SUB_BINS];
+
+	// summary statistics of all the values
+	long count;
+	long min, max;
+	double sum;
+
+	public LatencyHistogram() {
+		reset();
+	}
+
+	/**
+	 * Adds a value to the histogram. Negative values are treated as zero.
+	 */
+	public void add( long value ) {
+		if( value < 0 )
+			value = 0;
+		bins[binIndex(value)]++;
+		if( count == 0 ) {
+			min = max = value;
+		} else if( value < min ) {
+			min = value;
+		} else if( value > max ) {
+			max = value;
+		}
+		count++;
+		sum += value;
+	}
+
+	/**
+	 * Estimates the value at the specified percentile. Returns the upper limit of the bin which contains the
+	 * percentile, bounded by the smallest and largest value.
+	 *
+	 * @param fraction percentile from 0.0 to 1.0, e.g. 0.5 = median and 0.99 = p99
+	 * @return Estimated value or zero if the histogram is empty
+	 */
+	public long percentile( double fraction ) {
+		if( fraction < 0 || fraction > 1.0 )
+			throw new IllegalArgumentException("Fraction must be from 0 to 1, inclusive");
+		if( count == 0 )
+			return 0;
+
+		// number of values which need to be less than or equal to the percentile
+		long target = Math.max(1,(long)Math.ceil(fraction*count));
+		long total = 0;
+		for (int i = 0; i < bins.length; i++) {
+			total += bins[i];
+			if( total >= target ) {
+				return Math.max(min,Math.min(max,binUpper(i)));
+			}
+		}
+		return max;
+	}
+
+	/**
+	 * Index of the bin the value belongs to
+	 */
+	static int binIndex( long value ) {
+		if( value < SUB_BINS )
+			return (int)value;
+		// bits after the most significant bit select the sub bin
+		int shift = 63-Long.numberOfLeadingZeros(value)-SUB_BITS;
+		return (shift+1)*SUB_BINS + (int)((value >>> shift) - SUB_BINS);
+	}
+
+	/**
+	 * Largest value which can be inside the bin
+	 */
+	static long binUpper( int index ) {
+		if( index < SUB_BINS )
+			return index;
+		int shift = index/SUB_BINS-1;
+		long lower = (long)(SUB_BINS + index%SUB_BINS) << shift;
+		return lower + ((1L << shift)-1);
+	}
+
+	/**
+	 * Adds all the values in the other histogram to this one
+	 */
+	public void add( LatencyHistogram src ) {
+		if( src.count == 0 )
+			return;
+		for (int i = 0; i < bins.length; i++) {
+			bins[i] += src.bins[i];
+		}
+		if( count == 0 ) {
+			min = src.min;
+			max = src.max;
+		} else {
+			min = Math.min(min,src.min);
+			max = Math.max(max,src.max);
+		}
+		count += src.count;
+		sum += src.sum;
+	}
+
+	public void reset() {
+		Arrays.fill(bins,0);
+		count = 0;
+		min = max = 0;
+		sum = 0;
+	}
+
+	public double getMean() {
+		return count == 0 ? 0.0 : sum/count;
+	}
+
+	public long getCount() {
+		return count;
+	}
+
+	public long getMin() {
+		return min;
+	}
+
+	public long getMax() {
+		return max;
+	}
+}
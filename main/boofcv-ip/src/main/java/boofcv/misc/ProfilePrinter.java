@@ -0,0 +1,69 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.misc;
+
+import java.io.PrintStream;
+
+/**
+ * {@link ProfileRecorder} which prints how long each stage took every time a top level stage finishes. A top
+ * level stage and everything that ran inside of it are printed on a single line in milliseconds, followed by
+ * the last value added to each counter. Used when an algorithm is asked to print its runtime performance.
+ * Statistics are still recorded and can be printed with {@link #printSummary}.
+ *
+ * @author Peter Abeles
+ */
+public class ProfilePrinter extends ProfileRecorder {
+	// Where the results are printed to
+	PrintStream out;
+
+	public ProfilePrinter( PrintStream out ) {
+		this.out = out;
+	}
+
+	@Override
+	public void stopStage() {
+		Stage stage = active;
+		super.stopStage();
+		if( active == root )
+			print(stage, stage.timeStart);
+	}
+
+	/**
+	 * Prints the stage and all of its children which ran after the specified time
+	 */
+	private void print( Stage stage, long timeStart ) {
+		boolean top = stage.parent == root;
+		out.printf(top ? "%s %.2f" : " %s %.2f", stage.name, stage.lastNano*1e-6);
+		for (int i = 0; i < stage.counters.size(); i++) {
+			Counter c = stage.counters.get(i);
+			out.printf(" %s=%d", c.name, c.last);
+		}
+		for (int i = 0; i < stage.children.size(); i++) {
+			Stage child = stage.children.get(i);
+			if( child.timeStart >= timeStart )
+				print(child, timeStart);
+		}
+		if( top )
+			out.println();
+	}
+
+	public PrintStream getOut() {
+		return out;
+	}
+}
@@ -0,0 +1,209 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.misc;
+
+import lombok.Getter;
+
+import javax.annotation.Nullable;
+import java.io.PrintStream;
+import java.util.ArrayList;
+import java.util.List;
+
+/**
+ * Records the latency of each stage in a {@link LatencyHistogram} and the value of every counter. Stages are
+ * organized into a tree using the order in which they are nested. After the first time a stage is seen no memory
+ * is allocated. Not thread safe, each thread should have its own recorder.
+ *
+ * @author Peter Abeles
+ */
+public class ProfileRecorder implements ProfileSink {
+	// Root of the tree. Not an actual stage
+	final Stage root = new Stage("",null);
+
+	// The stage which is currently active
+	Stage active = root;
+
+	@Override
+	public void startStage( String name ) {
+		Stage stage = active.child(name);
+		stage.timeStart = nanoTime();
+		active = stage;
+	}
+
+	@Override
+	public void stopStage() {
+		if( active == root )
+			throw new IllegalStateException("No stage has been started");
+		active.lastNano = nanoTime()-active.timeStart;
+		active.latency.add(active.lastNano);
+		active = active.parent;
+	}
+
+	@Override
+	public void addCount( String name, long amount ) {
+		Counter c = active.counter(name);
+		c.value += amount;
+		c.last = amount;
+	}
+
+	/**
+	 * Source of time in nano seconds
+	 */
+	protected long nanoTime() {
+		return System.nanoTime();
+	}
+
+	/**
+	 * Discards all the recorded values. Stages which are currently active are no longer active.
+	 */
+	public void reset() {
+		root.children.clear();
+		root.counters.clear();
+		active = root;
+	}
+
+	/**
+	 * Returns the stage with the specified path, e.g. "qrcode/decoding", or null if it has never been recorded
+	 */
+	public @Nullable Stage lookup( String path ) {
+		Stage stage = root;
+		int start = 0;
+		while( start <= path.length() ) {
+			int end = path.indexOf('/',start);
+			if( end < 0 )
+				end = path.length();
+			stage = stage.find(path.substring(start,end));
+			if( stage == null )
+				return null;
+			start = end+1;
+		}
+		return stage;
+	}
+
+	/**
+	 * Returns a list of all the stages in depth first order
+	 */
+	public List<Stage> getStages() {
+		List<Stage> list = new ArrayList<>();
+		for (int i = 0; i < root.children.size(); i++) {
+			root.children.get(i).addTo(list);
+		}
+		return list;
+	}
+
+	/**
+	 * Prints a table with latency statistics in milliseconds for each stage followed by its counters
+	 */
+	public void printSummary( PrintStream out ) {
+		out.printf("%-40s %7s %8s %8s %8s %8s\n","stage","count","mean","p50","p99","max");
+		for( Stage s : getStages() ) {
+			LatencyHistogram h = s.latency;
+			out.printf("%-40s %7d %8.3f %8.3f %8.3f %8.3f\n", s.getPath(), h.getCount(), h.getMean()*1e-6,
+					h.percentile(0.5)*1e-6, h.percentile(0.99)*1e-6, h.getMax()*1e-6);
+			for (int i = 0; i < s.counters.size(); i++) {
+				Counter c = s.counters.get(i);
+				out.printf("  %-38s %7d\n",c.name,c.value);
+			}
+		}
+	}
+
+	/**
+	 * Statistics for a single stage
+	 */
+	public static class Stage {
+		/** Name of the stage */
+		@Getter final String name;
+		/** Name of every stage from the root to this one, separated by '/' */
+		@Getter final String path;
+		/** The stage which contains this stage. Null for the root. */
+		final @Nullable Stage parent;
+		/** Latency in nano seconds */
+		@Getter final LatencyHistogram latency = new LatencyHistogram();
+
+		final List<Stage> children = new ArrayList<>();
+		final List<Counter> counters = new ArrayList<>();
+
+		// When the stage was last started
+		long timeStart;
+		/** How long it took the last time it was run. Nano seconds */
+		@Getter long lastNano;
+
+		Stage( String name, @Nullable Stage parent ) {
+			this.name = name;
+			this.parent = parent;
+			this.path = parent == null || parent.parent == null ? name : parent.path+"/"+name;
+		}
+
+		/**
+		 * Returns the value of the counter or zero if it has never been incremented
+		 */
+		public long getCount( String name ) {
+			for (int i = 0; i < counters.size(); i++) {
+				if( counters.get(i).name.equals(name) )
+					return counters.get(i).value;
+			}
+			return 0;
+		}
+
+		@Nullable Stage find( String name ) {
+			for (int i = 0; i < children.size(); i++) {
+				if( children.get(i).name.equals(name) )
+					return children.get(i);
+			}
+			return null;
+		}
+
+		Stage child( String name ) {
+			Stage s = find(name);
+			if( s == null ) {
+				s = new Stage(name,this);
+				children.add(s);
+			}
+			return s;
+		}
+
+		Counter counter( String name ) {
+			for (int i = 0; i < counters.size(); i++) {
+				if( counters.get(i).name.equals(name) )
+					return counters.get(i);
+			}
+			Counter c = new Counter(name);
+			counters.add(c);
+			return c;
+		}
+
+		void addTo( List<Stage> list ) {
+			list.add(this);
+			for (int i = 0; i < children.size(); i++) {
+				children.get(i).addTo(list);
+			}
+		}
+	}
+
+	static class Counter {
+		final String name;
+		long value;
+		// amount which was most recently added
+		long last;
+
+		Counter( String name ) {
+			this.name = name;
+		}
+	}
+}
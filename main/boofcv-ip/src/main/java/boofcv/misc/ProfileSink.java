@@ -0,0 +1,68 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.misc;
+
+/**
+ * Destination for runtime profiling information. An algorithm reports how long each of its processing stages
+ * took and can increment named counters. Stages can be nested, e.g. "qrcode" contains "binary" and "decoding",
+ * and a stage must be stopped before its parent is stopped. What's done with the information is up to the
+ * implementation. By default algorithms use {@link #NONE}, which discards everything and has almost no overhead.
+ *
+ * @see ProfileRecorder
+ *
+ * @author Peter Abeles
+ */
+public interface ProfileSink {
+	/**
+	 * Sink which discards all information
+	 */
+	ProfileSink NONE = new ProfileSink() {
+		@Override public void startStage( String name ) {}
+		@Override public void stopStage() {}
+		@Override public void addCount( String name, long amount ) {}
+		@Override public boolean isEnabled() { return false; }
+	};
+
+	/**
+	 * Start timing a stage. If another stage is active then this stage is nested inside of it.
+	 *
+	 * @param name Name of the stage. Should be a constant to avoid creating garbage.
+	 */
+	void startStage( String name );
+
+	/**
+	 * Stops timing the most recently started stage
+	 */
+	void stopStage();
+
+	/**
+	 * Adds to a counter inside of the currently active stage
+	 *
+	 * @param name Name of the counter
+	 * @param amount How much it's incremented by
+	 */
+	void addCount( String name, long amount );
+
+	/**
+	 * If false then nothing is being recorded and expensive diagnostic computations can be skipped.
+	 */
+	default boolean isEnabled() {
+		return true;
+	}
+}
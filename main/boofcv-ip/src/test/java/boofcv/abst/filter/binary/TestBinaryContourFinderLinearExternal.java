@@ -21,6 +21,7 @@ package boofcv.abst.filter.binary;
 import boofcv.alg.filter.binary.ContourOps;
 import boofcv.alg.filter.binary.ContourPacked;
 import boofcv.alg.filter.binary.LinearContourLabelChang2004;
+import boofcv.alg.filter.binary.LinearExternalContours_MT;
 import boofcv.alg.misc.GImageMiscOps;
 import boofcv.struct.ConnectRule;
 import boofcv.struct.image.GrayS32;
@@ -28,6 +29,7 @@ import boofcv.struct.image.GrayU8;
 import boofcv.testing.BoofTesting;
 import georegression.struct.point.Point2D_I32;
 import org.ddogleg.struct.FastQueue;
+import org.junit.jupiter.api.Nested;
 import org.junit.jupiter.api.Test;
 
 import java.util.List;
@@ -93,4 +95,16 @@ class TestBinaryContourFinderLinearExternal extends GenericBinaryContourFinder
 
 		}
 	}
-}
\ No newline at end of file
+
+	@Nested
+	class Concurrent extends GenericBinaryContourFinder {
+		Concurrent() {
+			super.supportsInternalContour = false;
+		}
+
+		@Override
+		protected BinaryContourFinder create() {
+			return new BinaryContourFinderLinearExternal(new LinearExternalContours_MT(ConnectRule.FOUR));
+		}
+	}
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2018, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -18,6 +18,10 @@
 
 package boofcv.abst.filter.binary;
 
+import boofcv.alg.filter.binary.LinearContourLabelChang2004_MT;
+import boofcv.struct.ConnectRule;
+import org.junit.jupiter.api.Nested;
+
 /**
  * @author Peter Abeles
  */
@@ -27,4 +31,12 @@ public class TestBinaryLabelContourFinderChange2004 extends GenericBinaryLabelCo
 	protected BinaryLabelContourFinder create() {
 		return new BinaryLabelContourFinderChang2004();
 	}
-}
\ No newline at end of file
+
+	@Nested
+	class Concurrent extends GenericBinaryLabelContourFinder {
+		@Override
+		protected BinaryLabelContourFinder create() {
+			return new BinaryLabelContourFinderChang2004(new LinearContourLabelChang2004_MT(ConnectRule.FOUR));
+		}
+	}
+}
@@ -0,0 +1,140 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.abst.filter.binary;
+
+import boofcv.alg.filter.binary.LinearExternalContours;
+import boofcv.alg.filter.binary.LinearExternalContours_MT;
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.factory.filter.binary.FactoryThresholdBinary;
+import boofcv.struct.ConfigLength;
+import boofcv.struct.ConnectRule;
+import boofcv.struct.image.GrayU8;
+import boofcv.testing.BoofTesting;
+import georegression.struct.point.Point2D_I32;
+import org.ddogleg.struct.FastQueue;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+class TestInputToExternalContours {
+	Random rand = BoofTesting.createRandom(0);
+
+	/**
+	 * Compare against thresholding the entire image and then finding contours. Results should be identical
+	 */
+	@Test
+	void compareToSeparateStages_rows() {
+		InputToBinary<GrayU8> threshold = FactoryThresholdBinary.globalFixed(100,true,GrayU8.class);
+		assertTrue(threshold instanceof InputToBinaryRows);
+
+		for( var rule : ConnectRule.values() ) {
+			// try different block sizes, including one which is smaller than the region being traced
+			for( int blockRows : new int[]{1,5,16,1000}) {
+				var alg = new LinearExternalContours(rule);
+				alg.setProducerBlockRows(blockRows);
+				compareToSeparateStages(threshold, new InputToExternalContours<>(threshold,alg), rule);
+			}
+		}
+	}
+
+	/**
+	 * A threshold which must process the entire image at once
+	 */
+	@Test
+	void compareToSeparateStages_image() {
+		InputToBinary<GrayU8> threshold =
+				FactoryThresholdBinary.localMean(ConfigLength.fixed(11),1.0,true,GrayU8.class);
+		assertTrue(!(threshold instanceof InputToBinaryRows));
+
+		for( var rule : ConnectRule.values() ) {
+			compareToSeparateStages(threshold,
+					new InputToExternalContours<>(threshold,new LinearExternalContours(rule)), rule);
+		}
+	}
+
+	@Test
+	void compareToSeparateStages_concurrent() {
+		int before = BoofConcurrency.getMaxThreads();
+		BoofConcurrency.setMaxThreads(4);
+		try {
+			InputToBinary<GrayU8> threshold = FactoryThresholdBinary.globalOtsu(0,255,1.0,true,GrayU8.class);
+			for( var rule : ConnectRule.values() ) {
+				compareToSeparateStages(threshold,
+						new InputToExternalContours<>(threshold,new LinearExternalContours_MT(rule)), rule);
+			}
+		} finally {
+			BoofConcurrency.setMaxThreads(before);
+		}
+	}
+
+	void compareToSeparateStages( InputToBinary<GrayU8> threshold , InputToExternalContours<GrayU8> alg,
+								  ConnectRule rule ) {
+		GrayU8 gray = createImage(120,105);
+
+		var binary = new GrayU8(gray.width,gray.height);
+		var expected = new BinaryContourFinderLinearExternal(new LinearExternalContours(rule));
+		threshold.process(gray,binary);
+		expected.process(binary);
+
+		// process twice to make sure it can be called multiple times
+		for (int trial = 0; trial < 2; trial++) {
+			alg.process(gray);
+
+			assertEquals(expected.getContours().size(), alg.getContours().size());
+			FastQueue<Point2D_I32> contourExpected = new FastQueue<>(Point2D_I32::new);
+			FastQueue<Point2D_I32> contourFound = new FastQueue<>(Point2D_I32::new);
+			for (int i = 0; i < alg.getContours().size(); i++) {
+				expected.loadContour(expected.getContours().get(i).externalIndex, contourExpected);
+				alg.loadContour(alg.getContours().get(i).externalIndex, contourFound);
+				assertEquals(contourExpected.size, contourFound.size);
+				for (int j = 0; j < contourExpected.size; j++) {
+					assertEquals(0, contourExpected.get(j).distance2(contourFound.get(j)));
+				}
+			}
+
+			// every row in the binary image should have been created. Ignore traced pixels, which are negative
+			GrayU8 found = alg.getBinary();
+			for (int y = 0; y < found.height; y++) {
+				for (int x = 0; x < found.width; x++) {
+					assertEquals(binary.get(x,y) != 0, found.get(x,y) != 0);
+				}
+			}
+		}
+	}
+
+	/**
+	 * Creates an image with a mix of noise and large shapes which span many rows
+	 */
+	GrayU8 createImage( int width , int height ) {
+		var gray = new GrayU8(width,height);
+		ImageMiscOps.fillUniform(gray,rand,0,256);
+		ImageMiscOps.fillRectangle(gray,200,0,0,width,10);
+		ImageMiscOps.fillRectangle(gray,5,10,12,30,height-20);
+		ImageMiscOps.fillRectangle(gray,250,15,20,20,height-40);
+		ImageMiscOps.fillRectangle(gray,20,60,30,50,70);
+		return gray;
+	}
+}
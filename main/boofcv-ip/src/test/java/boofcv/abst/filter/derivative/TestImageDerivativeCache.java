@@ -0,0 +1,164 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.abst.filter.derivative;
+
+import boofcv.abst.filter.derivative.ImageDerivativeCache.Term;
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.alg.transform.ii.IntegralImageOps;
+import boofcv.alg.transform.pyramid.PyramidOps;
+import boofcv.factory.filter.derivative.FactoryDerivative;
+import boofcv.factory.transform.pyramid.FactoryPyramid;
+import boofcv.struct.border.BorderType;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.ImageType;
+import boofcv.struct.pyramid.ConfigDiscreteLevels;
+import boofcv.struct.pyramid.PyramidDiscrete;
+import boofcv.testing.BoofTesting;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Peter Abeles
+ */
+class TestImageDerivativeCache {
+
+	Random rand = new Random(234);
+	int width = 60, height = 45;
+
+	ImageGradient<GrayF32,GrayF32> gradient = FactoryDerivative.sobel(GrayF32.class, GrayF32.class);
+	ImageHessian<GrayF32> hessian = FactoryDerivative.hessianSobel(GrayF32.class);
+
+	PyramidDiscrete<GrayF32> pyramid = FactoryPyramid.discreteGaussian(
+			ConfigDiscreteLevels.levels(3),-1,2,false, ImageType.single(GrayF32.class));
+
+	/**
+	 * Compare the cached pyramid and derivatives against computing everything directly
+	 */
+	@Test
+	void compareToDirect_pyramid() {
+		var alg = new ImageDerivativeCache<>(pyramid, gradient, hessian);
+
+		for( int trial = 0; trial < 2; trial++ ) {
+			GrayF32 image = new GrayF32(width+trial*10, height);
+			ImageMiscOps.fillUniform(image, rand, 0, 200);
+			alg.setImage(image);
+
+			pyramid.process(image);
+			assertEquals(pyramid.getNumLayers(), alg.getNumLevels());
+
+			GrayF32[] derivX = PyramidOps.declareOutput(pyramid, gradient.getDerivativeType());
+			GrayF32[] derivY = PyramidOps.declareOutput(pyramid, gradient.getDerivativeType());
+			GrayF32[] derivXX = PyramidOps.declareOutput(pyramid, gradient.getDerivativeType());
+			GrayF32[] derivYY = PyramidOps.declareOutput(pyramid, gradient.getDerivativeType());
+			GrayF32[] derivXY = PyramidOps.declareOutput(pyramid, gradient.getDerivativeType());
+			PyramidOps.gradient(pyramid, gradient, derivX, derivY);
+			PyramidOps.hessian(derivX, derivY, hessian, derivXX, derivYY, derivXY);
+
+			// request hessian first to make sure the gradient is computed on demand
+			for( int level = alg.getNumLevels()-1; level >= 0; level-- ) {
+				BoofTesting.assertEquals(pyramid.getLayer(level), alg.getLevel(level), 1e-4);
+				BoofTesting.assertEquals(derivXY[level], alg.getDerivative(Term.XY, level), 1e-4);
+				BoofTesting.assertEquals(derivXX[level], alg.getDerivative(Term.XX, level), 1e-4);
+				BoofTesting.assertEquals(derivYY[level], alg.getDerivative(Term.YY, level), 1e-4);
+				BoofTesting.assertEquals(derivX[level], alg.getDerivative(Term.X, level), 1e-4);
+				BoofTesting.assertEquals(derivY[level], alg.getDerivative(Term.Y, level), 1e-4);
+			}
+
+			GrayF32[] found = alg.getDerivatives(Term.X);
+			for( int level = 0; level < found.length; level++ ) {
+				BoofTesting.assertEquals(derivX[level], found[level], 1e-4);
+			}
+
+			GrayF32 integral = IntegralImageOps.transform(image, null);
+			BoofTesting.assertEquals(integral, alg.getIntegral(), 1e-2);
+		}
+	}
+
+	/**
+	 * Without a pyramid there should only be one level and it should be the input image
+	 */
+	@Test
+	void noPyramid() {
+		var alg = new ImageDerivativeCache<>(null, gradient, null);
+
+		GrayF32 image = new GrayF32(width, height);
+		ImageMiscOps.fillUniform(image, rand, 0, 200);
+		alg.setImage(image);
+
+		assertNull(alg.getPyramid());
+		assertEquals(1, alg.getNumLevels());
+		assertSame(image, alg.getLevel(0));
+
+		GrayF32 derivX = image.createSameShape();
+		GrayF32 derivY = image.createSameShape();
+		gradient.process(image, derivX, derivY);
+		BoofTesting.assertEquals(derivX, alg.getDerivative(Term.X, 0), 1e-4);
+		BoofTesting.assertEquals(derivY, alg.getDerivative(Term.Y, 0), 1e-4);
+
+		// no hessian was specified
+		assertThrows(IllegalArgumentException.class, () -> alg.getDerivative(Term.XX, 0));
+	}
+
+	/**
+	 * Results should only be computed once per image and recomputed after a new image is set
+	 */
+	@Test
+	void lazyAndStale() {
+		var counter = new CountingGradient();
+		var alg = new ImageDerivativeCache<>(null, counter, null);
+
+		GrayF32 image = new GrayF32(width, height);
+		ImageMiscOps.fillUniform(image, rand, 0, 200);
+		alg.setImage(image);
+		assertEquals(0, counter.count);
+
+		GrayF32 found = alg.getDerivative(Term.X, 0);
+		alg.getDerivative(Term.Y, 0);
+		alg.getDerivatives(Term.X);
+		assertEquals(1, counter.count);
+
+		// modify the image, nothing should change until it's set again
+		ImageMiscOps.fillUniform(image, rand, 0, 200);
+		assertSame(found, alg.getDerivative(Term.X, 0));
+		assertEquals(1, counter.count);
+
+		alg.setImage(image);
+		alg.getDerivative(Term.X, 0);
+		assertEquals(2, counter.count);
+	}
+
+	private class CountingGradient implements ImageGradient<GrayF32,GrayF32> {
+		int count = 0;
+
+		@Override
+		public void process( GrayF32 inputImage, GrayF32 derivX, GrayF32 derivY ) {
+			count++;
+			gradient.process(inputImage, derivX, derivY);
+		}
+
+		@Override public void setBorderType( BorderType type ) {}
+		@Override public BorderType getBorderType() { return gradient.getBorderType(); }
+		@Override public int getBorder() { return gradient.getBorder(); }
+		@Override public ImageType<GrayF32> getDerivativeType() { return gradient.getDerivativeType(); }
+		@Override public ImageType<GrayF32> getInputType() { return gradient.getInputType(); }
+	}
+}
@@ -20,6 +20,7 @@ package boofcv.alg.filter.binary;
 
 import boofcv.alg.filter.binary.impl.CompareToBinaryNaive;
 import boofcv.alg.misc.ImageMiscOps;
+import boofcv.concurrency.BoofConcurrency;
 import boofcv.struct.ConnectRule;
 import boofcv.struct.image.GrayS32;
 import boofcv.struct.image.GrayU8;
@@ -213,6 +214,33 @@ public class TestBinaryImageOps {
 		BoofTesting.assertEquals(expected,output,0);
 	}
 
+	@Test
+	public void labelBlobs() {
+		GrayU8 input = new GrayU8(60,55);
+		ImageMiscOps.fillUniform(input,rand,0,2);
+
+		for( ConnectRule rule : ConnectRule.values() ) {
+			GrayS32 expected = new GrayS32(input.width,input.height);
+			List<Contour> contours = BinaryImageOps.contour(input,rule,expected);
+
+			boolean concurrent = BoofConcurrency.USE_CONCURRENT;
+			int threads = BoofConcurrency.getMaxThreads();
+			try {
+				for( boolean useConcurrent : new boolean[]{false,true} ) {
+					// setMaxThreads() turns concurrency on so it needs to be called first
+					BoofConcurrency.setMaxThreads(4);
+					BoofConcurrency.USE_CONCURRENT = useConcurrent;
+					GrayS32 found = new GrayS32(1,1);
+					assertEquals(contours.size(), BinaryImageOps.labelBlobs(input,rule,found));
+					BoofTesting.assertEquals(expected,found,0);
+				}
+			} finally {
+				BoofConcurrency.USE_CONCURRENT = concurrent;
+				BoofConcurrency.setMaxThreads(threads);
+			}
+		}
+	}
+
 	@Test
 	public void relabel() {
 		GrayS32 input = new GrayS32(4,5);
@@ -0,0 +1,211 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.filter.binary;
+
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.ConnectRule;
+import boofcv.struct.image.GrayS32;
+import boofcv.struct.image.GrayU8;
+import boofcv.testing.BoofTesting;
+import org.ddogleg.struct.GrowQueue_I32;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Peter Abeles
+ */
+class TestComponentLabelStrips_MT {
+	Random rand = BoofTesting.createRandom(0);
+
+	/**
+	 * Compare against a simple flood fill with different numbers of strips
+	 */
+	@Test
+	void compareToFloodFill() {
+		for( ConnectRule rule : new ConnectRule[]{ConnectRule.FOUR,ConnectRule.EIGHT}) {
+			for( int numStrips : new int[]{1,2,7} ) {
+				for (int trial = 0; trial < 5; trial++) {
+					GrayU8 binary = new GrayU8(40+trial,35);
+					ImageMiscOps.fillUniform(binary,rand,0,2);
+					// sub-images should be handled
+					binary = BoofTesting.createSubImageOf(binary);
+
+					var alg = new ComponentLabelStrips_MT(rule);
+					alg.setNumberOfStrips(numStrips);
+					alg.setMinimumStripHeight(1);
+					alg.process(binary);
+
+					compare(binary,rule,true,alg);
+				}
+			}
+		}
+	}
+
+	@Test
+	void ignoreBackground() {
+		GrayU8 binary = new GrayU8(30,32);
+		ImageMiscOps.fillUniform(binary,rand,0,2);
+
+		var alg = new ComponentLabelStrips_MT(ConnectRule.EIGHT);
+		alg.setNumberOfStrips(4);
+		alg.setMinimumStripHeight(1);
+		alg.setLabelBackground(false);
+		alg.process(binary);
+
+		compare(binary,ConnectRule.EIGHT,false,alg);
+	}
+
+	/**
+	 * When anyNonZero is true any value other than zero is foreground
+	 */
+	@Test
+	void anyNonZero() {
+		GrayU8 binary = new GrayU8(30,32);
+		ImageMiscOps.fillUniform(binary,rand,0,2);
+		GrayU8 scaled = binary.clone();
+		for (int i = 0; i < scaled.data.length; i++) {
+			if( scaled.data[i] != 0 )
+				scaled.data[i] = (byte)(1+rand.nextInt(254));
+		}
+
+		var expected = new ComponentLabelStrips_MT(ConnectRule.FOUR);
+		var alg = new ComponentLabelStrips_MT(ConnectRule.FOUR);
+		alg.setAnyNonZero(true);
+		expected.process(binary);
+		alg.process(scaled);
+
+		BoofTesting.assertEquals(expected.getLabels(),alg.getLabels(),0);
+	}
+
+	/**
+	 * Strips are always in order and aren't smaller than the minimum height
+	 */
+	@Test
+	void minimumStripHeight() {
+		GrayU8 binary = new GrayU8(10,35);
+		var alg = new ComponentLabelStrips_MT(ConnectRule.FOUR);
+		alg.setNumberOfStrips(10);
+		alg.setMinimumStripHeight(10);
+		alg.process(binary);
+
+		assertEquals(3,alg.strips.size);
+		assertEquals(0,alg.strips.get(0).y0);
+		assertEquals(35,alg.strips.get(2).y1);
+		assertEquals(1,alg.getNumberOfComponents());
+	}
+
+	/**
+	 * Labels the image one component at a time using a flood fill then checks to see if the two labeled images
+	 * are the same.
+	 */
+	static void compare( GrayU8 binary, ConnectRule rule, boolean labelBackground, ComponentLabelStrips_MT alg ) {
+		GrayS32 expected = new GrayS32(binary.width,binary.height);
+		ImageMiscOps.fill(expected,-1);
+		GrowQueue_I32 first = new GrowQueue_I32();
+		GrowQueue_I32 open = new GrowQueue_I32();
+
+		for (int y = 0; y < binary.height; y++) {
+			for (int x = 0; x < binary.width; x++) {
+				int value = binary.get(x,y);
+				if( expected.get(x,y) != -1 || (value == 0 && !labelBackground))
+					continue;
+
+				boolean eight = (value==1) == (rule==ConnectRule.EIGHT);
+				int label = first.size;
+				first.add(y*binary.width+x);
+				expected.set(x,y,label);
+				open.add(y*binary.width+x);
+				while( open.size > 0 ) {
+					int p = open.removeTail();
+					int px = p%binary.width, py = p/binary.width;
+					for (int dy = -1; dy <= 1; dy++) {
+						for (int dx = -1; dx <= 1; dx++) {
+							if( (dx == 0 && dy == 0) || (!eight && dx != 0 && dy != 0) )
+								continue;
+							int cx = px+dx, cy = py+dy;
+							if( !binary.isInBounds(cx,cy) || binary.get(cx,cy) != value || expected.get(cx,cy) != -1 )
+								continue;
+							expected.set(cx,cy,label);
+							open.add(cy*binary.width+cx);
+						}
+					}
+				}
+			}
+		}
+
+		BoofTesting.assertEquals(expected,alg.getLabels(),0);
+		assertEquals(first.size,alg.getNumberOfComponents());
+		for (int i = 0; i < first.size; i++) {
+			assertEquals(first.get(i),alg.getFirstPixel().get(i));
+			int p = first.get(i);
+			assertEquals(binary.get(p%binary.width,p/binary.width)==1,alg.getForeground().get(i));
+		}
+	}
+
+	/**
+	 * When an output image is passed in the labels should be identical to LinearContourLabelChang2004
+	 */
+	@Test
+	void outputImage_compareToChang2004() {
+		for( ConnectRule rule : new ConnectRule[]{ConnectRule.FOUR,ConnectRule.EIGHT}) {
+			for( int numStrips : new int[]{1,3} ) {
+				GrayU8 binary = new GrayU8(45,38);
+				ImageMiscOps.fillUniform(binary,rand,0,2);
+
+				var chang = new LinearContourLabelChang2004(rule);
+				var expected = new GrayS32(binary.width,binary.height);
+				chang.process(binary,expected);
+
+				var alg = new ComponentLabelStrips_MT(rule);
+				alg.setNumberOfStrips(numStrips);
+				alg.setMinimumStripHeight(1);
+				alg.setLabelBackground(false);
+				// sub-images should be handled
+				GrayS32 found = BoofTesting.createSubImageOf(new GrayS32(binary.width,binary.height));
+				ImageMiscOps.fill(found,-5);
+				alg.process(binary,found);
+
+				assertEquals(chang.getContours().size, alg.getNumberOfComponents());
+				BoofTesting.assertEquals(expected,found,0);
+			}
+		}
+	}
+
+	/**
+	 * It should only be used when concurrency is turned on and more than one thread is available
+	 */
+	@Test
+	void useConcurrent() {
+		int before = BoofConcurrency.getMaxThreads();
+		try {
+			BoofConcurrency.setMaxThreads(4);
+			assertTrue(ComponentLabelStrips_MT.useConcurrent());
+			BoofConcurrency.USE_CONCURRENT = false;
+			assertFalse(ComponentLabelStrips_MT.useConcurrent());
+			BoofConcurrency.setMaxThreads(1);
+			assertFalse(ComponentLabelStrips_MT.useConcurrent());
+		} finally {
+			BoofConcurrency.setMaxThreads(before);
+		}
+	}
+}
@@ -0,0 +1,117 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.filter.binary;
+
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.GrayS32;
+import boofcv.struct.image.GrayU8;
+import boofcv.testing.BoofTesting;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * @author Peter Abeles
+ */
+class TestEuclideanDistanceTransform {
+	Random rand = BoofTesting.createRandom(0);
+
+	/**
+	 * Compare against the distance to every background pixel
+	 */
+	@Test
+	void compareToBruteForce() {
+		// Different densities of background pixels
+		for( double fraction : new double[]{0.001,0.05,0.5} ) {
+			GrayU8 binary = createBinary(37,42,fraction);
+			compareToBruteForce(binary,new EuclideanDistanceTransform());
+		}
+	}
+
+	@Test
+	void subImage() {
+		GrayU8 binary = BoofTesting.createSubImageOf(createBinary(30,25,0.02));
+		compareToBruteForce(binary,new EuclideanDistanceTransform());
+	}
+
+	/**
+	 * Every pixel is one, so there's nothing to measure the distance to
+	 */
+	@Test
+	void noBackground() {
+		GrayU8 binary = new GrayU8(10,12);
+		ImageMiscOps.fill(binary,1);
+
+		var alg = new EuclideanDistanceTransform();
+		GrayF32 distance = new GrayF32(1,1);
+		alg.process(binary,distance);
+		for (int i = 0; i < distance.data.length; i++) {
+			assertEquals(Float.POSITIVE_INFINITY, distance.data[i]);
+		}
+	}
+
+	/**
+	 * A column with no background pixels
+	 */
+	@Test
+	void columnWithNoBackground() {
+		GrayU8 binary = new GrayU8(10,12);
+		ImageMiscOps.fill(binary,1);
+		binary.set(2,5,0);
+		compareToBruteForce(binary,new EuclideanDistanceTransform());
+	}
+
+	GrayU8 createBinary( int width , int height , double fractionZero ) {
+		GrayU8 binary = new GrayU8(width,height);
+		for (int i = 0; i < binary.data.length; i++) {
+			binary.data[i] = (byte)(rand.nextDouble() < fractionZero ? 0 : 1);
+		}
+		// make sure there's at least one zero
+		binary.set(width/2,height/3,0);
+		return binary;
+	}
+
+	static void compareToBruteForce( GrayU8 binary , EuclideanDistanceTransform alg ) {
+		GrayS32 foundSq = new GrayS32(1,1);
+		GrayF32 found = new GrayF32(1,1);
+		alg.processSq(binary,foundSq);
+		alg.process(binary,found);
+
+		assertEquals(binary.width,found.width);
+		assertEquals(binary.height,found.height);
+
+		for (int y = 0; y < binary.height; y++) {
+			for (int x = 0; x < binary.width; x++) {
+				int best = Integer.MAX_VALUE;
+				for (int i = 0; i < binary.height; i++) {
+					for (int j = 0; j < binary.width; j++) {
+						if( binary.get(j,i) != 0 )
+							continue;
+						best = Math.min(best,(x-j)*(x-j) + (y-i)*(y-i));
+					}
+				}
+				assertEquals(best, foundSq.get(x,y));
+				assertEquals(Math.sqrt(best), found.get(x,y), 1e-4);
+			}
+		}
+	}
+}
@@ -0,0 +1,52 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.filter.binary;
+
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.image.GrayU8;
+import boofcv.testing.BoofTesting;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+/**
+ * @author Peter Abeles
+ */
+class TestEuclideanDistanceTransform_MT {
+	Random rand = BoofTesting.createRandom(0);
+
+	@Test
+	void compareToBruteForce() {
+		int before = BoofConcurrency.getMaxThreads();
+		BoofConcurrency.setMaxThreads(4);
+		try {
+			var alg = new EuclideanDistanceTransform_MT();
+			for( double fraction : new double[]{0.002,0.3} ) {
+				GrayU8 binary = new GrayU8(43,37);
+				for (int i = 0; i < binary.data.length; i++) {
+					binary.data[i] = (byte)(rand.nextDouble() < fraction ? 0 : 1);
+				}
+				binary.set(3,4,0);
+				TestEuclideanDistanceTransform.compareToBruteForce(binary,alg);
+			}
+		} finally {
+			BoofConcurrency.setMaxThreads(before);
+		}
+	}
+}
@@ -0,0 +1,141 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.filter.binary;
+
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.struct.ConnectRule;
+import boofcv.struct.PackedSetsPoint2D_I32;
+import boofcv.struct.image.GrayS32;
+import boofcv.struct.image.GrayU8;
+import boofcv.testing.BoofTesting;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * @author Peter Abeles
+ */
+class TestLinearContourLabelChang2004_MT {
+	Random rand = BoofTesting.createRandom(0);
+
+	/**
+	 * Compare against the single threaded version with images that have lots of nested blobs and holes
+	 */
+	@Test
+	void compareToSingle_random() {
+		for( ConnectRule rule : new ConnectRule[]{ConnectRule.FOUR,ConnectRule.EIGHT}) {
+			for( int numStrips : new int[]{1,3,8} ) {
+				for (int trial = 0; trial < 10; trial++) {
+					GrayU8 binary = new GrayU8(30+trial,45);
+					ImageMiscOps.fillUniform(binary,rand,0,2);
+					compare(binary,rule,numStrips,0,Integer.MAX_VALUE,true);
+				}
+			}
+		}
+	}
+
+	@Test
+	void compareToSingle_shapes() {
+		for( ConnectRule rule : new ConnectRule[]{ConnectRule.FOUR,ConnectRule.EIGHT}) {
+			for( GrayU8 binary : new GrayU8[]{TestLinearExternalContours.TEST1,TestLinearExternalContours.TEST2,
+					TestLinearExternalContours.TEST3,TestLinearExternalContours.TEST4}) {
+				compare(binary,rule,3,0,Integer.MAX_VALUE,true);
+				// sub-images should be handled
+				compare(BoofTesting.createSubImageOf(binary),rule,3,0,Integer.MAX_VALUE,true);
+			}
+		}
+	}
+
+	/**
+	 * Contours which are too small, too large, or internal should be discarded the same way
+	 */
+	@Test
+	void compareToSingle_contourSize() {
+		for (int trial = 0; trial < 10; trial++) {
+			GrayU8 binary = new GrayU8(50,45);
+			ImageMiscOps.fillUniform(binary,rand,0,2);
+			compare(binary,ConnectRule.EIGHT,4,4,20,true);
+			compare(binary,ConnectRule.FOUR,4,2,12,false);
+		}
+	}
+
+	/**
+	 * Process images of different sizes with the same instance
+	 */
+	@Test
+	void multipleCalls() {
+		var alg = new LinearContourLabelChang2004_MT(ConnectRule.EIGHT);
+		for (int trial = 0; trial < 4; trial++) {
+			GrayU8 binary = new GrayU8(30+trial*5,35-trial);
+			ImageMiscOps.fillUniform(binary,rand,0,2);
+			compare(binary,alg,new LinearContourLabelChang2004(ConnectRule.EIGHT));
+		}
+		// The image has no blobs
+		compare(new GrayU8(20,25),alg,new LinearContourLabelChang2004(ConnectRule.EIGHT));
+	}
+
+	void compare( GrayU8 binary, ConnectRule rule, int numStrips, int minSize, int maxSize, boolean saveInternal ) {
+		var expected = new LinearContourLabelChang2004(rule);
+		var alg = new LinearContourLabelChang2004_MT(rule);
+		alg.components.setNumberOfStrips(numStrips);
+		alg.components.setMinimumStripHeight(1);
+
+		for( LinearContourLabelChang2004 a : new LinearContourLabelChang2004[]{expected,alg}) {
+			a.setMinContourSize(minSize);
+			a.setMaxContourSize(maxSize);
+			a.setSaveInternalContours(saveInternal);
+		}
+
+		compare(binary,alg,expected);
+	}
+
+	static void compare( GrayU8 binary, LinearContourLabelChang2004 alg, LinearContourLabelChang2004 expected ) {
+		GrayS32 labeledExpected = new GrayS32(1,1);
+		GrayS32 labeledFound = new GrayS32(1,1);
+		GrayU8 original = binary.clone();
+		expected.process(binary,labeledExpected);
+		alg.process(binary,labeledFound);
+
+		// input should not be modified
+		BoofTesting.assertEquals(original,binary,0);
+		BoofTesting.assertEquals(labeledExpected,labeledFound,0);
+
+		assertEquals(expected.getContours().size,alg.getContours().size);
+		for (int i = 0; i < expected.getContours().size; i++) {
+			ContourPacked a = expected.getContours().get(i);
+			ContourPacked b = alg.getContours().get(i);
+			assertEquals(a.id,b.id);
+			assertEquals(a.externalIndex,b.externalIndex);
+			assertEquals(a.internalIndexes.size,b.internalIndexes.size);
+			for (int j = 0; j < a.internalIndexes.size; j++) {
+				assertEquals(a.internalIndexes.get(j),b.internalIndexes.get(j));
+			}
+		}
+		comparePoints(expected.getPackedPoints(),alg.getPackedPoints());
+	}
+
+	static void comparePoints( PackedSetsPoint2D_I32 expected , PackedSetsPoint2D_I32 found ) {
+		assertEquals(expected.size(),found.size());
+		for (int i = 0; i < expected.size(); i++) {
+			assertEquals(expected.getSet(i),found.getSet(i));
+		}
+	}
+}
@@ -0,0 +1,86 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.filter.binary;
+
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.struct.ConnectRule;
+import boofcv.struct.image.GrayU8;
+import boofcv.testing.BoofTesting;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+/**
+ * @author Peter Abeles
+ */
+class TestLinearExternalContours_MT {
+	Random rand = BoofTesting.createRandom(0);
+
+	@Test
+	void compareToSingle_random() {
+		for( ConnectRule rule : new ConnectRule[]{ConnectRule.FOUR,ConnectRule.EIGHT}) {
+			for( int numStrips : new int[]{1,3,8} ) {
+				for (int trial = 0; trial < 10; trial++) {
+					GrayU8 binary = new GrayU8(30+trial,45);
+					ImageMiscOps.fillUniform(binary,rand,0,2);
+					compare(binary,rule,numStrips,0,Integer.MAX_VALUE,1,1);
+				}
+			}
+		}
+	}
+
+	@Test
+	void compareToSingle_shapes() {
+		for( ConnectRule rule : new ConnectRule[]{ConnectRule.FOUR,ConnectRule.EIGHT}) {
+			for( GrayU8 binary : new GrayU8[]{TestLinearExternalContours.TEST1,TestLinearExternalContours.TEST2,
+					TestLinearExternalContours.TEST3,TestLinearExternalContours.TEST4}) {
+				compare(binary,rule,3,0,Integer.MAX_VALUE,0,0);
+				compare(BoofTesting.createSubImageOf(binary),rule,3,0,Integer.MAX_VALUE,1,2);
+			}
+		}
+	}
+
+	@Test
+	void compareToSingle_contourSize() {
+		for (int trial = 0; trial < 10; trial++) {
+			GrayU8 binary = new GrayU8(50,45);
+			ImageMiscOps.fillUniform(binary,rand,0,2);
+			compare(binary,ConnectRule.EIGHT,4,4,20,1,1);
+			compare(binary,ConnectRule.FOUR,4,2,12,1,1);
+		}
+	}
+
+	void compare( GrayU8 binary, ConnectRule rule, int numStrips, int minLength, int maxLength, int adjustX, int adjustY ) {
+		var expected = new LinearExternalContours(rule);
+		var alg = new LinearExternalContours_MT(rule);
+		alg.components.setNumberOfStrips(numStrips);
+		alg.components.setMinimumStripHeight(1);
+
+		for( LinearExternalContours a : new LinearExternalContours[]{expected,alg}) {
+			a.setMinContourLength(minLength);
+			a.setMaxContourLength(maxLength);
+		}
+
+		// the input is modified so each needs its own copy
+		expected.process(binary.clone(),adjustX,adjustY);
+		alg.process(binary.clone(),adjustX,adjustY);
+
+		TestLinearContourLabelChang2004_MT.comparePoints(expected.getExternalContours(),alg.getExternalContours());
+	}
+}
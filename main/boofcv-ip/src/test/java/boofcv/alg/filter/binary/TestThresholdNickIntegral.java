@@ -0,0 +1,99 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.filter.binary;
+
+import boofcv.abst.filter.binary.InputToBinary;
+import boofcv.alg.filter.binary.impl.GenericThresholdCommon;
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.struct.ConfigLength;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.GrayU8;
+import boofcv.testing.BoofTesting;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+/**
+ * @author Peter Abeles
+ */
+class TestThresholdNickIntegral extends GenericThresholdCommon<GrayF32> {
+	Random rand = new Random(234);
+
+	TestThresholdNickIntegral() {
+		super(GrayF32.class);
+	}
+
+	@Override
+	public InputToBinary<GrayF32> createAlg(int requestedBlockWidth, double scale, boolean down) {
+		return new ThresholdNickIntegral(ConfigLength.fixed(requestedBlockWidth), -0.2f,down);
+	}
+
+	public void widthLargerThanImage(){
+		// perfectly acceptable
+	}
+
+	/**
+	 * Pixel values are integers so the sums computed with double precision are exact. Then the threshold
+	 * can be compared for equality.
+	 */
+	@Test
+	void bruteForce() {
+		checkBruteForce(10, 12, 5, -0.2f, true);
+		checkBruteForce(10, 12, 5, -0.2f, false);
+		checkBruteForce(30, 25, 11, -0.1f, true);
+	}
+
+	private void checkBruteForce(int w, int h, int width, float k, boolean down) {
+		GrayF32 input = new GrayF32(w,h);
+		ImageMiscOps.fillUniform(input, rand, 0, 200);
+		for (int i = 0; i < input.data.length; i++) {
+			input.data[i] = (float)Math.floor(input.data[i]);
+		}
+
+		GrayU8 expected = new GrayU8(w,h);
+		GrayU8 found = new GrayU8(w,h);
+
+		int radius = width/2;
+		double NP = width*width;
+		for (int y = 0; y < h; y++) {
+			for (int x = 0; x < w; x++) {
+				int x0 = Math.max(0,x-radius), x1 = Math.min(w,x+radius+1);
+				int y0 = Math.max(0,y-radius), y1 = Math.min(h,y+radius+1);
+
+				double sum = 0, sumSq = 0;
+				for (int i = y0; i < y1; i++) {
+					for (int j = x0; j < x1; j++) {
+						double v = input.get(j,i);
+						sum += v;
+						sumSq += v*v;
+					}
+				}
+				double area = (x1-x0)*(y1-y0);
+				double mean = sum/area;
+				float threshold = (float)(mean + k*Math.sqrt(sumSq/area - mean*mean/NP));
+				float v = input.get(x,y);
+				expected.set(x,y, (down ? v <= threshold : v >= threshold) ? 1 : 0);
+			}
+		}
+
+		new ThresholdNickIntegral(ConfigLength.fixed(width),k,down).process(input,found);
+
+		BoofTesting.assertEquals(expected, found, 0);
+	}
+}
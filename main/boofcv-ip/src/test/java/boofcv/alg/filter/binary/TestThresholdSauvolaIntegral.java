@@ -0,0 +1,127 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.filter.binary;
+
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.alg.misc.ImageStatistics;
+import boofcv.struct.ConfigLength;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.GrayU8;
+import boofcv.testing.BoofTesting;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+class TestThresholdSauvolaIntegral {
+
+	Random rand = new Random(234);
+
+	@Test
+	void bruteForce() {
+		checkBruteForce(10, 12, 5, 0.5f, true);
+		checkBruteForce(10, 12, 5, 0.5f, false);
+		checkBruteForce(30, 25, 11, 0.3f, true);
+		// region is larger than the image
+		checkBruteForce(8, 9, 21, 0.3f, false);
+	}
+
+	/**
+	 * Pixel values are integers so the sums computed with double precision are exact. Then the threshold
+	 * can be compared for equality.
+	 */
+	private void checkBruteForce(int w, int h, int width, float k, boolean down) {
+		GrayU8 expected = new GrayU8(w,h);
+		GrayU8 found = new GrayU8(w,h);
+		GrayF32 input = createInput(w, h);
+
+		GrayF32 mean = new GrayF32(w,h);
+		GrayF32 stdev = new GrayF32(w,h);
+
+		int radius = width/2;
+		for (int y = 0; y < h; y++) {
+			for (int x = 0; x < w; x++) {
+				int x0 = Math.max(0,x-radius), x1 = Math.min(w,x+radius+1);
+				int y0 = Math.max(0,y-radius), y1 = Math.min(h,y+radius+1);
+
+				double sum = 0, sumSq = 0;
+				for (int i = y0; i < y1; i++) {
+					for (int j = x0; j < x1; j++) {
+						double v = input.get(j,i);
+						sum += v;
+						sumSq += v*v;
+					}
+				}
+				double area = (x1-x0)*(y1-y0);
+				double m = sum/area;
+				mean.set(x,y,(float)m);
+				stdev.set(x,y,(float)Math.sqrt(Math.max(0.0,sumSq/area - m*m)));
+			}
+		}
+
+		float R = ImageStatistics.max(stdev);
+
+		for (int y = 0; y < h; y++) {
+			for (int x = 0; x < w; x++) {
+				float threshold = mean.get(x,y) * (1.0f + k * (stdev.get(x,y) / R - 1.0f));
+				int out = down ? (input.get(x,y) <= threshold ? 1 : 0) : (input.get(x,y) >= threshold ? 1 : 0);
+				expected.set(x,y,out);
+			}
+		}
+
+		ThresholdSauvolaIntegral alg = new ThresholdSauvolaIntegral(ConfigLength.fixed(width),k,down);
+		alg.process(input,found);
+
+		BoofTesting.assertEquals(expected, found, 0);
+	}
+
+	/**
+	 * Should be almost identical to the version which uses blur filters. A few pixels which are very close to
+	 * the threshold can flip due to round off error.
+	 */
+	@Test
+	void compareToThresholdSauvola() {
+		GrayF32 input = createInput(80, 70);
+		GrayU8 expected = new GrayU8(input.width,input.height);
+		GrayU8 found = new GrayU8(input.width,input.height);
+
+		new ThresholdSauvola(ConfigLength.fixed(15),0.3f,true).process(input,expected);
+		new ThresholdSauvolaIntegral(ConfigLength.fixed(15),0.3f,true).process(input,found);
+
+		int different = 0;
+		for (int i = 0; i < expected.data.length; i++) {
+			if( expected.data[i] != found.data[i] )
+				different++;
+		}
+		assertTrue(different <= expected.data.length/200);
+	}
+
+	private GrayF32 createInput(int w, int h) {
+		GrayF32 input = new GrayF32(w,h);
+		ImageMiscOps.fillUniform(input, rand, 0, 200);
+		for (int i = 0; i < input.data.length; i++) {
+			input.data[i] = (float)Math.floor(input.data[i]);
+		}
+		return input;
+	}
+}
@@ -0,0 +1,32 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.filter.binary;
+
+import boofcv.struct.ConfigLength;
+import boofcv.struct.image.GrayF32;
+
+class TestThresholdSauvolaIntegral_MT extends GenericInputToBinaryCompare<GrayF32> {
+
+	TestThresholdSauvolaIntegral_MT() {
+		ThresholdSauvolaIntegral_MT target = new ThresholdSauvolaIntegral_MT(ConfigLength.fixed(12), 0.5f,true);
+		ThresholdSauvolaIntegral reference = new ThresholdSauvolaIntegral(ConfigLength.fixed(12), 0.5f,true);
+
+		initialize(target,reference);
+	}
+}
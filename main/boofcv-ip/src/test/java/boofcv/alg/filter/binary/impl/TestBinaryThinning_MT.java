@@ -0,0 +1,67 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.filter.binary.impl;
+
+import boofcv.alg.filter.blur.BlurImageOps;
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.image.GrayU8;
+import boofcv.testing.BoofTesting;
+import org.junit.jupiter.api.Test;
+
+import java.util.Random;
+
+/**
+ * @author Peter Abeles
+ */
+class TestBinaryThinning_MT {
+	Random rand = BoofTesting.createRandom(0);
+
+	/**
+	 * The results should be identical to the single threaded version
+	 */
+	@Test
+	void compareToSingleThread() {
+		int before = BoofConcurrency.getMaxThreads();
+		BoofConcurrency.setMaxThreads(4);
+		try {
+			// Blurred noise creates blobs with a variety of shapes
+			GrayU8 noise = new GrayU8(80,75);
+			ImageMiscOps.fillUniform(noise,rand,0,255);
+			GrayU8 blurred = BlurImageOps.mean(noise,null,3,null,null);
+
+			GrayU8 input = new GrayU8(noise.width,noise.height);
+			for (int i = 0; i < input.data.length; i++) {
+				input.data[i] = (byte)((blurred.data[i]&0xFF) > 127 ? 1 : 0);
+			}
+
+			for( int maxLoops : new int[]{1,3,-1}) {
+				GrayU8 expected = input.clone();
+				GrayU8 found = input.clone();
+
+				new BinaryThinning().apply(expected,maxLoops);
+				new BinaryThinning_MT().apply(found,maxLoops);
+
+				BoofTesting.assertEquals(expected,found,0);
+			}
+		} finally {
+			BoofConcurrency.setMaxThreads(before);
+		}
+	}
+}
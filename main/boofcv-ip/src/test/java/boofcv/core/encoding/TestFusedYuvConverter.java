@@ -0,0 +1,232 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.core.encoding;
+
+import boofcv.alg.color.ColorFormat;
+import boofcv.alg.filter.misc.AverageDownSampleOps;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.image.*;
+import boofcv.testing.BoofTesting;
+import org.junit.jupiter.api.Test;
+
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Peter Abeles
+ */
+class TestFusedYuvConverter {
+	Random rand = new Random(234);
+
+	int[][] shapes = new int[][]{{20, 30}, {21, 30}, {20, 31}, {21, 31}};
+
+	@Test
+	void nv21() {
+		for (int[] shape : shapes) {
+			check(new Nv21Input(shape[0], shape[1]));
+		}
+	}
+
+	@Test
+	void yv12() {
+		for (int[] shape : shapes) {
+			check(new Yv12Input(shape[0], shape[1]));
+		}
+	}
+
+	@Test
+	void yuv420_888() {
+		for (int[] shape : shapes) {
+			check(new Yuv888Input(shape[0], shape[1], 1, 0));
+			check(new Yuv888Input(shape[0], shape[1], 2, 3));
+		}
+	}
+
+	@Test
+	void yuv420_888_fullResolutionChroma() {
+		int width = 20, height = 30;
+		ByteBuffer bufferY = ByteBuffer.wrap(new byte[width*height]);
+		ByteBuffer bufferUV = ByteBuffer.wrap(new byte[width*height]);
+
+		FusedYuvConverter alg = new FusedYuvConverter();
+		alg.gray = new GrayU8(1, 1);
+		assertThrows(IllegalArgumentException.class, () ->
+				alg.processYuv420_888(bufferY, bufferUV, bufferUV, width, height, width, width, 1));
+	}
+
+	/**
+	 * Requesting only some of the outputs should only modify those outputs
+	 */
+	@Test
+	void skipNullOutputs() {
+		Nv21Input input = new Nv21Input(20, 30);
+		FusedYuvConverter alg = new FusedYuvConverter();
+		alg.grayHalf = new GrayU8(1, 1);
+		input.fused(alg);
+
+		assertEquals(10, alg.grayHalf.width);
+		assertEquals(15, alg.grayHalf.height);
+		assertNull(alg.gray);
+		assertNull(alg.rgb);
+		assertNull(alg.rgbHalf);
+	}
+
+	void check( Input input ) {
+		boolean original = BoofConcurrency.USE_CONCURRENT;
+		try {
+			for (boolean concurrent : new boolean[]{false, true}) {
+				BoofConcurrency.USE_CONCURRENT = concurrent;
+				check(input, new Planar<>(GrayU8.class, 1, 1, 3), new Planar<>(GrayU8.class, 1, 1, 3));
+				check(input, new InterleavedU8(1, 1, 3), new InterleavedU8(1, 1, 3));
+			}
+		} finally {
+			BoofConcurrency.USE_CONCURRENT = original;
+		}
+	}
+
+	void check( Input input, ImageMultiBand rgb, ImageMultiBand rgbHalf ) {
+		int width = input.width, height = input.height;
+
+		FusedYuvConverter alg = new FusedYuvConverter();
+		alg.gray = new GrayU8(1, 1);
+		alg.rgb = rgb;
+		alg.grayHalf = new GrayU8(1, 1);
+		alg.rgbHalf = rgbHalf;
+		input.fused(alg);
+
+		// full resolution images should be identical to the non-fused converters
+		GrayU8 expectedGray = new GrayU8(width, height);
+		input.separate(expectedGray);
+		BoofTesting.assertEquals(expectedGray, alg.gray, 0);
+
+		ImageMultiBand expectedRgb = (ImageMultiBand)rgb.createNew(width, height);
+		input.separate(expectedRgb);
+		BoofTesting.assertEquals(expectedRgb, alg.rgb, 0);
+
+		// half resolution gray should be the same as average down sampling
+		GrayU8 expectedHalf = new GrayU8(
+				AverageDownSampleOps.downSampleSize(width, 2), AverageDownSampleOps.downSampleSize(height, 2));
+		AverageDownSampleOps.down(expectedGray, 2, expectedHalf);
+		BoofTesting.assertEquals(expectedHalf, alg.grayHalf, 0);
+
+		// Replace each block with its average then the color of each block will be found by the full
+		// resolution converter
+		input.fillBlocks(expectedHalf);
+		input.separate(expectedRgb);
+		assertEquals(expectedHalf.width, rgbHalf.width);
+		assertEquals(expectedHalf.height, rgbHalf.height);
+		for (int y = 0; y < rgbHalf.height; y++) {
+			for (int x = 0; x < rgbHalf.width; x++) {
+				for (int band = 0; band < 3; band++) {
+					assertEquals(get(expectedRgb, 2*x, 2*y, band), get(rgbHalf, x, y, band));
+				}
+			}
+		}
+		input.restore();
+	}
+
+	private static int get( ImageMultiBand image, int x, int y, int band ) {
+		if( image instanceof Planar )
+			return ((Planar<GrayU8>)image).getBand(band).get(x, y);
+		return ((InterleavedU8)image).getBand(x, y, band);
+	}
+
+	abstract class Input {
+		int width, height;
+		// array containing the gray plane
+		byte[] data;
+		byte[] original;
+		int strideY;
+
+		Input( int width, int height, int strideY, int length ) {
+			this.width = width;
+			this.height = height;
+			this.strideY = strideY;
+			this.data = new byte[length];
+			rand.nextBytes(data);
+			this.original = data.clone();
+		}
+
+		abstract void fused( FusedYuvConverter alg );
+
+		abstract void separate( ImageBase output );
+
+		/**
+		 * Sets every pixel in the gray plane to the value of its block in the half resolution image
+		 */
+		void fillBlocks( GrayU8 half ) {
+			for (int y = 0; y < height; y++) {
+				for (int x = 0; x < width; x++) {
+					data[y*strideY + x] = (byte)half.get(x/2, y/2);
+				}
+			}
+		}
+
+		void restore() {
+			System.arraycopy(original, 0, data, 0, data.length);
+		}
+	}
+
+	class Nv21Input extends Input {
+		Nv21Input( int width, int height ) {super(width, height, width, width*height*2);}
+
+		@Override void fused( FusedYuvConverter alg ) {alg.processNV21(data, width, height);}
+
+		@Override void separate( ImageBase output ) {ConvertNV21.nv21ToBoof(data, width, height, output);}
+	}
+
+	class Yv12Input extends Input {
+		Yv12Input( int width, int height ) {super(width, height, width, width*height*2);}
+
+		@Override void fused( FusedYuvConverter alg ) {alg.processYV12(data, width, height);}
+
+		@Override void separate( ImageBase output ) {ConvertYV12.yu12ToBoof(data, width, height, output);}
+	}
+
+	class Yuv888Input extends Input {
+		ByteBuffer bufferY, bufferU, bufferV;
+		int strideUV, stridePixelUV;
+
+		Yuv888Input( int width, int height, int stridePixelUV, int extra ) {
+			super(width, height, width + extra, (width + extra)*height);
+			this.stridePixelUV = stridePixelUV;
+			this.strideUV = stridePixelUV*(width/2 + width%2) + extra;
+
+			byte[] bandU = new byte[strideUV*(height/2 + height%2)];
+			byte[] bandV = new byte[bandU.length];
+			rand.nextBytes(bandU);
+			rand.nextBytes(bandV);
+
+			bufferY = ByteBuffer.wrap(data);
+			bufferU = ByteBuffer.wrap(bandU);
+			bufferV = ByteBuffer.wrap(bandV);
+		}
+
+		@Override void fused( FusedYuvConverter alg ) {
+			alg.processYuv420_888(bufferY, bufferU, bufferV, width, height, strideY, strideUV, stridePixelUV);
+		}
+
+		@Override void separate( ImageBase output ) {
+			ConvertYuv420_888.yuvToBoof(bufferY, bufferU, bufferV, width, height, strideY, strideUV, stridePixelUV,
+					ColorFormat.RGB, output, null);
+		}
+	}
+}
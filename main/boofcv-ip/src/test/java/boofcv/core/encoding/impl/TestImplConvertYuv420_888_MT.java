@@ -0,0 +1,83 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.core.encoding.impl;
+
+import boofcv.concurrency.BWorkArrays;
+import boofcv.struct.image.*;
+import boofcv.testing.CompareIdenticalFunctions;
+import org.junit.jupiter.api.Test;
+
+import java.lang.reflect.Method;
+import java.nio.ByteBuffer;
+import java.util.Random;
+
+class TestImplConvertYuv420_888_MT extends CompareIdenticalFunctions {
+
+	private Random rand = new Random(234);
+	private int width = 105;
+	private int height = 100;
+	private int stridePixelUV = 2;
+	private int strideY = width + 3;
+	private int strideUV = stridePixelUV*(width/2 + width%2) + 3;
+
+	TestImplConvertYuv420_888_MT() {
+		super(ImplConvertYuv420_888_MT.class, ImplConvertYuv420_888.class);
+	}
+
+	@Test
+	void performTests() {
+		performTests(7);
+	}
+
+	@Override
+	protected Object[][] createInputParam(Method candidate, Method validation) {
+		byte[] gray = new byte[strideY*height];
+		byte[] bandUV = new byte[2*strideUV*(height/2+1)];
+		rand.nextBytes(gray);
+		rand.nextBytes(bandUV);
+
+		ByteBuffer bufferY = ByteBuffer.wrap(gray);
+		ByteBuffer bufferU = ByteBuffer.wrap(bandUV, 0, bandUV.length);
+		ByteBuffer bufferV = ByteBuffer.wrap(bandUV, 1, bandUV.length - 1);
+
+		String name = candidate.getName();
+		if( name.equals("yuvToGray") ) {
+			return new Object[][]{{bufferY, width, height, strideY, new BWorkArrays(), new GrayF32(width, height)}};
+		}
+
+		Class[] type = candidate.getParameterTypes();
+		Class outputType = type[type.length - 1];
+
+		ImageBase output;
+		if( outputType == Planar.class ) {
+			if( name.endsWith("F32") ) {
+				output = new Planar<>(GrayF32.class, width, height, 3);
+			} else {
+				output = new Planar<>(GrayU8.class, width, height, 3);
+			}
+		} else if( outputType == InterleavedU8.class ) {
+			output = new InterleavedU8(width, height, 3);
+		} else {
+			output = new InterleavedF32(width, height, 3);
+		}
+
+		return new Object[][]{{bufferY, bufferU, bufferV, width, height, strideY, strideUV, stridePixelUV,
+				new BWorkArrays(), output}};
+	}
+}
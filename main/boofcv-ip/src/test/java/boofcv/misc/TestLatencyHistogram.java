@@ -0,0 +1,116 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.misc;
+
+import org.junit.jupiter.api.Test;
+
+import java.util.Arrays;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Peter Abeles
+ */
+class TestLatencyHistogram {
+	Random rand = new Random(234);
+
+	/**
+	 * Every value should be inside the bin it's assigned to and bins should be in increasing order
+	 */
+	@Test
+	void binIndex_binUpper() {
+		long previous = -1;
+		for (int i = 0; i < 40*LatencyHistogram.SUB_BINS; i++) {
+			long upper = LatencyHistogram.binUpper(i);
+			assertTrue(upper > previous);
+			assertEquals(i, LatencyHistogram.binIndex(upper));
+			assertEquals(i, LatencyHistogram.binIndex(previous+1));
+			previous = upper;
+		}
+		assertEquals(LatencyHistogram.binIndex(Long.MAX_VALUE)+1, new LatencyHistogram().bins.length);
+	}
+
+	/**
+	 * Compare percentiles against the value found by sorting
+	 */
+	@Test
+	void percentile() {
+		var alg = new LatencyHistogram();
+		long[] values = new long[2000];
+		for (int i = 0; i < values.length; i++) {
+			values[i] = 1000 + (long)(rand.nextDouble()*rand.nextDouble()*5_000_000);
+			alg.add(values[i]);
+		}
+		Arrays.sort(values);
+
+		for( double fraction : new double[]{0.0,0.1,0.5,0.9,0.99,1.0}) {
+			long expected = values[Math.max(0,(int)Math.ceil(fraction*values.length)-1)];
+			long found = alg.percentile(fraction);
+			assertTrue(found >= expected);
+			assertEquals(expected, found, expected/(double)LatencyHistogram.SUB_BINS);
+		}
+		assertEquals(values[0], alg.getMin());
+		assertEquals(values[values.length-1], alg.getMax());
+		assertEquals(values[values.length-1], alg.percentile(1.0));
+		assertEquals(values.length, alg.getCount());
+		assertEquals(Arrays.stream(values).average().getAsDouble(), alg.getMean(), 1e-6);
+	}
+
+	@Test
+	void smallValuesAreExact() {
+		var alg = new LatencyHistogram();
+		for (int i = 0; i < 10; i++) {
+			alg.add(i);
+		}
+		assertEquals(4, alg.percentile(0.5));
+		assertEquals(9, alg.percentile(0.99));
+		assertEquals(0, alg.percentile(0.0));
+	}
+
+	@Test
+	void add_histogram() {
+		var a = new LatencyHistogram();
+		var b = new LatencyHistogram();
+		var expected = new LatencyHistogram();
+		for (int i = 0; i < 100; i++) {
+			long value = rand.nextInt(100_000);
+			(i%2==0?a:b).add(value);
+			expected.add(value);
+		}
+		a.add(b);
+		assertArrayEquals(expected.bins, a.bins);
+		assertEquals(expected.getCount(), a.getCount());
+		assertEquals(expected.getMin(), a.getMin());
+		assertEquals(expected.getMax(), a.getMax());
+		assertEquals(expected.getMean(), a.getMean(), 1e-8);
+	}
+
+	@Test
+	void reset() {
+		var alg = new LatencyHistogram();
+		alg.add(200);
+		alg.reset();
+		assertEquals(0, alg.getCount());
+		assertEquals(0, alg.percentile(0.5));
+		alg.add(50);
+		assertEquals(50, alg.getMin());
+		assertEquals(50, alg.getMax());
+	}
+}
@@ -0,0 +1,78 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.misc;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+
+/**
+ * @author Peter Abeles
+ */
+class TestProfilePrinter {
+	/**
+	 * A line should be printed each time a top level stage finishes and only include stages which ran
+	 */
+	@Test
+	void printEachTopStage() {
+		var stream = new ByteArrayOutputStream();
+		var alg = new FakeClock(new PrintStream(stream));
+
+		alg.startStage("a");
+		alg.time += 1_000_000;
+		alg.startStage("b");
+		alg.time += 2_000_000;
+		alg.addCount("found", 2);
+		alg.stopStage();
+		alg.startStage("c");
+		alg.time += 500_000;
+		alg.stopStage();
+		alg.stopStage();
+
+		alg.startStage("a");
+		alg.startStage("b");
+		alg.time += 1_000_000;
+		alg.addCount("found", 1);
+		alg.stopStage();
+		alg.stopStage();
+
+		String[] lines = stream.toString().split("\\R");
+		assertEquals(2, lines.length);
+		assertEquals("a 3.50 b 2.00 found=2 c 0.50", lines[0]);
+		assertEquals("a 1.00 b 1.00 found=1", lines[1]);
+		// statistics are still recorded
+		assertEquals(3, alg.lookup("a/b").getCount("found"));
+	}
+
+	static class FakeClock extends ProfilePrinter {
+		long time = 0;
+
+		FakeClock( PrintStream out ) {
+			super(out);
+		}
+
+		@Override
+		protected long nanoTime() {
+			return time;
+		}
+	}
+}
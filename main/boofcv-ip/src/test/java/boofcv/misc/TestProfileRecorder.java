@@ -0,0 +1,115 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.misc;
+
+import org.junit.jupiter.api.Test;
+
+import java.io.ByteArrayOutputStream;
+import java.io.PrintStream;
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Peter Abeles
+ */
+class TestProfileRecorder {
+	/**
+	 * Nested stages should create a tree and record the elapsed time of each stage
+	 */
+	@Test
+	void nestedStages() {
+		var alg = new FakeClock();
+
+		for (int trial = 0; trial < 3; trial++) {
+			alg.startStage("a");
+			alg.time += 10;
+			alg.startStage("b");
+			alg.time += 5;
+			alg.addCount("found",2);
+			alg.stopStage();
+			alg.startStage("c");
+			alg.time += 1;
+			alg.stopStage();
+			alg.stopStage();
+		}
+
+		List<ProfileRecorder.Stage> stages = alg.getStages();
+		assertEquals(3, stages.size());
+		assertEquals("a", stages.get(0).getPath());
+		assertEquals("a/b", stages.get(1).getPath());
+		assertEquals("a/c", stages.get(2).getPath());
+
+		assertEquals(3, alg.lookup("a").getLatency().getCount());
+		assertEquals(16, alg.lookup("a").getLatency().percentile(0.5));
+		assertEquals(5, alg.lookup("a/b").getLatency().percentile(0.99));
+		assertEquals(1, alg.lookup("a/c").getLatency().getMax());
+		assertEquals(6, alg.lookup("a/b").getCount("found"));
+		assertEquals(0, alg.lookup("a").getCount("found"));
+		assertNull(alg.lookup("b"));
+		assertNull(alg.lookup("a/d"));
+	}
+
+	@Test
+	void stopWithoutStart() {
+		var alg = new ProfileRecorder();
+		assertThrows(IllegalStateException.class, alg::stopStage);
+	}
+
+	@Test
+	void reset() {
+		var alg = new ProfileRecorder();
+		alg.startStage("a");
+		alg.reset();
+		assertEquals(0, alg.getStages().size());
+		// the stage which was active should be forgotten
+		assertThrows(IllegalStateException.class, alg::stopStage);
+	}
+
+	@Test
+	void printSummary() {
+		var alg = new ProfileRecorder();
+		alg.startStage("foo");
+		alg.addCount("bar",3);
+		alg.stopStage();
+
+		var stream = new ByteArrayOutputStream();
+		alg.printSummary(new PrintStream(stream));
+		String text = stream.toString();
+		assertTrue(text.contains("foo"));
+		assertTrue(text.contains("bar"));
+	}
+
+	@Test
+	void none() {
+		assertFalse(ProfileSink.NONE.isEnabled());
+		assertTrue(new ProfileRecorder().isEnabled());
+		// should do nothing, including not complain about the mismatched stop
+		ProfileSink.NONE.stopStage();
+	}
+
+	static class FakeClock extends ProfileRecorder {
+		long time = 0;
+
+		@Override
+		protected long nanoTime() {
+			return time;
+		}
+	}
+}
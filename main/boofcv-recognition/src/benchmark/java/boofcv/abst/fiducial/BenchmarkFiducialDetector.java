@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -18,6 +18,13 @@
 
 package boofcv.abst.fiducial;
 
+import boofcv.alg.drawing.FiducialImageEngine;
+import boofcv.alg.fiducial.qrcode.QrCode;
+import boofcv.alg.fiducial.qrcode.QrCodeEncoder;
+import boofcv.alg.fiducial.qrcode.QrCodeGeneratorImage;
+import boofcv.alg.fiducial.square.FiducialSquareGenerator;
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.concurrency.BoofConcurrency;
 import boofcv.factory.fiducial.ConfigFiducialBinary;
 import boofcv.factory.fiducial.FactoryFiducial;
 import boofcv.factory.filter.binary.ConfigThreshold;
@@ -27,10 +34,12 @@ import boofcv.io.image.UtilImageIO;
 import boofcv.struct.calib.CameraPinholeBrown;
 import boofcv.struct.image.GrayU8;
 import boofcv.struct.image.ImageGray;
+import org.ddogleg.struct.Factory;
 
 import java.io.File;
 import java.util.ArrayList;
 import java.util.List;
+import java.util.function.Supplier;
 
 /**
  * @author Peter Abeles
@@ -44,6 +53,10 @@ public class BenchmarkFiducialDetector<T extends ImageGray<T>> {
 		this.detector = detector;
 	}
 
+	public void addImage( T image ) {
+		images.add(image);
+	}
+
 	public void addImage( String path ) {
 		T image = (T)UtilImageIO.loadImage(path,detector.getInputType().getImageClass());
 		if( image == null )
@@ -78,7 +91,98 @@ public class BenchmarkFiducialDetector<T extends ImageGray<T>> {
 		System.out.println("FPS = "+benchmark.benchmark(600));
 	}
 
+	/**
+	 * Renders a grid of QR Codes. Simulates a scene with many markers, e.g. a warehouse, where most of the time
+	 * is spent decoding candidates.
+	 */
+	private static GrayU8 renderQrCodes( int rows , int cols ) {
+		int spacing = 150;
+		GrayU8 image = new GrayU8(cols*spacing+20,rows*spacing+20);
+		ImageMiscOps.fill(image,255);
+		for (int i = 0; i < rows*cols; i++) {
+			QrCode qr = new QrCodeEncoder().setVersion(2).addAutomatic("box "+i).fixate();
+			GrayU8 marker = new QrCodeGeneratorImage(4).render(qr).getGray();
+			int x0 = 10 + (i%cols)*spacing, y0 = 10 + (i/cols)*spacing;
+			image.subimage(x0,y0,x0+marker.width,y0+marker.height).setTo(marker);
+		}
+		return image;
+	}
+
+	/**
+	 * Renders a grid of square binary fiducials
+	 */
+	private static GrayU8 renderSquareBinary( int rows , int cols ) {
+		int spacing = 150;
+		int markerWidth = 120;
+		GrayU8 image = new GrayU8(cols*spacing+20,rows*spacing+20);
+		ImageMiscOps.fill(image,255);
+
+		FiducialImageEngine render = new FiducialImageEngine();
+		render.configure(0,markerWidth);
+		FiducialSquareGenerator generator = new FiducialSquareGenerator(render);
+		generator.setMarkerWidth(markerWidth);
+		for (int i = 0; i < rows*cols; i++) {
+			generator.generate(i,4);
+			int x0 = 10 + (i%cols)*spacing, y0 = 10 + (i/cols)*spacing;
+			image.subimage(x0,y0,x0+markerWidth,y0+markerWidth).setTo(render.getGray());
+		}
+		return image;
+	}
+
+	/**
+	 * Processes the same image with an increasing number of threads to see how well it scales
+	 */
+	private static void scaling( String name , GrayU8 image , Supplier<FiducialDetector<GrayU8>> factory ) {
+		int maxThreads = Runtime.getRuntime().availableProcessors();
+		for (int threads = 1; threads <= maxThreads; threads *= 2 ) {
+			// the detector needs to be created after the number of threads has been set
+			BoofConcurrency.setMaxThreads(threads);
+			BenchmarkFiducialDetector<GrayU8> benchmark = new BenchmarkFiducialDetector<>(factory.get());
+			benchmark.addImage(image);
+			benchmark.benchmark(5); // warm up
+			System.out.printf("%-14s threads=%2d found=%3d FPS = %6.2f\n",
+					name,threads,benchmark.detector.totalFound(),benchmark.benchmark(40));
+		}
+	}
+
+	/**
+	 * Processes a batch of images with {@link FiducialDetectorBatch} using an increasing number of threads and
+	 * reports the throughput in images per second
+	 */
+	private static void batch( String name , GrayU8 image , int numImages , Factory<FiducialDetector<GrayU8>> factory ) {
+		List<GrayU8> images = new ArrayList<>();
+		for (int i = 0; i < numImages; i++) {
+			images.add(image);
+		}
+
+		// Each image is processed by a single thread
+		BoofConcurrency.setMaxThreads(1);
+		int maxThreads = Runtime.getRuntime().availableProcessors();
+		for (int threads = 1; threads <= maxThreads; threads *= 2 ) {
+			FiducialDetectorBatch<GrayU8,GrayU8> batch =
+					new FiducialDetectorBatch<>(factory,(src,storage)->src,threads,threads*4);
+			batch.process(images.subList(0,Math.min(numImages,threads*4)).iterator(),results->{}); // warm up
+
+			int[] found = new int[1];
+			long before = System.nanoTime();
+			batch.process(images.iterator(),results->found[0] += results.detections.size);
+			double seconds = (System.nanoTime()-before)/1e9;
+			System.out.printf("%-14s batch threads=%2d found=%5d images/s = %6.2f\n",
+					name,threads,found[0],numImages/seconds);
+		}
+	}
+
 	public static void main(String[] args) {
+		scaling("QR Code", renderQrCodes(8,8),
+				()->FactoryFiducial.qrcode3D(null,GrayU8.class));
+		scaling("Square Binary", renderSquareBinary(8,8),
+				()->FactoryFiducial.squareBinary(new ConfigFiducialBinary(0.2), ConfigThreshold.fixed(100) , GrayU8.class));
+
+		batch("QR Code", renderQrCodes(3,3), 200,
+				()->FactoryFiducial.qrcode3D(null,GrayU8.class));
+		batch("Square Binary", renderSquareBinary(3,3), 200,
+				()->FactoryFiducial.squareBinary(new ConfigFiducialBinary(0.2), ConfigThreshold.fixed(100) , GrayU8.class));
+
 		String directory = UtilIO.pathExample("fiducial/binary/");
 
 		FiducialDetector detector = FactoryFiducial.squareBinary(
@@ -0,0 +1,287 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.abst.fiducial;
+
+import boofcv.struct.image.ImageBase;
+import georegression.struct.point.Point2D_F64;
+import georegression.struct.se.Se3_F64;
+import georegression.struct.shapes.Polygon2D_F64;
+import lombok.Getter;
+import org.ddogleg.struct.Factory;
+import org.ddogleg.struct.FastQueue;
+
+import javax.annotation.Nullable;
+import java.util.ArrayDeque;
+import java.util.Iterator;
+import java.util.concurrent.*;
+
+/**
+ * <p>
+ * Detects fiducials in a large number of images, e.g. an offline job which scans an archive for QR Codes.
+ * Images are processed in parallel by a pool of threads where each thread has its own detector and image
+ * storage. For each image, a thread loads it and then runs the detector on it. With many images in flight,
+ * loading one image overlaps with detection in another.
+ * </p>
+ *
+ * <p>
+ * Results are passed to the {@link ResultHandler} in the same order as the sources, from the thread which called
+ * {@link #process}. To limit memory usage at most {@link #maxPending} images are being processed or waiting to be
+ * handled at any time. When this limit is reached, no more sources are read until the oldest image is done.
+ * </p>
+ *
+ * <p>
+ * NOTE: Each image is processed by a single thread. If {@link boofcv.concurrency.BoofConcurrency} is turned on,
+ * the detector will also try to use multiple threads. Throughput is usually better when it's turned off.
+ * </p>
+ *
+ * @param <Source> Where an image comes from, e.g. a file path or an image in memory
+ * @param <T> Type of input image
+ *
+ * @author Peter Abeles
+ */
+public class FiducialDetectorBatch<Source, T extends ImageBase<T>> {
+
+	// Creates a new detector for each thread
+	private final Factory<FiducialDetector<T>> factoryDetector;
+	// Converts a source into an image
+	private final ImageLoader<Source,T> loader;
+
+	/** Number of threads which process images */
+	@Getter private final int numThreads;
+	/** Maximum number of images which are being processed or waiting for their results to be handled */
+	@Getter private final int maxPending;
+
+	// Storage for each thread. Threads take a worker when they start an image and return it when done
+	private final BlockingQueue<Worker> workers;
+	// Storage for results which are not in use
+	private final ArrayDeque<ImageResults<Source>> unusedResults = new ArrayDeque<>();
+
+	/**
+	 * Configures the batch processor.
+	 *
+	 * @param factoryDetector Creates a new detector. Called once for each thread.
+	 * @param loader Loads an image from a source. Called concurrently.
+	 * @param numThreads Number of threads which process images. Must be &ge; 1.
+	 * @param maxPending Maximum number of images which are in flight. Must be &ge; numThreads.
+	 */
+	public FiducialDetectorBatch( Factory<FiducialDetector<T>> factoryDetector,
+								  ImageLoader<Source,T> loader,
+								  int numThreads, int maxPending ) {
+		if( numThreads < 1 )
+			throw new IllegalArgumentException("There must be at least one thread");
+		if( maxPending < numThreads )
+			throw new IllegalArgumentException("maxPending must be at least the number of threads");
+
+		this.factoryDetector = factoryDetector;
+		this.loader = loader;
+		this.numThreads = numThreads;
+		this.maxPending = maxPending;
+		this.workers = new ArrayBlockingQueue<>(numThreads);
+	}
+
+	/**
+	 * Configures the batch processor so that there's one thread for each processor and up to four images
+	 * in flight per thread.
+	 */
+	public FiducialDetectorBatch( Factory<FiducialDetector<T>> factoryDetector,
+								  ImageLoader<Source,T> loader ) {
+		this(factoryDetector,loader,
+				Runtime.getRuntime().availableProcessors(),
+				Runtime.getRuntime().availableProcessors()*4);
+	}
+
+	/**
+	 * Detects fiducials in all the images. Doesn't return until every image has been processed and its results
+	 * handled.
+	 *
+	 * @param sources Where the images come from. Only accessed by the calling thread.
+	 * @param handler Receives the results for each image in the same order as the sources. Called
+	 *                by the thread which invoked this function.
+	 */
+	public void process( Iterator<Source> sources , ResultHandler<Source> handler ) {
+		// Detectors are created here so that the factory is only called from a single thread
+		while( workers.size() < numThreads ) {
+			workers.add(new Worker(factoryDetector.newInstance()));
+		}
+
+		ExecutorService executor = Executors.newFixedThreadPool(numThreads, r -> {
+			Thread t = new Thread(r,"FiducialDetectorBatch");
+			t.setDaemon(true);
+			return t;
+		});
+
+		// Images in flight. Ordered by when they were submitted
+		ArrayDeque<Future<ImageResults<Source>>> pending = new ArrayDeque<>();
+		try {
+			int index = 0;
+			while( sources.hasNext() ) {
+				// Block until the oldest image is done when there are too many in flight
+				if( pending.size() >= maxPending ) {
+					handleOldest(pending,handler);
+				}
+
+				ImageResults<Source> results = unusedResults.isEmpty() ? new ImageResults<>() : unusedResults.pop();
+				results.reset();
+				results.index = index++;
+				results.source = sources.next();
+				pending.add(executor.submit(() -> detect(results)));
+			}
+
+			while( !pending.isEmpty() ) {
+				handleOldest(pending,handler);
+			}
+		} finally {
+			for( Future<?> f : pending ) {
+				f.cancel(true);
+			}
+			executor.shutdownNow();
+		}
+	}
+
+	/**
+	 * Waits for the oldest image to finish then passes its results to the handler
+	 */
+	private void handleOldest( ArrayDeque<Future<ImageResults<Source>>> pending , ResultHandler<Source> handler ) {
+		ImageResults<Source> results;
+		try {
+			results = pending.peek().get();
+		} catch (InterruptedException e) {
+			throw new RuntimeException(e);
+		} catch (ExecutionException e) {
+			if( e.getCause() instanceof RuntimeException )
+				throw (RuntimeException)e.getCause();
+			throw new RuntimeException(e.getCause());
+		}
+		pending.pop();
+		handler.handle(results);
+		results.source = null;
+		unusedResults.push(results);
+	}
+
+	/**
+	 * Loads the image and detects fiducials inside of it. Called by a thread in the pool.
+	 */
+	private ImageResults<Source> detect( ImageResults<Source> results ) throws InterruptedException {
+		Worker worker = workers.take();
+		try {
+			T image = loader.load(results.source,worker.storage);
+			if( image == null )
+				return results;
+			results.loaded = true;
+			results.width = image.width;
+			results.height = image.height;
+
+			FiducialDetector<T> detector = worker.detector;
+			detector.detect(image);
+
+			for (int i = 0; i < detector.totalFound(); i++) {
+				Detection d = results.detections.grow();
+				d.id = detector.hasID() ? detector.getId(i) : -1;
+				d.message = detector.hasMessage() ? detector.getMessage(i) : null;
+				detector.getCenter(i,d.center);
+				detector.getBounds(i,d.bounds);
+				d.hasPose = detector.is3D() && detector.getFiducialToCamera(i,d.fiducialToCamera);
+			}
+		} finally {
+			workers.add(worker);
+		}
+		return results;
+	}
+
+	/**
+	 * Data structures used by a single thread
+	 */
+	private class Worker {
+		FiducialDetector<T> detector;
+		T storage;
+
+		Worker( FiducialDetector<T> detector ) {
+			this.detector = detector;
+			this.storage = detector.getInputType().createImage(1,1);
+		}
+	}
+
+	/**
+	 * Converts a source into an image
+	 */
+	@FunctionalInterface
+	public interface ImageLoader<Source, T extends ImageBase<T>> {
+		/**
+		 * Loads the image. Will be called by multiple threads at once.
+		 *
+		 * @param source Where the image comes from
+		 * @param storage Image owned by the calling thread which can be used to store the image. Not required.
+		 * @return The image or null if it couldn't be loaded
+		 */
+		@Nullable T load( Source source, T storage );
+	}
+
+	/**
+	 * Receives the results for an image
+	 */
+	@FunctionalInterface
+	public interface ResultHandler<Source> {
+		/**
+		 * @param results Results for a single image. Recycled after this function returns.
+		 */
+		void handle( ImageResults<Source> results );
+	}
+
+	/**
+	 * All the fiducials found inside of a single image
+	 */
+	public static class ImageResults<Source> {
+		/** Order the image was read in, starting from zero */
+		public int index;
+		/** Where the image came from */
+		public Source source;
+		/** If false the image couldn't be loaded */
+		public boolean loaded;
+		/** Shape of the image */
+		public int width, height;
+		/** Fiducials that were found */
+		public final FastQueue<Detection> detections = new FastQueue<>(Detection::new);
+
+		public void reset() {
+			index = -1;
+			source = null;
+			loaded = false;
+			width = height = 0;
+			detections.reset();
+		}
+	}
+
+	/**
+	 * Description of a single detected fiducial
+	 */
+	public static class Detection {
+		/** The fiducial's ID or -1 if the detector doesn't have IDs. See {@link FiducialDetector#getId} */
+		public long id;
+		/** The encoded message or null if the detector doesn't have messages */
+		public @Nullable String message;
+		/** Center of the fiducial in pixels */
+		public final Point2D_F64 center = new Point2D_F64();
+		/** Bounding polygon of the fiducial in pixels */
+		public final Polygon2D_F64 bounds = new Polygon2D_F64();
+		/** true if the pose is known, which requires a 3D detector with lens distortion */
+		public boolean hasPose;
+		/** Transform from fiducial to camera frame. Only valid if hasPose is true */
+		public final Se3_F64 fiducialToCamera = new Se3_F64();
+	}
+}
@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -18,22 +18,36 @@
 
 package boofcv.abst.fiducial;
 
+import boofcv.abst.filter.binary.BinaryContourFinder;
+import boofcv.abst.filter.binary.BinaryContourFinderLinearExternal;
 import boofcv.abst.filter.binary.BinaryContourHelper;
 import boofcv.abst.filter.binary.InputToBinary;
+import boofcv.abst.filter.binary.InputToExternalContours;
 import boofcv.alg.distort.LensDistortionNarrowFOV;
+import boofcv.alg.fiducial.FiducialRegionTracker;
 import boofcv.alg.fiducial.qrcode.QrCode;
 import boofcv.alg.fiducial.qrcode.QrCodeDecoderImage;
+import boofcv.alg.fiducial.qrcode.QrCodeDecoderImage_MT;
 import boofcv.alg.fiducial.qrcode.QrCodePositionPatternDetector;
 import boofcv.alg.shapes.polygon.DetectPolygonBinaryGrayRefine;
-import boofcv.misc.MovingAverage;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.factory.filter.binary.FactoryBinaryContourFinder;
+import boofcv.misc.ProfilePrinter;
+import boofcv.misc.ProfileRecorder;
+import boofcv.misc.ProfileSink;
+import boofcv.struct.distort.Point2Transform2_F64;
 import boofcv.struct.image.GrayU8;
 import boofcv.struct.image.ImageGray;
+import georegression.struct.point.Point2D_F64;
+import georegression.struct.shapes.Polygon2D_F64;
 
 import javax.annotation.Nullable;
 import java.util.List;
 
 /**
  * A QR-Code detector which is designed to find the location of corners in the finder pattern precisely.
+ * Unless regions are being tracked, thresholding and contour finding are done in a single stage by
+ * {@link InputToExternalContours}.
  *
  * @param <T>
  */
@@ -45,11 +59,20 @@ public class QrCodePreciseDetector<T extends ImageGray<T>> implements QrCodeDete
 	Class<T> imageType;
 
 	BinaryContourHelper contourHelper;
+	// Thresholds and finds contours in a single stage. null if it can't be used with this contour finder
+	@Nullable InputToExternalContours<T> thresholdContours;
+	// Binary image from the most recently processed image
+	GrayU8 binary;
 
-	// runtime profiling
-	boolean profiler = false;
-	protected MovingAverage milliBinary = new MovingAverage(0.8);
-	protected MovingAverage milliDecoding = new MovingAverage(0.8);
+	// If not null then only regions around previously found QR Codes are thresholded
+	@Nullable FiducialRegionTracker<T> regionTracker;
+	// Converts undistorted pixels into distorted pixels. null if there's no lens distortion
+	@Nullable Point2Transform2_F64 undistToDist;
+	// Bounds of a QR Code in distorted pixels
+	Polygon2D_F64 distortedBounds = new Polygon2D_F64(4);
+
+	// where the time of each stage is reported to
+	protected ProfileSink profileSink = ProfileSink.NONE;
 
 	public QrCodePreciseDetector(InputToBinary<T> inputToBinary,
 								 QrCodePositionPatternDetector<T> detectPositionPatterns,
@@ -57,30 +80,79 @@ public class QrCodePreciseDetector<T extends ImageGray<T>> implements QrCodeDete
 								 boolean copyBinary, Class<T> imageType) {
 		this.inputToBinary = inputToBinary;
 		this.detectPositionPatterns = detectPositionPatterns;
-		this.decoder = new QrCodeDecoderImage<>(defaultEncoding,imageType);
+		if( BoofConcurrency.USE_CONCURRENT ) {
+			this.decoder = new QrCodeDecoderImage_MT<>(defaultEncoding,imageType);
+		} else {
+			this.decoder = new QrCodeDecoderImage<>(defaultEncoding,imageType);
+		}
 		this.imageType = imageType;
-		this.contourHelper = new BinaryContourHelper(detectPositionPatterns.getSquareDetector().getDetector().getContourFinder(),copyBinary);
+		BinaryContourFinder contourFinder = detectPositionPatterns.getSquareDetector().getDetector().getContourFinder();
+		this.contourHelper = new BinaryContourHelper(contourFinder,copyBinary);
+		this.binary = contourHelper.withoutPadding();
+		// The fused stage modifies the binary image while finding contours, just like the padded contour finder,
+		// so it's only used if a copy isn't requested and it would find the same contours
+		if( !copyBinary && contourFinder instanceof BinaryContourFinderLinearExternal )
+			this.thresholdContours = FactoryBinaryContourFinder.thresholdExternal(inputToBinary);
 	}
 
 	@Override
 	public void process(T gray) {
-		long time0 = System.nanoTime();
-		contourHelper.reshape(gray.width,gray.height);
-		inputToBinary.process(gray,contourHelper.withoutPadding());
-		long time1 = System.nanoTime();
-		milliBinary.update((time1-time0)*1e-6);
-
-		if( profiler )
-			System.out.printf("qrcode: binary %5.2f ",milliBinary.getAverage());
-
-		detectPositionPatterns.process(gray,contourHelper.padded());
-		time0 = System.nanoTime();
-		decoder.process(detectPositionPatterns.getPositionPatterns(),gray);
-		time1 = System.nanoTime();
-		milliDecoding.update((time1-time0)*1e-6);
+		profileSink.startStage("qrcode");
+		try {
+			if( regionTracker == null && thresholdContours != null ) {
+				// The image is thresholded inside the polygon detector's contour stage
+				detectPositionPatterns.process(gray,thresholdContours);
+				binary = thresholdContours.getBinary();
+			} else {
+				profileSink.startStage("binary");
+				try {
+					contourHelper.reshape(gray.width,gray.height);
+					if( regionTracker == null )
+						inputToBinary.process(gray,contourHelper.withoutPadding());
+					else
+						regionTracker.threshold(inputToBinary,gray,contourHelper.withoutPadding());
+				} finally {
+					profileSink.stopStage();
+				}
+
+				detectPositionPatterns.process(gray,contourHelper.padded());
+				binary = contourHelper.withoutPadding();
+			}
+
+			profileSink.startStage("decoding");
+			try {
+				decoder.process(detectPositionPatterns.getPositionPatterns(),gray);
+			} finally {
+				profileSink.stopStage();
+			}
+			profileSink.addCount("found",decoder.getFound().size());
+			profileSink.addCount("failures",decoder.getFailures().size());
+		} finally {
+			profileSink.stopStage();
+		}
+
+		if( regionTracker != null )
+			updateRegionTracker();
+	}
 
-		if( profiler )
-			System.out.printf(" decoding %5.1f\n",milliDecoding.getAverage());
+	/**
+	 * Passes the bounds of all decoded QR Codes to the tracker. Bounds are converted into distorted pixels
+	 * since that's what's thresholded.
+	 */
+	void updateRegionTracker() {
+		List<QrCode> found = decoder.getFound();
+		for (int i = 0; i < found.size(); i++) {
+			Polygon2D_F64 bounds = found.get(i).bounds;
+			if( undistToDist != null ) {
+				for (int j = 0; j < bounds.size(); j++) {
+					Point2D_F64 p = bounds.get(j);
+					undistToDist.compute(p.x,p.y,distortedBounds.get(j));
+				}
+				bounds = distortedBounds;
+			}
+			regionTracker.addDetection(bounds);
+		}
+		regionTracker.finishFrame();
 	}
 
 	@Override
@@ -105,21 +177,61 @@ public class QrCodePreciseDetector<T extends ImageGray<T>> implements QrCodeDete
 								  @Nullable LensDistortionNarrowFOV model) {
 		detectPositionPatterns.setLensDistortion(width, height,model);
 		decoder.setLensDistortion(width, height, model);
+		undistToDist = model == null ? null : model.distort_F64(true,true);
+		if( regionTracker != null )
+			regionTracker.reset();
+	}
+
+	public @Nullable FiducialRegionTracker<T> getRegionTracker() {
+		return regionTracker;
+	}
+
+	/**
+	 * Turns on region of interest tracking mode for video sequences. Only the regions around QR Codes found in
+	 * the previous frame are thresholded, with a full image scan done periodically or when a QR Code is lost.
+	 *
+	 * @param regionTracker The tracker or null to process every frame independently
+	 */
+	public void setRegionTracker( @Nullable FiducialRegionTracker<T> regionTracker ) {
+		this.regionTracker = regionTracker;
+		if( regionTracker != null )
+			regionTracker.reset();
 	}
 
+	/**
+	 * Binary image from the most recently processed image. Pixels along traced contours might have been modified
+	 * by the contour finder.
+	 */
 	public GrayU8 getBinary() {
-		return contourHelper.withoutPadding();
+		return binary;
 	}
 
+	/**
+	 * If true then the time taken by each stage is printed to standard out after every image. Replaces any
+	 * previously specified {@link ProfileSink}.
+	 */
 	public void setProfilerState( boolean active ) {
-		profiler = active;
-		detectPositionPatterns.setProfilerState(active);
+		setProfileSink(active ? new ProfilePrinter(System.out) : ProfileSink.NONE);
+	}
+
+	/**
+	 * Specifies where the time taken by each stage is reported to. Stages are nested inside of "qrcode".
+	 */
+	public void setProfileSink( ProfileSink profileSink ) {
+		this.profileSink = profileSink;
+		detectPositionPatterns.setProfileSink(profileSink);
+	}
+
+	public ProfileSink getProfileSink() {
+		return profileSink;
 	}
 
+	/**
+	 * Discards all the statistics collected so far, if the {@link ProfileSink} is a {@link ProfileRecorder}
+	 */
 	public void resetRuntimeProfiling() {
-		milliBinary.reset();
-		milliDecoding.reset();
-		detectPositionPatterns.resetRuntimeProfiling();
+		if( profileSink instanceof ProfileRecorder )
+			((ProfileRecorder)profileSink).reset();
 	}
 
 	public QrCodePositionPatternDetector<T> getDetectPositionPatterns() {
@@ -22,6 +22,8 @@ import boofcv.alg.feature.describe.llah.LlahDocument;
 import boofcv.alg.feature.describe.llah.LlahOperations;
 import boofcv.alg.fiducial.dots.UchiyaMarkerImageTracker;
 import boofcv.alg.fiducial.dots.UchiyaMarkerTracker;
+import boofcv.misc.ProfilePrinter;
+import boofcv.misc.ProfileSink;
 import boofcv.struct.geo.Point2D3D;
 import boofcv.struct.geo.PointIndex2D_F64;
 import boofcv.struct.image.ImageGray;
@@ -30,7 +32,6 @@ import georegression.struct.point.Point2D_F64;
 import georegression.struct.shapes.Polygon2D_F64;
 import georegression.transform.homography.HomographyPointOps_F64;
 import lombok.Getter;
-import lombok.Setter;
 import org.ddogleg.struct.FastQueue;
 
 import javax.annotation.Nullable;
@@ -50,9 +51,6 @@ implements FiducialTracker<T>
 
 	@Getter UchiyaMarkerImageTracker<T> tracker;
 
-	/** If not null timing information will be printed */
-	@Setter PrintStream printTiming;
-
 	// Width and height of the marker
 	final double markerWidth;
 	final double markerHeight;
@@ -75,17 +73,21 @@ implements FiducialTracker<T>
 	@Override
 	public void detect(T input) {
 		tracker.detect(input);
+	}
 
-		final PrintStream out = this.printTiming;
-		if( out != null ) {
-			double timeTrack  = tracker.getTracker().getTimeTrack();
-			double timeDetect = tracker.getTracker().getTimeDetect();
-			double timeUpdate = tracker.getTracker().getTimeUpdate();
+	/**
+	 * If not null then the time taken by each stage is printed to the stream after every image. Replaces any
+	 * previously specified {@link ProfileSink}.
+	 */
+	public void setPrintTiming( @Nullable PrintStream out ) {
+		setProfileSink(out == null ? ProfileSink.NONE : new ProfilePrinter(out));
+	}
 
-			out.printf(" Uchiya: BI %5.1f EL %5.1f ER %5.1f TR %5.1f DET %5.1f UP %5.1f\n",
-					tracker.getTimeBinary(),tracker.getTimeEllipse(),tracker.getTimeReject(),
-					timeTrack, timeDetect, timeUpdate );
-		}
+	/**
+	 * Specifies where the time taken by each stage is reported to
+	 */
+	public void setProfileSink( ProfileSink profileSink ) {
+		tracker.setProfileSink(profileSink);
 	}
 
 	@Override
@@ -0,0 +1,205 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.fiducial;
+
+import boofcv.abst.filter.binary.InputToBinary;
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.struct.ImageRectangle;
+import boofcv.struct.image.GrayU8;
+import boofcv.struct.image.ImageGray;
+import georegression.geometry.UtilPolygons2D_F64;
+import georegression.struct.shapes.Polygon2D_F64;
+import georegression.struct.shapes.Quadrilateral_F64;
+import georegression.struct.shapes.Rectangle2D_F64;
+import lombok.Getter;
+import lombok.Setter;
+import org.ddogleg.struct.FastQueue;
+
+/**
+ * <p>
+ * Region of interest (ROI) tracking mode for fiducial detectors which process a video sequence. Instead of
+ * thresholding the entire image every frame, the location of each marker is predicted from where it was
+ * found in the previous frame. Only pixels inside of the expanded predicted regions are thresholded and
+ * every other pixel in the binary image is set to zero. This removes the cost of thresholding the whole image
+ * and of tracing and fitting polygons to background clutter. Image coordinates are not changed so lens
+ * distortion and all the down stream processing are unaffected.
+ * </p>
+ *
+ * <p>
+ * A full image scan is done when there are no markers being tracked, every {@link #fullScanPeriod} frames
+ * so that new markers are found, and after a frame in which fewer markers were found than were being tracked.
+ * </p>
+ *
+ * <p>Usage: Call {@link #threshold} instead of {@link InputToBinary#process}, pass the bounds of each
+ * detected marker to {@link #addDetection}, then call {@link #finishFrame()}.</p>
+ *
+ * @author Peter Abeles
+ */
+public class FiducialRegionTracker<T extends ImageGray<T>> {
+	/** A full scan is done at least once every this many frames. If &le; 1 every frame is a full scan. */
+	@Getter @Setter int fullScanPeriod = 10;
+	/** Each side of a marker's bounding rectangle is pushed out by this fraction of the rectangle's size */
+	@Getter @Setter double expandFraction = 0.5;
+	/** Each side of a marker's bounding rectangle is pushed out by at least this many pixels */
+	@Getter @Setter int expandMinimum = 10;
+
+	/** The regions which were thresholded in the most recent frame. Empty if it was a full scan. */
+	@Getter final FastQueue<ImageRectangle> regions = new FastQueue<>(ImageRectangle::new);
+	/** True if the entire image was thresholded in the most recent frame */
+	@Getter boolean fullScan;
+
+	// bounds of markers found in the current frame. Used to predict where they will be in the next frame
+	FastQueue<Rectangle2D_F64> detections = new FastQueue<>(Rectangle2D_F64::new);
+	// bounds of markers found in the previous frame
+	FastQueue<Rectangle2D_F64> previous = new FastQueue<>(Rectangle2D_F64::new);
+
+	// number of frames processed since the last full scan
+	int framesSinceFullScan;
+	// true if a marker was lost and the next frame needs to be a full scan
+	boolean lost;
+	// shape of the previous image. If the shape changes the tracks are discarded
+	int width, height;
+
+	// storage for sub-images
+	T graySub;
+	GrayU8 binarySub = new GrayU8(1,1);
+	Rectangle2D_F64 work = new Rectangle2D_F64();
+
+	/**
+	 * Discards all tracks. The next frame will be a full scan.
+	 */
+	public void reset() {
+		regions.reset();
+		detections.reset();
+		previous.reset();
+		framesSinceFullScan = 0;
+		lost = false;
+		fullScan = false;
+		width = height = 0;
+	}
+
+	/**
+	 * Converts the input image into a binary image. When tracking only the regions around where markers
+	 * were previously seen are thresholded and the rest of the binary image is set to zero.
+	 *
+	 * @param inputToBinary Algorithm used to threshold the image
+	 * @param gray Input image
+	 * @param binary Output binary image. Same shape as the input image.
+	 */
+	public void threshold( InputToBinary<T> inputToBinary , T gray , GrayU8 binary ) {
+		if( gray.width != width || gray.height != height ) {
+			previous.reset();
+			width = gray.width;
+			height = gray.height;
+		}
+
+		fullScan = lost || previous.size == 0 || framesSinceFullScan+1 >= fullScanPeriod;
+		regions.reset();
+		detections.reset();
+
+		if( fullScan ) {
+			framesSinceFullScan = 0;
+			inputToBinary.process(gray,binary);
+			return;
+		}
+		framesSinceFullScan++;
+
+		predictRegions();
+
+		ImageMiscOps.fill(binary,0);
+		for (int i = 0; i < regions.size; i++) {
+			ImageRectangle r = regions.get(i);
+			graySub = gray.subimage(r.x0,r.y0,r.x1,r.y1,graySub);
+			binary.subimage(r.x0,r.y0,r.x1,r.y1,binarySub);
+			inputToBinary.process(graySub,binarySub);
+		}
+	}
+
+	/**
+	 * Predicts where each marker will be by expanding its previous bounding rectangle. Regions which
+	 * overlap are merged together so that no pixel is thresholded twice.
+	 */
+	void predictRegions() {
+		for (int i = 0; i < previous.size; i++) {
+			Rectangle2D_F64 b = previous.get(i);
+			double padX = Math.max(expandMinimum,expandFraction*(b.p1.x-b.p0.x));
+			double padY = Math.max(expandMinimum,expandFraction*(b.p1.y-b.p0.y));
+
+			int x0 = Math.max(0,(int)Math.floor(b.p0.x-padX));
+			int y0 = Math.max(0,(int)Math.floor(b.p0.y-padY));
+			int x1 = Math.min(width,(int)Math.ceil(b.p1.x+padX)+1);
+			int y1 = Math.min(height,(int)Math.ceil(b.p1.y+padY)+1);
+
+			if( x0 >= x1 || y0 >= y1 )
+				continue;
+			regions.grow().set(x0,y0,x1,y1);
+		}
+
+		// keep on merging until there are no more overlapping regions
+		boolean merged = true;
+		while( merged ) {
+			merged = false;
+			for (int i = 0; i < regions.size && !merged; i++) {
+				ImageRectangle a = regions.get(i);
+				for (int j = i+1; j < regions.size; j++) {
+					ImageRectangle b = regions.get(j);
+					if( a.x0 >= b.x1 || b.x0 >= a.x1 || a.y0 >= b.y1 || b.y0 >= a.y1 )
+						continue;
+					a.set(Math.min(a.x0,b.x0),Math.min(a.y0,b.y0),Math.max(a.x1,b.x1),Math.max(a.y1,b.y1));
+					regions.removeSwap(j);
+					merged = true;
+					break;
+				}
+			}
+		}
+	}
+
+	/**
+	 * Adds a marker which was found in the current frame.
+	 *
+	 * @param bounds Bounds of the marker in distorted image pixels
+	 */
+	public void addDetection( Polygon2D_F64 bounds ) {
+		UtilPolygons2D_F64.bounding(bounds,work);
+		detections.grow().set(work);
+	}
+
+	/**
+	 * Adds a marker which was found in the current frame.
+	 *
+	 * @param bounds Bounds of the marker in distorted image pixels
+	 */
+	public void addDetection( Quadrilateral_F64 bounds ) {
+		UtilPolygons2D_F64.bounding(bounds,work);
+		detections.grow().set(work);
+	}
+
+	/**
+	 * Call after all the detections in the current frame have been added. If a marker was lost then the next
+	 * frame will be a full scan.
+	 */
+	public void finishFrame() {
+		lost = !fullScan && detections.size < previous.size;
+
+		FastQueue<Rectangle2D_F64> tmp = previous;
+		previous = detections;
+		detections = tmp;
+		detections.reset();
+	}
+}
@@ -88,17 +88,17 @@ public class ChessboardCornerClusterFinder<T extends ImageGray<T>> {
 	private double maxNeighborDistance=Double.MAX_VALUE; // maximum distance away (pixels Euclidean squared) a neighbor can be
 
 	// Computes the intensity of the line which connects two corners
-	private ChessboardCornerEdgeIntensity<T> computeConnInten;
+	protected ChessboardCornerEdgeIntensity<T> computeConnInten;
 	// Threshold relative to corner intensity used to prune. If <= 0 then this test is disabled
 	private double thresholdEdgeIntensity = 0.05;
 
 	// Data structures for the crude graph
-	private FastQueue<Vertex> vertexes = new FastQueue<>(Vertex::new);
+	protected FastQueue<Vertex> vertexes = new FastQueue<>(Vertex::new);
 	private FastQueue<Edge> edges = new FastQueue<>(Edge::new);
-	private FastQueue<LineInfo> lines = new FastQueue<>(LineInfo::new);
+	protected FastQueue<LineInfo> lines = new FastQueue<>(LineInfo::new);
 
 	// data structures for nearest neighbor search
-	private NearestNeighbor<ChessboardCorner> nn = FactoryNearestNeighbor.kdtree(new ChessboardCornerDistance());
+	protected NearestNeighbor<ChessboardCorner> nn = FactoryNearestNeighbor.kdtree(new ChessboardCornerDistance());
 	private NearestNeighbor.Search<ChessboardCorner> nnSearch = nn.createSearch();
 	private FastQueue<NnData<ChessboardCorner>> nnResults = new FastQueue(NnData::new);
 
@@ -241,15 +241,39 @@ public class ChessboardCornerClusterFinder<T extends ImageGray<T>> {
 			nn.setPoints(cornersUpToLevel,true);
 
 			// Connect corners to each other based on relative distance on orientation
-			for (int i = 0; i < levelCornerIdx.size(); i++) {
-				Vertex v = vertexes.get(levelCornerIdx.get(i));
-				findVertexNeighbors(v,indexesUpToLevel,corners);
-				// Order edges by angle to simplify later processing
-				v.perpendicular.sortByAngle();
-			}
+			findNeighbors(levelCornerIdx, indexesUpToLevel, corners);
+		}
+	}
+
+	/**
+	 * Finds the neighbors of every corner in the current level and creates edges to them
+	 *
+	 * @param levelCornerIdx Index of corners in the current level
+	 * @param indexesUpToLevel Index of corners in the nearest neighbor search data structure
+	 */
+	protected void findNeighbors( GrowQueue_I32 levelCornerIdx, GrowQueue_I32 indexesUpToLevel,
+								  List<ChessboardCorner> corners ) {
+		for (int i = 0; i < levelCornerIdx.size(); i++) {
+			Vertex v = vertexes.get(levelCornerIdx.get(i));
+			searchNeighbors(nnSearch, corners.get(v.index), nnResults);
+			findVertexNeighbors(v,nnResults,indexesUpToLevel,corners);
+			// Order edges by angle to simplify later processing
+			v.perpendicular.sortByAngle();
 		}
 	}
 
+	/**
+	 * Uses nearest neighbor search to find the closest corners. Only reads shared data and can be called
+	 * concurrently if each thread has its own search and results.
+	 */
+	protected void searchNeighbors( NearestNeighbor.Search<ChessboardCorner> search,
+									ChessboardCorner target,
+									FastQueue<NnData<ChessboardCorner>> results ) {
+		// distance is Euclidean squared
+		double maxDist = Double.MAX_VALUE==maxNeighborDistance?maxNeighborDistance:maxNeighborDistance*maxNeighborDistance;
+		search.findNearest(target,maxDist,maxNeighbors,results);
+	}
+
 	private void initalizeStructures(T image, List<ChessboardCorner> corners, int numLevels, List<GrowQueue_I32> cornersInLevel) {
 		// reset internal data structures
 		vertexes.reset();
@@ -283,6 +307,7 @@ public class ChessboardCornerClusterFinder<T extends ImageGray<T>> {
 	 *
 	 */
 	protected void pruneConnectionsByIntensity(List<ChessboardCorner> corners) {
+		computeEdgeIntensities(corners);
 
 		for (int i = 0; i < lines.size; i++) {
 			LineInfo line = lines.get(i);
@@ -293,14 +318,6 @@ public class ChessboardCornerClusterFinder<T extends ImageGray<T>> {
 			Vertex va = line.endA.dst;
 			Vertex vb = line.endB.dst;
 
-			ChessboardCorner ca = corners.get(va.index);
-			ChessboardCorner cb = corners.get(vb.index);
-
-			double contrast = (ca.contrast + cb.contrast)/2;
-
-			line.intensityRaw = computeConnInten.process(ca, cb, line.endA.direction);
-			line.intensity = line.intensityRaw/contrast;
-
 			if( line.intensity < thresholdEdgeIntensity ) {
 				if( !va.perpendicular.remove(line) )
 					throw new RuntimeException("BUG");
@@ -312,6 +329,34 @@ public class ChessboardCornerClusterFinder<T extends ImageGray<T>> {
 	}
 
 
+	/**
+	 * Computes the intensity of every line which can be pruned. Removing a line doesn't change the intensity
+	 * of any other line so they can be computed in any order.
+	 */
+	protected void computeEdgeIntensities(List<ChessboardCorner> corners) {
+		for (int i = 0; i < lines.size; i++) {
+			computeEdgeIntensity(computeConnInten,lines.get(i),corners);
+		}
+	}
+
+	/**
+	 * Computes the intensity of a single line. Only modifies the line and the intensity calculator.
+	 */
+	protected static <T extends ImageGray<T>>
+	void computeEdgeIntensity( ChessboardCornerEdgeIntensity<T> computeConnInten , LineInfo line ,
+							   List<ChessboardCorner> corners ) {
+		if( line.isDisconnected() || line.parallel )
+			return;
+
+		ChessboardCorner ca = corners.get(line.endA.dst.index);
+		ChessboardCorner cb = corners.get(line.endB.dst.index);
+
+		double contrast = (ca.contrast + cb.contrast)/2;
+
+		line.intensityRaw = computeConnInten.process(ca, cb, line.endA.direction);
+		line.intensity = line.intensityRaw/contrast;
+	}
+
 	/**
 	 * Prints the graph. Used for debugging the code.
 	 */
@@ -348,14 +393,12 @@ public class ChessboardCornerClusterFinder<T extends ImageGray<T>> {
 	}
 
 	/**
-	 * Use nearest neighbor search to find closest corners. Split those into two groups, parallel and
-	 * perpendicular.
+	 * Goes through the closest corners found by the nearest neighbor search and connects the vertex to
+	 * perpendicular corners.
 	 */
-	void findVertexNeighbors(Vertex va  , GrowQueue_I32 indexesUpToLevel, List<ChessboardCorner> corners ) {
+	void findVertexNeighbors(Vertex va  , FastQueue<NnData<ChessboardCorner>> nnResults,
+							 GrowQueue_I32 indexesUpToLevel, List<ChessboardCorner> corners ) {
 		ChessboardCorner targetCorner = corners.get(va.index);
-		// distance is Euclidean squared
-		double maxDist = Double.MAX_VALUE==maxNeighborDistance?maxNeighborDistance:maxNeighborDistance*maxNeighborDistance;
-		nnSearch.findNearest(corners.get(va.index),maxDist,maxNeighbors,nnResults);
 
 		for (int i = 0; i < nnResults.size; i++) {
 			NnData<ChessboardCorner> rb = nnResults.get(i);
@@ -0,0 +1,98 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.fiducial.calib.chess;
+
+import boofcv.alg.feature.detect.chess.ChessboardCorner;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.image.ImageGray;
+import org.ddogleg.nn.NearestNeighbor;
+import org.ddogleg.nn.NnData;
+import org.ddogleg.struct.FastQueue;
+import org.ddogleg.struct.GrowQueue_I32;
+
+import java.util.List;
+
+/**
+ * Concurrent implementation of {@link ChessboardCornerClusterFinder}. The nearest neighbor search for every
+ * corner and the intensity of every edge are computed in parallel. The graph is then constructed and pruned
+ * sequentially in the same order as the single threaded version, producing identical results.
+ *
+ * @author Peter Abeles
+ */
+public class ChessboardCornerClusterFinder_MT<T extends ImageGray<T>> extends ChessboardCornerClusterFinder<T> {
+
+	// Nearest neighbor search results for each corner in the level being processed
+	private final FastQueue<FastQueue<NnData<ChessboardCorner>>> levelResults =
+			new FastQueue<>(()->new FastQueue<>(NnData::new));
+
+	// Workspace for each thread
+	private final FastQueue<Worker> workers = new FastQueue<>(1,Worker::new);
+
+	public ChessboardCornerClusterFinder_MT( Class<T> imageType ) {
+		super(imageType);
+	}
+
+	public ChessboardCornerClusterFinder_MT(ChessboardCornerEdgeIntensity<T> computeConnInten) {
+		super(computeConnInten);
+	}
+
+	@Override
+	protected void findNeighbors( GrowQueue_I32 levelCornerIdx, GrowQueue_I32 indexesUpToLevel,
+								  List<ChessboardCorner> corners ) {
+		levelResults.resize(levelCornerIdx.size);
+
+		BoofConcurrency.loopBlocks(0,levelCornerIdx.size,workers,(worker,idx0,idx1)->{
+			for (int i = idx0; i < idx1; i++) {
+				searchNeighbors(worker.search,corners.get(levelCornerIdx.get(i)),levelResults.get(i));
+			}
+		});
+
+		// Creating edges depends on edges which have already been created, so this needs to be done in order
+		for (int i = 0; i < levelCornerIdx.size(); i++) {
+			Vertex v = vertexes.get(levelCornerIdx.get(i));
+			findVertexNeighbors(v,levelResults.get(i),indexesUpToLevel,corners);
+			// Order edges by angle to simplify later processing
+			v.perpendicular.sortByAngle();
+		}
+	}
+
+	@Override
+	protected void computeEdgeIntensities( List<ChessboardCorner> corners ) {
+		BoofConcurrency.loopBlocks(0,lines.size,workers,(worker,idx0,idx1)->{
+			ChessboardCornerEdgeIntensity<T> intensity = worker.intensity;
+			intensity.setImage(computeConnInten.interpolate.getImage());
+			intensity.setLengthSamples(computeConnInten.getLengthSamples());
+			intensity.normalDiv = computeConnInten.normalDiv;
+
+			for (int i = idx0; i < idx1; i++) {
+				computeEdgeIntensity(intensity,lines.get(i),corners);
+			}
+		});
+	}
+
+	/**
+	 * Data structures which can't be shared between threads
+	 */
+	private class Worker {
+		// each thread needs its own search. The tree it searches is shared
+		NearestNeighbor.Search<ChessboardCorner> search = nn.createSearch();
+		ChessboardCornerEdgeIntensity<T> intensity =
+				new ChessboardCornerEdgeIntensity<>(computeConnInten.getImageType());
+	}
+}
@@ -21,6 +21,7 @@ package boofcv.alg.fiducial.calib.chess;
 import boofcv.abst.fiducial.calib.ConfigChessboardX;
 import boofcv.alg.feature.detect.chess.DetectChessboardCornersXPyramid;
 import boofcv.alg.fiducial.calib.chess.ChessboardCornerClusterToGrid.GridInfo;
+import boofcv.concurrency.BoofConcurrency;
 import boofcv.struct.image.ImageGray;
 import boofcv.struct.image.ImageType;
 import org.ddogleg.struct.FastQueue;
@@ -41,7 +42,11 @@ public class DetectChessboardXCornerPatterns<T extends ImageGray<T>> {
 	public DetectChessboardXCornerPatterns(ConfigChessboardX config , Class<T> imageType ) {
 
 		detector = new DetectChessboardCornersXPyramid<>(ImageType.single(imageType));
-		clusterFinder = new ChessboardCornerClusterFinder<>(imageType);
+		if( BoofConcurrency.USE_CONCURRENT ) {
+			clusterFinder = new ChessboardCornerClusterFinder_MT<>(imageType);
+		} else {
+			clusterFinder = new ChessboardCornerClusterFinder<>(imageType);
+		}
 
 		detector.setPyramidTopSize(config.detPyramidTopSize);
 		detector.getDetector().setNonmaxRadius(config.detNonMaxRadius);
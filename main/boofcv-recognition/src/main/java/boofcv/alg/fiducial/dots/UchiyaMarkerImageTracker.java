@@ -23,6 +23,7 @@ import boofcv.alg.distort.LensDistortionNarrowFOV;
 import boofcv.alg.distort.PointToPixelTransform_F32;
 import boofcv.alg.shapes.ellipse.BinaryEllipseDetectorPixel;
 import boofcv.alg.shapes.ellipse.EdgeIntensityEllipse;
+import boofcv.misc.ProfileSink;
 import boofcv.struct.distort.PixelTransform;
 import boofcv.struct.distort.Point2Transform2_F32;
 import boofcv.struct.image.GrayU8;
@@ -55,12 +56,8 @@ public class UchiyaMarkerImageTracker<T extends ImageGray<T>> {
 
 	@Getter List<Point2D_F64> foundDots = new ArrayList<>();
 
-	/** Time to convert input image into a binary one */
-	@Getter double timeBinary;
-	/** Time to find ellipses */
-	@Getter double timeEllipse;
-	/** Time to reject ellipses */
-	@Getter double timeReject;
+	/** Where the time taken by each stage is reported to */
+	@Getter ProfileSink profileSink = ProfileSink.NONE;
 
 	public UchiyaMarkerImageTracker(InputToBinary<T> inputToBinary,
 									BinaryEllipseDetectorPixel ellipseDetector,
@@ -83,12 +80,39 @@ public class UchiyaMarkerImageTracker<T extends ImageGray<T>> {
 		ellipseDetector.setMaximumContour(Math.min(input.width,input.height)/4);
 
 		// Find the ellipses inside a binary image
-		final long nano0 = System.nanoTime();
-		inputToBinary.process(input,binary);
-		final long nano1 = System.nanoTime();
-		ellipseDetector.process(binary);
-		final long nano2 = System.nanoTime();
+		profileSink.startStage("uchiya");
+		try {
+			profileSink.startStage("binary");
+			try {
+				inputToBinary.process(input,binary);
+			} finally {
+				profileSink.stopStage();
+			}
+			profileSink.startStage("ellipse");
+			try {
+				ellipseDetector.process(binary);
+			} finally {
+				profileSink.stopStage();
+			}
+			profileSink.startStage("reject");
+			try {
+				rejectLowContrastDots(input);
+			} finally {
+				profileSink.stopStage();
+			}
+			profileSink.addCount("dots",foundDots.size());
+
+			// run the tracker
+			tracker.process(foundDots);
+		} finally {
+			profileSink.stopStage();
+		}
+	}
 
+	/**
+	 * Uses the center of ellipses with sufficient contrast as dots
+	 */
+	void rejectLowContrastDots( T input ) {
 		intensityCheck.setImage(input);
 
 		// Use the centers as dots
@@ -107,15 +131,14 @@ public class UchiyaMarkerImageTracker<T extends ImageGray<T>> {
 			//       tangent points and this would make it more accurate. Not sure it's worth the effort...
 			foundDots.add( f.ellipse.center );
 		}
-		final long nano3 = System.nanoTime();
-
-		// Save timing info for profiling
-		timeBinary = (nano1-nano0)*1e-6;
-		timeEllipse = (nano2-nano1)*1e-6;
-		timeReject = (nano3-nano2)*1e-6;
+	}
 
-		// run the tracker
-		tracker.process(foundDots);
+	/**
+	 * Specifies where the time taken by each stage is reported to. Also passed to the marker tracker.
+	 */
+	public void setProfileSink( ProfileSink profileSink ) {
+		this.profileSink = profileSink;
+		tracker.setProfileSink(profileSink);
 	}
 
 	/**
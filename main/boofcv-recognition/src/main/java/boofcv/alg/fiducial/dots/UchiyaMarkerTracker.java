@@ -24,6 +24,7 @@ import boofcv.alg.feature.describe.llah.LlahDocument;
 import boofcv.alg.feature.describe.llah.LlahOperations;
 import boofcv.factory.geo.EpipolarError;
 import boofcv.factory.geo.FactoryMultiView;
+import boofcv.misc.ProfileSink;
 import boofcv.struct.geo.AssociatedPair;
 import boofcv.struct.geo.PointIndex2D_F64;
 import georegression.struct.homography.Homography2D_F64;
@@ -88,13 +89,8 @@ public class UchiyaMarkerTracker {
 	// LLAH dictionary for tracks in the previous frame
 	LlahOperations llahTrackingOps;
 
-	// Internal profiling
-	/** Time to track objects */
-	@Getter double timeTrack;
-	/** Time to detect objects */
-	@Getter double timeDetect;
-	/** Time to update track descriptions */
-	@Getter double timeUpdate;
+	/** Where the time taken by each stage is reported to */
+	@Getter @Setter ProfileSink profileSink = ProfileSink.NONE;
 
 	// Estimate the homography with noise
 	Ransac<Homography2D_F64, AssociatedPair> ransac;
@@ -140,17 +136,25 @@ public class UchiyaMarkerTracker {
 		currentTracks.reset();
 		globalId_to_track.clear();
 
-		double nano0 = System.nanoTime();
-		performTracking(detectedDots);
-		double nano1 = System.nanoTime();
-		performDetection(detectedDots);
-		double nano2 = System.nanoTime();
-		setTrackDescriptionsAndID();
-		double nano3 = System.nanoTime();
-
-		this.timeTrack  = (nano1-nano0)*1e-6;
-		this.timeDetect = (nano2-nano1)*1e-6;
-		this.timeUpdate = (nano3-nano2)*1e-6;
+		profileSink.startStage("tracking");
+		try {
+			performTracking(detectedDots);
+		} finally {
+			profileSink.stopStage();
+		}
+		profileSink.startStage("detection");
+		try {
+			performDetection(detectedDots);
+		} finally {
+			profileSink.stopStage();
+		}
+		profileSink.startStage("update");
+		try {
+			setTrackDescriptionsAndID();
+		} finally {
+			profileSink.stopStage();
+		}
+		profileSink.addCount("tracks",currentTracks.size);
 	}
 
 	/**
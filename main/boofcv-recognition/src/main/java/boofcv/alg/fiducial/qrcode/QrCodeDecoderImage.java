@@ -26,6 +26,7 @@ import georegression.struct.point.Point2D_F64;
 import georegression.struct.point.Point2D_I32;
 import georegression.struct.shapes.Polygon2D_F64;
 import org.ddogleg.struct.FastQueue;
+import org.ddogleg.struct.GrowQueue_B;
 
 import javax.annotation.Nullable;
 import java.util.ArrayList;
@@ -45,6 +46,8 @@ public class QrCodeDecoderImage<T extends ImageGray<T>> {
 	FastQueue<QrCode> storageQR = new FastQueue<>(QrCode::new);
 	List<QrCode> successes = new ArrayList<>();
 	List<QrCode> failures = new ArrayList<>();
+	// true if the candidate QR Code at the same index in storageQR was successfully decoded
+	GrowQueue_B decoded = new GrowQueue_B();
 
 	// storage for read in bits from the grid
 	PackedBits8 bits = new PackedBits8();
@@ -88,19 +91,33 @@ public class QrCodeDecoderImage<T extends ImageGray<T>> {
 
 					setPositionPatterns(ppn, j, k, qr);
 					computeBoundingBox(qr);
+				}
+			}
+		}
 
-					// Decode the entire marker now
-					if( decode(gray,qr)) {
-						successes.add(qr);
-					} else {
-						failures.add(qr);
-					}
+		// Decode the entire marker now
+		decoded.resize(storageQR.size);
+		decodeCandidates(gray);
 
-				}
+		for (int i = 0; i < storageQR.size; i++) {
+			if( decoded.data[i] ) {
+				successes.add(storageQR.get(i));
+			} else {
+				failures.add(storageQR.get(i));
 			}
 		}
 	}
 
+	/**
+	 * Attempts to decode every candidate in {@link #storageQR} and saves if it was successful in {@link #decoded}.
+	 * Candidates are independent of each other.
+	 */
+	protected void decodeCandidates( T gray ) {
+		for (int i = 0; i < storageQR.size; i++) {
+			decoded.data[i] = decode(gray,storageQR.get(i));
+		}
+	}
+
 	/**
 	 * <p>Specifies transforms which can be used to change coordinates from distorted to undistorted and the opposite
 	 * coordinates.  The undistorted image is never explicitly created.</p>
@@ -160,7 +177,7 @@ public class QrCodeDecoderImage<T extends ImageGray<T>> {
 		qr.bounds.get(3).set(qr.ppDown.get(3));
 	}
 
-	private boolean decode( T gray , QrCode qr ) {
+	boolean decode( T gray , QrCode qr ) {
 		if( !extractFormatInfo(qr) ) {
 			qr.failureCause = QrCode.Failure.FORMAT;
 			return false;
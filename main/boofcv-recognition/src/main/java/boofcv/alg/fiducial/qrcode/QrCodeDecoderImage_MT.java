@@ -0,0 +1,84 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.fiducial.qrcode;
+
+import boofcv.alg.distort.LensDistortionNarrowFOV;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.image.ImageGray;
+import org.ddogleg.struct.FastQueue;
+
+import javax.annotation.Nullable;
+
+/**
+ * Concurrent implementation of {@link QrCodeDecoderImage}. Candidate QR Codes are decoded in parallel. Each thread
+ * has its own grid reader, alignment pattern locator, and error correction workspace. Results are identical
+ * to the single threaded version and in the same order.
+ *
+ * @author Peter Abeles
+ */
+public class QrCodeDecoderImage_MT<T extends ImageGray<T>> extends QrCodeDecoderImage<T> {
+
+	// Decoders used by each thread
+	FastQueue<QrCodeDecoderImage<T>> workers;
+
+	// Lens distortion which is passed on to each worker. Changes how pixels are interpolated even if there's no
+	// model, so it's only passed on if it has been set
+	boolean lensDistortionSet = false;
+	int lensWidth, lensHeight;
+	@Nullable LensDistortionNarrowFOV lensModel;
+
+	/**
+	 * @param forceEncoding Force the default encoding to be this. Null for default
+	 * @param imageType Type of input image
+	 */
+	public QrCodeDecoderImage_MT( @Nullable String forceEncoding, Class<T> imageType ) {
+		super(forceEncoding, imageType);
+		workers = new FastQueue<>(1,()->{
+			QrCodeDecoderImage<T> worker = new QrCodeDecoderImage<>(forceEncoding,imageType);
+			if( lensDistortionSet )
+				worker.setLensDistortion(lensWidth,lensHeight,lensModel);
+			return worker;
+		});
+	}
+
+	@Override
+	protected void decodeCandidates( T gray ) {
+		BoofConcurrency.loopBlocks(0,storageQR.size,workers,(worker,idx0,idx1)->{
+			worker.gridReader.setImage(gray);
+			for (int i = idx0; i < idx1; i++) {
+				decoded.data[i] = worker.decode(gray,storageQR.get(i));
+			}
+		});
+	}
+
+	@Override
+	public void setLensDistortion( int width, int height, @Nullable LensDistortionNarrowFOV model ) {
+		super.setLensDistortion(width, height, model);
+		this.lensDistortionSet = true;
+		this.lensWidth = width;
+		this.lensHeight = height;
+		this.lensModel = model;
+
+		// workers which have already been created need to be updated too
+		for (int i = 0; i < workers.data.length; i++) {
+			if( workers.data[i] != null )
+				workers.data[i].setLensDistortion(width, height, model);
+		}
+	}
+}
@@ -19,6 +19,7 @@
 package boofcv.alg.fiducial.qrcode;
 
 import boofcv.abst.filter.binary.BinaryContourFinder;
+import boofcv.abst.filter.binary.InputToExternalContours;
 import boofcv.alg.distort.LensDistortionNarrowFOV;
 import boofcv.alg.distort.PointToPixelTransform_F32;
 import boofcv.alg.fiducial.calib.squares.SquareGraph;
@@ -28,7 +29,8 @@ import boofcv.alg.interpolate.InterpolatePixelS;
 import boofcv.alg.shapes.polygon.DetectPolygonBinaryGrayRefine;
 import boofcv.alg.shapes.polygon.DetectPolygonFromContour;
 import boofcv.factory.interpolate.FactoryInterpolation;
-import boofcv.misc.MovingAverage;
+import boofcv.misc.ProfilePrinter;
+import boofcv.misc.ProfileSink;
 import boofcv.struct.border.BorderType;
 import boofcv.struct.distort.PixelTransform;
 import boofcv.struct.distort.Point2Transform2_F32;
@@ -82,9 +84,8 @@ public class QrCodePositionPatternDetector<T extends ImageGray<T>> {
 	protected LineSegment2D_F64 connectLine = new LineSegment2D_F64();
 	protected Point2D_F64 intersection = new Point2D_F64();
 
-	// runtime profiling
-	protected MovingAverage milliGraph = new MovingAverage(0.8);
-	protected boolean profiler = false;
+	// where the time of each stage is reported to
+	protected ProfileSink profileSink = ProfileSink.NONE;
 
 	/**
 	 * Configures the detector
@@ -104,13 +105,24 @@ public class QrCodePositionPatternDetector<T extends ImageGray<T>> {
 		interpolate = FactoryInterpolation.bilinearPixelS(squareDetector.getInputType(), BorderType.EXTENDED);
 	}
 
-	public void resetRuntimeProfiling() {
-		squareDetector.resetRuntimeProfiling();
-		milliGraph.reset();
+	/**
+	 * If true then the time taken by each stage is printed to standard out after every image. Replaces any
+	 * previously specified {@link ProfileSink}.
+	 */
+	public void setProfilerState( boolean active ) {
+		setProfileSink(active ? new ProfilePrinter(System.out) : ProfileSink.NONE);
 	}
 
-	public void setProfilerState( boolean active ) {
-		profiler = active;
+	/**
+	 * Specifies where the time taken by each stage is reported to. Also passed to the square detector.
+	 */
+	public void setProfileSink( ProfileSink profileSink ) {
+		this.profileSink = profileSink;
+		squareDetector.setProfileSink(profileSink);
+	}
+
+	public ProfileSink getProfileSink() {
+		return profileSink;
 	}
 
 	/**
@@ -119,33 +131,51 @@ public class QrCodePositionPatternDetector<T extends ImageGray<T>> {
 	 * @param binary Thresholed version of gray image.
 	 */
 	public void process(T gray, GrayU8 binary ) {
-		configureContourDetector(gray);
-		recycleData();
-		positionPatterns.reset();
-		interpolate.setImage(gray);
+		initializeForImage(gray);
 
 		// detect squares
 		squareDetector.process(gray,binary);
 
-		long time0 = System.nanoTime();
-		squaresToPositionList();
+		findPositionPatterns();
+	}
 
-		long time1 = System.nanoTime();
+	/**
+	 * Detects position patterns inside the image and forms a graph. The binary image and its contours are found
+	 * in a single stage.
+	 *
+	 * @param gray Gray scale input image
+	 * @param thresholdContours Thresholds the gray image and finds external contours
+	 */
+	public void process(T gray, InputToExternalContours<T> thresholdContours ) {
+		initializeForImage(gray);
 
-		// Create graph of neighboring squares
-		createPositionPatternGraph();
-//		long time2 = System.nanoTime();  // doesn't take very long
+		// threshold and detect squares
+		squareDetector.process(gray,thresholdContours);
 
-		double milli = (time1-time0)*1e-6;
+		findPositionPatterns();
+	}
 
-		milliGraph.update(milli);
+	private void initializeForImage(T gray) {
+		configureContourDetector(gray);
+		recycleData();
+		positionPatterns.reset();
+		interpolate.setImage(gray);
+	}
 
-		if( profiler ) {
-			DetectPolygonFromContour<T> detectorPoly = squareDetector.getDetector();
-			System.out.printf(" contour %5.1f shapes %5.1f adjust_bias %5.2f PosPat %6.2f",
-					detectorPoly.getMilliContour(), detectorPoly.getMilliShapes(), squareDetector.getMilliAdjustBias(),
-					milliGraph.getAverage());
+	/**
+	 * Selects squares which look like position patterns and connects them into a graph
+	 */
+	private void findPositionPatterns() {
+		profileSink.startStage("position_patterns");
+		try {
+			squaresToPositionList();
+
+			// Create graph of neighboring squares
+			createPositionPatternGraph();
+		} finally {
+			profileSink.stopStage();
 		}
+		profileSink.addCount("position_patterns",positionPatterns.size);
 	}
 
 	/**
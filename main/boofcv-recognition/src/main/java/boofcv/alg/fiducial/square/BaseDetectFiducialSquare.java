@@ -24,9 +24,11 @@ import boofcv.abst.filter.binary.InputToBinary;
 import boofcv.abst.geo.Estimate1ofEpipolar;
 import boofcv.abst.geo.RefineEpipolar;
 import boofcv.alg.distort.*;
+import boofcv.alg.fiducial.FiducialRegionTracker;
 import boofcv.alg.interpolate.InterpolatePixelS;
 import boofcv.alg.shapes.polygon.DetectPolygonBinaryGrayRefine;
 import boofcv.alg.shapes.polygon.DetectPolygonFromContour;
+import boofcv.concurrency.BoofConcurrency;
 import boofcv.core.image.border.FactoryImageBorder;
 import boofcv.factory.distort.FactoryDistort;
 import boofcv.factory.geo.EpipolarError;
@@ -45,10 +47,12 @@ import georegression.struct.point.Point2D_F32;
 import georegression.struct.point.Point2D_F64;
 import georegression.struct.shapes.Polygon2D_F64;
 import org.ddogleg.struct.FastQueue;
+import org.ddogleg.struct.GrowQueue_B;
 import org.ejml.UtilEjml;
 import org.ejml.data.DMatrixRMaj;
 import org.ejml.ops.ConvertDMatrixStruct;
 
+import javax.annotation.Nullable;
 import java.util.ArrayList;
 import java.util.List;
 
@@ -85,21 +89,26 @@ public abstract class BaseDetectFiducialSquare<T extends ImageGray<T>> {
 	// Helps adjust the binary image for input into the contour finding algorithm
 	BinaryContourHelper contourHelper;
 
-	// image with lens and perspective distortion removed from it
-	GrayF32 square;
+	// Removes perspective distortion from candidates when run in a single thread
+	RemovePerspective removePerspective;
+	// Removes perspective distortion from candidates. One for each thread
+	FastQueue<RemovePerspective> workers;
+	// Image of each candidate with perspective distortion removed
+	FastQueue<GrayF32> candidateSquares;
+	// true if a candidate passed all the checks performed before it's decoded
+	GrowQueue_B candidateValid = new GrowQueue_B();
 
-	// Used to compute/remove perspective distortion
-	private Estimate1ofEpipolar computeHomography = FactoryMultiView.homographyDLT(true);
-	private RefineEpipolar refineHomography = FactoryMultiView.homographyRefine(1e-4,100, EpipolarError.SAMPSON);
-	private DMatrixRMaj H = new DMatrixRMaj(3,3);
-	private DMatrixRMaj H_refined = new DMatrixRMaj(3,3);
-	private Homography2D_F64 H_fixed = new Homography2D_F64();
-	private List<AssociatedPair> pairsRemovePerspective = new ArrayList<>();
-	private ImageDistort<T,GrayF32> removePerspective;
-	private PointTransformHomography_F32 transformHomography = new PointTransformHomography_F32();
+	// Lens distortion model. null if there is none
+	private @Nullable LensDistortionNarrowFOV lensDistortion;
 
 	private Point2Transform2_F64 undistToDist = new DoNothing2Transform2_F64();
 
+	// If true then candidates will have their perspective removed concurrently
+	private boolean concurrent = false;
+
+	// If not null then only regions around previously found fiducials are thresholded
+	private @Nullable FiducialRegionTracker<T> regionTracker;
+
 	// How wide the border is relative to the fiducial's total width
 	protected double borderWidthFraction;
 	// the minimum fraction of border pixels which must be black for it to be considered a fiducial
@@ -148,20 +157,9 @@ public abstract class BaseDetectFiducialSquare<T extends ImageGray<T>> {
 		this.inputToBinary = inputToBinary;
 		this.squareDetector = squareDetector;
 		this.inputType = inputType;
-		this.square = new GrayF32(squarePixels,squarePixels);
-
-		for (int i = 0; i < 4; i++) {
-			pairsRemovePerspective.add(new AssociatedPair());
-		}
-
-		// this combines two separate sources of distortion together so that it can be removed in the final image which
-		// is sent to fiducial decoder
-		InterpolatePixelS<T> interp = FactoryInterpolation.nearestNeighborPixelS(inputType);
-		interp.setBorder(FactoryImageBorder.single(BorderType.EXTENDED, inputType));
-		removePerspective = FactoryDistort.distortSB(false, interp, GrayF32.class);
-
-		// if no camera parameters is specified default to this
-		removePerspective.setModel(new PointToPixelTransform_F32(transformHomography));
+		this.candidateSquares = new FastQueue<>(()->new GrayF32(squarePixels,squarePixels));
+		this.removePerspective = new RemovePerspective();
+		this.workers = new FastQueue<>(1,RemovePerspective::new);
 
 		BinaryContourFinder contourFinder = squareDetector.getDetector().getContourFinder();
 		contourHelper = new BinaryContourHelper(contourFinder,binaryCopy);
@@ -177,12 +175,13 @@ public abstract class BaseDetectFiducialSquare<T extends ImageGray<T>> {
 	 *              if no lens distortion
 	 */
 	public void configure(LensDistortionNarrowFOV distortion, int width , int height , boolean cache ) {
+		if( regionTracker != null )
+			regionTracker.reset();
 		if( distortion == null ) {
-			removePerspective.setModel(new PointToPixelTransform_F32(transformHomography));
+			setRemovePerspectiveDistortion(null);
 			squareDetector.setLensDistortion(width,height,null,null);
 			undistToDist = new DoNothing2Transform2_F64();
 		} else {
-			Point2Transform2_F32 pointSquareToInput;
 			Point2Transform2_F32 pointDistToUndist = distortion.undistort_F32(true, true);
 			Point2Transform2_F32 pointUndistToDist = distortion.distort_F32(true, true);
 			PixelTransform<Point2D_F32> distToUndist = new PointToPixelTransform_F32(pointDistToUndist);
@@ -202,18 +201,25 @@ public abstract class BaseDetectFiducialSquare<T extends ImageGray<T>> {
 
 				squareDetector.setLensDistortion(width, height, distToUndist, undistToDist);
 
-				pointSquareToInput = new SequencePoint2Transform2_F32(transformHomography, pointUndistToDist);
-
 				// provide intrinsic camera parameters
-				PixelTransform<Point2D_F32> squareToInput = new PointToPixelTransform_F32(pointSquareToInput);
-				removePerspective.setModel(squareToInput);
+				setRemovePerspectiveDistortion(distortion);
 
 				this.undistToDist = distortion.distort_F64(true, true);
 			}
 		}
 	}
 
-	private Polygon2D_F64 interpolationHack = new Polygon2D_F64(4);
+	/**
+	 * Passes the lens distortion model on to everything which removes perspective distortion
+	 */
+	private void setRemovePerspectiveDistortion( @Nullable LensDistortionNarrowFOV distortion ) {
+		this.lensDistortion = distortion;
+		removePerspective.setLensDistortion(distortion);
+		for (int i = 0; i < workers.data.length; i++) {
+			if( workers.data[i] != null )
+				workers.data[i].setLensDistortion(distortion);
+		}
+	}
 
 	List<Polygon2D_F64> candidates = new ArrayList<>();
 	List<DetectPolygonFromContour.Info> candidatesInfo = new ArrayList<>();
@@ -228,7 +234,10 @@ public abstract class BaseDetectFiducialSquare<T extends ImageGray<T>> {
 
 		contourHelper.reshape(gray.width,gray.height);
 
-		inputToBinary.process(gray,contourHelper.withoutPadding());
+		if( regionTracker == null )
+			inputToBinary.process(gray,contourHelper.withoutPadding());
+		else
+			regionTracker.threshold(inputToBinary,gray,contourHelper.withoutPadding());
 		squareDetector.process(gray,contourHelper.padded());
 		squareDetector.refineAll();
 		// These are in undistorted pixels
@@ -238,84 +247,42 @@ public abstract class BaseDetectFiducialSquare<T extends ImageGray<T>> {
 
 		if( verbose ) System.out.println("---------- Got Polygons! "+candidates.size());
 
-		for (int i = 0; i < candidates.size(); i++) {
-			// compute the homography from the input image to an undistorted square image
-			// If lens distortion has been specified this polygon will be in undistorted pixels
-			Polygon2D_F64 p = candidates.get(i);
-//			System.out.println(i+"  processing...  "+p.areaSimple()+" at "+p.get(0));
-
-			// sanity check before processing
-			if( !checkSideSize(p) ) {
-				if( verbose ) System.out.println("  rejected side aspect ratio or size");
-				continue;
-			}
-
-			// REMOVE EVENTUALLY  This is a hack around how interpolation is performed
-			// Using a surface integral instead would remove the need for this.  Basically by having it start
-			// interpolating from the lower extent it samples inside the image more
-			// A good unit test to see if this hack is no longer needed is to rotate the order of the polygon and
-			// see if it returns the same undistorted image each time
-			double best=Double.MAX_VALUE;
-			for (int j = 0; j < 4; j++) {
-				double found = p.get(0).normSq();
-				if( found < best ) {
-					best = found;
-					interpolationHack.set(p);
+		// Remove perspective distortion from each candidate. Candidates are independent of each other
+		candidateSquares.resize(candidates.size());
+		candidateValid.resize(candidates.size());
+		if( concurrent ) {
+			BoofConcurrency.loopBlocks(0,candidates.size(),workers,(worker,idx0,idx1)->{
+				for (int i = idx0; i < idx1; i++) {
+					candidateValid.data[i] = worker.process(gray,i);
 				}
-				UtilPolygons2D_F64.shiftDown(p);
-			}
-
-			p.set(interpolationHack);
-
-			// remember, visual clockwise isn't the same as math clockwise, hence
-			// counter clockwise visual to the clockwise quad
-			pairsRemovePerspective.get(0).set(0, 0, p.get(0).x, p.get(0).y);
-			pairsRemovePerspective.get(1).set( square.width ,      0        , p.get(1).x , p.get(1).y );
-			pairsRemovePerspective.get(2).set( square.width , square.height , p.get(2).x , p.get(2).y );
-			pairsRemovePerspective.get(3).set( 0            , square.height , p.get(3).x , p.get(3).y );
-
-			if( !computeHomography.process(pairsRemovePerspective,H) ) {
-				if( verbose ) System.out.println("  rejected initial homography");
-				continue;
+			});
+		} else {
+			for (int i = 0; i < candidates.size(); i++) {
+				candidateValid.data[i] = removePerspective.process(gray,i);
 			}
+		}
 
-			// refine homography estimate
-			if( !refineHomography.fitModel(pairsRemovePerspective,H,H_refined) ) {
-				if( verbose ) System.out.println("  rejected refine homography");
+		// Decode the fiducials in the same order as the candidates so that the output is deterministic
+		for (int i = 0; i < candidates.size(); i++) {
+			if( !candidateValid.data[i] )
 				continue;
-			}
-
-			// pass the found homography onto the image transform
-			ConvertDMatrixStruct.convert(H_refined,H_fixed);
-			ConvertFloatType.convert(H_fixed, transformHomography.getModel());
-
-			// TODO Improve how perspective is removed
-			// The current method introduces artifacts.  If the "square" is larger
-			// than the detected region and bilinear interpolation is used then pixels outside will// influence the
-			// value of pixels inside and shift things over.  this is all bad
-
-			// remove the perspective distortion and process it
-			removePerspective.apply(gray, square);
 
 			DetectPolygonFromContour.Info info = candidatesInfo.get(i);
-
-			// see if the black border is actually black
-			if( minimumBorderBlackFraction > 0 ) {
-				double pixelThreshold = (info.edgeInside + info.edgeOutside) / 2;
-				double foundFraction = computeFractionBoundary((float) pixelThreshold);
-				if( foundFraction < minimumBorderBlackFraction ) {
-					if( verbose ) System.out.println("  rejected black border fraction "+foundFraction);
-					continue;
-				}
-			}
-			if( processSquare(square,result,info.edgeInside,info.edgeOutside)) {
-				prepareForOutput(p,result);
+			if( processSquare(candidateSquares.get(i),result,info.edgeInside,info.edgeOutside)) {
+				prepareForOutput(candidates.get(i),result);
 
 				if( verbose ) System.out.println("  accepted!");
 			} else {
 				if( verbose ) System.out.println("  rejected process square");
 			}
 		}
+
+		if( regionTracker != null ) {
+			for (int i = 0; i < found.size; i++) {
+				regionTracker.addDetection(found.get(i).distortedPixels);
+			}
+			regionTracker.finishFrame();
+		}
 	}
 
 	/**
@@ -353,10 +320,11 @@ public abstract class BaseDetectFiducialSquare<T extends ImageGray<T>> {
 
 	/**
 	 * Computes the fraction of pixels inside the image border which are black
+	 * @param square Image of the candidate with perspective distortion removed
 	 * @param pixelThreshold Pixel's less than this value are considered black
 	 * @return fraction of border that's black
 	 */
-	protected double computeFractionBoundary( float pixelThreshold ) {
+	protected double computeFractionBoundary( GrayF32 square , float pixelThreshold ) {
 		// TODO ignore outer pixels from this computation.  Will require 8 regions (4 corners + top/bottom + left/right)
 		final int w = square.width;
 		int radius = (int) (w * borderWidthFraction);
@@ -464,6 +432,157 @@ public abstract class BaseDetectFiducialSquare<T extends ImageGray<T>> {
 		this.thresholdSideRatio = thresholdSideRatio;
 	}
 
+	public boolean isConcurrent() {
+		return concurrent;
+	}
+
+	/**
+	 * If true then perspective distortion will be removed from candidates using multiple threads. Decoding of the
+	 * undistorted image is done in a single thread since implementations of {@link #processSquare} are
+	 * not thread safe. Results are identical either way.
+	 */
+	public void setConcurrent(boolean concurrent) {
+		this.concurrent = concurrent;
+	}
+
+	public @Nullable FiducialRegionTracker<T> getRegionTracker() {
+		return regionTracker;
+	}
+
+	/**
+	 * Turns on region of interest tracking mode for video sequences. Only the regions around fiducials found in
+	 * the previous frame are thresholded, with a full image scan done periodically or when a fiducial is lost.
+	 *
+	 * @param regionTracker The tracker or null to process every frame independently
+	 */
+	public void setRegionTracker( @Nullable FiducialRegionTracker<T> regionTracker ) {
+		this.regionTracker = regionTracker;
+		if( regionTracker != null )
+			regionTracker.reset();
+	}
+
+	/**
+	 * Computes the homography from a candidate quadrilateral to the undistorted square image then renders it. Also
+	 * performs sanity checks which don't depend on the fiducial's encoding. Each thread needs its own instance.
+	 */
+	class RemovePerspective {
+		// Used to compute/remove perspective distortion
+		Estimate1ofEpipolar computeHomography = FactoryMultiView.homographyDLT(true);
+		RefineEpipolar refineHomography = FactoryMultiView.homographyRefine(1e-4,100, EpipolarError.SAMPSON);
+		DMatrixRMaj H = new DMatrixRMaj(3,3);
+		DMatrixRMaj H_refined = new DMatrixRMaj(3,3);
+		Homography2D_F64 H_fixed = new Homography2D_F64();
+		List<AssociatedPair> pairsRemovePerspective = new ArrayList<>();
+		ImageDistort<T,GrayF32> removePerspective;
+		PointTransformHomography_F32 transformHomography = new PointTransformHomography_F32();
+
+		Polygon2D_F64 interpolationHack = new Polygon2D_F64(4);
+
+		RemovePerspective() {
+			for (int i = 0; i < 4; i++) {
+				pairsRemovePerspective.add(new AssociatedPair());
+			}
+
+			// this combines two separate sources of distortion together so that it can be removed in the final
+			// image which is sent to fiducial decoder
+			InterpolatePixelS<T> interp = FactoryInterpolation.nearestNeighborPixelS(inputType);
+			interp.setBorder(FactoryImageBorder.single(BorderType.EXTENDED, inputType));
+			removePerspective = FactoryDistort.distortSB(false, interp, GrayF32.class);
+
+			setLensDistortion(lensDistortion);
+		}
+
+		void setLensDistortion( @Nullable LensDistortionNarrowFOV distortion ) {
+			if( distortion == null ) {
+				removePerspective.setModel(new PointToPixelTransform_F32(transformHomography));
+			} else {
+				Point2Transform2_F32 pointSquareToInput = new SequencePoint2Transform2_F32(
+						transformHomography, distortion.distort_F32(true, true));
+				removePerspective.setModel(new PointToPixelTransform_F32(pointSquareToInput));
+			}
+		}
+
+		/**
+		 * Removes perspective distortion from the candidate and saves the results into {@link #candidateSquares}
+		 *
+		 * @param gray Input image
+		 * @param which Index of the candidate
+		 * @return true if the candidate passed all the sanity checks
+		 */
+		boolean process( T gray , int which ) {
+			// compute the homography from the input image to an undistorted square image
+			// If lens distortion has been specified this polygon will be in undistorted pixels
+			Polygon2D_F64 p = candidates.get(which);
+			GrayF32 square = candidateSquares.get(which);
+
+			// sanity check before processing
+			if( !checkSideSize(p) ) {
+				if( verbose ) System.out.println("  rejected side aspect ratio or size");
+				return false;
+			}
+
+			// REMOVE EVENTUALLY  This is a hack around how interpolation is performed
+			// Using a surface integral instead would remove the need for this.  Basically by having it start
+			// interpolating from the lower extent it samples inside the image more
+			// A good unit test to see if this hack is no longer needed is to rotate the order of the polygon and
+			// see if it returns the same undistorted image each time
+			double best=Double.MAX_VALUE;
+			for (int j = 0; j < 4; j++) {
+				double found = p.get(0).normSq();
+				if( found < best ) {
+					best = found;
+					interpolationHack.set(p);
+				}
+				UtilPolygons2D_F64.shiftDown(p);
+			}
+
+			p.set(interpolationHack);
+
+			// remember, visual clockwise isn't the same as math clockwise, hence
+			// counter clockwise visual to the clockwise quad
+			pairsRemovePerspective.get(0).set(0, 0, p.get(0).x, p.get(0).y);
+			pairsRemovePerspective.get(1).set( square.width ,      0        , p.get(1).x , p.get(1).y );
+			pairsRemovePerspective.get(2).set( square.width , square.height , p.get(2).x , p.get(2).y );
+			pairsRemovePerspective.get(3).set( 0            , square.height , p.get(3).x , p.get(3).y );
+
+			if( !computeHomography.process(pairsRemovePerspective,H) ) {
+				if( verbose ) System.out.println("  rejected initial homography");
+				return false;
+			}
+
+			// refine homography estimate
+			if( !refineHomography.fitModel(pairsRemovePerspective,H,H_refined) ) {
+				if( verbose ) System.out.println("  rejected refine homography");
+				return false;
+			}
+
+			// pass the found homography onto the image transform
+			ConvertDMatrixStruct.convert(H_refined,H_fixed);
+			ConvertFloatType.convert(H_fixed, transformHomography.getModel());
+
+			// TODO Improve how perspective is removed
+			// The current method introduces artifacts.  If the "square" is larger
+			// than the detected region and bilinear interpolation is used then pixels outside will// influence the
+			// value of pixels inside and shift things over.  this is all bad
+
+			// remove the perspective distortion and process it
+			removePerspective.apply(gray, square);
+
+			DetectPolygonFromContour.Info info = candidatesInfo.get(which);
+
+			// see if the black border is actually black
+			if( minimumBorderBlackFraction > 0 ) {
+				double pixelThreshold = (info.edgeInside + info.edgeOutside) / 2;
+				double foundFraction = computeFractionBoundary(square,(float) pixelThreshold);
+				if( foundFraction < minimumBorderBlackFraction ) {
+					if( verbose ) System.out.println("  rejected black border fraction "+foundFraction);
+					return false;
+				}
+			}
+			return true;
+		}
+	}
+
 	public static class Result {
 		int which;
 		// length of one of the sides in world units
@@ -31,6 +31,7 @@ import boofcv.alg.fiducial.square.DetectFiducialSquareImage;
 import boofcv.alg.shapes.ellipse.BinaryEllipseDetectorPixel;
 import boofcv.alg.shapes.ellipse.EdgeIntensityEllipse;
 import boofcv.alg.shapes.polygon.DetectPolygonBinaryGrayRefine;
+import boofcv.concurrency.BoofConcurrency;
 import boofcv.factory.filter.binary.ConfigThreshold;
 import boofcv.factory.filter.binary.FactoryThresholdBinary;
 import boofcv.factory.filter.binary.ThresholdType;
@@ -79,6 +80,7 @@ public class FactoryFiducial {
 						configFiducial.borderWidthFraction, configFiducial.minimumBlackBorderFraction,
 						binary, squareDetector, imageType);
 		alg.setAmbiguityThreshold(configFiducial.ambiguousThreshold);
+		alg.setConcurrent(BoofConcurrency.USE_CONCURRENT);
 		return new SquareBinary_to_FiducialDetector<>(alg, configFiducial.targetWidth);
 	}
 
@@ -116,6 +118,7 @@ public class FactoryFiducial {
 		DetectFiducialSquareImage<T> alg = new DetectFiducialSquareImage<>(binary,
 				squareDetector, configFiducial.borderWidthFraction, configFiducial.minimumBlackBorderFraction,
 				configFiducial.maxErrorFraction, imageType);
+		alg.setConcurrent(BoofConcurrency.USE_CONCURRENT);
 
 		return new SquareImage_to_FiducialDetector<>(alg);
 	}
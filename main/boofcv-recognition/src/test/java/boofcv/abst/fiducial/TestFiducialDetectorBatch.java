@@ -0,0 +1,153 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.abst.fiducial;
+
+import boofcv.alg.drawing.FiducialImageEngine;
+import boofcv.alg.fiducial.square.FiducialSquareGenerator;
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.factory.fiducial.ConfigFiducialBinary;
+import boofcv.factory.fiducial.FactoryFiducial;
+import boofcv.factory.filter.binary.ConfigThreshold;
+import boofcv.struct.image.GrayU8;
+import georegression.struct.point.Point2D_F64;
+import org.junit.jupiter.api.Test;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.atomic.AtomicInteger;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Peter Abeles
+ */
+class TestFiducialDetectorBatch {
+
+	/**
+	 * Results should be the same as processing each image with a single detector and be in the same order
+	 */
+	@Test
+	void compareToSequential() {
+		List<GrayU8> images = new ArrayList<>();
+		for (int i = 0; i < 20; i++) {
+			images.add(render(i%4,20+i*3,30+i*2));
+		}
+
+		FiducialDetector<GrayU8> expected = createDetector();
+		FiducialDetectorBatch<GrayU8,GrayU8> alg = new FiducialDetectorBatch<>(
+				TestFiducialDetectorBatch::createDetector, (src,storage)->src, 3, 5);
+
+		List<Integer> order = new ArrayList<>();
+		alg.process(images.iterator(), results -> {
+			order.add(results.index);
+			assertSame(images.get(results.index),results.source);
+			assertTrue(results.loaded);
+
+			expected.detect(results.source);
+			assertEquals(expected.totalFound(),results.detections.size);
+			assertEquals(1,results.detections.size);
+			for (int i = 0; i < expected.totalFound(); i++) {
+				FiducialDetectorBatch.Detection d = results.detections.get(i);
+				assertEquals(expected.getId(i),d.id);
+				Point2D_F64 center = new Point2D_F64();
+				expected.getCenter(i,center);
+				assertEquals(0.0,center.distance(d.center),1e-8);
+				assertEquals(4,d.bounds.size());
+				assertFalse(d.hasPose);
+			}
+		});
+
+		assertEquals(images.size(),order.size());
+		for (int i = 0; i < order.size(); i++) {
+			assertEquals(i,order.get(i).intValue());
+		}
+	}
+
+	/**
+	 * The number of images in flight should never exceed the maximum and images which can't be loaded
+	 * should be marked as such
+	 */
+	@Test
+	void backpressureAndFailedLoad() {
+		List<String> sources = new ArrayList<>();
+		for (int i = 0; i < 30; i++) {
+			sources.add(i%5 == 0 ? "bad" : "good");
+		}
+		GrayU8 image = render(2,20,30);
+
+		int maxPending = 4;
+		AtomicInteger inFlight = new AtomicInteger();
+		AtomicInteger maxInFlight = new AtomicInteger();
+		FiducialDetectorBatch<String,GrayU8> alg = new FiducialDetectorBatch<>(
+				TestFiducialDetectorBatch::createDetector, (src,storage)->{
+			maxInFlight.accumulateAndGet(inFlight.incrementAndGet(),Math::max);
+			if( src.equals("bad") )
+				return null;
+			storage.setTo(image);
+			return storage;
+		}, 2, maxPending);
+
+		AtomicInteger total = new AtomicInteger();
+		alg.process(sources.iterator(), results -> {
+			inFlight.decrementAndGet();
+			assertEquals(sources.get(results.index).equals("good"),results.loaded);
+			assertEquals(results.loaded ? 1 : 0,results.detections.size);
+			if( results.loaded )
+				assertEquals(2,results.detections.get(0).id);
+			total.incrementAndGet();
+		});
+
+		assertEquals(sources.size(),total.get());
+		assertTrue(maxInFlight.get() <= maxPending);
+	}
+
+	/**
+	 * Exceptions thrown while processing an image should be passed on to the caller
+	 */
+	@Test
+	void exceptionInLoader() {
+		List<String> sources = new ArrayList<>();
+		for (int i = 0; i < 10; i++) {
+			sources.add("image"+i);
+		}
+		FiducialDetectorBatch<String,GrayU8> alg = new FiducialDetectorBatch<>(
+				TestFiducialDetectorBatch::createDetector, (src,storage)->{
+			throw new IllegalArgumentException(src);
+		}, 2, 2);
+
+		assertThrows(IllegalArgumentException.class, ()->alg.process(sources.iterator(), results -> fail("Huh")));
+	}
+
+	private static GrayU8 render( int id , int x0 , int y0 ) {
+		FiducialImageEngine render = new FiducialImageEngine();
+		render.configure(0,120);
+		FiducialSquareGenerator generator = new FiducialSquareGenerator(render);
+		generator.setMarkerWidth(120);
+		generator.generate(id,4);
+
+		GrayU8 image = new GrayU8(300,250);
+		ImageMiscOps.fill(image,255);
+		image.subimage(x0,y0,x0+120,y0+120).setTo(render.getGray());
+		return image;
+	}
+
+	private static FiducialDetector<GrayU8> createDetector() {
+		return FactoryFiducial.squareBinary(new ConfigFiducialBinary(1),ConfigThreshold.fixed(100),GrayU8.class);
+	}
+}
@@ -18,9 +18,23 @@
 
 package boofcv.abst.fiducial;
 
+import boofcv.alg.fiducial.FiducialRegionTracker;
+import boofcv.alg.fiducial.qrcode.QrCode;
+import boofcv.alg.fiducial.qrcode.QrCodeGeneratorImage;
+import boofcv.alg.fiducial.qrcode.QrCodePositionPatternDetector;
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.core.image.ConvertImage;
 import boofcv.factory.fiducial.ConfigQrCode;
 import boofcv.factory.fiducial.FactoryFiducial;
+import boofcv.factory.filter.binary.ConfigThreshold;
+import boofcv.factory.filter.binary.FactoryThresholdBinary;
+import boofcv.factory.shape.FactoryShapeDetector;
+import boofcv.misc.ProfileRecorder;
 import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.GrayU8;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
 
 public class TestQrCodePreciseDetector extends GenericQrCodeDetectorChecks {
 
@@ -30,4 +44,127 @@ public class TestQrCodePreciseDetector extends GenericQrCodeDetectorChecks {
 
 		return FactoryFiducial.qrcode(config,GrayF32.class);
 	}
+
+	/**
+	 * Every stage should be reported to the sink and nested inside of the detector's stage
+	 */
+	@Test
+	void profileSink() {
+		QrCodeGeneratorImage generator = new QrCodeGeneratorImage(4);
+		generator.render(expected);
+		GrayU8 marker = generator.getGray();
+		GrayF32 image = new GrayF32(marker.width+40,marker.height+40);
+		ImageMiscOps.fill(image,255);
+		image.subimage(20,20,20+marker.width,20+marker.height).setTo(ConvertImage.convert(marker,(GrayF32)null));
+
+		QrCodePreciseDetector<GrayF32> alg = (QrCodePreciseDetector<GrayF32>)createDetector();
+		ProfileRecorder recorder = new ProfileRecorder();
+		alg.setProfileSink(recorder);
+		alg.process(image);
+		alg.process(image);
+
+		assertEquals(1,alg.getDetections().size());
+		for( String path : new String[]{"qrcode","qrcode/contour","qrcode/shapes",
+				"qrcode/adjust_bias","qrcode/position_patterns","qrcode/decoding"}) {
+			assertEquals(2,recorder.lookup(path).getLatency().getCount(),path);
+		}
+		assertEquals(2,recorder.lookup("qrcode").getCount("found"));
+		// thresholding is done inside the contour stage
+		assertNull(recorder.lookup("qrcode/binary"));
+
+		// With region tracking the image is thresholded in its own stage
+		recorder.reset();
+		alg.setRegionTracker(new FiducialRegionTracker<>());
+		alg.process(image);
+		assertEquals(1,alg.getDetections().size());
+		for( String path : new String[]{"qrcode","qrcode/binary","qrcode/contour","qrcode/shapes",
+				"qrcode/adjust_bias","qrcode/position_patterns","qrcode/decoding"}) {
+			assertEquals(1,recorder.lookup(path).getLatency().getCount(),path);
+		}
+	}
+
+	/**
+	 * Thresholding while finding contours should produce the same results as doing it in separate stages
+	 */
+	@Test
+	void fusedThresholdContours() {
+		QrCodeGeneratorImage generator = new QrCodeGeneratorImage(4);
+		generator.render(expected);
+		GrayF32 marker = ConvertImage.convert(generator.getGray(),(GrayF32)null);
+		GrayF32 image = new GrayF32(marker.width+60,marker.height+50);
+		ImageMiscOps.fill(image,255);
+		image.subimage(25,20,25+marker.width,20+marker.height).setTo(marker);
+
+		for( ConfigThreshold threshold : new ConfigThreshold[]{ConfigThreshold.fixed(125),new ConfigQrCode().threshold}) {
+			ConfigQrCode config = new ConfigQrCode();
+			config.threshold = threshold;
+
+			QrCodePreciseDetector<GrayF32> fused = FactoryFiducial.qrcode(config,GrayF32.class);
+			QrCodePreciseDetector<GrayF32> separate = new QrCodePreciseDetector<>(
+					FactoryThresholdBinary.threshold(config.threshold,GrayF32.class),
+					new QrCodePositionPatternDetector<>(FactoryShapeDetector.polygon(config.polygon,GrayF32.class),
+							config.versionMaximum),
+					config.forceEncoding,true,GrayF32.class);
+			assertNotNull(fused.thresholdContours);
+			assertNull(separate.thresholdContours);
+
+			fused.process(image);
+			separate.process(image);
+
+			assertEquals(1,fused.getDetections().size());
+			assertEquals(1,separate.getDetections().size());
+			QrCode a = fused.getDetections().get(0);
+			QrCode b = separate.getDetections().get(0);
+			assertEquals(a.message,b.message);
+			for (int i = 0; i < 4; i++) {
+				assertEquals(0.0,a.bounds.get(i).distance(b.bounds.get(i)),1e-8);
+			}
+			assertEquals(separate.getSquareDetector().getPolygonInfo().size(),
+					fused.getSquareDetector().getPolygonInfo().size());
+			assertEquals(fused.thresholdContours.getBinary(),fused.getBinary());
+		}
+	}
+
+	/**
+	 * Tracking regions of interest should produce the same results as processing the entire image
+	 */
+	@Test
+	void regionTracker() {
+		QrCodeGeneratorImage generator = new QrCodeGeneratorImage(4);
+		generator.render(expected);
+		GrayF32 marker = ConvertImage.convert(generator.getGray(),(GrayF32)null);
+		GrayF32 image = new GrayF32(marker.width*3,marker.height*2);
+
+		ConfigQrCode config = new ConfigQrCode();
+		config.threshold = ConfigThreshold.fixed(125);
+		QrCodePreciseDetector<GrayF32> full = FactoryFiducial.qrcode(config,GrayF32.class);
+		QrCodePreciseDetector<GrayF32> alg = FactoryFiducial.qrcode(config,GrayF32.class);
+		FiducialRegionTracker<GrayF32> tracker = new FiducialRegionTracker<>();
+		tracker.setFullScanPeriod(3);
+		alg.setRegionTracker(tracker);
+
+		boolean[] fullScan = new boolean[]{true,false,false,true,false};
+		for (int frame = 0; frame < fullScan.length; frame++) {
+			ImageMiscOps.fill(image,255);
+			int x0 = 20+frame*4, y0 = 30+frame*2;
+			image.subimage(x0,y0,x0+marker.width,y0+marker.height).setTo(marker);
+
+			full.process(image);
+			alg.process(image);
+			assertEquals(fullScan[frame],tracker.isFullScan());
+			assertEquals(1,full.getDetections().size());
+			assertEquals(1,alg.getDetections().size());
+
+			QrCode a = full.getDetections().get(0);
+			QrCode b = alg.getDetections().get(0);
+			assertEquals(a.message,b.message);
+			for (int i = 0; i < 4; i++) {
+				assertEquals(0.0,a.bounds.get(i).distance(b.bounds.get(i)),1e-8);
+			}
+		}
+
+		// only the region around the QR Code should have been thresholded
+		assertEquals(1,tracker.getRegions().size);
+		assertEquals(0,alg.getBinary().get(image.width-1,image.height-1));
+	}
 }
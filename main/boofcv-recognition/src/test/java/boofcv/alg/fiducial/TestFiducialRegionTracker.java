@@ -0,0 +1,185 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.fiducial;
+
+import boofcv.abst.filter.binary.InputToBinary;
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.struct.ImageRectangle;
+import boofcv.struct.image.GrayU8;
+import boofcv.struct.image.ImageType;
+import georegression.struct.shapes.Polygon2D_F64;
+import org.junit.jupiter.api.Test;
+
+import static org.junit.jupiter.api.Assertions.*;
+
+/**
+ * @author Peter Abeles
+ */
+class TestFiducialRegionTracker {
+
+	GrayU8 gray = new GrayU8(200,150);
+	GrayU8 binary = new GrayU8(200,150);
+	DummyBinary inputToBinary = new DummyBinary();
+
+	/**
+	 * Full scans should be done when nothing is being tracked and periodically
+	 */
+	@Test
+	void fullScanSchedule() {
+		FiducialRegionTracker<GrayU8> alg = new FiducialRegionTracker<>();
+		alg.setFullScanPeriod(3);
+
+		// nothing to track so it should always do a full scan
+		for (int i = 0; i < 3; i++) {
+			alg.threshold(inputToBinary,gray,binary);
+			alg.finishFrame();
+			assertTrue(alg.isFullScan());
+		}
+
+		boolean[] expected = new boolean[]{true,false,false,true,false,false,true};
+		for (int i = 0; i < expected.length; i++) {
+			alg.threshold(inputToBinary,gray,binary);
+			alg.addDetection(square(50,40,20));
+			alg.finishFrame();
+			assertEquals(expected[i],alg.isFullScan());
+		}
+	}
+
+	/**
+	 * If a marker isn't found when tracking then the next frame should be a full scan
+	 */
+	@Test
+	void lostTrack() {
+		FiducialRegionTracker<GrayU8> alg = new FiducialRegionTracker<>();
+
+		alg.threshold(inputToBinary,gray,binary);
+		alg.addDetection(square(50,40,20));
+		alg.addDetection(square(150,100,20));
+		alg.finishFrame();
+		assertTrue(alg.isFullScan());
+
+		// only one of the two are found
+		alg.threshold(inputToBinary,gray,binary);
+		alg.addDetection(square(50,40,20));
+		alg.finishFrame();
+		assertFalse(alg.isFullScan());
+
+		alg.threshold(inputToBinary,gray,binary);
+		alg.addDetection(square(50,40,20));
+		alg.finishFrame();
+		assertTrue(alg.isFullScan());
+
+		// Only one is being tracked now so this should be fine
+		alg.threshold(inputToBinary,gray,binary);
+		alg.addDetection(square(50,40,20));
+		alg.finishFrame();
+		assertFalse(alg.isFullScan());
+	}
+
+	/**
+	 * Only pixels inside the regions should be thresholded and the rest set to zero
+	 */
+	@Test
+	void threshold_regions() {
+		FiducialRegionTracker<GrayU8> alg = new FiducialRegionTracker<>();
+		alg.setExpandFraction(0.5);
+		alg.setExpandMinimum(2);
+
+		alg.threshold(inputToBinary,gray,binary);
+		alg.addDetection(square(50,40,20));
+		alg.finishFrame();
+
+		ImageMiscOps.fill(binary,2);
+		inputToBinary.count = 0;
+		alg.threshold(inputToBinary,gray,binary);
+		assertFalse(alg.isFullScan());
+		assertEquals(1,inputToBinary.count);
+		assertEquals(1,alg.getRegions().size);
+
+		// bounds are from 50 to 70 and expanded by 10 pixels
+		ImageRectangle r = alg.getRegions().get(0);
+		assertEquals(40,r.x0);
+		assertEquals(30,r.y0);
+		assertEquals(81,r.x1);
+		assertEquals(71,r.y1);
+
+		for (int y = 0; y < binary.height; y++) {
+			for (int x = 0; x < binary.width; x++) {
+				boolean inside = x >= r.x0 && x < r.x1 && y >= r.y0 && y < r.y1;
+				assertEquals(inside ? 1 : 0,binary.get(x,y));
+			}
+		}
+	}
+
+	/**
+	 * Overlapping regions are merged and regions are clipped by the image border
+	 */
+	@Test
+	void predictRegions() {
+		FiducialRegionTracker<GrayU8> alg = new FiducialRegionTracker<>();
+		alg.setExpandFraction(0.0);
+		alg.setExpandMinimum(5);
+		alg.width = 200;
+		alg.height = 150;
+
+		alg.previous.grow().set(10,10,30,30);
+		alg.previous.grow().set(150,100,170,120);
+		alg.previous.grow().set(32,12,40,20);
+		alg.previous.grow().set(190,-10,220,20);
+		alg.predictRegions();
+
+		assertEquals(3,alg.regions.size);
+		assertTrue(contains(alg,5,5,46,36));
+		assertTrue(contains(alg,145,95,176,126));
+		assertTrue(contains(alg,185,0,200,26));
+	}
+
+	private static boolean contains( FiducialRegionTracker<?> alg , int x0 , int y0 , int x1 , int y1 ) {
+		for (int i = 0; i < alg.regions.size; i++) {
+			ImageRectangle r = alg.regions.get(i);
+			if( r.x0 == x0 && r.y0 == y0 && r.x1 == x1 && r.y1 == y1 )
+				return true;
+		}
+		return false;
+	}
+
+	private static Polygon2D_F64 square( double x0 , double y0 , double width ) {
+		return new Polygon2D_F64(x0,y0, x0+width,y0, x0+width,y0+width, x0,y0+width);
+	}
+
+	/**
+	 * Sets every pixel to 1 and counts how many times it was called
+	 */
+	private static class DummyBinary implements InputToBinary<GrayU8> {
+		int count = 0;
+
+		@Override
+		public void process(GrayU8 input, GrayU8 output) {
+			assertEquals(input.width,output.width);
+			assertEquals(input.height,output.height);
+			ImageMiscOps.fill(output,1);
+			count++;
+		}
+
+		@Override
+		public ImageType<GrayU8> getInputType() {
+			return ImageType.single(GrayU8.class);
+		}
+	}
+}
@@ -0,0 +1,110 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.fiducial.calib.chess;
+
+import boofcv.alg.feature.detect.chess.ChessboardCorner;
+import boofcv.alg.feature.detect.chess.DetectChessboardCornersXPyramid;
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.ImageType;
+import org.ddogleg.struct.FastQueue;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+import java.util.Random;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+class TestChessboardCornerClusterFinder_MT {
+	Random rand = new Random(234);
+
+	/**
+	 * Compare results against the single threaded version. Two chessboards and noise ensure that there are
+	 * multiple clusters and edges which get pruned.
+	 */
+	@Test
+	void compareToSingle() {
+		// make sure the work is split between multiple threads
+		int before = BoofConcurrency.getMaxThreads();
+		BoofConcurrency.setMaxThreads(4);
+		try {
+			GrayF32 image = new GrayF32(640,480);
+			ImageMiscOps.fill(image,150);
+			renderChessboard(image,20,30,7,9,25);
+			renderChessboard(image,300,250,5,6,30);
+			ImageMiscOps.addGaussian(image,rand,5,0,255);
+
+			DetectChessboardCornersXPyramid<GrayF32> detector =
+					new DetectChessboardCornersXPyramid<>(ImageType.single(GrayF32.class));
+			detector.process(image);
+			List<ChessboardCorner> corners = detector.getCorners().toList();
+			assertTrue(corners.size() > 60);
+
+			ChessboardCornerClusterFinder<GrayF32> expected = new ChessboardCornerClusterFinder<>(GrayF32.class);
+			ChessboardCornerClusterFinder_MT<GrayF32> alg = new ChessboardCornerClusterFinder_MT<>(GrayF32.class);
+
+			// process multiple times to make sure internal data structures are correctly reset
+			for (int trial = 0; trial < 2; trial++) {
+				expected.process(image,corners,detector.getNumberOfLevels());
+				alg.process(image,corners,detector.getNumberOfLevels());
+
+				assertEquals(expected.lines.size,alg.lines.size);
+				for (int i = 0; i < expected.lines.size; i++) {
+					assertEquals(expected.lines.get(i).intensity,alg.lines.get(i).intensity);
+				}
+
+				FastQueue<ChessboardCornerGraph> clustersA = expected.getOutputClusters();
+				FastQueue<ChessboardCornerGraph> clustersB = alg.getOutputClusters();
+				assertEquals(2,clustersA.size);
+				assertEquals(clustersA.size,clustersB.size);
+				for (int i = 0; i < clustersA.size; i++) {
+					FastQueue<ChessboardCornerGraph.Node> nodesA = clustersA.get(i).corners;
+					FastQueue<ChessboardCornerGraph.Node> nodesB = clustersB.get(i).corners;
+					assertEquals(nodesA.size,nodesB.size);
+					for (int j = 0; j < nodesA.size; j++) {
+						ChessboardCornerGraph.Node a = nodesA.get(j);
+						ChessboardCornerGraph.Node b = nodesB.get(j);
+						assertEquals(a.index,b.index);
+						assertEquals(0.0,a.distance(b));
+						for (int k = 0; k < 4; k++) {
+							assertEquals(a.edges[k] == null, b.edges[k] == null);
+							if( a.edges[k] != null )
+								assertEquals(a.edges[k].index,b.edges[k].index);
+						}
+					}
+				}
+			}
+		} finally {
+			BoofConcurrency.setMaxThreads(before);
+		}
+	}
+
+	private static void renderChessboard( GrayF32 image, int x0, int y0, int rows, int cols, int squareLength ) {
+		for (int row = 0; row < rows; row++) {
+			for (int col = row%2; col < cols; col += 2) {
+				ImageMiscOps.fillRectangle(image,20,x0+col*squareLength,y0+row*squareLength,squareLength,squareLength);
+			}
+		}
+	}
+}
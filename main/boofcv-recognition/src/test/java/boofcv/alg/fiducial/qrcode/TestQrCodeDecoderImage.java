@@ -326,7 +326,7 @@ public class TestQrCodeDecoderImage {
 		assertTrue(qr.ppDown.get(0).distance(0,5) < UtilEjml.TEST_F64);
 	}
 
-	private static void connect( PositionPatternNode a , PositionPatternNode b , int sideA , int sideB ) {
+	static void connect( PositionPatternNode a , PositionPatternNode b , int sideA , int sideB ) {
 		SquareEdge e = new SquareEdge(a,b,3,1);
 		a.edges[sideA] = b.edges[sideB] = e;
 	}
@@ -0,0 +1,139 @@
+/*
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
+ *
+ * This file is part of BoofCV (http://boofcv.org).
+ *
+ * Licensed under the Apache License, Version 2.0 (the "License");
+ * you may not use this file except in compliance with the License.
+ * You may obtain a copy of the License at
+ *
+ *   http://www.apache.org/licenses/LICENSE-2.0
+ *
+ * Unless required by applicable law or agreed to in writing, software
+ * distributed under the License is distributed on an "AS IS" BASIS,
+ * WITHOUT WARRANTIES OR CONDITIONS OF ANY KIND, either express or implied.
+ * See the License for the specific language governing permissions and
+ * limitations under the License.
+ */
+
+package boofcv.alg.fiducial.qrcode;
+
+import boofcv.abst.fiducial.QrCodePreciseDetector;
+import boofcv.alg.misc.ImageMiscOps;
+import boofcv.concurrency.BoofConcurrency;
+import boofcv.factory.fiducial.ConfigQrCode;
+import boofcv.factory.fiducial.FactoryFiducial;
+import boofcv.struct.image.GrayF32;
+import boofcv.struct.image.GrayU8;
+import georegression.struct.shapes.Polygon2D_F64;
+import org.ddogleg.struct.FastQueue;
+import org.junit.jupiter.api.Test;
+
+import java.util.List;
+
+import static org.junit.jupiter.api.Assertions.assertEquals;
+import static org.junit.jupiter.api.Assertions.assertTrue;
+
+/**
+ * @author Peter Abeles
+ */
+class TestQrCodeDecoderImage_MT {
+
+	/**
+	 * Decode an image with several QR Codes, one of which is damaged, and compare to the single thread version
+	 */
+	@Test
+	void compareToSingle() {
+		// Make sure the candidates are split between multiple workers
+		int before = BoofConcurrency.getMaxThreads();
+		BoofConcurrency.setMaxThreads(4);
+		try {
+			GrayU8 image = new GrayU8(600,400);
+			ImageMiscOps.fill(image,255);
+
+			for (int i = 0; i < 6; i++) {
+				QrCode qr = new QrCodeEncoder().setVersion(1+i%3).addAutomatic("message "+i).fixate();
+				GrayU8 marker = new QrCodeGeneratorImage(4).render(qr).getGray();
+				int x0 = 20 + (i%3)*190, y0 = 20 + (i/3)*190;
+				image.subimage(x0,y0,x0+marker.width,y0+marker.height).setTo(marker);
+			}
+			// damage the data region in one of them so that it fails to decode
+			ImageMiscOps.fillRectangle(image,0,254,64,60,32);
+
+			QrCodePreciseDetector<GrayU8> detector = FactoryFiducial.qrcode(new ConfigQrCode(),GrayU8.class);
+			detector.process(image);
+			FastQueue<PositionPatternNode> pps = detector.getDetectPositionPatterns().getPositionPatterns();
+
+			QrCodeDecoderImage<GrayU8> expected = new QrCodeDecoderImage<>(null,GrayU8.class);
+			QrCodeDecoderImage_MT<GrayU8> alg = new QrCodeDecoderImage_MT<>(null,GrayU8.class);
+
+			// process it multiple times to make sure the workers are correctly recycled
+			for (int trial = 0; trial < 2; trial++) {
+				expected.process(pps,image);
+				alg.process(pps,image);
+
+				assertEquals(5,expected.getFound().size());
+				assertTrue(expected.getFailures().size() > 0);
+				compare(expected.getFound(),alg.getFound());
+				compare(expected.getFailures(),alg.getFailures());
+			}
+		} finally {
+			BoofConcurrency.setMaxThreads(before);
+		}
+	}
+
+	/**
+	 * Lens distortion needs to be passed on to workers which have already been created
+	 */
+	@Test
+	void withLensDistortion() {
+		// Make sure the candidates are split between multiple workers
+		int before = BoofConcurrency.getMaxThreads();
+		BoofConcurrency.setMaxThreads(4);
+		try {
+			QrCodeDistortedChecks helper = new QrCodeDistortedChecks();
+			helper.render();
+
+			FastQueue<PositionPatternNode> pps = new FastQueue<>(PositionPatternNode::new);
+			for (int i = 0; i < 3; i++) {
+				pps.grow().square = new Polygon2D_F64(4);
+				pps.get(i).grayThreshold = 125;
+			}
+			helper.setLocation(pps.get(0).square,pps.get(1).square,pps.get(2).square);
+			TestQrCodeDecoderImage.connect(pps.get(2),pps.get(1),3,1);
+			TestQrCodeDecoderImage.connect(pps.get(0),pps.get(1),0,2);
+
+			QrCodeDecoderImage_MT<GrayF32> alg = new QrCodeDecoderImage_MT<>(null,GrayF32.class);
+			alg.process(pps,helper.image);
+			assertEquals(0, alg.getFound().size());
+
+			alg.setLensDistortion(helper.image.width,helper.image.height,helper.distortion);
+			for (int i = 0; i < pps.size; i++) {
+				helper.distToUndist(pps.get(i).square);
+			}
+			alg.process(pps,helper.image);
+
+			assertEquals(1,alg.getFound().size());
+			assertEquals("123",alg.getFound().get(0).message);
+		} finally {
+			BoofConcurrency.setMaxThreads(before);
+		}
+	}
+
+	private static void compare( List<QrCode> expected , List<QrCode> found ) {
+		assertEquals(expected.size(),found.size());
+		for (int i = 0; i < expected.size(); i++) {
+			QrCode a = expected.get(i);
+			QrCode b = found.get(i);
+
+			assertEquals(a.failureCause,b.failureCause);
+			assertEquals(a.version,b.version);
+			assertEquals(a.message,b.message);
+			for (int j = 0; j < 4; j++) {
+				assertEquals(0.0,a.bounds.get(j).distance(b.bounds.get(j)));
+			}
+			assertEquals(a.Hinv.a11,b.Hinv.a11);
+			assertEquals(a.Hinv.a23,b.Hinv.a23);
+		}
+	}
+}
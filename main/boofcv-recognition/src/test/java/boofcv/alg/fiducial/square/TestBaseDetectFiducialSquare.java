@@ -1,5 +1,5 @@
 /*
- * Copyright (c) 2011-2019, Peter Abeles. All Rights Reserved.
+ * Copyright (c) 2011-2020, Peter Abeles. All Rights Reserved.
  *
  * This file is part of BoofCV (http://boofcv.org).
  *
@@ -20,8 +20,13 @@ package boofcv.alg.fiducial.square;
 
 import boofcv.alg.distort.brown.LensDistortionBrown;
 import boofcv.alg.misc.GImageMiscOps;
+import boofcv.alg.fiducial.FiducialRegionTracker;
 import boofcv.alg.misc.ImageMiscOps;
+import boofcv.concurrency.BoofConcurrency;
 import boofcv.core.image.ConvertImage;
+import boofcv.factory.fiducial.ConfigFiducialBinary;
+import boofcv.factory.fiducial.FactoryFiducial;
+import boofcv.factory.filter.binary.ConfigThreshold;
 import boofcv.factory.filter.binary.FactoryThresholdBinary;
 import boofcv.factory.shape.ConfigPolygonDetector;
 import boofcv.factory.shape.FactoryShapeDetector;
@@ -35,6 +40,7 @@ import org.junit.jupiter.api.Test;
 
 import java.util.ArrayList;
 import java.util.List;
+import java.util.Random;
 
 import static org.junit.jupiter.api.Assertions.assertEquals;
 import static org.junit.jupiter.api.Assertions.assertTrue;
@@ -96,16 +102,119 @@ public class TestBaseDetectFiducialSquare {
 		Dummy alg = new Dummy();
 
 		alg.borderWidthFraction = 0.25;
-		alg.square.reshape(100, 100);
-		GImageMiscOps.fillRectangle(alg.square,200,25,25,50,50);
-		double found = alg.computeFractionBoundary(100);
+		GrayF32 square = new GrayF32(100, 100);
+		GImageMiscOps.fillRectangle(square,200,25,25,50,50);
+		double found = alg.computeFractionBoundary(square,100);
 		assertEquals(1.0, found, 1e-8);
 
-		GImageMiscOps.fillRectangle(alg.square,200,0,0,100,50);
-		found = alg.computeFractionBoundary(100);
+		GImageMiscOps.fillRectangle(square,200,0,0,100,50);
+		found = alg.computeFractionBoundary(square,100);
 		assertEquals(0.5, found, 1e-8);
 	}
 
+	/**
+	 * Removing perspective distortion concurrently should produce identical results
+	 */
+	@Test
+	void concurrent() {
+		// make sure the candidates are split between multiple workers
+		int before = BoofConcurrency.getMaxThreads();
+		BoofConcurrency.setMaxThreads(4);
+		try {
+			GrayU8 image = new GrayU8(500,340);
+			ImageMiscOps.fill(image,255);
+			for (int i = 0; i < 6; i++) {
+				GrayF32 marker = TestDetectFiducialSquareBinary.create(15,100+i*7);
+				// noise inside of one of the markers will cause it to fail
+				if( i == 4 )
+					ImageMiscOps.fillUniform(marker.subimage(30,30,90,90),new Random(234),0,255);
+				int x0 = 20 + (i%3)*160, y0 = 20 + (i/3)*160;
+				ConvertImage.convert(marker,image.subimage(x0,y0,x0+marker.width,y0+marker.height));
+			}
+
+			CameraPinholeBrown intrinsic = new CameraPinholeBrown(500,500,0,250,170,500,340).fsetRadial(-0.01,-0.02);
+			for( boolean lens : new boolean[]{false,true}) {
+				DetectFiducialSquareBinary<GrayU8> expected = createBinary();
+				DetectFiducialSquareBinary<GrayU8> alg = createBinary();
+				expected.setConcurrent(false);
+				alg.setConcurrent(true);
+				if( lens ) {
+					// workers should be updated even if they were created before the distortion was specified
+					alg.process(image);
+					expected.configure(new LensDistortionBrown(intrinsic),image.width,image.height,false);
+					alg.configure(new LensDistortionBrown(intrinsic),image.width,image.height,false);
+				}
+
+				for (int trial = 0; trial < 2; trial++) {
+					expected.process(image);
+					alg.process(image);
+
+					assertEquals(5,expected.getFound().size);
+					assertEquals(expected.getFound().size,alg.getFound().size);
+					for (int i = 0; i < expected.getFound().size; i++) {
+						FoundFiducial a = expected.getFound().get(i);
+						FoundFiducial b = alg.getFound().get(i);
+						assertEquals(a.id,b.id);
+						for (int j = 0; j < 4; j++) {
+							assertEquals(0.0,a.distortedPixels.get(j).distance(b.distortedPixels.get(j)));
+						}
+					}
+				}
+			}
+		} finally {
+			BoofConcurrency.setMaxThreads(before);
+		}
+	}
+
+	/**
+	 * When tracking regions of interest the results should be identical to processing the entire image, as
+	 * long as the markers don't move too far between frames
+	 */
+	@Test
+	void regionTracker() {
+		DetectFiducialSquareBinary<GrayU8> expected = createBinary();
+		DetectFiducialSquareBinary<GrayU8> alg = createBinary();
+		FiducialRegionTracker<GrayU8> tracker = new FiducialRegionTracker<>();
+		tracker.setFullScanPeriod(4);
+		alg.setRegionTracker(tracker);
+
+		GrayF32 markerA = TestDetectFiducialSquareBinary.create(15,100);
+		GrayF32 markerB = TestDetectFiducialSquareBinary.create(15,120);
+		GrayU8 image = new GrayU8(500,340);
+
+		boolean[] fullScan = new boolean[]{true,false,false,false,true,false,true};
+		for (int frame = 0; frame < fullScan.length; frame++) {
+			ImageMiscOps.fill(image,255);
+			int x0 = 20+frame*6, y0 = 30+frame*3;
+			ConvertImage.convert(markerA,image.subimage(x0,y0,x0+markerA.width,y0+markerA.height));
+			// The second marker disappears in the 5th frame, causing a full scan in the next frame
+			if( frame != 5 ) {
+				x0 = 300-frame*5;
+				ConvertImage.convert(markerB,image.subimage(x0,y0,x0+markerB.width,y0+markerB.height));
+			}
+
+			expected.process(image);
+			alg.process(image);
+			assertEquals(fullScan[frame],tracker.isFullScan());
+
+			assertEquals(frame == 5 ? 1 : 2, expected.getFound().size);
+			assertEquals(expected.getFound().size,alg.getFound().size);
+			for (int i = 0; i < expected.getFound().size; i++) {
+				FoundFiducial a = expected.getFound().get(i);
+				FoundFiducial b = alg.getFound().get(i);
+				assertEquals(a.id,b.id);
+				for (int j = 0; j < 4; j++) {
+					assertEquals(0.0,a.distortedPixels.get(j).distance(b.distortedPixels.get(j)),1e-8);
+				}
+			}
+		}
+	}
+
+	private static DetectFiducialSquareBinary<GrayU8> createBinary() {
+		return FactoryFiducial.squareBinary(new ConfigFiducialBinary(1),
+				ConfigThreshold.fixed(125),GrayU8.class).getAlgorithm();
+	}
+
 	public static class Dummy extends BaseDetectFiducialSquare<GrayU8> {
 
 		public List<GrayF32> detected = new ArrayList<>();
@@ -28,6 +28,8 @@ import boofcv.alg.sfm.d3.structure.VisOdomBundleAdjustment.BFrame;
 import boofcv.alg.sfm.d3.structure.VisOdomBundleAdjustment.BObservation;
 import boofcv.alg.sfm.d3.structure.VisOdomBundleAdjustment.BTrack;
 import boofcv.alg.sfm.d3.structure.VisOdomKeyFrameManager;
+import boofcv.misc.ProfilePrinter;
+import boofcv.misc.ProfileSink;
 import boofcv.struct.distort.Point2Transform2_F64;
 import georegression.struct.point.Point2D_F64;
 import georegression.struct.point.Point3D_F64;
@@ -98,8 +100,8 @@ public abstract class VisOdomBundlePnPBase<Track extends VisOdomBundleAdjustment
 	/** Triangulates points not optimized by bundle adjustment */
 	protected @Getter TriangulateNViewsMetric triangulateN;
 
-	// Internal profiling
-	protected @Getter @Setter PrintStream profileOut;
+	/** Where the time taken by each stage is reported to */
+	protected @Getter @Setter ProfileSink profileSink = ProfileSink.NONE;
 	// Verbose debug information
 	protected @Getter PrintStream verbose;
 
@@ -315,7 +317,7 @@ public abstract class VisOdomBundlePnPBase<Track extends VisOdomBundleAdjustment
 	@Override
 	public void setVerbose(@Nullable PrintStream out, @Nullable Set<String> configuration) {
 		// Default to no verbosity
-		this.profileOut = null;
+		this.profileSink = ProfileSink.NONE;
 		this.verbose = null;
 
 		// Update verbosity levels
@@ -324,8 +326,8 @@ public abstract class VisOdomBundlePnPBase<Track extends VisOdomBundleAdjustment
 			return;
 		}
 
-		if( configuration.contains(VisualOdometry.VERBOSE_RUNTIME))
-			this.profileOut = out;
+		if( configuration.contains(VisualOdometry.VERBOSE_RUNTIME) && out != null )
+			this.profileSink = new ProfilePrinter(out);
 		if( configuration.contains(VisualOdometry.VERBOSE_TRACKING))
 			this.verbose = out;
 	}
@@ -121,9 +121,6 @@ public class VisOdomDualTrackPnP<T extends ImageBase<T>,Desc extends TupleDesc>
 	/** List of tracks from left image that remain after geometric filters have been applied */
 	private @Getter final List<PointTrack> candidates = new ArrayList<>();
 
-	// Internal profiling
-	private @Getter double timeTracking,timeEstimate,timeBundle,timeDropUnused, timeSceneMaintenance,timeSpawn;
-
 	//---------------------------------------------------------------------------------------------------
 	//----------- Internal Work Space
 	FastQueue<Stereo2D3D> listStereo2D3D = new FastQueue<>(Stereo2D3D::new);
@@ -223,6 +220,15 @@ public class VisOdomDualTrackPnP<T extends ImageBase<T>,Desc extends TupleDesc>
 	 * @return true if motion estimate was updated and false if not
 	 */
 	public boolean process( T left , T right ) {
+		profileSink.startStage("visual_odometry");
+		try {
+			return processImages(left, right);
+		} finally {
+			profileSink.stopStage();
+		}
+	}
+
+	private boolean processImages( T left , T right ) {
 		if( verbose != null ) {
 			verbose.println("----------- Process --------------");
 			verbose.println("Scene: Frames=" + scene.frames.size + " Tracks=" + scene.tracks.size);
@@ -236,7 +242,6 @@ public class VisOdomDualTrackPnP<T extends ImageBase<T>,Desc extends TupleDesc>
 
 		//=============================================================================================
 		//========== Visually track features
-		double time0 = System.nanoTime();
 		inlierTracks.clear();
 		visibleTracks.clear();
 		initialVisible.clear();
@@ -248,9 +253,13 @@ public class VisOdomDualTrackPnP<T extends ImageBase<T>,Desc extends TupleDesc>
 		// TODO in the future when bundle adjustment supports rigid relationships between two views use that here
 
 		// Track objects given the new images
-		trackerLeft.process(left);
-		trackerRight.process(right);
-		double time1 = System.nanoTime();
+		profileSink.startStage("tracking");
+		try {
+			trackerLeft.process(left);
+			trackerRight.process(right);
+		} finally {
+			profileSink.stopStage();
+		}
 
 		//=============================================================================================
 		//========== Initialize VO from the first image and return
@@ -268,54 +277,65 @@ public class VisOdomDualTrackPnP<T extends ImageBase<T>,Desc extends TupleDesc>
 		// tail(3) since the two visible frames (left + right) where just added
 		previousLeft = scene.frames.getTail(3);
 
-		// If one tracker dropped a track then drop the same track in the other camera
-		mutualTrackDrop();
-		// Find tracks which pass a geometric test and put into candidates list
-		selectCandidateStereoTracks();
-		// Robustly estimate motion using features in candidates list
-		if( !estimateMotion() ) {
+		boolean success;
+		profileSink.startStage("estimate");
+		try {
+			// If one tracker dropped a track then drop the same track in the other camera
+			mutualTrackDrop();
+			// Find tracks which pass a geometric test and put into candidates list
+			selectCandidateStereoTracks();
+			// Robustly estimate motion using features in candidates list
+			success = estimateMotion();
+			if( success ) {
+				addInlierObservationsToScene();
+				removeOldUnusedVisibleTracks();
+			}
+		} finally {
+			profileSink.stopStage();
+		}
+
+		if( !success ) {
 			if( verbose != null ) verbose.println("!!! Motion Failed !!!");
 			removedBundleTracks.clear();
 			scene.removeFrame(currentRight,removedBundleTracks);
 			scene.removeFrame(currentLeft,removedBundleTracks);
 			return false;
 		}
-
-		addInlierObservationsToScene();
-		removeOldUnusedVisibleTracks();
+		profileSink.addCount("inliers",inlierTracks.size());
 
 		//=============================================================================================
 		//========== Refine the scene's state estimate
-		double time2 = System.nanoTime();
-		optimizeTheScene();
-		double time3 = System.nanoTime();
+		profileSink.startStage("bundle");
+		try {
+			optimizeTheScene();
+		} finally {
+			profileSink.stopStage();
+		}
 		//=============================================================================================
 		//========== Perform maintenance by dropping elements from the scene
-		dropBadBundleTracks();
-
-		long time4 = System.nanoTime();
-		boolean droppedCurrentFrame = performKeyFrameMaintenance(trackerLeft,2);
-		long time5 = System.nanoTime();
-		if( !droppedCurrentFrame ) {
-			if( verbose != null ) verbose.println("Saving new key frames");
-			// We are keeping the current frame! Spawn new tracks inside of it
-			addNewTracks();
+		profileSink.startStage("drop_unused");
+		try {
+			dropBadBundleTracks();
+		} finally {
+			profileSink.stopStage();
 		}
-		long time6 = System.nanoTime();
 
-		//=============================================================================================
-		//========== Summarize profiling results
-		timeTracking = (time1-time0)*1e-6;
-		timeEstimate = (time2-time1)*1e-6;
-		timeBundle = (time3-time2)*1e-6;
-		timeDropUnused = (time4-time3)*1e-6;
-		timeSceneMaintenance = (time5-time4)*1e-6;
-		timeSpawn = (time6-time5)*1e-6;
-
-		if( profileOut != null ) {
-			double timeTotal = (time6-time0)*1e-6;
-			profileOut.printf("TIME: TRK %5.1f Est %5.1f Bun %5.1f DU %5.1f Scene %5.1f Spn  %5.1f TOTAL %5.1f\n",
-					timeTracking, timeEstimate, timeBundle, timeDropUnused, timeSceneMaintenance,timeSpawn,timeTotal);
+		boolean droppedCurrentFrame;
+		profileSink.startStage("scene_maintenance");
+		try {
+			droppedCurrentFrame = performKeyFrameMaintenance(trackerLeft,2);
+		} finally {
+			profileSink.stopStage();
+		}
+		profileSink.startStage("spawn");
+		try {
+			if( !droppedCurrentFrame ) {
+				if( verbose != null ) verbose.println("Saving new key frames");
+				// We are keeping the current frame! Spawn new tracks inside of it
+				addNewTracks();
+			}
+		} finally {
+			profileSink.stopStage();
 		}
 
 		return true;
@@ -81,9 +81,6 @@ public class VisOdomMonoDepthPnP<T extends ImageBase<T>>
 	private final ModelMatcher<Se3_F64, Point2D3D> motionEstimator;
 	private final FastQueue<Point2D3D> observationsPnP = new FastQueue<>(Point2D3D::new);
 
-	// Internal profiling
-	private @Getter double timeTracking,timeEstimate,timeBundle,timeDropUnused, timeSceneMaintenance,timeSpawn;
-
 	//=================================================================
 	//======== Workspace Variables
 	List<PointTrack> tmpVisualTracks = new ArrayList<>();
@@ -135,13 +132,23 @@ public class VisOdomMonoDepthPnP<T extends ImageBase<T>>
 	 * @return true if successful or false if it failed
 	 */
 	public boolean process( T image ) {
-		timeTracking = timeBundle = timeSceneMaintenance = timeDropUnused = timeEstimate = timeSpawn = 0;
+		profileSink.startStage("visual_odometry");
+		try {
+			return processImage(image);
+		} finally {
+			profileSink.stopStage();
+		}
+	}
 
+	private boolean processImage( T image ) {
 		//=============================================================================================
 		//========== Visually track features
-		long time0 = System.nanoTime();
-		tracker.process(image);
-		long time1 = System.nanoTime();
+		profileSink.startStage("tracking");
+		try {
+			tracker.process(image);
+		} finally {
+			profileSink.stopStage();
+		}
 		verbosePrintTrackerSummary();
 
 		//=============================================================================================
@@ -162,12 +169,28 @@ public class VisOdomMonoDepthPnP<T extends ImageBase<T>>
 		//=============================================================================================
 		//========== Update the current motion estimate
 
-		// handle tracks that the visual tracker dropped
-		handleDroppedVisualTracks();
+		boolean success;
+		profileSink.startStage("estimate");
+		try {
+			// handle tracks that the visual tracker dropped
+			handleDroppedVisualTracks();
+
+			// Estimate motion
+			List<PointTrack> activeVisualTracks = tracker.getActiveTracks(null);
+			success = estimateMotion(activeVisualTracks);
+			if( success ) {
+				if( verbose != null ) verbose.println("   Inliers          "+motionEstimator.getMatchSet().size());
+
+				// what the name says and also marks the inliers as inliers
+				addObservationsOfInliersToScene(activeVisualTracks);
+				// Drop tracker tracks which aren't being used inside of the inlier set
+				removeOldUnusedVisibleTracks();
+			}
+		} finally {
+			profileSink.stopStage();
+		}
 
-		// Estimate motion
-		List<PointTrack> activeVisualTracks = tracker.getActiveTracks(null);
-		if( !estimateMotion(activeVisualTracks) ) {
+		if( !success ) {
 			if( verbose != null ) verbose.println("VO: estimate motion failed");
 			// discard the current frame and attempt to jump over it
 			scene.removeFrame(frameCurrent, removedBundleTracks);
@@ -175,46 +198,42 @@ public class VisOdomMonoDepthPnP<T extends ImageBase<T>>
 			updateListOfVisibleTracksForOutput();
 			return false;
 		}
-		if( verbose != null ) verbose.println("   Inliers          "+motionEstimator.getMatchSet().size());
-
-		// what the name says and also marks the inliers as inliers
-		addObservationsOfInliersToScene(activeVisualTracks);
-		// Drop tracker tracks which aren't being used inside of the inlier set
-		removeOldUnusedVisibleTracks();
+		profileSink.addCount("inliers",inlierTracks.size());
 
 		//=============================================================================================
 		//========== Refine the scene's state estimate
-		double time2 = System.nanoTime();
-		optimizeTheScene();
-		double time3 = System.nanoTime();
+		profileSink.startStage("bundle");
+		try {
+			optimizeTheScene();
+		} finally {
+			profileSink.stopStage();
+		}
 
 		//=============================================================================================
 		//========== Perform maintenance by dropping elements from the scene
-		dropBadBundleTracks();
+		profileSink.startStage("drop_unused");
+		try {
+			dropBadBundleTracks();
+		} finally {
+			profileSink.stopStage();
+		}
 		if( verbose != null ) verbose.println("   Bad Bundle Trk   "+ totalDroppedTracksBadBundle);
-		long time4 = System.nanoTime();
-		boolean droppedCurrentFrame = performKeyFrameMaintenance(tracker,1);
-		long time5 = System.nanoTime();
-		if( !droppedCurrentFrame ) {
-			// it decided to keep the current track. Spawn new tracks in the current frame
-			spawnNewTracksForNewKeyFrame(visibleTracks);
-			frameManager.handleSpawnedTracks(tracker, scene.cameras.getTail());
+		boolean droppedCurrentFrame;
+		profileSink.startStage("scene_maintenance");
+		try {
+			droppedCurrentFrame = performKeyFrameMaintenance(tracker,1);
+		} finally {
+			profileSink.stopStage();
 		}
-		long time6 = System.nanoTime();
-
-		//=============================================================================================
-		//========== Summarize profiling results
-		timeTracking = (time1-time0)*1e-6;
-		timeEstimate = (time2-time1)*1e-6;
-		timeBundle = (time3-time2)*1e-6;
-		timeDropUnused = (time4-time3)*1e-6;
-		timeSceneMaintenance = (time5-time4)*1e-6;
-		timeSpawn = (time6-time5)*1e-6;
-
-		if( profileOut != null ) {
-			double timeTotal = (time6-time0)*1e-6;
-			profileOut.printf("TIME: TRK %5.1f Est %5.1f Bun %5.1f DU %5.1f Scene %5.1f Spn  %5.1f TOTAL %5.1f\n",
-					timeTracking, timeEstimate, timeBundle, timeDropUnused, timeSceneMaintenance,timeSpawn,timeTotal);
+		profileSink.startStage("spawn");
+		try {
+			if( !droppedCurrentFrame ) {
+				// it decided to keep the current track. Spawn new tracks in the current frame
+				spawnNewTracksForNewKeyFrame(visibleTracks);
+				frameManager.handleSpawnedTracks(tracker, scene.cameras.getTail());
+			}
+		} finally {
+			profileSink.stopStage();
 		}
 
 //		bundle.sanityCheck();
@@ -32,6 +32,8 @@ import boofcv.factory.distort.LensDistortionFactory;
 import boofcv.factory.geo.ConfigTriangulation;
 import boofcv.factory.geo.FactoryMultiView;
 import boofcv.misc.ConfigConverge;
+import boofcv.misc.ProfilePrinter;
+import boofcv.misc.ProfileSink;
 import boofcv.struct.calib.StereoParameters;
 import boofcv.struct.distort.Point2Transform2_F64;
 import boofcv.struct.feature.AssociatedIndex;
@@ -136,8 +138,8 @@ public class VisOdomStereoQuadPnP<T extends ImageGray<T>,TD extends TupleDesc>
 	private long totalTracks;
 	private final GrowQueue_I32 keyToTrackIdx = new GrowQueue_I32();
 
-	// Internal profiling
-	protected @Getter @Setter PrintStream profileOut;
+	/** Where the time taken by each stage is reported to */
+	protected @Getter @Setter ProfileSink profileSink = ProfileSink.NONE;
 	// Verbose debug information
 	protected @Getter PrintStream verbose;
 
@@ -230,11 +232,28 @@ public class VisOdomStereoQuadPnP<T extends ImageGray<T>,TD extends TupleDesc>
 	 * @return true if motion was estimated and false if not
 	 */
 	public boolean process( T left , T right ) {
+		profileSink.startStage("visual_odometry");
+		try {
+			return processImages(left, right);
+		} finally {
+			profileSink.stopStage();
+		}
+	}
+
+	private boolean processImages( T left , T right ) {
 		frameID++;
-		long time0 = System.nanoTime();
-		detectFeatures(left,right);
-		long time1 = System.nanoTime();
-		associateL2R();
+		profileSink.startStage("detect");
+		try {
+			detectFeatures(left,right);
+		} finally {
+			profileSink.stopStage();
+		}
+		profileSink.startStage("associate_l2r");
+		try {
+			associateL2R();
+		} finally {
+			profileSink.stopStage();
+		}
 
 		if( frameID==0 ) {
 			if( verbose != null ) verbose.println("first frame");
@@ -242,15 +261,38 @@ public class VisOdomStereoQuadPnP<T extends ImageGray<T>,TD extends TupleDesc>
 			keyToTrackIdx.resize(featsLeft1.location[0].size);
 			keyToTrackIdx.fill(-1);
 		} else {
-			long time2 = System.nanoTime();
-			associateF2F();
-			long time3 = System.nanoTime();
-			cyclicConsistency();
-			putConsistentTracksIntoList();
+			profileSink.startStage("associate_f2f");
+			try {
+				associateF2F();
+			} finally {
+				profileSink.stopStage();
+			}
+			profileSink.startStage("cyclic");
+			try {
+				cyclicConsistency();
+				putConsistentTracksIntoList();
+			} finally {
+				profileSink.stopStage();
+			}
 
 			// Estimate the motion robustly
-			long time4 = System.nanoTime();
-			if ( !robustMotionEstimate()) {
+			boolean success;
+			Se3_F64 key_to_curr = null;
+			profileSink.startStage("estimate");
+			try {
+				success = robustMotionEstimate();
+				if( success ) {
+					key_to_curr = matcher.getModelParameters();
+					// get a better pose estimate
+					refineMotionEstimate(key_to_curr);
+					// get better feature locations
+					triangulateWithFourCameras(key_to_curr);
+				}
+			} finally {
+				profileSink.stopStage();
+			}
+
+			if ( !success ) {
 				if( verbose != null ) verbose.println("Failed to estimate motion");
 				// odds are that it's totally hosed and you should reset
 				// this will undo the most recent tracking results and if the features are still in view it might
@@ -258,37 +300,27 @@ public class VisOdomStereoQuadPnP<T extends ImageGray<T>,TD extends TupleDesc>
 				abortTrackingResetKeyFrame();
 				return false;
 			}
-			Se3_F64 key_to_curr = matcher.getModelParameters();
-			// get a better pose estimate
-			refineMotionEstimate(key_to_curr);
-			// get better feature locations
-			triangulateWithFourCameras(key_to_curr);
+			profileSink.addCount("inliers",matcher.getMatchSet().size());
 
 			// get the best estimate using bundle adjustment
-			long time5 = System.nanoTime();
-			performBundleAdjustment(key_to_curr);
+			profileSink.startStage("bundle");
+			try {
+				performBundleAdjustment(key_to_curr);
+			} finally {
+				profileSink.stopStage();
+			}
 
 			// Drop and update tracks in preperation for the next frame
-			long time6 = System.nanoTime();
-			performTrackMaintenance(key_to_curr);
+			profileSink.startStage("maintenance");
+			try {
+				performTrackMaintenance(key_to_curr);
+			} finally {
+				profileSink.stopStage();
+			}
 			// compound the just found motion with the previously found motion
 			key_to_curr.invert(curr_to_key);
 			prevLeft_to_world.set(left_to_world);
 			curr_to_key.concat(prevLeft_to_world, left_to_world);
-			long time7 = System.nanoTime();
-
-			if( profileOut != null ) {
-				double milliDet = (time1-time0)*1e-6;
-				double milliL2R = (time2-time1)*1e-6;
-				double milliF2F = (time3-time2)*1e-6;
-				double milliCyc = (time4-time3)*1e-6;
-				double milliEst = (time5-time4)*1e-6;
-				double milliBun = (time6-time5)*1e-6;
-				double milliMnt = (time7-time6)*1e-6;
-
-				profileOut.printf("TIME: Det %5.1f L2R %5.1f F2F %5.1f Cyc %5.1f Est %5.1f Bun %5.1f Mnt %5.1f Total: %5.1f\n",
-						milliDet,milliL2R,milliF2F,milliCyc,milliEst,milliBun,milliMnt,(time7-time0)*1e-6);
-			}
 		}
 
 		if( verbose != null ) {
@@ -777,7 +809,7 @@ public class VisOdomStereoQuadPnP<T extends ImageGray<T>,TD extends TupleDesc>
 	public void setVerbose(@Nullable PrintStream out, @Nullable Set<String> configuration) {
 		// Default to no verbose messages
 		this.verbose = null;
-		this.profileOut = null;
+		this.profileSink = ProfileSink.NONE;
 
 		// Update the level of verbosity based on the request
 		if( configuration == null ) {
@@ -785,8 +817,8 @@ public class VisOdomStereoQuadPnP<T extends ImageGray<T>,TD extends TupleDesc>
 			return;
 		}
 
-		if( configuration.contains(VisualOdometry.VERBOSE_RUNTIME))
-			this.profileOut = out;
+		if( configuration.contains(VisualOdometry.VERBOSE_RUNTIME) && out != null )
+			this.profileSink = new ProfilePrinter(out);
 		if( configuration.contains(VisualOdometry.VERBOSE_TRACKING))
 			this.verbose = out;
 	}
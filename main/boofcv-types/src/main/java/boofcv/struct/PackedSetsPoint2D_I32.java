@@ -127,6 +127,23 @@ public class PackedSetsPoint2D_I32 {
 		tail.length += 1;
 	}
 
+	/**
+	 * Adds a new set to the end which is a copy of a set in another instance
+	 *
+	 * @param src The instance the set is copied from
+	 * @param which Index of the set in src
+	 */
+	public void appendSet( PackedSetsPoint2D_I32 src , int which ) {
+		grow();
+		BlockIndexLength set = src.sets.get(which);
+		for (int i = 0; i < set.length; i++) {
+			int index = set.start + i*2;
+			int[] block = src.blocks.get(set.block + index/src.blockLength);
+			index %= src.blockLength;
+			addPointToTail(block[index],block[index+1]);
+		}
+	}
+
 	/**
 	 * Total number of points
 	 * @return
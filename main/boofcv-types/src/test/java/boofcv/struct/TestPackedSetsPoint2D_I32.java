@@ -147,6 +147,37 @@ public class TestPackedSetsPoint2D_I32 {
 		assertEquals(y,list.get(point).y);
 	}
 
+	@Test
+	public void appendSet() {
+		PackedSetsPoint2D_I32 src = new PackedSetsPoint2D_I32(6);
+		src.grow();
+		src.addPointToTail(1,2);
+		src.grow();
+		for (int i = 0; i < 7; i++) {
+			src.addPointToTail(i,i+10);
+		}
+
+		// use a different block size to make sure it's handled correctly
+		PackedSetsPoint2D_I32 alg = new PackedSetsPoint2D_I32(4);
+		alg.grow();
+		alg.addPointToTail(5,6);
+		alg.appendSet(src,1);
+		alg.appendSet(src,0);
+
+		assertEquals(3,alg.size());
+		assertEquals(9,alg.totalPoints());
+		List<Point2D_I32> found = alg.getSet(1);
+		assertEquals(7,found.size());
+		for (int i = 0; i < 7; i++) {
+			assertEquals(i,found.get(i).x);
+			assertEquals(i+10,found.get(i).y);
+		}
+		found = alg.getSet(2);
+		assertEquals(1,found.size());
+		assertEquals(1,found.get(0).x);
+		assertEquals(2,found.get(0).y);
+	}
+
 	@Test
 	public void writeOverSet() {
 		PackedSetsPoint2D_I32 alg = new PackedSetsPoint2D_I32(6);